@@ -0,0 +1,37 @@
+package org.fxsql.bench;
+
+import org.openjdk.jmh.Main;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point of the benchmarks JAR. Takes the usual JMH command line and always adds the GC
+ * profiler, so every result reports bytes allocated per operation next to its time.
+ * <p>
+ * {@code java -jar fxdb-bench/target/fxdb-bench.jar ResultConversion -p rows=100000}
+ */
+public final class BenchmarkRunner {
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions options = new CommandLineOptions(args);
+        if (options.shouldHelp() || options.shouldList() || options.shouldListWithParams()
+                || options.shouldListProfilers() || options.shouldListResultFormats()) {
+            Main.main(args);
+            return;
+        }
+
+        boolean gcProfiled = options.getProfilers().stream()
+                .anyMatch(p -> "gc".equals(p.getKlass()) || GCProfiler.class.getName().equals(p.getKlass()));
+        OptionsBuilder builder = new OptionsBuilder();
+        builder.parent(options);
+        if (!gcProfiled) {
+            builder.addProfiler(GCProfiler.class);
+        }
+        new Runner(builder.build()).run();
+    }
+}
@@ -0,0 +1,100 @@
+package org.fxsql.bench;
+
+import org.fxsql.DatabaseConnection;
+import org.fxsql.DatabaseConnectionFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+/**
+ * A throwaway SQLite or DuckDB database file for the benchmarks, opened through the app's own
+ * connection classes.
+ * <p>
+ * It holds {@code customers} and {@code orders}. Orders mix the column shapes real results
+ * have: integer keys, a low-cardinality status, mostly unique text, doubles, timestamps and
+ * a nullable column.
+ */
+final class EmbeddedDatabase implements AutoCloseable {
+
+    static final String ORDERS_QUERY = "SELECT * FROM orders";
+
+    private static final int CUSTOMERS = 1000;
+
+    private final Path directory;
+    private final DatabaseConnection connection;
+
+    private EmbeddedDatabase(Path directory, DatabaseConnection connection) {
+        this.directory = directory;
+        this.connection = connection;
+    }
+
+    /**
+     * Creates and fills a new database.
+     *
+     * @param type "sqlite" or "duckdb"
+     * @param rows Rows in {@code orders}
+     */
+    static EmbeddedDatabase create(String type, int rows) throws Exception {
+        Path directory = Files.createTempDirectory("fxdb-bench");
+        DatabaseConnection connection = DatabaseConnectionFactory.getConnection(type);
+        connection.connect(directory.resolve("bench." + ("duckdb".equals(type) ? "duckdb" : "db")).toString());
+
+        Connection conn = connection.getConnection();
+        boolean duckdb = "duckdb".equals(type);
+        String timestamp = duckdb ? "TIMESTAMP" : "TEXT";
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TABLE customers (id INTEGER PRIMARY KEY, name VARCHAR NOT NULL, "
+                    + "email VARCHAR UNIQUE, created_at " + timestamp + ")");
+            stmt.execute("CREATE TABLE orders (id INTEGER PRIMARY KEY, "
+                    + "customer_id INTEGER NOT NULL REFERENCES customers(id), status VARCHAR NOT NULL, "
+                    + "reference VARCHAR NOT NULL, amount DOUBLE, created_at " + timestamp + ", note VARCHAR)");
+            stmt.execute("CREATE INDEX orders_status ON orders(status)");
+
+            String numbers = duckdb
+                    ? "FROM range(1, %d + 1) t(i)"
+                    : "FROM (WITH RECURSIVE n(i) AS (SELECT 1 UNION ALL SELECT i + 1 FROM n WHERE i < %d) SELECT i FROM n)";
+            String created = duckdb
+                    ? "TIMESTAMP '2024-01-01 00:00:00' + INTERVAL (i) SECOND"
+                    : "datetime('2024-01-01 00:00:00', '+' || i || ' seconds')";
+            stmt.execute("INSERT INTO customers SELECT i, 'Customer ' || CAST(i AS VARCHAR), "
+                    + "'customer' || CAST(i AS VARCHAR) || '@example.com', " + created + " "
+                    + String.format(numbers, CUSTOMERS));
+            stmt.execute("INSERT INTO orders SELECT i, i % " + CUSTOMERS + " + 1, "
+                    + "CASE i % 4 WHEN 0 THEN 'NEW' WHEN 1 THEN 'PAID' WHEN 2 THEN 'SHIPPED' ELSE 'CANCELLED' END, "
+                    + "'ORD-' || CAST(i AS VARCHAR), i * 0.25, " + created + ", "
+                    + "CASE WHEN i % 10 = 0 THEN NULL ELSE 'note ' || CAST(i % 997 AS VARCHAR) END "
+                    + String.format(numbers, rows));
+        }
+        return new EmbeddedDatabase(directory, connection);
+    }
+
+    DatabaseConnection connection() {
+        return connection;
+    }
+
+    @Override
+    public void close() throws IOException {
+        connection.disconnect();
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    /**
+     * Reads the row count of {@code orders}, to check the fixture before measuring it.
+     */
+    int orderCount() throws SQLException {
+        return connection.executeStreamingQuery("SELECT count(*) FROM orders", 0, rs -> {
+            rs.next();
+            return rs.getInt(1);
+        });
+    }
+}
@@ -0,0 +1,65 @@
+package org.fxsql.bench;
+
+import javafx.event.EventHandler;
+import org.fxsql.events.DriverLoadedEvent;
+import org.fxsql.events.EventBus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishing an event to handlers that run on the caller's thread. Publishing itself should
+ * allocate nothing, whatever the number of handlers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventBusBenchmark {
+
+    @Param({"0", "1", "4"})
+    public int handlers;
+
+    private final List<EventHandler<DriverLoadedEvent>> registered = new ArrayList<>();
+    private DriverLoadedEvent event;
+    private long handled;
+
+    @Setup
+    public void setUp() {
+        event = new DriverLoadedEvent("org.sqlite.JDBC");
+        for (int i = 0; i < handlers; i++) {
+            EventHandler<DriverLoadedEvent> handler = e -> handled++;
+            EventBus.addEventHandler(DriverLoadedEvent.DRIVER_LOADED_EVENT, handler);
+            registered.add(handler);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        for (EventHandler<DriverLoadedEvent> handler : registered) {
+            EventBus.removeEventHandler(DriverLoadedEvent.DRIVER_LOADED_EVENT, handler);
+        }
+        registered.clear();
+    }
+
+    @Benchmark
+    public long fireEvent() {
+        EventBus.fireEvent(event);
+        return handled;
+    }
+}
@@ -0,0 +1,62 @@
+package org.fxsql.bench;
+
+import org.fxdb.plugin.sdk.db.Dialect;
+import org.fxsql.DatabaseConnection;
+import org.fxsql.dialect.DialectDetector;
+import org.fxsql.model.TableMetaData;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Catalog lookups that run on every table opened: the table's columns, keys and indexes, and
+ * the dialect check done before each read statement is created.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MetadataBenchmark {
+
+    @Param({"sqlite", "duckdb"})
+    public String database;
+
+    private EmbeddedDatabase db;
+    private DatabaseConnection connection;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        db = EmbeddedDatabase.create(database, 1000);
+        connection = db.connection();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        db.close();
+    }
+
+    @Benchmark
+    public TableMetaData tableMetaData() throws SQLException {
+        return connection.getTableMetaData("orders");
+    }
+
+    @Benchmark
+    public Dialect detectDialect() {
+        return DialectDetector.detect(connection.getConnection());
+    }
+}
@@ -0,0 +1,99 @@
+package org.fxsql.bench;
+
+import org.fxsql.DatabaseConnection;
+import org.fxsql.result.ResultBuffer;
+import org.fxsql.result.ResultStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Turning a query's {@link ResultSet} into rows, as the SQL editor and the table browser do.
+ * Each operation reads the whole {@code orders} table; divide {@code gc.alloc.rate.norm} by
+ * {@code rows} for the allocation per row.
+ * <p>
+ * {@link #boxedRows} is the list-of-lists conversion the editor used before {@link ResultBuffer},
+ * kept as the baseline.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResultConversionBenchmark {
+
+    @Param({"sqlite", "duckdb"})
+    public String database;
+
+    @Param({"1000", "100000"})
+    public int rows;
+
+    private EmbeddedDatabase db;
+    private DatabaseConnection connection;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        db = EmbeddedDatabase.create(database, rows);
+        connection = db.connection();
+        if (db.orderCount() != rows) {
+            throw new IllegalStateException("Fixture has " + db.orderCount() + " rows, expected " + rows);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        db.close();
+    }
+
+    @Benchmark
+    public ResultBuffer resultBuffer() throws SQLException {
+        return connection.executeStreamingQuery(EmbeddedDatabase.ORDERS_QUERY, 0,
+                rs -> ResultBuffer.from(rs, Integer.MAX_VALUE));
+    }
+
+    /**
+     * The SQL editor's path: a stream that publishes progress while it fills its buffer.
+     */
+    @Benchmark
+    public ResultBuffer resultStream() throws SQLException {
+        return connection.executeStreamingQuery(EmbeddedDatabase.ORDERS_QUERY, 0, rs -> {
+            ResultStream stream = new ResultStream(rs, Integer.MAX_VALUE);
+            stream.fetch(s -> {
+            });
+            return stream.getBuffer();
+        });
+    }
+
+    @Benchmark
+    public List<List<Object>> boxedRows() throws SQLException {
+        return connection.executeStreamingQuery(EmbeddedDatabase.ORDERS_QUERY, 0, rs -> {
+            int columnCount = rs.getMetaData().getColumnCount();
+            List<List<Object>> data = new ArrayList<>();
+            while (rs.next()) {
+                List<Object> row = new ArrayList<>(columnCount);
+                for (int i = 1; i <= columnCount; i++) {
+                    row.add(rs.getObject(i));
+                }
+                data.add(row);
+            }
+            return data;
+        });
+    }
+}
@@ -0,0 +1,87 @@
+package org.fxsql.bench;
+
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import org.fxsql.model.RowChange;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Statement generation for edited grid rows, run once per pending change when changes are saved
+ * or previewed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RowChangeBenchmark {
+
+    private static final List<String> COLUMNS = List.of(
+            "id", "customer_id", "status", "reference", "amount", "created_at", "note", "updated_by");
+
+    private RowChange update;
+    private RowChange insert;
+    private RowChange delete;
+    // A table without a primary key is matched on every column
+    private RowChange deleteWithoutKey;
+
+    @Setup
+    public void setUp() {
+        update = new RowChange(RowChange.ChangeType.UPDATE, "orders", row(42), row(42), COLUMNS, 0);
+        update.addColumnChange(2, "SHIPPED");
+        update.addColumnChange(4, new BigDecimal("19.95"));
+        update.addColumnChange(6, "it's on the way");
+
+        insert = new RowChange(RowChange.ChangeType.INSERT, "orders", null, row(43), COLUMNS, 0);
+        delete = new RowChange(RowChange.ChangeType.DELETE, "orders", row(44), null, COLUMNS, 0);
+        deleteWithoutKey = new RowChange(RowChange.ChangeType.DELETE, "orders", row(45), null, COLUMNS, -1);
+    }
+
+    private static ObservableList<Object> row(int id) {
+        return FXCollections.observableArrayList(
+                id, 7, "PAID", "ORD-" + id, new BigDecimal("12.50"), "2024-01-01 10:00:00", "[NULL]", "admin");
+    }
+
+    @Benchmark
+    public String updateSql() {
+        return update.toSql();
+    }
+
+    @Benchmark
+    public String insertSql() {
+        return insert.toSql();
+    }
+
+    @Benchmark
+    public String deleteSql() {
+        return delete.toSql();
+    }
+
+    @Benchmark
+    public String deleteWithoutKeySql() {
+        return deleteWithoutKey.toSql();
+    }
+
+    /**
+     * The save path: the batched statement and its bound values.
+     */
+    @Benchmark
+    public Object parameterizedUpdate() {
+        String sql = update.toParameterizedSql();
+        return sql.length() + update.getParameters().size();
+    }
+}
@@ -0,0 +1,71 @@
+package org.fxsql.bench;
+
+import org.fxsql.utils.SQLSanitizer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Query validation, run on every statement before it is executed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SQLSanitizerBenchmark {
+
+    private static final String SHORT_QUERY = "SELECT * FROM orders WHERE id = 42";
+
+    private String reportQuery;
+    private String script;
+
+    @Setup
+    public void setUp() {
+        StringBuilder sb = new StringBuilder("""
+                -- Monthly revenue per customer and status
+                SELECT c.id, c.name, o.status, date_trunc('month', o.created_at) AS month,
+                       count(*) AS orders, sum(o.amount) AS revenue
+                FROM customers c
+                JOIN orders o ON o.customer_id = c.id
+                WHERE o.note IS NULL OR o.note NOT LIKE '%; DROP TABLE%'
+                """);
+        for (int i = 0; i < 40; i++) {
+            sb.append("  AND o.reference <> 'ORD-").append(i).append("'\n");
+        }
+        sb.append("GROUP BY c.id, c.name, o.status, month\nORDER BY revenue DESC");
+        reportQuery = sb.toString();
+
+        StringBuilder statements = new StringBuilder();
+        for (int i = 0; i < 50; i++) {
+            statements.append("INSERT INTO orders (id, status, note) VALUES (").append(i)
+                    .append(", 'NEW', 'semicolon; inside a string');\n");
+        }
+        script = statements.toString();
+    }
+
+    @Benchmark
+    public SQLSanitizer.ValidationResult shortQuery() {
+        return SQLSanitizer.validateQuery(SHORT_QUERY, false);
+    }
+
+    @Benchmark
+    public SQLSanitizer.ValidationResult reportQuery() {
+        return SQLSanitizer.validateQuery(reportQuery, false);
+    }
+
+    @Benchmark
+    public SQLSanitizer.ValidationResult script() {
+        return SQLSanitizer.validateQuery(script, true);
+    }
+}
@@ -0,0 +1,79 @@
+package org.fxsql.bench;
+
+import org.fxdb.plugin.sdk.db.Dialect;
+import org.fxsql.sql.SQLTokenizer;
+import org.fxsql.sql.SQLTokenizer.State;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The lexer behind the editor's syntax highlighting. A keystroke re-tokenizes the edited
+ * paragraph, so {@link #keystroke} is the lexing cost, and {@code gc.alloc.rate.norm} the
+ * allocation, per keystroke; {@link #document} is the first pass over a freshly opened script,
+ * carrying the lexer state from line to line as the highlighter does.
+ */
+@org.openjdk.jmh.annotations.State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SQLTokenizerBenchmark {
+
+    private static final String LINE =
+            "SELECT o.id, upper(o.status) AS status, o.amount * 1.2 FROM orders o -- with tax";
+
+    @Param({"SQLITE", "POSTGRESQL"})
+    public Dialect dialect;
+
+    private final List<String> lines = new ArrayList<>();
+
+    @Setup
+    public void setUp() {
+        for (int i = 0; i < 100; i++) {
+            lines.add("/* report " + i + ",");
+            lines.add("   regenerated nightly */");
+            lines.add("SELECT c.name, count(*) AS orders, sum(o.amount) AS revenue");
+            lines.add("FROM customers c JOIN orders o ON o.customer_id = c.id");
+            lines.add("WHERE o.status IN ('PAID', 'SHIPPED') AND o.created_at > '2024-0" + (i % 9 + 1) + "-01';");
+        }
+    }
+
+    @Benchmark
+    public int keystroke() {
+        return tokenize(LINE, State.NORMAL).tokens;
+    }
+
+    @Benchmark
+    public State document() {
+        State state = State.NORMAL;
+        for (String line : lines) {
+            state = tokenize(line, state).exit;
+        }
+        return state;
+    }
+
+    private Lexed tokenize(String line, State entry) {
+        SQLTokenizer tokenizer = new SQLTokenizer(line, dialect, entry);
+        int tokens = 0;
+        while (tokenizer.next()) {
+            tokens++;
+        }
+        return new Lexed(tokenizer.state(), tokens);
+    }
+
+    private record Lexed(State exit, int tokens) {
+    }
+}
@@ -1,32 +1,217 @@
 package org.fxsql.events;
 
+import javafx.application.Platform;
 import javafx.event.Event;
 import javafx.event.EventHandler;
 import javafx.event.EventType;
 
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
+/**
+ * Application-wide event bus. Events are published from any thread, often a driver loading or
+ * download thread, and each handler says where it runs with a {@link Delivery}.
+ * <p>
+ * A handler receives events of the type it is registered for and of that type's subtypes.
+ * Handler lists are copy-on-write arrays, so publishing takes no lock and allocates nothing for
+ * handlers that run on the caller's thread. Handlers on other threads get their events queued in
+ * order and never hold up the publisher; coalescing handlers only keep the newest pending event,
+ * which suits progress updates that are stale as soon as the next one arrives.
+ */
 public class EventBus {
-    private static final Map<EventType<?>, List<EventHandler<? super Event>>> listeners = new HashMap<>();
 
+    private static final Logger logger = Logger.getLogger(EventBus.class.getName());
+    // Events a handler on another thread handles before yielding that thread
+    private static final int MAX_BATCH = 64;
+
+    /**
+     * Where a handler runs.
+     */
+    public enum Delivery {
+        /** On the publishing thread, before {@link #fireEvent} returns. */
+        CALLER,
+        /** On the JavaFX application thread. */
+        FX_THREAD,
+        /** On a virtual thread, for handlers that block or do I/O. */
+        BACKGROUND
+    }
+
+    private static final ConcurrentMap<EventType<?>, Subscriber[]> subscribers = new ConcurrentHashMap<>();
+    private static final ExecutorService background = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("EventBus-", 0).factory());
+
+    private EventBus() {
+    }
+
+    /**
+     * Registers a handler that runs on the publishing thread.
+     */
     public static <T extends Event> void addEventHandler(EventType<T> type, EventHandler<? super T> listener) {
-        listeners.computeIfAbsent(type, k -> new ArrayList<>()).add((EventHandler<? super Event>) listener);
+        addEventHandler(type, Delivery.CALLER, listener);
     }
 
-    public static <T extends Event> void removeEventHandler(EventType<T> type, EventHandler<? super T> listener) {
-        List<EventHandler<? super Event>> handlers = listeners.get(type);
-        if (handlers != null) {
-            handlers.remove(listener);
+    /**
+     * Registers a handler that receives every event, in publishing order, on the given thread.
+     */
+    public static <T extends Event> void addEventHandler(EventType<T> type, Delivery delivery, EventHandler<? super T> listener) {
+        subscribe(type, new Subscriber(listener, delivery, false));
+    }
+
+    /**
+     * Registers a handler that only receives the newest event published since it last ran.
+     * Suited to high-frequency events such as progress updates.
+     *
+     * @throws IllegalArgumentException if {@code delivery} is {@link Delivery#CALLER}, which has nothing to coalesce
+     */
+    public static <T extends Event> void addCoalescingEventHandler(EventType<T> type, Delivery delivery, EventHandler<? super T> listener) {
+        if (delivery == Delivery.CALLER) {
+            throw new IllegalArgumentException("Events delivered on the caller's thread cannot be coalesced");
         }
+        subscribe(type, new Subscriber(listener, delivery, true));
+    }
+
+    /**
+     * Removes a handler. Events already queued for it are dropped.
+     */
+    public static <T extends Event> void removeEventHandler(EventType<T> type, EventHandler<? super T> listener) {
+        subscribers.computeIfPresent(type, (key, current) -> {
+            for (int i = 0; i < current.length; i++) {
+                if (current[i].handler == listener) {
+                    current[i].active = false;
+                    if (current.length == 1) {
+                        return null;
+                    }
+                    Subscriber[] updated = new Subscriber[current.length - 1];
+                    System.arraycopy(current, 0, updated, 0, i);
+                    System.arraycopy(current, i + 1, updated, i, current.length - i - 1);
+                    return updated;
+                }
+            }
+            return current;
+        });
     }
 
+    /**
+     * Publishes an event to the handlers of its type and of every supertype. Never blocks:
+     * only handlers registered for {@link Delivery#CALLER} run before this returns.
+     */
     public static void fireEvent(Event event) {
-        List<EventHandler<? super Event>> eventHandlers = listeners.get(event.getEventType());
-        if (eventHandlers != null) {
-            new ArrayList<>(eventHandlers).forEach(h -> h.handle(event));
+        for (EventType<?> type = event.getEventType(); type != null; type = type.getSuperType()) {
+            Subscriber[] handlers = subscribers.get(type);
+            if (handlers != null) {
+                for (Subscriber subscriber : handlers) {
+                    subscriber.deliver(event);
+                }
+            }
+        }
+    }
+
+    private static void subscribe(EventType<?> type, Subscriber subscriber) {
+        subscribers.merge(type, new Subscriber[]{subscriber}, (current, added) -> {
+            Subscriber[] updated = Arrays.copyOf(current, current.length + 1);
+            updated[current.length] = subscriber;
+            return updated;
+        });
+    }
+
+    /**
+     * A registered handler and, for handlers on other threads, its pending events. It is its own
+     * drain task, so scheduling a drain allocates nothing; at most one drain is scheduled at a time,
+     * which keeps the handler's events in order.
+     */
+    private static final class Subscriber implements Runnable {
+        private final EventHandler<? super Event> handler;
+        private final Delivery delivery;
+        private final Queue<Event> queue;
+        private final AtomicReference<Event> latest;
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private volatile boolean active = true;
+
+        @SuppressWarnings("unchecked")
+        Subscriber(EventHandler<?> handler, Delivery delivery, boolean coalescing) {
+            this.handler = (EventHandler<? super Event>) handler;
+            this.delivery = delivery;
+            this.queue = delivery != Delivery.CALLER && !coalescing ? new ConcurrentLinkedQueue<>() : null;
+            this.latest = coalescing ? new AtomicReference<>() : null;
+        }
+
+        void deliver(Event event) {
+            if (delivery == Delivery.CALLER) {
+                handle(event);
+                return;
+            }
+            if (latest != null) {
+                latest.set(event);
+            } else {
+                queue.offer(event);
+            }
+            if (scheduled.compareAndSet(false, true)) {
+                schedule();
+            }
+        }
+
+        @Override
+        public void run() {
+            while (true) {
+                for (int handled = 0; handled < MAX_BATCH; handled++) {
+                    Event event = poll();
+                    if (event == null) {
+                        break;
+                    }
+                    if (active) {
+                        handle(event);
+                    }
+                }
+                if (hasPending()) {
+                    // Let other work on the thread run before the rest
+                    schedule();
+                    return;
+                }
+                scheduled.set(false);
+                // An event published between the last poll and clearing the flag would otherwise wait
+                if (!hasPending() || !scheduled.compareAndSet(false, true)) {
+                    return;
+                }
+            }
+        }
+
+        private Event poll() {
+            return latest != null ? latest.getAndSet(null) : queue.poll();
+        }
+
+        private boolean hasPending() {
+            return latest != null ? latest.get() != null : !queue.isEmpty();
+        }
+
+        private void schedule() {
+            if (delivery == Delivery.BACKGROUND) {
+                background.execute(this);
+                return;
+            }
+            try {
+                Platform.runLater(this);
+            } catch (IllegalStateException e) {
+                // The toolkit is not running, e.g. during startup or shutdown
+                logger.log(Level.FINE, "JavaFX is not running, delivering on the publishing thread", e);
+                run();
+            }
+        }
+
+        private void handle(Event event) {
+            try {
+                handler.handle(event);
+            } catch (RuntimeException e) {
+                logger.log(Level.WARNING, "Handler for " + event.getEventType() + " failed", e);
+            }
         }
     }
-}
\ No newline at end of file
+}
@@ -1,25 +1,38 @@
 package org.fxsql;
 
 import com.google.inject.Inject;
+import org.fxdb.plugin.sdk.db.Dialect;
+import org.fxsql.dialect.DialectDetector;
 import org.fxsql.driverload.DriverDownloader;
 import org.fxsql.driverload.JDBCDriverLoader;
+import org.fxsql.driverload.LazyDriver;
+import org.fxsql.result.QueryResultCache;
 
 import java.sql.Connection;
 import java.sql.Driver;
 import java.sql.DriverManager;
+import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.Map;
+import java.util.Objects;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
 public abstract class AbstractDatabaseConnection implements DatabaseConnection {
 
+    private static final Logger logger = Logger.getLogger(AbstractDatabaseConnection.class.getName());
+
     protected Map<String, Object> metaData = new ConcurrentHashMap<>();
 
     // Handles downloading and loading the driver JAR
     protected final DynamicJDBCDriverLoader dynamicJDBCDriverLoader = new DynamicJDBCDriverLoader();
     protected Connection connection;
+    private volatile FetchPolicy fetchPolicy = new FetchPolicy();
+    private final LivenessTracker liveness = new LivenessTracker(this::checkConnection);
+    // The JDBC connection the liveness state belongs to
+    private volatile Connection trackedConnection;
 
     @Inject
     private DriverDownloader driverDownloader;
@@ -51,6 +64,65 @@ public abstract class AbstractDatabaseConnection implements DatabaseConnection {
         return user != null ? user.toString() : "";
     }
 
+    /**
+     * Checks over the network whether the connection still works. May block; called by
+     * {@link #isConnected()} only when the cached state is stale.
+     */
+    protected abstract boolean checkConnection();
+
+    /**
+     * Answers from the liveness state recorded by recent statements, so most calls do not
+     * touch the network. A closed connection is always reported as such.
+     */
+    @Override
+    public boolean isConnected() {
+        return isOpen() && liveness.isAlive();
+    }
+
+    @Override
+    public boolean validateConnection() {
+        return isOpen() && liveness.checkNow();
+    }
+
+    @Override
+    public void setLivenessFreshnessSeconds(int seconds) {
+        liveness.setFreshnessSeconds(seconds);
+    }
+
+    private boolean isOpen() {
+        Connection conn = getConnection();
+        try {
+            if (conn == null || conn.isClosed()) {
+                return false;
+            }
+        } catch (SQLException e) {
+            return false;
+        }
+        if (conn != trackedConnection) {
+            // Reconnected: what we knew was about the old connection
+            trackedConnection = conn;
+            liveness.reset();
+        }
+        return true;
+    }
+
+    /**
+     * Runs a read query on a statement from {@link #createReadStatement} and records the outcome
+     * for liveness tracking. The caller closes the result set.
+     */
+    protected ResultSet executeRead(Connection conn, String sql) throws SQLException {
+        Statement stmt = createReadStatement(conn, false, 0);
+        try {
+            ResultSet rs = stmt.executeQuery(sql);
+            liveness.markAlive();
+            return rs;
+        } catch (SQLException e) {
+            liveness.recordFailure(e);
+            stmt.close();
+            throw e;
+        }
+    }
+
     public boolean isWriteQuery(String sql) {
         if (sql == null) return false;
         String trimmed = sql.trim().toUpperCase();
@@ -80,8 +152,157 @@ public abstract class AbstractDatabaseConnection implements DatabaseConnection {
 
         try (Statement stmt = conn.createStatement()) {
             int rowsAffected = stmt.executeUpdate(sql);
+            liveness.markAlive();
             logger.info("Write query executed. Rows affected: " + rowsAffected);
             return rowsAffected;
+        } catch (SQLException e) {
+            liveness.recordFailure(e);
+            throw e;
+        } finally {
+            // A failed statement may still have changed rows, e.g. on non-transactional tables
+            QueryResultCache.invalidate(this, sql);
+        }
+    }
+
+    @Override
+    public void setFetchPolicy(FetchPolicy policy) {
+        this.fetchPolicy = Objects.requireNonNull(policy);
+    }
+
+    @Override
+    public FetchPolicy getFetchPolicy() {
+        return fetchPolicy;
+    }
+
+    /**
+     * Creates a statement for a read query, configured by the fetch policy.
+     *
+     * @param conn The database connection to use
+     * @param streaming True when the result is consumed within {@link #executeStreamingQuery}
+     *                  and may hold the connection until it is closed
+     * @param maxRows Upper bound on returned rows, or 0 to only apply the policy's limit
+     * @return A new statement; the caller closes it
+     * @throws SQLException if the connection is closed or the statement cannot be created
+     */
+    protected Statement createReadStatement(Connection conn, boolean streaming, int maxRows) throws SQLException {
+        return createReadStatement(conn, fetchPolicy, streaming, maxRows);
+    }
+
+    private Statement createReadStatement(Connection conn, FetchPolicy policy, boolean streaming, int maxRows) throws SQLException {
+        if (conn == null || conn.isClosed()) {
+            throw new SQLException("Connection is not established or is closed.");
+        }
+
+        Statement stmt;
+        if (policy.isForwardOnly()) {
+            stmt = conn.createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+        } else {
+            try {
+                stmt = conn.createStatement(ResultSet.TYPE_SCROLL_INSENSITIVE, ResultSet.CONCUR_READ_ONLY);
+            } catch (SQLException e) {
+                // Some drivers (e.g. SQLite) only support TYPE_FORWARD_ONLY
+                stmt = conn.createStatement();
+            }
+        }
+
+        int fetchSize = policy.getFetchSize();
+        if (streaming && policy.isStreaming() && policy.isForwardOnly() && !policy.isUseCursorFetch()
+                && DialectDetector.detect(conn) == Dialect.MYSQL) {
+            // Connector/J streams row by row only for this exact value
+            fetchSize = Integer.MIN_VALUE;
+        }
+        if (fetchSize != 0) {
+            try {
+                stmt.setFetchSize(fetchSize);
+            } catch (SQLException e) {
+                logger.fine("Driver does not accept fetch size " + fetchSize + ": " + e.getMessage());
+            }
+        }
+
+        int limit = policy.getMaxRows();
+        if (maxRows > 0 && (limit == 0 || maxRows < limit)) {
+            limit = maxRows;
+        }
+        if (limit > 0) {
+            stmt.setMaxRows(limit);
+        }
+        return stmt;
+    }
+
+    /**
+     * Runs the query on a statement from {@link #createReadStatement}. On PostgreSQL the driver only
+     * honours the fetch size inside a transaction, so autocommit is switched off while the handler
+     * reads and restored afterwards. That is only done when the server reports no transaction in
+     * progress; otherwise, for example after a {@code BEGIN} typed in the editor, the query runs
+     * without a cursor so the user's pending work is never committed by a read.
+     */
+    @Override
+    public <T> T executeStreamingQuery(String sql, int maxRows, ResultSetHandler<T> handler) throws SQLException {
+        return executeStreamingQuery(sql, fetchPolicy, maxRows, handler);
+    }
+
+    @Override
+    public <T> T executeStreamingQuery(String sql, FetchPolicy policy, int maxRows, ResultSetHandler<T> handler) throws SQLException {
+        Connection conn = getConnection();
+        if (conn == null || conn.isClosed()) {
+            throw new SQLException("Connection is not established or is closed.");
+        }
+
+        boolean cursorMode = policy.isStreaming() && policy.isForwardOnly() && policy.getFetchSize() > 0
+                && conn.getAutoCommit() && getDialect() == Dialect.POSTGRESQL && isServerIdle(conn);
+        if (cursorMode) {
+            conn.setAutoCommit(false);
+        }
+
+        boolean succeeded = false;
+        try (Statement stmt = createReadStatement(conn, policy, true, maxRows);
+             ResultSet rs = stmt.executeQuery(sql)) {
+            liveness.markAlive();
+            T result = handler.handle(rs);
+            succeeded = true;
+            return result;
+        } catch (SQLException e) {
+            liveness.recordFailure(e);
+            throw e;
+        } finally {
+            if (cursorMode) {
+                endCursorTransaction(conn, succeeded);
+            }
+        }
+    }
+
+    /**
+     * Returns true when the PostgreSQL server reported no open transaction on its last reply.
+     * The driver is loaded at runtime, so its transaction state is reached reflectively; when it
+     * cannot be read the connection is treated as busy.
+     */
+    private static boolean isServerIdle(Connection conn) {
+        try {
+            Class<?> baseConnection = Class.forName("org.postgresql.core.BaseConnection", false,
+                    conn.getClass().getClassLoader());
+            Object state = baseConnection.getMethod("getTransactionState").invoke(conn.unwrap(baseConnection));
+            return "IDLE".equals(String.valueOf(state));
+        } catch (ReflectiveOperationException | SQLException e) {
+            logger.log(Level.FINE, "PostgreSQL transaction state not available, reading without a cursor", e);
+            return false;
+        }
+    }
+
+    private void endCursorTransaction(Connection conn, boolean commit) {
+        try {
+            if (commit) {
+                conn.commit();
+            } else {
+                conn.rollback();
+            }
+        } catch (SQLException e) {
+            logger.log(Level.WARNING, "Failed to end cursor transaction", e);
+        } finally {
+            try {
+                conn.setAutoCommit(true);
+            } catch (SQLException e) {
+                logger.log(Level.WARNING, "Failed to restore autocommit", e);
+            }
         }
     }
 
@@ -90,7 +311,11 @@ public abstract class AbstractDatabaseConnection implements DatabaseConnection {
         while (drivers.hasNext()) {
             Driver d = drivers.next();
             // Handle both shim and regular drivers
-            if (d instanceof JDBCDriverLoader.JDBCDriverShim shim) {
+            if (d instanceof LazyDriver lazy) {
+                if (lazy.getDriverClassName().contains(className)) {
+                    return true;
+                }
+            } else if (d instanceof JDBCDriverLoader.JDBCDriverShim shim) {
                 if (shim.driver().getClass().getName().contains(className)) {
                     return true;
                 }
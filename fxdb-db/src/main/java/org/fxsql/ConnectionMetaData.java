@@ -2,6 +2,8 @@ package org.fxsql;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import org.fxsql.pool.PoolSettings;
+import org.fxsql.result.QueryCacheSettings;
 
 @JsonIgnoreProperties(ignoreUnknown = true)
 public class ConnectionMetaData {
@@ -18,6 +20,10 @@ public class ConnectionMetaData {
     private String port;
     private boolean isFileBased;
     private boolean isConnected;
+    private FetchPolicy fetchPolicy;
+    private PoolSettings poolSettings;
+    private QueryCacheSettings queryCacheSettings;
+    private int livenessFreshnessSeconds = LivenessTracker.DEFAULT_FRESHNESS_SECONDS;
 
     @JsonIgnore
     public DatabaseConnection getDatabaseConnection() {
@@ -107,4 +113,57 @@ public class ConnectionMetaData {
     public void setDatabase(String database) {
         this.database = database;
     }
+
+    /**
+     * Returns how read queries on this connection fetch rows; the defaults when none was saved.
+     */
+    public FetchPolicy getFetchPolicy() {
+        if (fetchPolicy == null) {
+            fetchPolicy = new FetchPolicy();
+        }
+        return fetchPolicy;
+    }
+
+    public void setFetchPolicy(FetchPolicy fetchPolicy) {
+        this.fetchPolicy = fetchPolicy;
+    }
+
+    /**
+     * Returns the connection pool limits; the defaults when none were saved.
+     */
+    public PoolSettings getPoolSettings() {
+        if (poolSettings == null) {
+            poolSettings = new PoolSettings();
+        }
+        return poolSettings;
+    }
+
+    public void setPoolSettings(PoolSettings poolSettings) {
+        this.poolSettings = poolSettings;
+    }
+
+    /**
+     * Returns the query result cache limits; the defaults, with the cache off, when none were saved.
+     */
+    public QueryCacheSettings getQueryCacheSettings() {
+        if (queryCacheSettings == null) {
+            queryCacheSettings = new QueryCacheSettings();
+        }
+        return queryCacheSettings;
+    }
+
+    public void setQueryCacheSettings(QueryCacheSettings queryCacheSettings) {
+        this.queryCacheSettings = queryCacheSettings;
+    }
+
+    /**
+     * How long a connection seen working is reported as connected without checking again.
+     */
+    public int getLivenessFreshnessSeconds() {
+        return livenessFreshnessSeconds;
+    }
+
+    public void setLivenessFreshnessSeconds(int livenessFreshnessSeconds) {
+        this.livenessFreshnessSeconds = livenessFreshnessSeconds;
+    }
 }
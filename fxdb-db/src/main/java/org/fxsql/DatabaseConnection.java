@@ -4,6 +4,7 @@ package org.fxsql;
 import javafx.beans.property.ReadOnlyDoubleProperty;
 import org.fxsql.dialect.DialectDetector;
 import org.fxsql.model.TableMetaData;
+import org.fxsql.schema.SchemaLoader;
 import org.fxdb.plugin.sdk.db.Dialect;
 
 import java.sql.*;
@@ -19,6 +20,21 @@ public interface DatabaseConnection {
 
     boolean isConnected();
 
+    /**
+     * Checks over the network whether the connection works, bypassing any cached state.
+     * @return True if the connection is usable
+     */
+    default boolean validateConnection() {
+        return isConnected();
+    }
+
+    /**
+     * Sets how long a connection seen working is reported as connected without checking again.
+     * Connections that do not cache their state ignore it.
+     */
+    default void setLivenessFreshnessSeconds(int seconds) {
+    }
+
 //    void setDownloadProgressBar(ProgressBar pb);
 
     ReadOnlyDoubleProperty downloadDriverInTheBackground();
@@ -68,17 +84,12 @@ public interface DatabaseConnection {
     }
 
     /**
-     * Returns all database objects grouped by type.
+     * Returns all database objects grouped by type, in a single catalog query where the
+     * dialect allows it.
      * @return DatabaseObjects containing all database objects
      */
     default DatabaseObjects getAllDatabaseObjects() {
-        return new DatabaseObjects(
-            getTableNames(),
-            getViewNames(),
-            getTriggerNames(),
-            getFunctionNames(),
-            getIndexNames()
-        );
+        return SchemaLoader.load(this);
     }
 
     /**
@@ -93,6 +104,72 @@ public interface DatabaseConnection {
     ResultSet executeReadQuery(String sql) throws SQLException;
     int executeWriteQuery(String sql)  throws SQLException;
 
+    /**
+     * Sets how read queries fetch rows. Connections that cannot tune fetching ignore it.
+     * @param policy The fetch policy, usually the one saved in {@link ConnectionMetaData}
+     */
+    default void setFetchPolicy(FetchPolicy policy) {
+    }
+
+    /**
+     * Returns how read queries fetch rows.
+     * @return The fetch policy; never null
+     */
+    default FetchPolicy getFetchPolicy() {
+        return new FetchPolicy();
+    }
+
+    /**
+     * Runs a read query and hands its result to {@code handler}, streaming rows from the server
+     * where the driver allows it. The result set and its statement are closed once the handler returns,
+     * so the handler must read everything it needs before returning.
+     * <p>
+     * Prefer this over {@link #executeReadQuery(String)} for results that may be large.
+     * @param sql The query to run
+     * @param maxRows Upper bound on rows the server returns, or 0 for no limit
+     * @param handler Consumes the result set
+     * @return Whatever the handler returns
+     * @throws SQLException if the query or the handler fails
+     */
+    default <T> T executeStreamingQuery(String sql, int maxRows, ResultSetHandler<T> handler) throws SQLException {
+        ResultSet rs = executeReadQuery(sql);
+        if (rs == null) {
+            throw new SQLException("Query returned null ResultSet");
+        }
+        Statement stmt = rs.getStatement();
+        // The statement is already executed here, so maxRows is left to the handler
+        try (rs) {
+            return handler.handle(rs);
+        } finally {
+            if (stmt != null) {
+                stmt.close();
+            }
+        }
+    }
+
+    /**
+     * Like {@link #executeStreamingQuery(String, int, ResultSetHandler)}, but reads with the given
+     * fetch policy instead of the connection's own, without changing the connection's policy for
+     * other callers. Connections that cannot tune fetching ignore the policy.
+     * @param sql The query to run
+     * @param policy How to fetch rows for this query only
+     * @param maxRows Upper bound on rows the server returns, or 0 for the policy's limit
+     * @param handler Consumes the result set
+     * @return Whatever the handler returns
+     * @throws SQLException if the query or the handler fails
+     */
+    default <T> T executeStreamingQuery(String sql, FetchPolicy policy, int maxRows, ResultSetHandler<T> handler) throws SQLException {
+        return executeStreamingQuery(sql, maxRows, handler);
+    }
+
+    /**
+     * Consumes the result of {@link #executeStreamingQuery}.
+     */
+    @FunctionalInterface
+    interface ResultSetHandler<T> {
+        T handle(ResultSet rs) throws SQLException;
+    }
+
     default int executeWriteQuery(String sql, Connection connection, Logger logger) throws SQLException{
         // Validation
         if (sql == null || sql.trim().isEmpty()) {
@@ -5,6 +5,8 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.inject.Singleton;
 import org.fxsql.config.AppPaths;
 import org.fxsql.encryption.EncryptionUtil;
+import org.fxsql.pool.ConnectionPool;
+import org.fxsql.result.QueryResultCache;
 
 import java.io.File;
 import java.io.IOException;
@@ -34,10 +36,7 @@ public class DatabaseManager {
     public void closeAll() {
         saveConnectionMetaData();
         for (ConnectionMetaData conn : connections.values()) {
-            DatabaseConnection connection = conn.getDatabaseConnection();
-            if (connection != null && connection.isConnected()) {
-                connection.disconnect();
-            }
+            disconnect(conn.getDatabaseConnection());
         }
         connections.clear();
         logger.info("All database connections closed");
@@ -64,14 +63,13 @@ public class DatabaseManager {
             // Close existing connection if updating
             if (connections.containsKey(name)) {
                 ConnectionMetaData existing = connections.get(name);
-                if (existing.getDatabaseConnection() != null && existing.getDatabaseConnection().isConnected()) {
-                    existing.getDatabaseConnection().disconnect();
-                }
+                disconnect(existing.getDatabaseConnection());
                 logger.info("Connection updated: " + name);
             } else {
                 logger.info("Connection added: " + name);
             }
             connections.put(name, connectionMetaData);
+            registerPool(name, connectionMetaData, connection);
             saveConnectionMetaData();
         } else {
             logger.severe("Connection not established with database!");
@@ -79,7 +77,7 @@ public class DatabaseManager {
     }
 
     public void addConnection(String name, String dbPath, String dbType, DatabaseConnection connection) {
-        addConnection(name, dbPath, dbPath, null, connection);
+        addConnection(name, dbPath, dbType, null, connection);
     }
 
     public void addConnection(String name, String dbPath, String dbType, String port, DatabaseConnection connection) {
@@ -93,14 +91,13 @@ public class DatabaseManager {
             // Close existing connection if updating
             if (connections.containsKey(name)) {
                 ConnectionMetaData existing = connections.get(name);
-                if (existing.getDatabaseConnection() != null && existing.getDatabaseConnection().isConnected()) {
-                    existing.getDatabaseConnection().disconnect();
-                }
+                disconnect(existing.getDatabaseConnection());
                 logger.info("Connection updated: " + name);
             } else {
                 logger.info("Connection added: " + name);
             }
             connections.put(name, connectionMetaData);
+            registerPool(name, connectionMetaData, connection);
             saveConnectionMetaData();
         } else {
             logger.severe("Connection not established with database!");
@@ -111,46 +108,89 @@ public class DatabaseManager {
         ConnectionMetaData metaData = connections.get(name);
         if(metaData != null){
             // Establish Connection
-            DatabaseConnection conn = DatabaseConnectionFactory.getConnection(metaData.getDatabaseType());
-
-            String dbType = metaData.getDatabaseType();
-            if (dbType != null && dbType.equalsIgnoreCase("sqlite")) {
-                // For SQLite, use the file path (SqliteConnection.connect() handles the jdbc: prefix)
-                String filePath = metaData.getDatabaseFilePath();
-                if (filePath == null || filePath.isEmpty()) {
-                    throw new IllegalStateException("SQLite database file path is not set");
-                }
-                conn.connect(filePath);
-            } else if (metaData.getDatabaseFilePath() != null && !metaData.getDatabaseFilePath().isEmpty()) {
-                // Other file-based databases
-                conn.connect(metaData.getDatabaseFilePath());
-            } else {
-                // Network-based databases (MySQL, PostgreSQL)
-                String url = metaData.getUrl();
-                if (url == null || url.isEmpty()) {
-                    throw new IllegalStateException("Database URL is not set for connection: " + name);
-                }
-                // Set credentials on the connection before connecting
-                if (metaData.getUser() != null) {
-                    conn.setUserName(metaData.getUser());
-                }
-                if (metaData.getEncryptedPassword() != null) {
-                    try {
-                        String decryptedPassword = EncryptionUtil.decrypt(metaData.getEncryptedPassword());
-                        conn.setPassword(decryptedPassword);
-                    } catch (Exception e) {
-                        logger.warning("Failed to decrypt password for connection: " + name);
-                    }
-                }
-                conn.connect(url);
-            }
+            DatabaseConnection conn = openConnection(name, metaData);
 
             metaData.setDatabaseConnection(conn);
             metaData.setConnected(conn.isConnected());
+            registerPool(name, metaData, conn);
+            QueryResultCache.configure(conn, metaData.getQueryCacheSettings());
             return conn;
         }
         return null;
     }
+
+    /**
+     * Opens a new connection with the saved settings. Used for the primary connection
+     * and for each pooled one.
+     */
+    private DatabaseConnection openConnection(String name, ConnectionMetaData metaData) throws Exception {
+        DatabaseConnection conn = DatabaseConnectionFactory.getConnection(metaData.getDatabaseType());
+        conn.setFetchPolicy(metaData.getFetchPolicy());
+        conn.setLivenessFreshnessSeconds(metaData.getLivenessFreshnessSeconds());
+
+        String dbType = metaData.getDatabaseType();
+        if (dbType != null && dbType.equalsIgnoreCase("sqlite")) {
+            // For SQLite, use the file path (SqliteConnection.connect() handles the jdbc: prefix)
+            String filePath = metaData.getDatabaseFilePath();
+            if (filePath == null || filePath.isEmpty()) {
+                throw new IllegalStateException("SQLite database file path is not set");
+            }
+            conn.connect(filePath);
+        } else if (metaData.getDatabaseFilePath() != null && !metaData.getDatabaseFilePath().isEmpty()) {
+            // Other file-based databases
+            conn.connect(metaData.getDatabaseFilePath());
+        } else {
+            // Network-based databases (MySQL, PostgreSQL)
+            String url = metaData.getUrl();
+            if (url == null || url.isEmpty()) {
+                throw new IllegalStateException("Database URL is not set for connection: " + name);
+            }
+            // Set credentials on the connection before connecting
+            if (metaData.getUser() != null) {
+                conn.setUserName(metaData.getUser());
+            }
+            if (metaData.getEncryptedPassword() != null) {
+                try {
+                    String decryptedPassword = EncryptionUtil.decrypt(metaData.getEncryptedPassword());
+                    conn.setPassword(decryptedPassword);
+                } catch (Exception e) {
+                    logger.warning("Failed to decrypt password for connection: " + name);
+                }
+            }
+            conn.connect(url);
+        }
+        return conn;
+    }
+
+    /**
+     * Gives a connected primary connection a pool of extra connections for parallel work.
+     */
+    private void registerPool(String name, ConnectionMetaData metaData, DatabaseConnection primary) {
+        if (!primary.isConnected() || metaData.getPoolSettings().getMaxSize() == 0) {
+            return;
+        }
+        // DuckDB locks its database file, so a second connection cannot be opened
+        if ("duckdb".equalsIgnoreCase(metaData.getDatabaseType())) {
+            return;
+        }
+        ConnectionPool.register(primary, new ConnectionPool(name, metaData.getPoolSettings(),
+                () -> openConnection(name, metaData)));
+    }
+
+    /**
+     * Closes a connection and its pool.
+     */
+    public void disconnect(DatabaseConnection connection) {
+        if (connection == null) {
+            return;
+        }
+        ConnectionPool.unregister(connection);
+        QueryResultCache.release(connection);
+        if (connection.isConnected()) {
+            connection.disconnect();
+        }
+    }
+
     // Get a connection by name
     public DatabaseConnection getConnection(String name) {
         ConnectionMetaData metaData = connections.get(name);
@@ -168,10 +208,7 @@ public class DatabaseManager {
         ConnectionMetaData metaData = connections.get(name);
         if (metaData != null) {
             // Close the connection if it's active
-            DatabaseConnection conn = metaData.getDatabaseConnection();
-            if (conn != null && conn.isConnected()) {
-                conn.disconnect();
-            }
+            disconnect(metaData.getDatabaseConnection());
         }
         connections.remove(name);
         // Persist the change
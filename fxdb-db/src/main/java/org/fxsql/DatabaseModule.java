@@ -14,11 +14,13 @@ public class DatabaseModule extends AbstractModule {
 
     @Override
     public void configure(){
+        // Needed for the first frame
         bind(DatabaseManager.class).asEagerSingleton();
-        bind(DriverDownloader.class).asEagerSingleton();
-        bind(JDBCDriverLoader.class).asEagerSingleton();
         bind(WindowManager.class).asEagerSingleton();
-        bind(PluginManager.class).asEagerSingleton();
         bind(UISettingsService.class).asEagerSingleton();
+        // Read their state from disk, so they are created on first use instead
+        bind(DriverDownloader.class).in(Singleton.class);
+        bind(JDBCDriverLoader.class).in(Singleton.class);
+        bind(PluginManager.class).in(Singleton.class);
     }
 }
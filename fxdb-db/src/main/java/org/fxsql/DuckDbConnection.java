@@ -10,7 +10,6 @@ import java.util.logging.Logger;
 
 public class DuckDbConnection extends AbstractDatabaseConnection {
 
-    private static final int ROW_LIMIT = 200;
     private static final String DUCKDB_DRIVER_CLASS = "org.duckdb.DuckDBDriver";
     private static final Logger logger = Logger.getLogger(DuckDbConnection.class.getName());
 
@@ -72,7 +71,7 @@ public class DuckDbConnection extends AbstractDatabaseConnection {
     }
 
     @Override
-    public boolean isConnected() {
+    protected boolean checkConnection() {
         try {
             return connection != null && !connection.isClosed();
         } catch (SQLException e) {
@@ -174,12 +173,7 @@ public class DuckDbConnection extends AbstractDatabaseConnection {
 
     @Override
     public ResultSet executeReadQuery(String sql) throws SQLException {
-        if (connection == null || connection.isClosed()) {
-            throw new SQLException("Connection is not established or is closed.");
-        }
-        Statement stmt = connection.createStatement();
-        stmt.setMaxRows(ROW_LIMIT);
-        return stmt.executeQuery(sql);
+        return executeRead(connection, sql);
     }
 
     @Override
@@ -93,7 +93,12 @@ public class DynamicJDBCDriverLoader {
             // Compare against the *underlying* driver class, unwrapping any shim.
             // Both this loader's DriverShim and JDBCDriverLoader's JDBCDriverShim are
             // handled so a driver registered by either subsystem is detected here.
-            if (unwrap(d).getClass().getName().equals(driverClassName)) {
+            // Lazily registered drivers are matched by name so the check does not load them.
+            Driver underlying = unwrap(d);
+            String name = underlying instanceof org.fxsql.driverload.LazyDriver lazy
+                    ? lazy.getDriverClassName()
+                    : underlying.getClass().getName();
+            if (name.equals(driverClassName)) {
                 return true;
             }
         }
@@ -159,11 +164,16 @@ public class DynamicJDBCDriverLoader {
      * Single source of truth for "is this driver available?". True if the driver is
      * already registered, or if some jar in the dynamic-jars directory provides its
      * class. Independent of jar filenames, so it can never disagree with the loader.
+     * Drivers recorded in the driver index for an unchanged jar are answered without
+     * opening any jar.
      */
     public static boolean isDriverAvailable(String driverClassName) {
         if (isDriverAlreadyLoaded(driverClassName)) {
             return true;
         }
+        if (org.fxsql.driverload.DriverIndex.getInstance().providesDriver(Paths.get(DYNAMIC_JAR_PATH), driverClassName)) {
+            return true;
+        }
         String resource = driverClassName.replace('.', '/') + ".class";
         return getDynamicJarsClassLoader().findResource(resource) != null;
     }
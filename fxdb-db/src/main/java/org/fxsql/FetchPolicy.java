@@ -0,0 +1,85 @@
+package org.fxsql;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+/**
+ * How a connection reads query results: how many rows the driver fetches per round trip,
+ * whether cursors are forward-only, and whether large results are streamed from the server
+ * instead of being buffered whole in driver memory.
+ * <p>
+ * Streaming is dialect specific and only applies to {@link DatabaseConnection#executeStreamingQuery}:
+ * PostgreSQL only honours the fetch size inside a transaction, so autocommit is switched off
+ * for the duration of the query; MySQL streams row by row when the fetch size is
+ * {@link Integer#MIN_VALUE}, or uses server-side cursors when {@code useCursorFetch} is set.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class FetchPolicy {
+
+    public static final int DEFAULT_FETCH_SIZE = 500;
+
+    private int fetchSize = DEFAULT_FETCH_SIZE;
+    private boolean forwardOnly = true;
+    private boolean streaming = true;
+    private boolean useCursorFetch;
+    private int maxRows;
+
+    public FetchPolicy() {
+    }
+
+    /**
+     * Rows fetched per round trip; 0 leaves the driver default.
+     */
+    public int getFetchSize() {
+        return fetchSize;
+    }
+
+    public void setFetchSize(int fetchSize) {
+        this.fetchSize = Math.max(0, fetchSize);
+    }
+
+    /**
+     * True to open read statements as {@code TYPE_FORWARD_ONLY}. Scrollable result sets make
+     * most drivers read the whole result before returning the first row.
+     */
+    public boolean isForwardOnly() {
+        return forwardOnly;
+    }
+
+    public void setForwardOnly(boolean forwardOnly) {
+        this.forwardOnly = forwardOnly;
+    }
+
+    /**
+     * True to stream results from the server in streaming queries.
+     */
+    public boolean isStreaming() {
+        return streaming;
+    }
+
+    public void setStreaming(boolean streaming) {
+        this.streaming = streaming;
+    }
+
+    /**
+     * MySQL only: open server-side cursors so the fetch size is honoured without holding the
+     * connection for the whole result. Takes effect on the next connect.
+     */
+    public boolean isUseCursorFetch() {
+        return useCursorFetch;
+    }
+
+    public void setUseCursorFetch(boolean useCursorFetch) {
+        this.useCursorFetch = useCursorFetch;
+    }
+
+    /**
+     * Upper bound on rows returned by any read query; 0 for no limit.
+     */
+    public int getMaxRows() {
+        return maxRows;
+    }
+
+    public void setMaxRows(int maxRows) {
+        this.maxRows = Math.max(0, maxRows);
+    }
+}
@@ -2,6 +2,7 @@ package org.fxsql;
 
 import javafx.beans.property.ReadOnlyDoubleProperty;
 import javafx.beans.property.SimpleDoubleProperty;
+import org.fxsql.schema.SchemaLoader;
 
 import java.sql.*;
 import java.util.ArrayList;
@@ -15,7 +16,6 @@ import java.util.logging.Logger;
  */
 public class GenericJdbcConnection extends AbstractDatabaseConnection {
 
-    private static final int ROW_LIMIT = 200;
     private static final Logger logger = Logger.getLogger(GenericJdbcConnection.class.getName());
 
     private String jdbcUrl;
@@ -67,7 +67,7 @@ public class GenericJdbcConnection extends AbstractDatabaseConnection {
     }
 
     @Override
-    public boolean isConnected() {
+    protected boolean checkConnection() {
         if (connection == null) {
             return false;
         }
@@ -184,6 +184,13 @@ public class GenericJdbcConnection extends AbstractDatabaseConnection {
         return new ArrayList<>();
     }
 
+    @Override
+    public DatabaseObjects getAllDatabaseObjects() {
+        // The dialect catalog queries assume the driver's default schema; keep the
+        // metadata-based listing, which spans all schemas
+        return SchemaLoader.loadByKind(this);
+    }
+
     /**
      * Filters out common system objects.
      */
@@ -199,24 +206,7 @@ public class GenericJdbcConnection extends AbstractDatabaseConnection {
 
     @Override
     public ResultSet executeReadQuery(String sql) throws SQLException {
-        if (connection == null || connection.isClosed()) {
-            throw new SQLException("Connection is not established or is closed.");
-        }
-
-        Statement stmt;
-        try {
-            stmt = connection.createStatement(
-                    ResultSet.TYPE_SCROLL_INSENSITIVE,
-                    ResultSet.CONCUR_READ_ONLY
-            );
-        } catch (SQLException e) {
-            // Some drivers (e.g. SQLite) only support TYPE_FORWARD_ONLY
-            stmt = connection.createStatement();
-        }
-        stmt.setFetchSize(ROW_LIMIT);
-        stmt.setMaxRows(ROW_LIMIT);
-
-        return stmt.executeQuery(sql);
+        return executeRead(connection, sql);
     }
 
     @Override
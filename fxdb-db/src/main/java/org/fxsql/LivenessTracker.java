@@ -0,0 +1,123 @@
+package org.fxsql;
+
+import java.sql.SQLException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Remembers whether a connection was recently seen working, so that {@code isConnected()}
+ * does not need a network round trip on every call.
+ * <p>
+ * Any successful statement counts as proof of life. Within the freshness window the last known
+ * state is returned as is. Once it is stale the last known state is still returned, and a probe
+ * runs in the background to refresh it. Only the very first check, before anything is known,
+ * probes synchronously.
+ */
+public class LivenessTracker {
+
+    private static final Logger logger = Logger.getLogger(LivenessTracker.class.getName());
+    public static final int DEFAULT_FRESHNESS_SECONDS = 15;
+
+    private static final ExecutorService probeExecutor = Executors.newCachedThreadPool(r -> {
+        Thread t = new Thread(r, "Liveness-Check");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private final BooleanSupplier probe;
+    private final AtomicBoolean probing = new AtomicBoolean();
+    private volatile long freshnessNanos = TimeUnit.SECONDS.toNanos(DEFAULT_FRESHNESS_SECONDS);
+    // System.nanoTime() of the last time the connection was seen working or failing
+    private volatile long lastObserved;
+    private volatile boolean observed;
+    private volatile boolean alive;
+
+    /**
+     * @param probe Checks the connection over the network; may block
+     */
+    public LivenessTracker(BooleanSupplier probe) {
+        this.probe = probe;
+    }
+
+    public void setFreshnessSeconds(int seconds) {
+        this.freshnessNanos = TimeUnit.SECONDS.toNanos(Math.max(0, seconds));
+    }
+
+    /**
+     * Returns the last known state, probing in the background if it is stale.
+     */
+    public boolean isAlive() {
+        if (!observed) {
+            return checkNow();
+        }
+        if (System.nanoTime() - lastObserved >= freshnessNanos) {
+            checkInBackground();
+        }
+        return alive;
+    }
+
+    /**
+     * Probes the connection now and records the result.
+     */
+    public boolean checkNow() {
+        boolean result;
+        try {
+            result = probe.getAsBoolean();
+        } catch (RuntimeException e) {
+            logger.log(Level.FINE, "Liveness probe failed", e);
+            result = false;
+        }
+        record(result);
+        return result;
+    }
+
+    /**
+     * Records that a statement just succeeded.
+     */
+    public void markAlive() {
+        record(true);
+    }
+
+    /**
+     * Records a statement failure. Only errors that mean the connection itself is broken
+     * (SQLState class 08) mark it dead; ordinary SQL errors say nothing about liveness.
+     */
+    public void recordFailure(SQLException e) {
+        String state = e.getSQLState();
+        if (state != null && state.startsWith("08")) {
+            record(false);
+        }
+    }
+
+    /**
+     * Forgets everything, e.g. after the underlying connection was replaced.
+     */
+    public void reset() {
+        observed = false;
+        alive = false;
+    }
+
+    private void record(boolean result) {
+        alive = result;
+        lastObserved = System.nanoTime();
+        observed = true;
+    }
+
+    private void checkInBackground() {
+        if (!probing.compareAndSet(false, true)) {
+            return;
+        }
+        probeExecutor.execute(() -> {
+            try {
+                checkNow();
+            } finally {
+                probing.set(false);
+            }
+        });
+    }
+}
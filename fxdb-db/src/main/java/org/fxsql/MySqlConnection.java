@@ -14,8 +14,6 @@ import java.util.logging.Logger;
 
 public class MySqlConnection extends AbstractDatabaseConnection {
 
-    // The maximum number of rows to fetch for a query (e.g., for display/preview)
-    private static final int ROW_LIMIT = 200;
     private static Logger logger = Logger.getLogger(MySqlConnection.class.getName());
     // The official MySQL JDBC Driver class name (Connector/J)
     private static final String MYSQL_DRIVER_CLASS = "com.mysql.cj.jdbc.Driver";
@@ -56,6 +54,10 @@ public class MySqlConnection extends AbstractDatabaseConnection {
         // These are often required when using Connector/J 8.0+
         this.jdbcUrl = "jdbc:mysql://" + host + ":" + port + "/" + database +
                 "?serverTimezone=UTC&useSSL=false";
+        if (getFetchPolicy().isUseCursorFetch()) {
+            // Server-side cursors, so the fetch size is honoured without streaming
+            this.jdbcUrl += "&useCursorFetch=true";
+        }
 
         // 2. Ensure the driver is loaded
         try {
@@ -73,6 +75,11 @@ public class MySqlConnection extends AbstractDatabaseConnection {
         this.connection = DriverManager.getConnection(this.jdbcUrl, props);
     }
 
+    @Override
+    public Connection getConnection() {
+        return connection;
+    }
+
     @Override
     public void disconnect() {
         if (connection != null) {
@@ -87,7 +94,7 @@ public class MySqlConnection extends AbstractDatabaseConnection {
     }
 
     @Override
-    public boolean isConnected() {
+    protected boolean checkConnection() {
         if (connection == null) {
             return false;
         }
@@ -226,17 +233,8 @@ public class MySqlConnection extends AbstractDatabaseConnection {
             throw new SQLException("Connection is not established or is closed.");
         }
 
-        // 1. Create a Statement
-        Statement stmt = connection.createStatement(
-                ResultSet.TYPE_SCROLL_INSENSITIVE, // Allows scrolling for UI display
-                ResultSet.CONCUR_READ_ONLY
-        );
-
-        // 2. Set the fetch size and limit. This is a hint to the driver.
-        stmt.setFetchSize(ROW_LIMIT);
-
-        // 3. Execute the query
-        return stmt.executeQuery(sql);
+        // Not streamed: a streaming result would hold the connection until the caller closes it
+        return executeRead(connection, sql);
 
         // NOTE: The caller is responsible for closing the Statement and the ResultSet.
     }
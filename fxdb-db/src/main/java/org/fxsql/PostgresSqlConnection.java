@@ -18,8 +18,6 @@ import java.util.logging.Logger;
 
 public class PostgresSqlConnection extends AbstractDatabaseConnection {
 
-    // The maximum number of rows to fetch for a query (e.g., for display/preview)
-    private static final int ROW_LIMIT = 200;
     // Placeholder for the actual driver class name
     private static final String POSTGRES_DRIVER_CLASS = "org.postgresql.Driver";
     private static final Logger logger = Logger.getLogger(PostgresSqlConnection.class.getName());
@@ -99,7 +97,7 @@ public class PostgresSqlConnection extends AbstractDatabaseConnection {
     }
 
     @Override
-    public boolean isConnected() {
+    protected boolean checkConnection() {
         if (connection == null) {
             return false;
         }
@@ -240,22 +238,9 @@ public class PostgresSqlConnection extends AbstractDatabaseConnection {
             throw new SQLException("Connection is not established or is closed.");
         }
 
-        // 1. Create a Statement
-        // Use createStatement(int resultSetType, int resultSetConcurrency)
-        // to get a scrollable and read-only ResultSet, which is often useful in a UI client.
-        Statement stmt = connection.createStatement(ResultSet.TYPE_SCROLL_INSENSITIVE, ResultSet.CONCUR_READ_ONLY);
-
-        // 2. Set the fetch size and limit for preview/UI display
-        // Fetch size hints the driver for performance.
-        stmt.setFetchSize(ROW_LIMIT);
-
-        // For PostgreSQL, adding "LIMIT n" to the SQL is the standard way to limit rows,
-        // but we'll execute the raw SQL and rely on the UI client to stop reading
-        // after ROW_LIMIT if necessary, or the user should add LIMIT to their query.
-        // If the UI MUST limit, you'd prepend/append LIMIT to the SQL string here.
-
-        // 3. Execute the query
-        return stmt.executeQuery(sql);
+        // Forward-only with the policy's fetch size. pgjdbc only fetches in batches inside a
+        // transaction, which executeStreamingQuery sets up for large results.
+        return executeRead(connection, sql);
 
         // NOTE: The caller of executeReadQuery is now responsible for closing
         // the Statement and the ResultSet.
@@ -17,7 +17,6 @@ import java.util.logging.Logger;
 
 public class SqliteConnection extends AbstractDatabaseConnection {
 
-    private static final int ROW_LIMIT = 200;
     private final DynamicJDBCDriverLoader dynamicJDBCDriverLoader = new DynamicJDBCDriverLoader();
     private Connection connection;
     private ProgressBar progressBar;
@@ -165,9 +164,7 @@ public class SqliteConnection extends AbstractDatabaseConnection {
     @Override
     public ResultSet executeReadQuery(String sql) throws SQLException {
         try{
-            Statement stmt = connection.createStatement();
-            stmt.setMaxRows(ROW_LIMIT);
-            return stmt.executeQuery(sql);
+            return executeRead(connection, sql);
         }catch (Exception e){
             e.printStackTrace();
             // Show pop up alert menu
@@ -287,7 +284,7 @@ public class SqliteConnection extends AbstractDatabaseConnection {
     }
 
     @Override
-    public boolean isConnected() {
+    protected boolean checkConnection() {
         try {
             return connection != null && !connection.isClosed();
         }
@@ -0,0 +1,123 @@
+package org.fxsql.completion;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A case-insensitive prefix trie mapping names to values. Lookups visit only the prefix's
+ * subtree and stop after {@code limit} values, so they cost the same with ten names or
+ * a hundred thousand.
+ * <p>
+ * Not thread-safe while being filled. Fill it on one thread and publish it safely, after which
+ * it can be read from any thread.
+ */
+public final class PrefixTrie<V> {
+
+    private static final char[] NO_LABELS = new char[0];
+    private static final Node[] NO_CHILDREN = new Node[0];
+    private static final Object[] NO_VALUES = new Object[0];
+
+    private static final class Node {
+        // Child labels are kept sorted, so a walk yields names in order
+        char[] labels = NO_LABELS;
+        Node[] children = NO_CHILDREN;
+        int childCount;
+        Object[] values = NO_VALUES;
+        int valueCount;
+
+        Node child(char label) {
+            int index = Arrays.binarySearch(labels, 0, childCount, label);
+            return index >= 0 ? children[index] : null;
+        }
+
+        Node addChild(char label) {
+            int index = Arrays.binarySearch(labels, 0, childCount, label);
+            if (index >= 0) {
+                return children[index];
+            }
+            index = -index - 1;
+            if (childCount == labels.length) {
+                int capacity = Math.max(2, childCount * 2);
+                labels = Arrays.copyOf(labels, capacity);
+                children = Arrays.copyOf(children, capacity);
+            }
+            System.arraycopy(labels, index, labels, index + 1, childCount - index);
+            System.arraycopy(children, index, children, index + 1, childCount - index);
+            Node node = new Node();
+            labels[index] = label;
+            children[index] = node;
+            childCount++;
+            return node;
+        }
+
+        void addValue(Object value) {
+            if (valueCount == values.length) {
+                values = Arrays.copyOf(values, Math.max(1, valueCount * 2));
+            }
+            values[valueCount++] = value;
+        }
+    }
+
+    private final Node root = new Node();
+    private int size;
+
+    /**
+     * Adds a value under a name. A name may hold several values.
+     */
+    public void add(String name, V value) {
+        Node node = root;
+        for (int i = 0; i < name.length(); i++) {
+            node = node.addChild(Character.toLowerCase(name.charAt(i)));
+        }
+        node.addValue(value);
+        size++;
+    }
+
+    /**
+     * Returns up to {@code limit} values whose name starts with the prefix, ignoring case.
+     * Shorter names come before longer ones sharing their start, otherwise names are in
+     * character order.
+     */
+    public List<V> find(String prefix, int limit) {
+        List<V> found = new ArrayList<>(Math.min(limit, 16));
+        find(prefix, limit, found);
+        return found;
+    }
+
+    /**
+     * Adds up to {@code limit} values whose name starts with the prefix to {@code found}.
+     */
+    public void find(String prefix, int limit, List<? super V> found) {
+        Node node = root;
+        for (int i = 0; i < prefix.length() && node != null; i++) {
+            node = node.child(Character.toLowerCase(prefix.charAt(i)));
+        }
+        if (node != null && limit > 0) {
+            collect(node, found.size() + limit, found);
+        }
+    }
+
+    /**
+     * Returns the number of values added.
+     */
+    public int size() {
+        return size;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <V> boolean collect(Node node, int until, List<? super V> found) {
+        for (int i = 0; i < node.valueCount; i++) {
+            if (found.size() >= until) {
+                return false;
+            }
+            found.add((V) node.values[i]);
+        }
+        for (int i = 0; i < node.childCount; i++) {
+            if (!collect(node.children[i], until, found)) {
+                return false;
+            }
+        }
+        return found.size() < until;
+    }
+}
@@ -0,0 +1,359 @@
+package org.fxsql.completion;
+
+import org.fxdb.plugin.sdk.db.Dialect;
+import org.fxsql.DatabaseConnection;
+import org.fxsql.DatabaseObjects;
+import org.fxsql.completion.SQLContextAnalyzer.Context;
+import org.fxsql.completion.SQLContextAnalyzer.Expect;
+import org.fxsql.completion.SQLContextAnalyzer.TableRef;
+import org.fxsql.model.TableMetaData;
+import org.fxsql.schema.SchemaCache;
+import org.fxsql.sql.SQLKeywords;
+import org.fxsql.sql.SQLTokenizer.State;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Schema-aware SQL completion for one database.
+ * <p>
+ * Candidates come from prefix tries: one for keywords and functions, one for the tables and
+ * views of the schema, and one per table for its columns. {@link #complete} only reads what is
+ * already loaded, so it never waits for the database. Columns of tables the statement refers to
+ * are loaded in the background, through {@link SchemaCache} so metadata cached from earlier
+ * sessions is used, and the caller is told when they arrive. {@link #prefetch} starts that
+ * loading while the user is still typing, so columns are usually ready when asked for.
+ * <p>
+ * Tables and views come from the schema cache that the database tree fills; the engine does not
+ * read the catalog itself.
+ */
+public final class SQLCompletionEngine {
+
+    private static final Logger logger = Logger.getLogger(SQLCompletionEngine.class.getName());
+    private static final int MAX_COMPLETIONS = 100;
+    // Checking the schema cache again is cheap, but not worth doing on every keystroke
+    private static final long REFRESH_INTERVAL_MS = 2000;
+
+    private static final ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "SQL-Completion");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private static final Map<String, SQLCompletionEngine> engines = new ConcurrentHashMap<>();
+    private static final SQLCompletionEngine KEYWORDS_ONLY = new SQLCompletionEngine(null);
+    private static final PrefixTrie<Completion> keywords = new PrefixTrie<>();
+
+    static {
+        for (String function : new LinkedHashSet<>(SQLKeywords.FUNCTIONS)) {
+            keywords.add(function, new Completion(function, Kind.FUNCTION, "function"));
+        }
+        Set<String> words = new LinkedHashSet<>(SQLKeywords.KEYWORDS);
+        words.addAll(SQLKeywords.OPERATORS);
+        words.addAll(SQLKeywords.DATATYPES);
+        for (String word : words) {
+            keywords.add(word, new Completion(word, Kind.KEYWORD, "keyword"));
+        }
+    }
+
+    public enum Kind {
+        COLUMN, ALIAS, TABLE, VIEW, FUNCTION, KEYWORD
+    }
+
+    /**
+     * A completion candidate: the text to insert, what it is, and a short description.
+     */
+    public record Completion(String text, Kind kind, String detail) {
+    }
+
+    /**
+     * The candidates for a caret, replacing the text from {@code replaceStart} to the caret.
+     * {@code loading} is true if columns of tables in scope are still being loaded.
+     */
+    public record Result(int replaceStart, String prefix, List<Completion> completions, boolean loading) {
+    }
+
+    /**
+     * The tables and views the names trie was built from.
+     */
+    private record Schema(DatabaseObjects objects, PrefixTrie<Completion> names, Map<String, String> tables) {
+        static final Schema EMPTY = new Schema(null, new PrefixTrie<>(), Map.of());
+    }
+
+    /**
+     * The columns of one table, with the metadata they were built from.
+     */
+    private record Columns(TableMetaData source, PrefixTrie<Completion> names) {
+    }
+
+    private volatile DatabaseConnection connection;
+    private volatile Schema schema = Schema.EMPTY;
+    private final Map<String, Columns> columns = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<Void>> loading = new ConcurrentHashMap<>();
+    private final AtomicBoolean refreshQueued = new AtomicBoolean();
+    private volatile long lastRefresh;
+
+    private SQLCompletionEngine(DatabaseConnection connection) {
+        this.connection = connection;
+    }
+
+    /**
+     * Returns the engine for the database a connection points to, or one offering only
+     * keywords and functions if the connection is null.
+     */
+    public static SQLCompletionEngine forConnection(DatabaseConnection connection) {
+        if (connection == null) {
+            return KEYWORDS_ONLY;
+        }
+        String key = UUID.nameUUIDFromBytes(connection.connectionUrl().getBytes(StandardCharsets.UTF_8)).toString();
+        SQLCompletionEngine engine = engines.computeIfAbsent(key, k -> new SQLCompletionEngine(connection));
+        // A reconnect creates a new connection object for the same database
+        engine.connection = connection;
+        engine.refresh();
+        return engine;
+    }
+
+    /**
+     * Returns the completions at the caret, using only what is loaded. Blocks for nothing but
+     * the lexing of the statement around the caret.
+     *
+     * @param onLoaded Called on a background thread once columns missing from the result have
+     *                 been loaded; may be null
+     * @return The completions, or null if the caret is in a string or comment
+     */
+    public Result complete(CharSequence text, int caret, Dialect dialect, Runnable onLoaded) {
+        return complete(text, caret, State.NORMAL, dialect, onLoaded);
+    }
+
+    /**
+     * Returns the completions at the caret in a part of a document, such as the paragraphs
+     * around the statement being edited. Offsets are relative to the start of {@code text}.
+     *
+     * @param entry The lexer state the text starts in
+     * @param onLoaded Called on a background thread once columns missing from the result have
+     *                 been loaded; may be null
+     * @return The completions, or null if the caret is in a string or comment
+     */
+    public Result complete(CharSequence text, int caret, State entry, Dialect dialect, Runnable onLoaded) {
+        Context context = SQLContextAnalyzer.analyze(text, caret, entry, dialect);
+        if (context == null) {
+            return null;
+        }
+        refreshIfStale();
+
+        String prefix = context.prefix();
+        List<Completion> found = new ArrayList<>();
+        List<CompletableFuture<Void>> pending = new ArrayList<>();
+        Schema current = schema;
+
+        if (context.expect() == Expect.COLUMN) {
+            TableRef ref = context.resolve(context.qualifier());
+            String table = ref != null ? ref.table() : current.tables().get(key(context.qualifier()));
+            if (table != null) {
+                addColumns(table, prefix, found, pending, new HashSet<>());
+            } else if (ref == null) {
+                // Probably a schema name; offer tables, which are looked up without their schema
+                current.names().find(prefix, MAX_COMPLETIONS, found);
+            }
+        } else if (context.expect() == Expect.TABLE) {
+            addNames(context.cteNames(), prefix, Kind.TABLE, "common table expression", found);
+            current.names().find(prefix, MAX_COMPLETIONS - found.size(), found);
+        } else {
+            Set<String> seen = new HashSet<>();
+            for (TableRef ref : context.tables()) {
+                if (ref.table() != null) {
+                    addColumns(ref.table(), prefix, found, pending, seen);
+                }
+            }
+            for (TableRef ref : context.tables()) {
+                if (ref.alias() != null && startsWithIgnoreCase(ref.alias(), prefix) && found.size() < MAX_COMPLETIONS) {
+                    found.add(new Completion(ref.alias(), Kind.ALIAS, ref.table() != null ? ref.table() : "subquery"));
+                }
+            }
+            if (!prefix.isEmpty()) {
+                current.names().find(prefix, MAX_COMPLETIONS - found.size(), found);
+            }
+            keywords.find(prefix, MAX_COMPLETIONS - found.size(), found);
+        }
+
+        if (!pending.isEmpty() && onLoaded != null) {
+            CompletableFuture.allOf(pending.toArray(CompletableFuture[]::new)).thenRun(onLoaded);
+        }
+        return new Result(context.replaceStart(), prefix, found, !pending.isEmpty());
+    }
+
+    /**
+     * Starts loading the columns of every table the statement at the caret refers to, in the
+     * background. Call it while the user types so completions find the columns loaded.
+     */
+    public void prefetch(String text, int caret, Dialect dialect) {
+        prefetch(text, caret, State.NORMAL, dialect);
+    }
+
+    /**
+     * Like {@link #prefetch(String, int, Dialect)}, for a part of a document starting in the
+     * given lexer state.
+     */
+    public void prefetch(String text, int caret, State entry, Dialect dialect) {
+        if (connection == null) {
+            return;
+        }
+        executor.submit(() -> {
+            Context context = SQLContextAnalyzer.analyze(text, caret, entry, dialect);
+            if (context == null) {
+                return;
+            }
+            for (TableRef ref : context.tables()) {
+                if (ref.table() != null) {
+                    loadColumns(ref.table());
+                }
+            }
+        });
+    }
+
+    /**
+     * Reloads tables and views from the schema cache in the background, and drops columns of
+     * tables whose cached metadata changed since they were loaded.
+     */
+    public void refresh() {
+        if (connection == null || !refreshQueued.compareAndSet(false, true)) {
+            return;
+        }
+        executor.submit(() -> {
+            refreshQueued.set(false);
+            lastRefresh = System.currentTimeMillis();
+            try {
+                reload();
+            } catch (RuntimeException e) {
+                logger.log(Level.WARNING, "Failed to refresh SQL completions", e);
+            }
+        });
+    }
+
+    private void refreshIfStale() {
+        if (System.currentTimeMillis() - lastRefresh > REFRESH_INTERVAL_MS) {
+            refresh();
+        }
+    }
+
+    private void reload() {
+        DatabaseConnection current = connection;
+        SchemaCache cache = SchemaCache.forConnection(current);
+        DatabaseObjects objects = cache.getCachedObjects();
+        if (objects != null && !sameNames(schema.objects(), objects)) {
+            schema = buildSchema(objects);
+        }
+        // Failed loads are dropped too, so they are tried again
+        columns.entrySet().removeIf(entry -> entry.getValue().source() == null
+                || cache.getCachedTableMetaData(entry.getKey()) != entry.getValue().source());
+        loading.entrySet().removeIf(entry -> entry.getValue().isDone() && !columns.containsKey(entry.getKey()));
+    }
+
+    private static Schema buildSchema(DatabaseObjects objects) {
+        PrefixTrie<Completion> names = new PrefixTrie<>();
+        Map<String, String> tables = new HashMap<>();
+        for (String table : objects.getTables()) {
+            names.add(table, new Completion(table, Kind.TABLE, "table"));
+            tables.put(key(table), table);
+        }
+        for (String view : objects.getViews()) {
+            names.add(view, new Completion(view, Kind.VIEW, "view"));
+            tables.putIfAbsent(key(view), view);
+        }
+        return new Schema(objects, names, tables);
+    }
+
+    /**
+     * Adds the loaded columns of a table matching the prefix, or starts loading them.
+     */
+    private void addColumns(String table, String prefix, List<Completion> found,
+                            List<CompletableFuture<Void>> pending, Set<String> seen) {
+        Columns loaded = columns.get(key(table));
+        if (loaded == null) {
+            CompletableFuture<Void> future = loadColumns(table);
+            if (future != null) {
+                pending.add(future);
+            }
+            return;
+        }
+        for (Completion column : loaded.names().find(prefix, MAX_COMPLETIONS)) {
+            if (found.size() >= MAX_COMPLETIONS) {
+                return;
+            }
+            if (seen.add(key(column.text()))) {
+                found.add(column);
+            }
+        }
+    }
+
+    /**
+     * Loads a table's columns in the background unless they are loaded or already loading.
+     *
+     * @return The load, or null if there is nothing to load
+     */
+    private CompletableFuture<Void> loadColumns(String table) {
+        String key = key(table);
+        Schema current = schema;
+        // Tables unknown to a loaded schema are CTEs, typos or other schemas; nothing to look up
+        if (connection == null || columns.containsKey(key)
+                || (current.objects() != null && !current.tables().containsKey(key))) {
+            return null;
+        }
+        String name = current.tables().getOrDefault(key, table);
+        return loading.computeIfAbsent(key, k -> CompletableFuture.runAsync(() -> {
+            DatabaseConnection database = connection;
+            try {
+                TableMetaData metaData = SchemaCache.forConnection(database).getTableMetaData(database, name);
+                columns.put(k, buildColumns(metaData));
+            } catch (SQLException | RuntimeException e) {
+                logger.log(Level.FINE, "Could not load columns of " + name + " for completion", e);
+                columns.put(k, new Columns(null, new PrefixTrie<>()));
+            }
+        }, executor));
+    }
+
+    private static Columns buildColumns(TableMetaData metaData) {
+        PrefixTrie<Completion> names = new PrefixTrie<>();
+        for (TableMetaData.ColumnInfo column : metaData.getColumns()) {
+            String type = column.getTypeName() != null ? column.getTypeName().toLowerCase(Locale.ROOT) : "column";
+            names.add(column.getName(), new Completion(column.getName(), Kind.COLUMN, type + " in " + metaData.getTableName()));
+        }
+        return new Columns(metaData, names);
+    }
+
+    private static void addNames(List<String> names, String prefix, Kind kind, String detail, List<Completion> found) {
+        for (String name : names) {
+            if (startsWithIgnoreCase(name, prefix)) {
+                found.add(new Completion(name, kind, detail));
+            }
+        }
+    }
+
+    private static boolean sameNames(DatabaseObjects a, DatabaseObjects b) {
+        return a != null && a.getTables().equals(b.getTables()) && a.getViews().equals(b.getViews());
+    }
+
+    private static boolean startsWithIgnoreCase(String s, String prefix) {
+        return s.regionMatches(true, 0, prefix, 0, prefix.length());
+    }
+
+    private static String key(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,445 @@
+package org.fxsql.completion;
+
+import org.fxdb.plugin.sdk.db.Dialect;
+import org.fxsql.sql.SQLKeywords;
+import org.fxsql.sql.SQLTokenizer;
+import org.fxsql.sql.SQLTokenizer.State;
+import org.fxsql.sql.SQLTokenizer.TokenType;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Works out what can be typed at the caret of a SQL script: the partial word being completed,
+ * whether a table or a column is expected there, and which tables are in scope under which alias.
+ * <p>
+ * This is not a parser. It reads the {@link SQLTokenizer} tokens of the statement around the
+ * caret and tracks {@code FROM}, {@code JOIN}, {@code UPDATE} and {@code INTO} lists for each
+ * level of parentheses. A subquery sees its own tables and those of the queries it is nested in,
+ * but not those of sibling subqueries. Strings and comments never get completions.
+ */
+public final class SQLContextAnalyzer {
+
+    /**
+     * What the caret position expects.
+     */
+    public enum Expect {
+        /** A table or view, e.g. after FROM or JOIN */
+        TABLE,
+        /** A column of the table or alias before the dot */
+        COLUMN,
+        /** Anything: columns in scope, tables, functions and keywords */
+        ANY
+    }
+
+    /**
+     * A table referenced in the statement. The table is null for a subquery in the FROM list,
+     * and the alias is null if none was given.
+     */
+    public record TableRef(String table, String alias) {
+
+        public boolean isNamed(String name) {
+            return name.equalsIgnoreCase(alias) || (alias == null && name.equalsIgnoreCase(table));
+        }
+    }
+
+    /**
+     * The completion context at a caret.
+     *
+     * @param replaceStart Where the partial word starts; a completion replaces the text from here to the caret
+     * @param prefix       The partial word before the caret, empty if there is none
+     * @param qualifier    The table or alias before a dot, or null
+     * @param expect       What is expected at the caret
+     * @param tables       Tables in scope at the caret, the innermost query's first
+     * @param cteNames     Names of common table expressions defined by the statement
+     */
+    public record Context(int replaceStart, String prefix, String qualifier, Expect expect,
+                          List<TableRef> tables, List<String> cteNames) {
+
+        /**
+         * Returns the table in scope that the name refers to as alias or table name, or null.
+         */
+        public TableRef resolve(String name) {
+            for (TableRef ref : tables) {
+                if (ref.isNamed(name)) {
+                    return ref;
+                }
+            }
+            return null;
+        }
+    }
+
+    // A table name follows these words
+    private static final Set<String> TABLE_CLAUSES = Set.of("FROM", "JOIN", "UPDATE", "INTO", "TABLE");
+    // These end a FROM list
+    private static final Set<String> LIST_ENDS = Set.of(
+            "SELECT", "WHERE", "GROUP", "ORDER", "HAVING", "LIMIT", "OFFSET", "ON", "USING", "SET",
+            "VALUES", "UNION", "INTERSECT", "EXCEPT", "MINUS", "RETURNING", "WINDOW", "FETCH", "FOR");
+    // Words that cannot be an alias
+    private static final Set<String> RESERVED = new HashSet<>(SQLKeywords.KEYWORDS);
+
+    static {
+        RESERVED.addAll(SQLKeywords.OPERATORS);
+        RESERVED.addAll(LIST_ENDS);
+        RESERVED.add("LATERAL");
+    }
+
+    private final CharSequence text;
+    private final int caret;
+    private final State entry;
+    // Reads every statement of the text instead of only the one at the caret
+    private final boolean wholeText;
+
+    // Significant tokens of the statement at the caret
+    private final List<TokenType> types = new ArrayList<>();
+    private final List<int[]> spans = new ArrayList<>();
+    private final List<Integer> groups = new ArrayList<>();
+    // Parent of each parenthesis group; group 0 is the statement itself
+    private final List<Integer> parents = new ArrayList<>();
+    // Set when a keyword stood where a table name was expected, e.g. a table called "key"
+    private boolean skippedTableRef;
+
+    private SQLContextAnalyzer(CharSequence text, int caret, State entry, boolean wholeText) {
+        this.text = text;
+        this.caret = caret;
+        this.entry = entry;
+        this.wholeText = wholeText;
+    }
+
+    /**
+     * Analyzes the statement around the caret.
+     *
+     * @return The context, or null if the caret is inside a string, quoted identifier or comment
+     */
+    public static Context analyze(CharSequence text, int caret, Dialect dialect) {
+        return analyze(text, caret, State.NORMAL, dialect);
+    }
+
+    /**
+     * Analyzes the statement around the caret in a part of a document.
+     *
+     * @param entry The lexer state the text starts in
+     * @return The context, or null if the caret is inside a string, quoted identifier or comment
+     */
+    public static Context analyze(CharSequence text, int caret, State entry, Dialect dialect) {
+        SQLContextAnalyzer analyzer = new SQLContextAnalyzer(text, Math.max(0, Math.min(caret, text.length())),
+                entry, false);
+        return analyzer.analyze(dialect);
+    }
+
+    /**
+     * Returns the tables and views named anywhere in the SQL, in subqueries too, lower-cased and
+     * by their last name part. Common table expressions and derived tables are left out.
+     *
+     * @return The names, or null if the SQL ends inside a string, quoted identifier or comment, or
+     *         a table is named by an unquoted keyword and so cannot be told apart from one
+     */
+    public static Set<String> referencedTables(CharSequence sql, Dialect dialect) {
+        SQLContextAnalyzer analyzer = new SQLContextAnalyzer(sql, sql.length(), State.NORMAL, true);
+        if (analyzer.readStatement(dialect) < 0) {
+            return null;
+        }
+        List<String> cteNames = new ArrayList<>();
+        List<TableRef> refs = new ArrayList<>();
+        analyzer.readTableRefs(-1, cteNames, refs, new ArrayList<>());
+        if (analyzer.skippedTableRef) {
+            return null;
+        }
+
+        Set<String> ctes = new HashSet<>();
+        for (String name : cteNames) {
+            ctes.add(name.toLowerCase(Locale.ROOT));
+        }
+        Set<String> tables = new HashSet<>();
+        for (TableRef ref : refs) {
+            if (ref.table() != null && !ctes.contains(ref.table().toLowerCase(Locale.ROOT))) {
+                tables.add(ref.table().toLowerCase(Locale.ROOT));
+            }
+        }
+        return tables;
+    }
+
+    private Context analyze(Dialect dialect) {
+        int caretGroup = readStatement(dialect);
+        if (caretGroup < 0) {
+            return null;
+        }
+
+        // The partial word at the caret and what precedes it
+        int last = -1;
+        while (last + 1 < types.size() && start(last + 1) < caret) {
+            last++;
+        }
+        int replaceStart = caret;
+        int previous = last;
+        int prefixToken = -1;
+        if (last >= 0 && types.get(last) == TokenType.WORD && end(last) >= caret) {
+            replaceStart = start(last);
+            previous = last - 1;
+            prefixToken = last;
+        }
+        String prefix = text.subSequence(replaceStart, caret).toString();
+
+        String qualifier = null;
+        if (previous >= 1 && isSymbol(previous, '.') && end(previous) == replaceStart
+                && isName(previous - 1)) {
+            qualifier = name(previous - 1);
+        }
+
+        Expect expect;
+        if (qualifier != null) {
+            expect = Expect.COLUMN;
+        } else if (previous >= 0 && types.get(previous) == TokenType.WORD && TABLE_CLAUSES.contains(upper(previous))) {
+            expect = Expect.TABLE;
+        } else if (previous >= 0 && isSymbol(previous, ',') && "FROM".equals(clauseOf(previous))) {
+            expect = Expect.TABLE;
+        } else {
+            expect = Expect.ANY;
+        }
+
+        List<String> cteNames = new ArrayList<>();
+        List<TableRef> tables = tablesInScope(caretGroup, prefixToken, cteNames);
+        return new Context(replaceStart, prefix, qualifier, expect, tables, cteNames);
+    }
+
+    /**
+     * Collects the significant tokens of the statement containing the caret.
+     *
+     * @return The parenthesis group the caret is in, or -1 if it is inside a string or comment
+     */
+    private int readStatement(Dialect dialect) {
+        SQLTokenizer tokenizer = new SQLTokenizer(text, dialect, entry);
+        parents.add(-1);
+        int group = 0;
+        int caretGroup = 0;
+        while (tokenizer.next()) {
+            TokenType type = tokenizer.type();
+            int start = tokenizer.start();
+            int end = tokenizer.end();
+            if (type == TokenType.DELIMITER) {
+                if (wholeText) {
+                    continue;
+                }
+                if (start >= caret) {
+                    break;
+                }
+                // The caret is in a later statement
+                types.clear();
+                spans.clear();
+                groups.clear();
+                parents.clear();
+                parents.add(-1);
+                group = 0;
+                caretGroup = 0;
+                continue;
+            }
+            if (wholeText ? !tokenizer.state().isNormal()
+                    : start < caret && isQuotedOrComment(type) && (caret < end || isOpenAtEnd(tokenizer, type))) {
+                return -1;
+            }
+            if (tokenizer.isInsignificant()) {
+                continue;
+            }
+            if (type == TokenType.CLOSE_PAREN && group > 0) {
+                group = parents.get(group);
+            }
+            types.add(type);
+            spans.add(new int[]{start, end});
+            groups.add(group);
+            if (type == TokenType.OPEN_PAREN) {
+                parents.add(group);
+                group = parents.size() - 1;
+            }
+            if (start < caret) {
+                caretGroup = group;
+            }
+        }
+        return caretGroup;
+    }
+
+    private static boolean isQuotedOrComment(TokenType type) {
+        return type == TokenType.STRING || type == TokenType.QUOTED_IDENTIFIER || type == TokenType.DOLLAR_STRING
+                || type == TokenType.BLOCK_COMMENT || type == TokenType.LINE_COMMENT;
+    }
+
+    /**
+     * Returns whether a token ending at the caret is still open there: a line comment, or a
+     * string or comment that is not closed.
+     */
+    private static boolean isOpenAtEnd(SQLTokenizer tokenizer, TokenType type) {
+        return type == TokenType.LINE_COMMENT || !tokenizer.state().isNormal();
+    }
+
+    /**
+     * Returns the tables visible from the caret's group.
+     */
+    private List<TableRef> tablesInScope(int caretGroup, int prefixToken, List<String> cteNames) {
+        List<TableRef> refs = new ArrayList<>();
+        List<Integer> refGroups = new ArrayList<>();
+        readTableRefs(prefixToken, cteNames, refs, refGroups);
+
+        // Innermost first: the caret's group, then each enclosing one
+        List<TableRef> visible = new ArrayList<>();
+        for (int group = caretGroup; group >= 0; group = parents.get(group)) {
+            for (int r = 0; r < refs.size(); r++) {
+                if (refGroups.get(r) == group) {
+                    visible.add(refs.get(r));
+                }
+            }
+        }
+        return visible;
+    }
+
+    /**
+     * Reads the FROM lists of every group, adding each table reference and the group it is in.
+     */
+    private void readTableRefs(int prefixToken, List<String> cteNames, List<TableRef> refs, List<Integer> refGroups) {
+        int groupCount = parents.size();
+        boolean[] expecting = new boolean[groupCount];
+        boolean[] inList = new boolean[groupCount];
+        // Set on a group whose closing parenthesis ends a subquery in a FROM list
+        boolean[] derived = new boolean[groupCount];
+
+        for (int i = 0; i < types.size(); i++) {
+            int group = groups.get(i);
+            TokenType type = types.get(i);
+            if (type == TokenType.WORD) {
+                String word = upper(i);
+                if (TABLE_CLAUSES.contains(word) && !"TABLE".equals(word)) {
+                    expecting[group] = true;
+                    inList[group] = "FROM".equals(word) || "JOIN".equals(word);
+                    continue;
+                }
+                if (isCteName(i)) {
+                    cteNames.add(name(i));
+                    continue;
+                }
+                if (LIST_ENDS.contains(word)) {
+                    expecting[group] = false;
+                    inList[group] = false;
+                    continue;
+                }
+            }
+            if (expecting[group] && type == TokenType.WORD && RESERVED.contains(upper(i)) && !"LATERAL".equals(upper(i))) {
+                skippedTableRef = true;
+            }
+            if (expecting[group] && isName(i) && !(type == TokenType.WORD && RESERVED.contains(upper(i)))) {
+                // Schema-qualified names are looked up by their last part
+                int nameToken = i;
+                while (nameToken + 2 < types.size() && isSymbol(nameToken + 1, '.') && isName(nameToken + 2)) {
+                    nameToken += 2;
+                }
+                int next = nameToken + 1;
+                String alias = null;
+                if (next < types.size() && types.get(next) == TokenType.WORD && "AS".equals(upper(next))) {
+                    next++;
+                }
+                if (next < types.size() && isName(next) && !(types.get(next) == TokenType.WORD && RESERVED.contains(upper(next)))) {
+                    alias = next == prefixToken ? null : name(next);
+                } else {
+                    next = nameToken;
+                }
+                if (nameToken != prefixToken) {
+                    refs.add(new TableRef(name(nameToken), alias));
+                    refGroups.add(group);
+                }
+                expecting[group] = false;
+                i = next;
+                continue;
+            }
+            if (type == TokenType.SYMBOL && isSymbol(i, ',') && inList[group]) {
+                expecting[group] = true;
+            } else if (type == TokenType.OPEN_PAREN) {
+                if (expecting[group] && i + 1 < groups.size()) {
+                    derived[groups.get(i + 1)] = true;
+                }
+                expecting[group] = false;
+            } else if (type == TokenType.CLOSE_PAREN && i > 0) {
+                int closed = groups.get(i - 1) != group ? groups.get(i - 1) : -1;
+                if (closed >= 0 && derived[closed]) {
+                    int next = i + 1;
+                    if (next < types.size() && types.get(next) == TokenType.WORD && "AS".equals(upper(next))) {
+                        next++;
+                    }
+                    if (next < types.size() && isName(next) && next != prefixToken
+                            && !(types.get(next) == TokenType.WORD && RESERVED.contains(upper(next)))) {
+                        refs.add(new TableRef(null, name(next)));
+                        refGroups.add(group);
+                        i = next;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns whether a token names a common table expression: {@code WITH name AS (} or
+     * {@code , name AS (} after an earlier one.
+     */
+    private boolean isCteName(int i) {
+        if (i < 1 || i + 2 >= types.size() || !isName(i)) {
+            return false;
+        }
+        boolean afterWith = types.get(i - 1) == TokenType.WORD
+                && ("WITH".equals(upper(i - 1)) || "RECURSIVE".equals(upper(i - 1)));
+        boolean afterCte = isSymbol(i - 1, ',') && i >= 2 && types.get(i - 2) == TokenType.CLOSE_PAREN
+                && groups.get(i) == 0;
+        return (afterWith || afterCte) && types.get(i + 1) == TokenType.WORD && "AS".equals(upper(i + 1))
+                && types.get(i + 2) == TokenType.OPEN_PAREN;
+    }
+
+    /**
+     * Returns the clause keyword that a token belongs to, looking back within its parentheses.
+     */
+    private String clauseOf(int token) {
+        int group = groups.get(token);
+        for (int i = token - 1; i >= 0; i--) {
+            if (groups.get(i) == group && types.get(i) == TokenType.WORD) {
+                String word = upper(i);
+                if ("FROM".equals(word) || LIST_ENDS.contains(word)) {
+                    return word;
+                }
+            }
+        }
+        return null;
+    }
+
+    private int start(int token) {
+        return spans.get(token)[0];
+    }
+
+    private int end(int token) {
+        return spans.get(token)[1];
+    }
+
+    private boolean isSymbol(int token, char symbol) {
+        return types.get(token) == TokenType.SYMBOL && end(token) - start(token) == 1
+                && text.charAt(start(token)) == symbol;
+    }
+
+    private boolean isName(int token) {
+        TokenType type = types.get(token);
+        return type == TokenType.WORD || type == TokenType.QUOTED_IDENTIFIER;
+    }
+
+    /**
+     * Returns the identifier a word or quoted identifier token stands for.
+     */
+    private String name(int token) {
+        String raw = text.subSequence(start(token), end(token)).toString();
+        if (types.get(token) != TokenType.QUOTED_IDENTIFIER || raw.length() < 2) {
+            return raw;
+        }
+        char quote = raw.charAt(0);
+        char closer = quote == '[' ? ']' : quote;
+        String body = raw.substring(1, raw.endsWith(String.valueOf(closer)) ? raw.length() - 1 : raw.length());
+        return quote == '[' ? body : body.replace(String.valueOf(quote) + quote, String.valueOf(quote));
+    }
+
+    private String upper(int token) {
+        return text.subSequence(start(token), end(token)).toString().toUpperCase(Locale.ROOT);
+    }
+}
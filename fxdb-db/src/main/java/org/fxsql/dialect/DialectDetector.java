@@ -4,20 +4,33 @@ import org.fxdb.plugin.sdk.db.Dialect;
 
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
 import java.util.logging.Logger;
 
+/**
+ * Works out the dialect of a JDBC connection from its product name. The answer is remembered
+ * per connection, so the check is cheap enough to run for every statement and an unknown
+ * product is only logged once.
+ */
 public final class DialectDetector {
 
     private static final Logger logger = Logger.getLogger(DialectDetector.class.getName());
+    // Weak keys, so closed connections that are no longer referenced drop out
+    private static final Map<Connection, Dialect> detected = Collections.synchronizedMap(new WeakHashMap<>());
 
     private DialectDetector() {}
 
     public static Dialect detect(Connection connection) {
         if (connection == null) return Dialect.UNKNOWN;
+        Dialect dialect = detected.get(connection);
+        if (dialect != null) {
+            return dialect;
+        }
         try {
             String product = connection.getMetaData().getDatabaseProductName();
-            if (product == null) return Dialect.UNKNOWN;
-            return switch (product.toLowerCase()) {
+            dialect = product == null ? Dialect.UNKNOWN : switch (product.toLowerCase()) {
                 case "postgresql" -> Dialect.POSTGRESQL;
                 case "mysql"      -> Dialect.MYSQL;
                 case "sqlite"     -> Dialect.SQLITE;
@@ -28,7 +41,10 @@ public final class DialectDetector {
                 }
             };
         } catch (SQLException e) {
+            // Not remembered; the connection may answer next time
             return Dialect.UNKNOWN;
         }
+        detected.put(connection, dialect);
+        return dialect;
     }
 }
@@ -0,0 +1,275 @@
+package org.fxsql.driverload;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.fxsql.config.AppPaths;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Persistent index of the JDBC drivers each driver JAR declares, so JARs are only opened
+ * when they are new or changed.
+ * <p>
+ * A JAR is identified by its path and checked by size and modification time. A JAR whose
+ * modification time moved but whose size did not, e.g. after being copied, is hashed and kept
+ * if its SHA-256 is unchanged. The index is stored as {@code cache/driver-index.json} in the
+ * app data directory.
+ */
+public final class DriverIndex {
+
+    private static final Logger logger = Logger.getLogger(DriverIndex.class.getName());
+    private static final String CACHE_DIR = "cache";
+    private static final String FILE_NAME = "driver-index.json";
+    private static final int FORMAT_VERSION = 1;
+
+    private static final ObjectMapper mapper = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    private static volatile DriverIndex instance;
+
+    private final File file;
+    // Keyed by absolute JAR path
+    private final Map<String, JarInfo> jars = new ConcurrentHashMap<>();
+    private final AtomicBoolean dirty = new AtomicBoolean();
+
+    private DriverIndex(File file) {
+        this.file = file;
+        Snapshot snapshot = read(file);
+        for (JarInfo info : snapshot.jars) {
+            jars.put(info.path, info);
+        }
+    }
+
+    /**
+     * Returns the index, reading it from disk on first use.
+     */
+    public static DriverIndex getInstance() {
+        DriverIndex index = instance;
+        if (index == null) {
+            synchronized (DriverIndex.class) {
+                index = instance;
+                if (index == null) {
+                    index = new DriverIndex(AppPaths.getFile(CACHE_DIR, FILE_NAME));
+                    instance = index;
+                }
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Returns the driver classes recorded for a JAR.
+     *
+     * @return The class names, or null if the JAR is not indexed or has changed since
+     */
+    public List<String> lookup(Path jar) throws IOException {
+        JarInfo info = jars.get(key(jar));
+        if (info == null) {
+            return null;
+        }
+        BasicFileAttributes attributes = Files.readAttributes(jar, BasicFileAttributes.class);
+        if (info.size != attributes.size()) {
+            return null;
+        }
+        long lastModified = attributes.lastModifiedTime().toMillis();
+        if (info.lastModified != lastModified) {
+            // Touched or copied, possibly with the same content
+            if (!sha256(jar).equals(info.sha256)) {
+                return null;
+            }
+            info.lastModified = lastModified;
+            dirty.set(true);
+        }
+        return info.driverClassNames();
+    }
+
+    /**
+     * Returns whether a JAR is indexed and unchanged by size and modification time. Does not hash.
+     */
+    public boolean isCurrent(Path jar) {
+        JarInfo info = jars.get(key(jar));
+        if (info == null) {
+            return false;
+        }
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(jar, BasicFileAttributes.class);
+            return info.size == attributes.size() && info.lastModified == attributes.lastModifiedTime().toMillis();
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Returns whether a JAR was indexed with at least one driver class.
+     */
+    public boolean declaresDrivers(Path jar) {
+        JarInfo info = jars.get(key(jar));
+        return info != null && !info.drivers.isEmpty();
+    }
+
+    /**
+     * Returns whether an unchanged JAR in a directory declares a driver class.
+     */
+    public boolean providesDriver(Path directory, String driverClassName) {
+        Path dir = directory.toAbsolutePath().normalize();
+        for (JarInfo info : jars.values()) {
+            Path jar = Path.of(info.path);
+            if (dir.equals(jar.getParent()) && info.driverClassNames().contains(driverClassName) && isCurrent(jar)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Records the driver classes of a JAR that was just scanned.
+     *
+     * @param version The JAR's implementation version, or null if it has none
+     */
+    public void put(Path jar, List<String> driverClassNames, String version) throws IOException {
+        BasicFileAttributes attributes = Files.readAttributes(jar, BasicFileAttributes.class);
+        JarInfo info = new JarInfo();
+        info.path = key(jar);
+        info.size = attributes.size();
+        info.lastModified = attributes.lastModifiedTime().toMillis();
+        info.sha256 = sha256(jar);
+        info.version = version;
+        for (String className : driverClassNames) {
+            DriverClass driver = new DriverClass();
+            driver.className = className;
+            driver.version = version;
+            info.drivers.add(driver);
+        }
+        jars.put(info.path, info);
+        dirty.set(true);
+    }
+
+    /**
+     * Drops the JARs of a directory that are no longer there.
+     *
+     * @param jarFileNames File names of the JARs currently in the directory
+     */
+    public void retain(Path directory, Collection<String> jarFileNames) {
+        Path dir = directory.toAbsolutePath().normalize();
+        Set<String> present = new HashSet<>();
+        for (String name : jarFileNames) {
+            present.add(key(dir.resolve(name)));
+        }
+        jars.values().removeIf(info -> {
+            boolean removed = dir.equals(Path.of(info.path).getParent()) && !present.contains(info.path);
+            if (removed) {
+                dirty.set(true);
+            }
+            return removed;
+        });
+    }
+
+    /**
+     * Writes the index if it changed since it was last written.
+     */
+    public void save() {
+        if (!dirty.compareAndSet(true, false)) {
+            return;
+        }
+        try {
+            Snapshot snapshot = new Snapshot();
+            snapshot.jars = new ArrayList<>(jars.values());
+            File tmp = new File(file.getParentFile(), file.getName() + ".tmp");
+            Files.write(tmp.toPath(), mapper.writeValueAsBytes(snapshot));
+            Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            dirty.set(true);
+            logger.log(Level.WARNING, "Failed to write driver index " + file, e);
+        }
+    }
+
+    private static String key(Path jar) {
+        return jar.toAbsolutePath().normalize().toString();
+    }
+
+    private static String sha256(Path jar) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        byte[] buffer = new byte[64 * 1024];
+        try (InputStream in = Files.newInputStream(jar)) {
+            int read;
+            while ((read = in.read(buffer)) > 0) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static Snapshot read(File file) {
+        if (!file.exists()) {
+            return new Snapshot();
+        }
+        try {
+            Snapshot snapshot = mapper.readValue(file, Snapshot.class);
+            if (snapshot.formatVersion == FORMAT_VERSION && snapshot.jars != null) {
+                return snapshot;
+            }
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Ignoring unreadable driver index " + file, e);
+        }
+        return new Snapshot();
+    }
+
+    /**
+     * The persisted form of the index.
+     */
+    static final class Snapshot {
+        public int formatVersion = FORMAT_VERSION;
+        public List<JarInfo> jars = new ArrayList<>();
+    }
+
+    /**
+     * An indexed JAR and the drivers it declares.
+     */
+    static final class JarInfo {
+        public String path;
+        public long size;
+        public long lastModified;
+        public String sha256;
+        public String version;
+        public List<DriverClass> drivers = new ArrayList<>();
+
+        List<String> driverClassNames() {
+            List<String> names = new ArrayList<>(drivers.size());
+            for (DriverClass driver : drivers) {
+                names.add(driver.className);
+            }
+            return names;
+        }
+    }
+
+    /**
+     * A driver class and the version of the JAR it came from.
+     */
+    static final class DriverClass {
+        public String className;
+        public String version;
+    }
+}
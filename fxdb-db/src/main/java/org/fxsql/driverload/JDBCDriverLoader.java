@@ -5,19 +5,28 @@ import javafx.application.Platform;
 import javafx.concurrent.Task;
 
 import java.io.*;
+import java.lang.reflect.Modifier;
 import java.net.URL;
 import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
 import java.sql.*;
 import java.util.*;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 import java.util.jar.JarEntry;
+import java.util.jar.Attributes;
 import java.util.jar.JarFile;
+import java.util.jar.Manifest;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
@@ -32,8 +41,12 @@ public class JDBCDriverLoader {
     private static final Logger logger = Logger.getLogger(JDBCDriverLoader.class.getName());
     private static final String DEFAULT_DRIVERS_DIR = AppPaths.getDir("dynamic-jars").getAbsolutePath();
     private static final String BUNDLED_MANIFEST = "/bundled-drivers/manifest.txt";
+    private static final String DRIVER_SERVICES = "META-INF/services/java.sql.Driver";
     private final Set<Driver> loadedDrivers = Collections.synchronizedSet(new HashSet<>());
+    // Registered drivers by class name, so a driver found in two JARs is registered once
+    private final Map<String, LazyDriver> registeredDrivers = new ConcurrentHashMap<>();
     private final Map<String, String> loadedJarFiles = Collections.synchronizedMap(new HashMap<>());
+    private final DriverIndex driverIndex = DriverIndex.getInstance();
     private final ExecutorService executorService = Executors.newSingleThreadExecutor(r -> {
         Thread t = new Thread(r, "JDBC-Driver-Loader");
         t.setDaemon(true);
@@ -130,61 +143,27 @@ public class JDBCDriverLoader {
                 }
 
                 logger.info("Found " + jarFiles.size() + " JAR file(s) in drivers directory");
+                driverIndex.retain(driverPath, jarFiles);
 
-                // Load drivers from each JAR
-                int successCount = 0;
-                int failureCount = 0;
-                int currentIndex = 0;
+                // JARs are scanned in parallel; the drivers in them are loaded on first use
                 int totalJars = jarFiles.size();
-                List<String> loadedDriverNames = new ArrayList<>();
-                List<String> failedJars = new ArrayList<>();
-
-                for (String jarFileName : jarFiles) {
-                    currentIndex++;
-                    updateMessage("Processing " + jarFileName + " (" + currentIndex + "/" + totalJars + ")");
-                    updateProgress(currentIndex, totalJars);
+                AtomicInteger scanned = new AtomicInteger();
+                DriverLoadResult result = scanJars(toPaths(driversDirectory, jarFiles), jarFileName -> {
+                    int current = scanned.incrementAndGet();
+                    updateMessage("Scanned " + jarFileName + " (" + current + "/" + totalJars + ")");
+                    updateProgress(current, totalJars);
 
                     // Notify progress if callback provided
                     if (onProgress != null) {
-                        int current = currentIndex;
                         Platform.runLater(() ->
                                 onProgress.accept(new DriverLoadProgress(current, totalJars, jarFileName))
                         );
                     }
-
-                    String fullPath = Paths.get(driversDirectory, jarFileName).toString();
-                    try {
-                        logger.info("Processing JAR: " + jarFileName);
-                        LoadResult result = loadAndRegisterJDBCDriverDynamically(fullPath);
-
-                        if (result.success) {
-                            successCount++;
-                            loadedDriverNames.addAll(result.driverNames);
-                        } else {
-                            failureCount++;
-                            failedJars.add(jarFileName);
-                        }
-
-                        // Small delay to prevent overwhelming the system
-                        Thread.sleep(50);
-
-                    } catch (UnsupportedClassVersionError e) {
-                        // Driver compiled for newer Java version
-                        logger.log(Level.WARNING, "Driver " + jarFileName + " requires newer Java version: " + e.getMessage());
-                        failureCount++;
-                        failedJars.add(jarFileName + " (requires newer Java)");
-                    } catch (Exception e) {
-                        logger.log(Level.WARNING, "Failed to load driver from: " + jarFileName, e);
-                        failureCount++;
-                        failedJars.add(jarFileName + " (" + e.getMessage() + ")");
-                    }
-                }
+                }, "Completed");
 
                 logger.info(String.format("Driver loading complete: %d successful, %d failed, %d total",
-                        successCount, failureCount, totalJars));
-
-                return new DriverLoadResult(successCount, failureCount,
-                        "Completed", loadedDriverNames, failedJars);
+                        result.successCount(), result.failureCount(), totalJars));
+                return result;
             }
         };
 
@@ -245,19 +224,8 @@ public class JDBCDriverLoader {
             return 0;
         }
 
-        int successCount = 0;
-        for (String jarFileName : jarFiles) {
-            String fullPath = Paths.get(driversDirectory, jarFileName).toString();
-            try {
-                LoadResult result = loadAndRegisterJDBCDriverDynamically(fullPath);
-                if (result.success) {
-                    successCount++;
-                }
-            } catch (Exception e) {
-                logger.log(Level.WARNING, "Failed to load driver from: " + jarFileName, e);
-            }
-        }
-
+        driverIndex.retain(driverPath, jarFiles);
+        int successCount = scanJars(toPaths(driversDirectory, jarFiles), null, "Completed").successCount();
         logger.info("Loaded " + successCount + " driver(s) successfully");
         return successCount;
     }
@@ -276,19 +244,110 @@ public class JDBCDriverLoader {
         }
     }
 
+    private static List<Path> toPaths(String dir, Collection<String> jarFileNames) {
+        List<Path> paths = new ArrayList<>();
+        for (String jarFileName : jarFileNames) {
+            paths.add(Paths.get(dir, jarFileName));
+        }
+        return paths;
+    }
+
     /**
      * Internal result class for single JAR loading
      */
     private static class LoadResult {
+        String jarFileName;
         boolean success;
+        String error;
         List<String> driverNames = new ArrayList<>();
     }
 
+    /**
+     * Scans driver JARs on a pool of threads and registers the drivers they declare. Scanning
+     * only reads each JAR's service declaration, so it is cheap; the drivers themselves are
+     * loaded on first use, see {@link LazyDriver}. JARs unchanged since an earlier launch are
+     * not opened at all, their drivers come from the {@link DriverIndex}.
+     *
+     * @param jars       The JAR files to scan
+     * @param onScanned  Called with each JAR's file name once it is scanned, on a scanning thread; may be null
+     * @param message    Message of the result
+     */
+    private DriverLoadResult scanJars(Collection<Path> jars, Consumer<String> onScanned, String message) {
+        if (jars.isEmpty()) {
+            return new DriverLoadResult(0, 0, message);
+        }
+        int threads = Math.min(jars.size(), Runtime.getRuntime().availableProcessors());
+        ExecutorService pool = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "JDBC-Driver-Scanner");
+            t.setDaemon(true);
+            return t;
+        });
+
+        int successCount = 0;
+        int failureCount = 0;
+        List<String> loadedDriverNames = new ArrayList<>();
+        List<String> failedJars = new ArrayList<>();
+        try {
+            CompletionService<LoadResult> completion = new ExecutorCompletionService<>(pool);
+            for (Path jar : jars) {
+                completion.submit(() -> scanJar(jar));
+            }
+            for (int i = 0; i < jars.size(); i++) {
+                LoadResult result = completion.take().get();
+                if (result.success) {
+                    successCount++;
+                    loadedDriverNames.addAll(result.driverNames);
+                } else {
+                    failureCount++;
+                    failedJars.add(result.error != null
+                            ? result.jarFileName + " (" + result.error + ")"
+                            : result.jarFileName);
+                }
+                if (onScanned != null) {
+                    onScanned.accept(result.jarFileName);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.info("Driver scan interrupted");
+        } catch (ExecutionException e) {
+            // scanJar reports its failures in the result
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+        driverIndex.save();
+        return new DriverLoadResult(successCount, failureCount, message, loadedDriverNames, failedJars);
+    }
+
+    private LoadResult scanJar(Path jar) {
+        String jarFileName = jar.getFileName().toString();
+        LoadResult result;
+        try {
+            logger.fine("Scanning JAR: " + jarFileName);
+            result = loadAndRegisterJDBCDriverDynamically(jar.toString());
+        } catch (UnsupportedClassVersionError e) {
+            // Driver compiled for newer Java version
+            logger.log(Level.WARNING, "Driver " + jarFileName + " requires newer Java version: " + e.getMessage());
+            result = new LoadResult();
+            result.error = "requires newer Java";
+        } catch (Exception | LinkageError e) {
+            logger.log(Level.WARNING, "Failed to load driver from: " + jarFileName, e);
+            result = new LoadResult();
+            result.error = e.getMessage();
+        }
+        result.jarFileName = jarFileName;
+        return result;
+    }
+
     // Cache for URLClassLoaders to prevent them from being garbage collected
     private final Map<String, URLClassLoader> classLoaderCache = Collections.synchronizedMap(new HashMap<>());
 
     /**
-     * Loads and registers JDBC drivers from a JAR file.
+     * Registers the JDBC drivers in a JAR file. The drivers are named by the JAR's
+     * {@code META-INF/services/java.sql.Driver}; only JARs without one are searched class by class.
+     * Either way the result is kept in the {@link DriverIndex}, and the JAR is only read again
+     * once it changes.
      * Note: The URLClassLoader is NOT closed because the driver needs it to remain active.
      */
     private LoadResult loadAndRegisterJDBCDriverDynamically(String fullDriverJarPath) throws Exception {
@@ -302,56 +361,124 @@ public class JDBCDriverLoader {
 
         // Check if we already have a classloader for this JAR
         String canonicalPath = file.getCanonicalPath();
-        URLClassLoader ucl = classLoaderCache.get(canonicalPath);
-
-        if (ucl == null) {
-            URL jarUrl = file.toURI().toURL();
-            ucl = new URLClassLoader(new URL[]{jarUrl}, this.getClass().getClassLoader());
-            classLoaderCache.put(canonicalPath, ucl);
+        URL jarUrl = file.toURI().toURL();
+        URLClassLoader ucl = classLoaderCache.computeIfAbsent(canonicalPath,
+                key -> new URLClassLoader(new URL[]{jarUrl}, this.getClass().getClassLoader()));
+
+        Path jarPath = file.toPath();
+        List<String> driverClassNames = driverIndex.lookup(jarPath);
+        if (driverClassNames == null) {
+            String version;
+            try (JarFile jarFile = new JarFile(file)) {
+                version = readVersion(jarFile);
+                driverClassNames = readDriverServices(jarFile);
+                if (driverClassNames.isEmpty()) {
+                    logger.info(file.getName() + " declares no java.sql.Driver service, searching its classes");
+                    driverClassNames = findDriverClasses(jarFile, ucl);
+                }
+            }
+            driverIndex.put(jarPath, driverClassNames, version);
+        } else {
+            logger.fine("Drivers of " + file.getName() + " taken from the driver index");
         }
 
-        try (JarFile jarFile = new JarFile(file)) {
-            Enumeration<JarEntry> entries = jarFile.entries();
+        for (String className : driverClassNames) {
+            registerLazily(className, ucl);
+            result.success = true;
+            result.driverNames.add(className);
+        }
+        if (result.success) {
+            loadedJarFiles.put(file.getName(), fullDriverJarPath);
+        }
+        return result;
+    }
 
-            while (entries.hasMoreElements()) {
-                JarEntry entry = entries.nextElement();
-                String name = entry.getName();
+    /**
+     * Reads a JAR's version from its manifest, or null if it has none.
+     */
+    private static String readVersion(JarFile jarFile) throws IOException {
+        Manifest manifest = jarFile.getManifest();
+        if (manifest == null) {
+            return null;
+        }
+        Attributes attributes = manifest.getMainAttributes();
+        String version = attributes.getValue(Attributes.Name.IMPLEMENTATION_VERSION);
+        return version != null ? version : attributes.getValue("Bundle-Version");
+    }
 
-                if (!name.endsWith(".class") || name.equals("module-info.class")) {
-                    continue;
+    /**
+     * Reads the driver class names a JAR declares for {@link java.util.ServiceLoader}.
+     */
+    private static List<String> readDriverServices(JarFile jarFile) throws IOException {
+        List<String> classNames = new ArrayList<>();
+        JarEntry services = jarFile.getJarEntry(DRIVER_SERVICES);
+        if (services == null) {
+            return classNames;
+        }
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(jarFile.getInputStream(services), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                int comment = line.indexOf('#');
+                String className = (comment >= 0 ? line.substring(0, comment) : line).trim();
+                if (!className.isEmpty() && !classNames.contains(className)) {
+                    classNames.add(className);
                 }
+            }
+        }
+        return classNames;
+    }
 
-                String className = name.replace('/', '.').substring(0, name.length() - 6);
-
-                try {
-                    Class<?> clazz = Class.forName(className, false, ucl);
-
-                    if (Driver.class.isAssignableFrom(clazz) && !clazz.isInterface()) {
-                        Driver driver = (Driver) clazz.getDeclaredConstructor().newInstance();
-                        DriverManager.registerDriver(new JDBCDriverShim(driver, ucl));
-
-                        // Register the classloader with DynamicJDBCDriverLoader for TCCL usage
-                        DynamicJDBCDriverLoader.registerDriverClassLoader(className, ucl);
-
-                        loadedDrivers.add(driver);
-                        result.success = true;
-                        result.driverNames.add(className);
+    /**
+     * Finds driver implementations by loading each class of a JAR without initializing it.
+     * Slow, so only used for old drivers that do not declare a service.
+     */
+    private static List<String> findDriverClasses(JarFile jarFile, ClassLoader ucl) {
+        List<String> classNames = new ArrayList<>();
+        Enumeration<JarEntry> entries = jarFile.entries();
+        while (entries.hasMoreElements()) {
+            String name = entries.nextElement().getName();
+            if (!name.endsWith(".class") || name.endsWith("module-info.class")) {
+                continue;
+            }
 
-                        logger.info("Successfully loaded driver: " + className);
-                    }
-                } catch (ClassNotFoundException | NoClassDefFoundError | ExceptionInInitializerError e) {
-                    // Expected - silently ignore
-                    logger.fine("Class not found for: " + e.getMessage());
-                } catch (UnsupportedClassVersionError e) {
-                    // Driver compiled for a newer Java version - skip but log warning
-                    logger.warning("Skipping class " + className + " - requires newer Java version: " + e.getMessage());
-                } catch (Exception e) {
-                    logger.fine("Cannot load class " + className + ": " + e.getMessage());
+            String className = name.replace('/', '.').substring(0, name.length() - 6);
+            try {
+                Class<?> clazz = Class.forName(className, false, ucl);
+                if (Driver.class.isAssignableFrom(clazz) && !clazz.isInterface()
+                        && !Modifier.isAbstract(clazz.getModifiers())) {
+                    classNames.add(className);
                 }
+            } catch (ClassNotFoundException | NoClassDefFoundError e) {
+                // Expected - silently ignore
+                logger.fine("Class not found for: " + e.getMessage());
+            } catch (UnsupportedClassVersionError e) {
+                // Driver compiled for a newer Java version - skip but log warning
+                logger.warning("Skipping class " + className + " - requires newer Java version: " + e.getMessage());
+            } catch (Exception | LinkageError e) {
+                logger.fine("Cannot load class " + className + ": " + e.getMessage());
             }
         }
+        return classNames;
+    }
 
-        return result;
+    /**
+     * Registers a driver with {@link DriverManager} without loading it. A class registered
+     * before, e.g. from another copy of the same driver, is kept as it is.
+     */
+    private void registerLazily(String className, URLClassLoader ucl) throws SQLException {
+        LazyDriver driver = new LazyDriver(className, ucl);
+        if (registeredDrivers.putIfAbsent(className, driver) != null) {
+            logger.fine("Driver already registered: " + className);
+            return;
+        }
+        DriverManager.registerDriver(driver);
+
+        // Register the classloader with DynamicJDBCDriverLoader for TCCL usage
+        DynamicJDBCDriverLoader.registerDriverClassLoader(className, ucl);
+
+        loadedDrivers.add(driver);
+        logger.info("Registered driver: " + className);
     }
 
     /**
@@ -364,7 +491,7 @@ public class JDBCDriverLoader {
         while (driverEnum.hasMoreElements()) {
             Driver driver = driverEnum.nextElement();
             drivers.add(new DriverInfo(
-                    driver.getClass().getName(),
+                    driverClassName(driver),
                     driver.getMajorVersion(),
                     driver.getMinorVersion(),
                     driver.jdbcCompliant()
@@ -374,6 +501,10 @@ public class JDBCDriverLoader {
         return drivers;
     }
 
+    private static String driverClassName(Driver driver) {
+        return driver instanceof LazyDriver lazy ? lazy.getDriverClassName() : driver.getClass().getName();
+    }
+
     /**
      * Prints loaded drivers information
      */
@@ -418,13 +549,14 @@ public class JDBCDriverLoader {
         for (Driver driver : loadedDrivers) {
             try {
                 DriverManager.deregisterDriver(driver);
-                logger.info("Deregistered driver: " + driver.getClass().getName());
+                logger.info("Deregistered driver: " + driverClassName(driver));
             } catch (SQLException e) {
                 logger.log(Level.WARNING, "Failed to deregister driver", e);
             }
         }
 
         loadedDrivers.clear();
+        registeredDrivers.clear();
     }
 
     /**
@@ -436,7 +568,8 @@ public class JDBCDriverLoader {
 
     /**
      * Checks for new JDBC drivers in the specified directory that haven't been loaded yet.
-     * This method scans the directory and compares with already loaded drivers.
+     * This method lists the directory and compares it with the loaded drivers and the
+     * {@link DriverIndex}, without opening any JAR.
      *
      * @param driversDirectory Path to the directory containing JDBC driver JAR files
      * @return NewDriversCheckResult containing information about new drivers found
@@ -453,9 +586,15 @@ public class JDBCDriverLoader {
             Set<String> currentJarFiles = listJarFiles(driversDirectory);
             Set<String> loadedJarNames = new HashSet<>(loadedJarFiles.keySet());
 
-            // Find new JARs that haven't been loaded
+            // New JARs are those not indexed, changed since they were, or declaring drivers not loaded yet
             Set<String> newJars = currentJarFiles.stream()
-                    .filter(jar -> !loadedJarNames.contains(jar))
+                    .filter(jar -> {
+                        Path jarPath = driverPath.resolve(jar);
+                        if (!driverIndex.isCurrent(jarPath)) {
+                            return true;
+                        }
+                        return !loadedJarNames.contains(jar) && driverIndex.declaresDrivers(jarPath);
+                    })
                     .collect(Collectors.toSet());
 
             if (newJars.isEmpty()) {
@@ -526,56 +665,25 @@ public class JDBCDriverLoader {
 
                 logger.info("Loading " + checkResult.newDriverCount + " new driver(s)");
 
-                int successCount = 0;
-                int failureCount = 0;
-                int currentIndex = 0;
                 int totalJars = checkResult.newDriverJars.size();
-                List<String> loadedDriverNames = new ArrayList<>();
-                List<String> failedJars = new ArrayList<>();
-
-                for (String jarFileName : checkResult.newDriverJars) {
-                    currentIndex++;
-                    updateMessage("Loading new driver: " + jarFileName + " (" + currentIndex + "/" + totalJars + ")");
-                    updateProgress(currentIndex, totalJars);
+                AtomicInteger scanned = new AtomicInteger();
+                DriverLoadResult result = scanJars(toPaths(driversDirectory, checkResult.newDriverJars), jarFileName -> {
+                    int current = scanned.incrementAndGet();
+                    updateMessage("Loaded new driver: " + jarFileName + " (" + current + "/" + totalJars + ")");
+                    updateProgress(current, totalJars);
 
                     if (onProgress != null) {
-                        int current = currentIndex;
                         Platform.runLater(() ->
                                 onProgress.accept(new DriverLoadProgress(current, totalJars, jarFileName))
                         );
                     }
-
-                    String fullPath = Paths.get(driversDirectory, jarFileName).toString();
-                    try {
-                        LoadResult result = loadAndRegisterJDBCDriverDynamically(fullPath);
-
-                        if (result.success) {
-                            successCount++;
-                            loadedDriverNames.addAll(result.driverNames);
-                        } else {
-                            failureCount++;
-                            failedJars.add(jarFileName);
-                        }
-
-                        Thread.sleep(50);
-
-                    } catch (UnsupportedClassVersionError e) {
-                        // Driver compiled for newer Java version
-                        logger.log(Level.WARNING, "Driver " + jarFileName + " requires newer Java version: " + e.getMessage());
-                        failureCount++;
-                        failedJars.add(jarFileName + " (requires newer Java)");
-                    } catch (Exception e) {
-                        logger.log(Level.WARNING, "Failed to load new driver from: " + jarFileName, e);
-                        failureCount++;
-                        failedJars.add(jarFileName + " (" + e.getMessage() + ")");
-                    }
-                }
+                }, "");
 
                 logger.info(String.format("New driver loading complete: %d successful, %d failed",
-                        successCount, failureCount));
+                        result.successCount(), result.failureCount()));
 
-                return new DriverLoadResult(successCount, failureCount,
-                        "Loaded " + successCount + " new driver(s)", loadedDriverNames, failedJars);
+                return new DriverLoadResult(result.successCount(), result.failureCount(),
+                        "Loaded " + result.successCount() + " new driver(s)", result.loadedDrivers(), result.failedJars());
             }
         };
 
@@ -621,7 +729,7 @@ public class JDBCDriverLoader {
 
                 // Unregister and re-register each driver
                 for (Driver driver : driversToReload) {
-                    String driverName = driver.getClass().getName();
+                    String driverName = driverClassName(driver);
 
                     try {
                         // Unregister
@@ -690,44 +798,20 @@ public class JDBCDriverLoader {
                 }
 
                 // Reload each JAR file
-                int successCount = 0;
-                int failureCount = 0;
-                List<String> loadedDriverNames = new ArrayList<>();
-                List<String> failedJars = new ArrayList<>();
-
-                int currentIndex = 0;
                 int totalJars = jarsToReload.size();
-
-                for (Map.Entry<String, String> entry : jarsToReload.entrySet()) {
-                    currentIndex++;
-                    String jarFileName = entry.getKey();
-                    String fullPath = entry.getValue();
-
-                    updateMessage("Reloading " + jarFileName + " (" + currentIndex + "/" + totalJars + ")");
-                    updateProgress(currentIndex, totalJars);
-
-                    try {
-                        LoadResult result = loadAndRegisterJDBCDriverDynamically(fullPath);
-
-                        if (result.success) {
-                            successCount++;
-                            loadedDriverNames.addAll(result.driverNames);
-                        } else {
-                            failureCount++;
-                            failedJars.add(jarFileName);
-                        }
-                    } catch (Exception e) {
-                        logger.log(Level.WARNING, "Failed to reload driver from: " + jarFileName, e);
-                        failureCount++;
-                        failedJars.add(jarFileName + " (" + e.getMessage() + ")");
-                    }
-                }
+                AtomicInteger scanned = new AtomicInteger();
+                List<Path> jars = jarsToReload.values().stream().map(Paths::get).toList();
+                DriverLoadResult result = scanJars(jars, jarFileName -> {
+                    int current = scanned.incrementAndGet();
+                    updateMessage("Reloaded " + jarFileName + " (" + current + "/" + totalJars + ")");
+                    updateProgress(current, totalJars);
+                }, "");
 
                 logger.info(String.format("Driver refresh complete: %d successful, %d failed",
-                        successCount, failureCount));
+                        result.successCount(), result.failureCount()));
 
-                return new DriverLoadResult(successCount, failureCount,
-                        "Refreshed " + successCount + " driver(s)", loadedDriverNames, failedJars);
+                return new DriverLoadResult(result.successCount(), result.failureCount(),
+                        "Refreshed " + result.successCount() + " driver(s)", result.loadedDrivers(), result.failedJars());
             }
         };
 
@@ -762,30 +846,9 @@ public class JDBCDriverLoader {
             return new DriverLoadResult(0, 0, "No JAR files found");
         }
 
-        int successCount = 0;
-        int failureCount = 0;
-        List<String> loadedDriverNames = new ArrayList<>();
-        List<String> failedJars = new ArrayList<>();
-
-        for (String jarFileName : jarFiles) {
-            String fullPath = Paths.get(driversDirectory, jarFileName).toString();
-            try {
-                LoadResult result = loadAndRegisterJDBCDriverDynamically(fullPath);
-                if (result.success) {
-                    successCount++;
-                    loadedDriverNames.addAll(result.driverNames);
-                } else {
-                    failureCount++;
-                    failedJars.add(jarFileName);
-                }
-            } catch (Exception e) {
-                failureCount++;
-                failedJars.add(jarFileName + " (" + e.getMessage() + ")");
-            }
-        }
-
-        return new DriverLoadResult(successCount, failureCount,
-                "Loaded " + successCount + " driver(s)", loadedDriverNames, failedJars);
+        DriverLoadResult result = scanJars(toPaths(driversDirectory, jarFiles), null, "");
+        return new DriverLoadResult(result.successCount(), result.failureCount(),
+                "Loaded " + result.successCount() + " driver(s)", result.loadedDrivers(), result.failedJars());
     }
 
     // ========== Helper Classes ==========
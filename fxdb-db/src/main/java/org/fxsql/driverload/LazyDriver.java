@@ -0,0 +1,166 @@
+package org.fxsql.driverload;
+
+import java.sql.Connection;
+import java.sql.Driver;
+import java.sql.DriverPropertyInfo;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.logging.Logger;
+
+/**
+ * Stands in for a JDBC driver found in a driver JAR until a connection needs it. The driver
+ * class is only loaded, initialized and instantiated on the first connection to a URL it may
+ * accept, so installed drivers that are never used cost nothing at startup.
+ * <p>
+ * For well-known drivers the URL prefixes are known up front and other URLs are declined
+ * without loading the driver. Unknown drivers are loaded on the first connection attempt.
+ */
+public final class LazyDriver implements Driver {
+
+    private static final Logger logger = Logger.getLogger(LazyDriver.class.getName());
+
+    // URL prefixes of common drivers, so a connection to one database does not load the others
+    private static final Map<String, List<String>> KNOWN_PREFIXES = Map.ofEntries(
+            Map.entry("org.postgresql.Driver", List.of("jdbc:postgresql:")),
+            Map.entry("com.mysql.cj.jdbc.Driver", List.of("jdbc:mysql:", "mysqlx:")),
+            Map.entry("com.mysql.jdbc.Driver", List.of("jdbc:mysql:")),
+            Map.entry("org.mariadb.jdbc.Driver", List.of("jdbc:mariadb:", "jdbc:mysql:")),
+            Map.entry("org.sqlite.JDBC", List.of("jdbc:sqlite:")),
+            Map.entry("org.duckdb.DuckDBDriver", List.of("jdbc:duckdb:")),
+            Map.entry("org.h2.Driver", List.of("jdbc:h2:")),
+            Map.entry("org.hsqldb.jdbc.JDBCDriver", List.of("jdbc:hsqldb:")),
+            Map.entry("com.microsoft.sqlserver.jdbc.SQLServerDriver", List.of("jdbc:sqlserver:")),
+            Map.entry("oracle.jdbc.OracleDriver", List.of("jdbc:oracle:")),
+            Map.entry("oracle.jdbc.driver.OracleDriver", List.of("jdbc:oracle:")),
+            Map.entry("com.ibm.db2.jcc.DB2Driver", List.of("jdbc:db2:")),
+            Map.entry("org.firebirdsql.jdbc.FBDriver", List.of("jdbc:firebirdsql:", "jdbc:firebird:")),
+            Map.entry("com.clickhouse.jdbc.ClickHouseDriver", List.of("jdbc:clickhouse:", "jdbc:ch:")),
+            Map.entry("net.snowflake.client.jdbc.SnowflakeDriver", List.of("jdbc:snowflake:")),
+            Map.entry("io.trino.jdbc.TrinoDriver", List.of("jdbc:trino:"))
+    );
+
+    private final String driverClassName;
+    private final ClassLoader classLoader;
+    private final List<String> urlPrefixes;
+    private volatile Driver driver;
+
+    LazyDriver(String driverClassName, ClassLoader classLoader) {
+        this.driverClassName = driverClassName;
+        this.classLoader = classLoader;
+        this.urlPrefixes = KNOWN_PREFIXES.get(driverClassName);
+    }
+
+    public String getDriverClassName() {
+        return driverClassName;
+    }
+
+    /**
+     * Returns whether the driver class has been loaded yet.
+     */
+    public boolean isResolved() {
+        return driver != null;
+    }
+
+    /**
+     * Returns the real driver, loading it on first use.
+     *
+     * @throws SQLException if the driver class cannot be loaded or instantiated
+     */
+    public Driver resolve() throws SQLException {
+        Driver resolved = driver;
+        if (resolved != null) {
+            return resolved;
+        }
+        synchronized (this) {
+            if (driver == null) {
+                long start = System.nanoTime();
+                try {
+                    Class<?> clazz = Class.forName(driverClassName, true, classLoader);
+                    driver = (Driver) clazz.getDeclaredConstructor().newInstance();
+                } catch (ReflectiveOperationException | LinkageError | ClassCastException e) {
+                    throw new SQLException("JDBC driver " + driverClassName + " could not be loaded: " + e, e);
+                }
+                logger.info(String.format("Loaded driver %s on first use in %d ms", driverClassName,
+                        (System.nanoTime() - start) / 1_000_000));
+            }
+            return driver;
+        }
+    }
+
+    private boolean mayAccept(String url) {
+        if (url == null) {
+            return false;
+        }
+        if (urlPrefixes == null) {
+            return true;
+        }
+        for (String prefix : urlPrefixes) {
+            if (url.regionMatches(true, 0, prefix, 0, prefix.length())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public Connection connect(String url, Properties info) throws SQLException {
+        if (!mayAccept(url)) {
+            return null;
+        }
+        Driver real = resolve();
+        // Drivers that look up resources or services through the context class loader need their own
+        Thread thread = Thread.currentThread();
+        ClassLoader previous = thread.getContextClassLoader();
+        thread.setContextClassLoader(classLoader);
+        try {
+            return real.connect(url, info);
+        } finally {
+            thread.setContextClassLoader(previous);
+        }
+    }
+
+    @Override
+    public boolean acceptsURL(String url) throws SQLException {
+        return mayAccept(url) && resolve().acceptsURL(url);
+    }
+
+    @Override
+    public DriverPropertyInfo[] getPropertyInfo(String url, Properties info) throws SQLException {
+        return resolve().getPropertyInfo(url, info);
+    }
+
+    @Override
+    public int getMajorVersion() {
+        Driver real = driver;
+        return real != null ? real.getMajorVersion() : 0;
+    }
+
+    @Override
+    public int getMinorVersion() {
+        Driver real = driver;
+        return real != null ? real.getMinorVersion() : 0;
+    }
+
+    @Override
+    public boolean jdbcCompliant() {
+        Driver real = driver;
+        return real != null && real.jdbcCompliant();
+    }
+
+    @Override
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        Driver real = driver;
+        if (real == null) {
+            throw new SQLFeatureNotSupportedException("Driver " + driverClassName + " is not loaded yet");
+        }
+        return real.getParentLogger();
+    }
+
+    @Override
+    public String toString() {
+        return "LazyDriver[" + driverClassName + (isResolved() ? ", loaded" : "") + "]";
+    }
+}
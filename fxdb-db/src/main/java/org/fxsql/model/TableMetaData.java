@@ -1,11 +1,16 @@
 package org.fxsql.model;
 
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
 import java.util.ArrayList;
 import java.util.List;
 
 /**
  * Represents metadata about a database table including columns, primary keys, and foreign keys.
  */
+@JsonIgnoreProperties(ignoreUnknown = true)
 public class TableMetaData {
 
     private String tableName;
@@ -17,7 +22,8 @@ public class TableMetaData {
     private List<ForeignKeyInfo> foreignKeys;
     private List<IndexInfo> indexes;
 
-    public TableMetaData(String tableName) {
+    @JsonCreator
+    public TableMetaData(@JsonProperty("tableName") String tableName) {
         this.tableName = tableName;
         this.columns = new ArrayList<>();
         this.primaryKeys = new ArrayList<>();
@@ -53,6 +59,7 @@ public class TableMetaData {
     /**
      * Information about a table column.
      */
+    @JsonIgnoreProperties(ignoreUnknown = true)
     public static class ColumnInfo {
         private String name;
         private String typeName;
@@ -65,7 +72,8 @@ public class TableMetaData {
         private int ordinalPosition;
         private String remarks;
 
-        public ColumnInfo(String name) {
+        @JsonCreator
+        public ColumnInfo(@JsonProperty("name") String name) {
             this.name = name;
         }
 
@@ -117,12 +125,14 @@ public class TableMetaData {
     /**
      * Information about a primary key.
      */
+    @JsonIgnoreProperties(ignoreUnknown = true)
     public static class PrimaryKeyInfo {
         private String columnName;
         private String pkName;
         private int keySeq;
 
-        public PrimaryKeyInfo(String columnName) {
+        @JsonCreator
+        public PrimaryKeyInfo(@JsonProperty("columnName") String columnName) {
             this.columnName = columnName;
         }
 
@@ -140,6 +150,7 @@ public class TableMetaData {
     /**
      * Information about a foreign key.
      */
+    @JsonIgnoreProperties(ignoreUnknown = true)
     public static class ForeignKeyInfo {
         private String fkName;
         private String fkColumnName;
@@ -149,7 +160,8 @@ public class TableMetaData {
         private int updateRule;
         private int deleteRule;
 
-        public ForeignKeyInfo(String fkColumnName) {
+        @JsonCreator
+        public ForeignKeyInfo(@JsonProperty("fkColumnName") String fkColumnName) {
             this.fkColumnName = fkColumnName;
         }
 
@@ -211,6 +223,7 @@ public class TableMetaData {
     /**
      * Information about an index.
      */
+    @JsonIgnoreProperties(ignoreUnknown = true)
     public static class IndexInfo {
         private String indexName;
         private String columnName;
@@ -219,7 +232,8 @@ public class TableMetaData {
         private int ordinalPosition;
         private String ascOrDesc;
 
-        public IndexInfo(String indexName) {
+        @JsonCreator
+        public IndexInfo(@JsonProperty("indexName") String indexName) {
             this.indexName = indexName;
         }
 
@@ -0,0 +1,99 @@
+package org.fxsql.pool;
+
+import org.fxsql.DatabaseConnection;
+
+/**
+ * A connection borrowed from a {@link ConnectionPool}. Closing the lease returns the connection;
+ * use it in a try-with-resources block.
+ * <p>
+ * A lease taken where no pool exists wraps the shared connection, and closing it does nothing.
+ */
+public final class ConnectionLease implements AutoCloseable {
+
+    private final ConnectionPool pool;
+    private final ConnectionPool.Entry entry;
+    private final DatabaseConnection connection;
+    private final long borrowedAt;
+    // Held for a whole session on a connection of its own, which is closed rather than pooled
+    private final boolean session;
+    // Where the connection was borrowed, for leak reports; null when leak detection is off or for sessions
+    private final Throwable borrowSite;
+    private volatile boolean leakReported;
+    private volatile boolean returned;
+
+    ConnectionLease(ConnectionPool pool, ConnectionPool.Entry entry, boolean session, Throwable borrowSite) {
+        this.pool = pool;
+        this.entry = entry;
+        this.connection = entry.connection;
+        this.borrowedAt = System.nanoTime();
+        this.session = session;
+        this.borrowSite = borrowSite;
+    }
+
+    private ConnectionLease(DatabaseConnection shared) {
+        this.pool = null;
+        this.entry = null;
+        this.connection = shared;
+        this.borrowedAt = System.nanoTime();
+        this.session = false;
+        this.borrowSite = null;
+    }
+
+    static ConnectionLease shared(DatabaseConnection connection) {
+        return new ConnectionLease(connection);
+    }
+
+    /**
+     * Returns the borrowed connection. Do not keep it after closing the lease.
+     */
+    public DatabaseConnection connection() {
+        return connection;
+    }
+
+    /**
+     * Returns true when the connection can no longer be used: its pool was closed because the
+     * database was disconnected, or the connection itself was closed.
+     */
+    public boolean isStale() {
+        return connection == null || (pool != null && pool.isClosed()) || !connection.isConnected();
+    }
+
+    /**
+     * Returns true if this lease holds a pooled connection rather than the shared one.
+     */
+    public boolean isPooled() {
+        return pool != null;
+    }
+
+    @Override
+    public void close() {
+        if (pool != null && !returned) {
+            returned = true;
+            pool.release(this);
+        }
+    }
+
+    ConnectionPool.Entry entry() {
+        return entry;
+    }
+
+    boolean isSession() {
+        return session;
+    }
+
+    long borrowedAt() {
+        return borrowedAt;
+    }
+
+    Throwable borrowSite() {
+        return borrowSite;
+    }
+
+    boolean isLeakReported() {
+        return leakReported;
+    }
+
+    void markLeakReported() {
+        leakReported = true;
+    }
+}
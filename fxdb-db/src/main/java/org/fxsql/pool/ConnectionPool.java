@@ -0,0 +1,461 @@
+package org.fxsql.pool;
+
+import org.fxsql.DatabaseConnection;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A small pool of extra connections to one saved database, so that independent work such as a
+ * long script, table browsing and metadata loads does not queue behind a single JDBC connection.
+ * <p>
+ * Pools are registered against the primary connection that the rest of the UI already holds, and
+ * code that runs a query borrows through {@link #lease(DatabaseConnection)}. When no pool is
+ * registered the lease simply wraps the primary connection, so callers need not care. Work whose
+ * session state must carry over between operations, such as an SQL editor, holds a connection of
+ * its own for its lifetime through {@link #session(DatabaseConnection)}; session connections do
+ * not count against the pool's maximum, so open editors never starve short borrows.
+ * <p>
+ * Idle connections are reused most-recently-used first and are validated on borrow unless they
+ * were validated within the configured window. A background task closes idle connections above
+ * the minimum, tops the pool up to the minimum, and logs leases held past the leak threshold
+ * together with where they were borrowed.
+ */
+public class ConnectionPool implements AutoCloseable {
+
+    private static final Logger logger = Logger.getLogger(ConnectionPool.class.getName());
+    private static final long MAINTENANCE_INTERVAL_SECONDS = 10;
+    private static final Map<DatabaseConnection, ConnectionPool> pools = new ConcurrentHashMap<>();
+    private static final ScheduledExecutorService maintenance = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "ConnectionPool-Maintenance");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private final String name;
+    private final PoolSettings settings;
+    private final Callable<DatabaseConnection> opener;
+
+    // Guarded by this
+    private final Deque<Entry> idle = new ArrayDeque<>();
+    private int openCount;
+    private boolean closed;
+
+    private final Set<ConnectionLease> active = ConcurrentHashMap.newKeySet();
+    private final ScheduledFuture<?> maintenanceTask;
+
+    /**
+     * A pooled connection and its bookkeeping.
+     */
+    static final class Entry {
+        final DatabaseConnection connection;
+        volatile long lastValidated;
+        volatile long lastReturned;
+
+        Entry(DatabaseConnection connection) {
+            this.connection = connection;
+            this.lastValidated = System.nanoTime();
+            this.lastReturned = lastValidated;
+        }
+    }
+
+    /**
+     * @param name Name used in log messages, usually the saved connection name
+     * @param settings Sizing and housekeeping limits
+     * @param opener Opens a new connected {@link DatabaseConnection} with the saved settings
+     */
+    public ConnectionPool(String name, PoolSettings settings, Callable<DatabaseConnection> opener) {
+        this.name = name;
+        this.settings = settings;
+        this.opener = opener;
+        this.maintenanceTask = maintenance.scheduleWithFixedDelay(this::maintain,
+                0, MAINTENANCE_INTERVAL_SECONDS, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Registers a pool for a primary connection, closing any pool it replaces.
+     */
+    public static void register(DatabaseConnection primary, ConnectionPool pool) {
+        ConnectionPool previous = pools.put(primary, pool);
+        if (previous != null && previous != pool) {
+            previous.close();
+        }
+    }
+
+    /**
+     * Closes and forgets the pool registered for a primary connection, if any.
+     */
+    public static void unregister(DatabaseConnection primary) {
+        if (primary == null) {
+            return;
+        }
+        ConnectionPool pool = pools.remove(primary);
+        if (pool != null) {
+            pool.close();
+        }
+    }
+
+    /**
+     * Returns the pool registered for a primary connection, or null.
+     */
+    public static ConnectionPool forConnection(DatabaseConnection primary) {
+        return primary != null ? pools.get(primary) : null;
+    }
+
+    /**
+     * Borrows a connection to the same database as {@code primary}. Without a registered
+     * pool the lease wraps {@code primary} itself.
+     *
+     * @param primary The connection held by the caller
+     * @return A lease to close when done
+     * @throws SQLException if the pool was closed or the wait was interrupted
+     */
+    public static ConnectionLease lease(DatabaseConnection primary) throws SQLException {
+        ConnectionPool pool = forConnection(primary);
+        if (pool == null) {
+            return ConnectionLease.shared(primary);
+        }
+        try {
+            return pool.borrow();
+        } catch (OpenFailedException | BorrowTimeoutException e) {
+            // Better to queue behind the primary connection than to fail the caller
+            logger.log(Level.WARNING, "Using the shared connection: " + e.getMessage(), e);
+            return ConnectionLease.shared(primary);
+        }
+    }
+
+    /**
+     * Borrows a connection to keep for a whole session, such as the lifetime of an SQL editor, so
+     * that session settings, temporary tables and open transactions carry from one run to the
+     * next. The connection is opened for the session and closed when it ends; it is not taken
+     * from the idle connections and does not count against the pool's maximum. Session leases
+     * are not reported as leaks. When no connection can be opened the lease wraps {@code primary}.
+     *
+     * @param primary The connection held by the caller
+     * @return A lease to close when the session ends
+     */
+    public static ConnectionLease session(DatabaseConnection primary) {
+        ConnectionPool pool = forConnection(primary);
+        if (pool == null) {
+            return ConnectionLease.shared(primary);
+        }
+        try {
+            return pool.openSession();
+        } catch (SQLException e) {
+            logger.log(Level.WARNING, "Using the shared connection for a session: " + e.getMessage(), e);
+            return ConnectionLease.shared(primary);
+        }
+    }
+
+    /**
+     * Borrows a connection, opening one if none is idle and the pool is below its maximum,
+     * or waiting for one to be returned otherwise.
+     */
+    public ConnectionLease borrow() throws SQLException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(settings.getBorrowTimeoutSeconds());
+        while (true) {
+            Entry entry;
+            synchronized (this) {
+                entry = idle.pollFirst();
+                while (entry == null && !closed && openCount >= settings.getMaxSize()) {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        throw new BorrowTimeoutException("Timed out waiting for a connection from pool " + name
+                                + " (" + settings.getMaxSize() + " in use)");
+                    }
+                    try {
+                        TimeUnit.NANOSECONDS.timedWait(this, remaining);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new SQLException("Interrupted while waiting for a connection", e);
+                    }
+                    entry = idle.pollFirst();
+                }
+                if (closed) {
+                    throw new SQLException("Connection pool " + name + " is closed");
+                }
+                if (entry == null) {
+                    openCount++;
+                }
+            }
+
+            if (entry == null) {
+                entry = open();
+            } else if (!validate(entry)) {
+                destroy(entry);
+                continue;
+            }
+            ConnectionLease lease = new ConnectionLease(this, entry, false,
+                    settings.getLeakThresholdSeconds() > 0 ? new Throwable("Connection borrowed here") : null);
+            active.add(lease);
+            return lease;
+        }
+    }
+
+    private ConnectionLease openSession() throws SQLException {
+        synchronized (this) {
+            if (closed) {
+                throw new SQLException("Connection pool " + name + " is closed");
+            }
+        }
+        ConnectionLease lease = new ConnectionLease(this, connect(), true, null);
+        active.add(lease);
+        return lease;
+    }
+
+    void release(ConnectionLease lease) {
+        active.remove(lease);
+        Entry entry = lease.entry();
+        if (lease.isSession()) {
+            disconnect(entry);
+            return;
+        }
+        if (!resetState(entry)) {
+            destroy(entry);
+            return;
+        }
+        entry.lastReturned = System.nanoTime();
+        synchronized (this) {
+            if (!closed) {
+                idle.addFirst(entry);
+                notifyAll();
+                return;
+            }
+        }
+        destroy(entry);
+    }
+
+    /**
+     * Returns true once the pool has been closed, for example because its database was disconnected.
+     */
+    public synchronized boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Returns the number of open pooled connections, borrowed or idle.
+     */
+    public synchronized int getOpenCount() {
+        return openCount;
+    }
+
+    /**
+     * Returns the number of connections currently borrowed.
+     */
+    public int getActiveCount() {
+        return active.size();
+    }
+
+    /**
+     * Closes idle connections and stops housekeeping. Borrowed connections are closed when returned.
+     */
+    @Override
+    public void close() {
+        List<Entry> toClose;
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            toClose = new ArrayList<>(idle);
+            idle.clear();
+            notifyAll();
+        }
+        maintenanceTask.cancel(false);
+        toClose.forEach(this::destroy);
+        logger.info("Connection pool closed: " + name);
+    }
+
+    /**
+     * Opens a connection counted in {@code openCount}, which the caller has already incremented.
+     */
+    private Entry open() throws OpenFailedException {
+        try {
+            return connect();
+        } catch (OpenFailedException e) {
+            synchronized (this) {
+                openCount--;
+                notifyAll();
+            }
+            throw e;
+        }
+    }
+
+    private Entry connect() throws OpenFailedException {
+        try {
+            DatabaseConnection connection = opener.call();
+            logger.fine("Opened pooled connection for " + name);
+            return new Entry(connection);
+        } catch (Exception e) {
+            throw new OpenFailedException("Failed to open pooled connection for " + name + ": " + e.getMessage(), e);
+        }
+    }
+
+    private boolean validate(Entry entry) {
+        long window = TimeUnit.SECONDS.toNanos(settings.getValidationWindowSeconds());
+        if (System.nanoTime() - entry.lastValidated < window) {
+            return true;
+        }
+        boolean valid = entry.connection.validateConnection();
+        if (valid) {
+            entry.lastValidated = System.nanoTime();
+        }
+        return valid;
+    }
+
+    /**
+     * Undoes session state a borrower may have left behind, so the next one starts clean.
+     * <p>
+     * A transaction opened with a {@code BEGIN} statement leaves auto-commit on, so a
+     * {@code ROLLBACK} statement is always sent as well. Where no transaction is open some
+     * databases reject it; that error only confirms there was nothing to undo.
+     */
+    private boolean resetState(Entry entry) {
+        Connection conn = entry.connection.getConnection();
+        try {
+            if (conn == null || conn.isClosed()) {
+                return false;
+            }
+            if (!conn.getAutoCommit()) {
+                conn.rollback();
+                conn.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            logger.log(Level.FINE, "Dropping pooled connection that could not be reset", e);
+            return false;
+        }
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("ROLLBACK");
+        } catch (SQLException e) {
+            logger.log(Level.FINEST, "No transaction to roll back on pooled connection", e);
+        }
+        return true;
+    }
+
+    private void destroy(Entry entry) {
+        disconnect(entry);
+        synchronized (this) {
+            openCount--;
+            notifyAll();
+        }
+    }
+
+    private void disconnect(Entry entry) {
+        try {
+            entry.connection.disconnect();
+        } catch (Exception e) {
+            logger.log(Level.FINE, "Error closing pooled connection", e);
+        }
+    }
+
+    private void maintain() {
+        try {
+            evictIdle();
+            reportLeaks();
+            fillToMinimum();
+        } catch (RuntimeException e) {
+            logger.log(Level.WARNING, "Connection pool maintenance failed for " + name, e);
+        }
+    }
+
+    private void evictIdle() {
+        long idleTimeout = TimeUnit.SECONDS.toNanos(settings.getIdleTimeoutSeconds());
+        long now = System.nanoTime();
+        List<Entry> evicted = new ArrayList<>();
+        synchronized (this) {
+            // The least recently used connections are at the tail
+            Iterator<Entry> it = idle.descendingIterator();
+            while (it.hasNext() && openCount - evicted.size() > settings.getMinSize()) {
+                Entry entry = it.next();
+                if (now - entry.lastReturned < idleTimeout) {
+                    break;
+                }
+                it.remove();
+                evicted.add(entry);
+            }
+        }
+        evicted.forEach(this::destroy);
+        if (!evicted.isEmpty()) {
+            logger.fine("Closed " + evicted.size() + " idle connection(s) for " + name);
+        }
+    }
+
+    private void reportLeaks() {
+        long threshold = TimeUnit.SECONDS.toNanos(settings.getLeakThresholdSeconds());
+        if (threshold == 0) {
+            return;
+        }
+        long now = System.nanoTime();
+        for (ConnectionLease lease : active) {
+            // Session leases are held on purpose and have no borrow site
+            if (lease.borrowSite() != null && !lease.isLeakReported() && now - lease.borrowedAt() > threshold) {
+                lease.markLeakReported();
+                logger.log(Level.WARNING, String.format(
+                        "Connection from pool %s has been borrowed for %d s without being returned",
+                        name, TimeUnit.NANOSECONDS.toSeconds(now - lease.borrowedAt())), lease.borrowSite());
+            }
+        }
+    }
+
+    private void fillToMinimum() {
+        int minSize = Math.min(settings.getMinSize(), settings.getMaxSize());
+        while (true) {
+            synchronized (this) {
+                if (closed || openCount >= minSize) {
+                    return;
+                }
+                openCount++;
+            }
+            Entry entry;
+            try {
+                entry = open();
+            } catch (OpenFailedException e) {
+                logger.log(Level.FINE, "Could not pre-open connection for " + name, e);
+                return;
+            }
+            synchronized (this) {
+                if (!closed) {
+                    idle.addLast(entry);
+                    notifyAll();
+                    continue;
+                }
+            }
+            destroy(entry);
+            return;
+        }
+    }
+
+    /**
+     * Thrown when a new pooled connection cannot be opened.
+     */
+    private static final class OpenFailedException extends SQLException {
+        OpenFailedException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+
+    /**
+     * Thrown when every pooled connection stayed borrowed for the whole borrow timeout.
+     */
+    private static final class BorrowTimeoutException extends SQLException {
+        BorrowTimeoutException(String message) {
+            super(message);
+        }
+    }
+}
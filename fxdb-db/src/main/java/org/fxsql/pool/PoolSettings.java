@@ -0,0 +1,87 @@
+package org.fxsql.pool;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+/**
+ * Sizing and housekeeping limits for a {@link ConnectionPool}. Saved with the connection.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class PoolSettings {
+
+    private int minSize = 1;
+    private int maxSize = 4;
+    private int idleTimeoutSeconds = 300;
+    private int validationWindowSeconds = 30;
+    private int leakThresholdSeconds = 120;
+    private int borrowTimeoutSeconds = 30;
+
+    public PoolSettings() {
+    }
+
+    /**
+     * Connections kept open even when idle.
+     */
+    public int getMinSize() {
+        return minSize;
+    }
+
+    public void setMinSize(int minSize) {
+        this.minSize = Math.max(0, minSize);
+    }
+
+    /**
+     * Upper bound on open pooled connections. 0 disables pooling; everything then shares
+     * the primary connection.
+     */
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public void setMaxSize(int maxSize) {
+        this.maxSize = Math.max(0, maxSize);
+    }
+
+    /**
+     * Idle connections above the minimum are closed after this long.
+     */
+    public int getIdleTimeoutSeconds() {
+        return idleTimeoutSeconds;
+    }
+
+    public void setIdleTimeoutSeconds(int idleTimeoutSeconds) {
+        this.idleTimeoutSeconds = Math.max(1, idleTimeoutSeconds);
+    }
+
+    /**
+     * A connection validated within this window is handed out without validating it again.
+     */
+    public int getValidationWindowSeconds() {
+        return validationWindowSeconds;
+    }
+
+    public void setValidationWindowSeconds(int validationWindowSeconds) {
+        this.validationWindowSeconds = Math.max(0, validationWindowSeconds);
+    }
+
+    /**
+     * A connection borrowed for longer than this is logged as a possible leak; 0 disables the check.
+     */
+    public int getLeakThresholdSeconds() {
+        return leakThresholdSeconds;
+    }
+
+    public void setLeakThresholdSeconds(int leakThresholdSeconds) {
+        this.leakThresholdSeconds = Math.max(0, leakThresholdSeconds);
+    }
+
+    /**
+     * How long a borrower waits for a free connection when the pool is at its maximum.
+     */
+    public int getBorrowTimeoutSeconds() {
+        return borrowTimeoutSeconds;
+    }
+
+    public void setBorrowTimeoutSeconds(int borrowTimeoutSeconds) {
+        this.borrowTimeoutSeconds = Math.max(1, borrowTimeoutSeconds);
+    }
+}
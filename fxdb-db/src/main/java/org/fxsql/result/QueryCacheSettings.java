@@ -0,0 +1,51 @@
+package org.fxsql.result;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+/**
+ * Limits of the {@link QueryResultCache} of a connection. Saved with the connection; the cache
+ * is off unless enabled.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class QueryCacheSettings {
+
+    private boolean enabled;
+    private int maxMegabytes = 64;
+    private int ttlSeconds = 300;
+
+    public QueryCacheSettings() {
+    }
+
+    /**
+     * Whether read query results are cached at all.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Estimated heap the cached results may take; the least recently used are dropped beyond it.
+     */
+    public int getMaxMegabytes() {
+        return maxMegabytes;
+    }
+
+    public void setMaxMegabytes(int maxMegabytes) {
+        this.maxMegabytes = Math.max(1, maxMegabytes);
+    }
+
+    /**
+     * A cached result older than this is never served, even if nothing is known to have changed.
+     */
+    public int getTtlSeconds() {
+        return ttlSeconds;
+    }
+
+    public void setTtlSeconds(int ttlSeconds) {
+        this.ttlSeconds = Math.max(1, ttlSeconds);
+    }
+}
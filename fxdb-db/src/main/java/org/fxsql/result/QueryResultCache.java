@@ -0,0 +1,424 @@
+package org.fxsql.result;
+
+import org.fxdb.plugin.sdk.db.Dialect;
+import org.fxsql.DatabaseConnection;
+import org.fxsql.completion.SQLContextAnalyzer;
+import org.fxsql.sql.SQLKeywords;
+import org.fxsql.sql.SQLTokenizer;
+import org.fxsql.sql.SQLTokenizer.TokenType;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Opt-in cache of read query results, so running the same query again shows its rows without
+ * another round trip. One cache exists per database, shared by all connections to its URL, and
+ * only while {@link QueryCacheSettings#isEnabled()} is set for it.
+ * <p>
+ * Results are keyed by a fingerprint of the SQL that ignores whitespace, comments and keyword
+ * case, so reformatting a query still hits. A cached result is dropped when:
+ * <ul>
+ *     <li>a write through {@link DatabaseConnection#executeWriteQuery} or any of the app's editors
+ *     and importers touches one of the tables it read; statements whose tables cannot be told,
+ *     such as DDL, drop every result of the database</li>
+ *     <li>the database's change counter moved since it was stored, which also catches writes made
+ *     by other programs: {@code PRAGMA data_version} on SQLite, the row change counts of
+ *     {@code pg_stat_user_tables} on PostgreSQL. Other dialects have no cheap counter and rely
+ *     on the time limit.</li>
+ *     <li>it is older than the time limit, or the least recently used one when the cache is over
+ *     its size limit</li>
+ * </ul>
+ * Queries that name no table, name one by an unquoted keyword such as {@code key}, or call
+ * functions such as {@code now()} or {@code random()}, are never cached.
+ */
+public final class QueryResultCache {
+
+    private static final Logger logger = Logger.getLogger(QueryResultCache.class.getName());
+
+    // Statements whose effect on cached results is limited to the tables they name
+    private static final Set<String> DATA_CHANGES = Set.of("INSERT", "UPDATE", "DELETE", "REPLACE", "MERGE", "UPSERT");
+    // Functions whose result differs between calls
+    private static final Set<String> VOLATILE_FUNCTIONS = Set.of(
+            "NOW", "CURRENT_DATE", "CURRENT_TIME", "CURRENT_TIMESTAMP", "LOCALTIME", "LOCALTIMESTAMP",
+            "CLOCK_TIMESTAMP", "STATEMENT_TIMESTAMP", "TRANSACTION_TIMESTAMP", "TIMEOFDAY", "SYSDATE",
+            "CURDATE", "CURTIME", "UTC_DATE", "UTC_TIME", "UTC_TIMESTAMP", "UNIX_TIMESTAMP", "GETDATE",
+            "RANDOM", "RAND", "RANDOMBLOB", "UUID", "GEN_RANDOM_UUID", "NEXTVAL", "CURRVAL", "LASTVAL",
+            "LAST_INSERT_ID", "LAST_INSERT_ROWID", "CHANGES", "TOTAL_CHANGES", "ROW_COUNT", "FOUND_ROWS");
+    private static final Set<String> KEYWORDS = new HashSet<>(SQLKeywords.KEYWORDS);
+
+    static {
+        KEYWORDS.addAll(SQLKeywords.OPERATORS);
+        KEYWORDS.addAll(SQLKeywords.FUNCTIONS);
+        KEYWORDS.addAll(SQLKeywords.DATATYPES);
+    }
+
+    private static final Map<String, QueryResultCache> caches = new ConcurrentHashMap<>();
+
+    private volatile QueryCacheSettings settings;
+    // Guarded by this; in access order, so the eldest entry is the least recently used
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalBytes;
+    // Bumped by every invalidation, so a result read while a write ran is not stored
+    private long writeCount;
+
+    private QueryResultCache(QueryCacheSettings settings) {
+        this.settings = settings;
+    }
+
+    private record Key(String fingerprint, int maxRows) {
+    }
+
+    // The version is only comparable with one read on the same connection
+    private record Entry(ResultBuffer buffer, boolean truncated, Set<String> tables, String version,
+                         DatabaseConnection versionSource, long storedAt, long bytes) {
+    }
+
+    /**
+     * A result served from the cache.
+     *
+     * @param buffer    The complete result; never modified, so it can be shown in several places
+     * @param truncated Whether the query returned more rows than were kept
+     * @param ageMillis How long ago the result was read from the database
+     */
+    public record Hit(ResultBuffer buffer, boolean truncated, long ageMillis) {
+    }
+
+    /**
+     * The outcome of looking up a cacheable query. On a miss, hand the result to {@link #store}
+     * once it is complete.
+     */
+    public static final class Lookup {
+        private final QueryResultCache cache;
+        private final Key key;
+        private final Set<String> tables;
+        private final String version;
+        private final DatabaseConnection versionSource;
+        private final long writeCount;
+        private final Hit hit;
+
+        private Lookup(QueryResultCache cache, Key key, Set<String> tables, String version,
+                       DatabaseConnection versionSource, long writeCount, Hit hit) {
+            this.cache = cache;
+            this.key = key;
+            this.tables = tables;
+            this.version = version;
+            this.versionSource = versionSource;
+            this.writeCount = writeCount;
+            this.hit = hit;
+        }
+
+        /**
+         * Returns the cached result, or null on a miss.
+         */
+        public Hit hit() {
+            return hit;
+        }
+
+        /**
+         * Caches the complete result of the query. Do not store a result that was cancelled
+         * part way.
+         */
+        public void store(ResultBuffer buffer, boolean truncated) {
+            if (hit == null) {
+                cache.put(this, buffer, truncated);
+            }
+        }
+    }
+
+    /**
+     * Turns the cache of a connection's database on or off and applies its limits.
+     */
+    public static void configure(DatabaseConnection connection, QueryCacheSettings settings) {
+        String key = keyOf(connection);
+        if (key == null) {
+            return;
+        }
+        if (settings == null || !settings.isEnabled()) {
+            caches.remove(key);
+            return;
+        }
+        QueryResultCache cache = caches.computeIfAbsent(key, k -> new QueryResultCache(settings));
+        cache.settings = settings;
+        cache.trim();
+    }
+
+    /**
+     * Drops the cache of a connection's database, e.g. when it is disconnected.
+     */
+    public static void release(DatabaseConnection connection) {
+        QueryResultCache cache = cacheOf(connection);
+        if (cache != null) {
+            caches.values().remove(cache);
+        }
+    }
+
+    /**
+     * Looks up a read query. Reads the database's change counter, so call it from a background
+     * thread. Pass the primary connection even when the query runs on a pooled one: SQLite
+     * counts changes per connection, so only counters read on the same connection compare.
+     *
+     * @param connection The primary connection of the database the query runs against
+     * @param sql        The query
+     * @param maxRows    The row limit the query runs with; results of other limits are not shared
+     * @return The lookup, or null if caching is off or the query cannot be cached
+     */
+    public static Lookup lookup(DatabaseConnection connection, String sql, int maxRows) {
+        QueryResultCache cache = cacheOf(connection);
+        return cache != null ? cache.find(connection, sql, maxRows) : null;
+    }
+
+    /**
+     * Drops cached results the write statement may have changed. Called after every statement
+     * run through {@link DatabaseConnection#executeWriteQuery}, whether it succeeded or not.
+     */
+    public static void invalidate(DatabaseConnection connection, String sql) {
+        QueryResultCache cache = cacheOf(connection);
+        if (cache == null) {
+            return;
+        }
+        Dialect dialect = connection.getDialect();
+        Set<String> tables = SQLContextAnalyzer.referencedTables(sql, dialect);
+        if (tables == null || tables.isEmpty() || !DATA_CHANGES.contains(firstWord(sql, dialect))) {
+            cache.clear();
+        } else {
+            cache.removeTables(tables);
+        }
+    }
+
+    /**
+     * Drops cached results that read a table, e.g. after its rows were edited.
+     */
+    public static void invalidateTable(DatabaseConnection connection, String tableName) {
+        QueryResultCache cache = cacheOf(connection);
+        if (cache != null) {
+            cache.removeTables(Set.of(tableName.toLowerCase(Locale.ROOT)));
+        }
+    }
+
+    /**
+     * Drops every cached result of a connection's database.
+     */
+    public static void invalidateAll(DatabaseConnection connection) {
+        QueryResultCache cache = cacheOf(connection);
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+
+    private Lookup find(DatabaseConnection connection, String sql, int maxRows) {
+        Dialect dialect = connection.getDialect();
+        String fingerprint = fingerprint(sql, dialect);
+        if (fingerprint == null) {
+            return null;
+        }
+        Set<String> tables = SQLContextAnalyzer.referencedTables(sql, dialect);
+        if (tables == null || tables.isEmpty()) {
+            return null;
+        }
+
+        long seenWrites;
+        synchronized (this) {
+            seenWrites = writeCount;
+        }
+        // Read before the query runs, so a change made while it runs is caught on the next lookup
+        String version;
+        try {
+            version = readVersion(connection, dialect, tables);
+        } catch (SQLException e) {
+            logger.log(Level.FINE, "Could not read the change counter, not caching", e);
+            return null;
+        }
+        if (version == null && needsVersion(dialect)) {
+            return null;
+        }
+
+        Key key = new Key(fingerprint, maxRows);
+        long now = System.nanoTime();
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry != null) {
+                boolean fresh = now - entry.storedAt < TimeUnit.SECONDS.toNanos(settings.getTtlSeconds());
+                boolean unchanged = version == null
+                        || (entry.versionSource == connection && version.equals(entry.version));
+                if (fresh && seenWrites == writeCount && unchanged) {
+                    Hit hit = new Hit(entry.buffer, entry.truncated, TimeUnit.NANOSECONDS.toMillis(now - entry.storedAt));
+                    return new Lookup(this, key, tables, version, connection, seenWrites, hit);
+                }
+                remove(key);
+            }
+        }
+        return new Lookup(this, key, tables, version, connection, seenWrites, null);
+    }
+
+    private void put(Lookup lookup, ResultBuffer buffer, boolean truncated) {
+        long bytes = buffer.estimateBytes();
+        long maxBytes = maxBytes();
+        if (bytes > maxBytes) {
+            logger.fine("Result of " + bytes + " bytes is over the cache limit, not caching");
+            return;
+        }
+        synchronized (this) {
+            if (lookup.writeCount != writeCount) {
+                return;
+            }
+            remove(lookup.key);
+            entries.put(lookup.key, new Entry(buffer, truncated, lookup.tables, lookup.version, lookup.versionSource,
+                    System.nanoTime(), bytes));
+            totalBytes += bytes;
+        }
+        trim();
+    }
+
+    /**
+     * Drops expired entries, then the least recently used ones until the cache fits its limit.
+     */
+    private synchronized void trim() {
+        long maxBytes = maxBytes();
+        long expiredBefore = System.nanoTime() - TimeUnit.SECONDS.toNanos(settings.getTtlSeconds());
+        Iterator<Entry> it = entries.values().iterator();
+        while (it.hasNext()) {
+            Entry entry = it.next();
+            if (totalBytes > maxBytes || entry.storedAt - expiredBefore < 0) {
+                it.remove();
+                totalBytes -= entry.bytes;
+            }
+        }
+    }
+
+    private synchronized void removeTables(Set<String> tables) {
+        writeCount++;
+        Iterator<Entry> it = entries.values().iterator();
+        while (it.hasNext()) {
+            Entry entry = it.next();
+            for (String table : tables) {
+                if (entry.tables.contains(table)) {
+                    it.remove();
+                    totalBytes -= entry.bytes;
+                    break;
+                }
+            }
+        }
+    }
+
+    private synchronized void clear() {
+        writeCount++;
+        entries.clear();
+        totalBytes = 0;
+    }
+
+    private void remove(Key key) {
+        Entry old = entries.remove(key);
+        if (old != null) {
+            totalBytes -= old.bytes;
+        }
+    }
+
+    private long maxBytes() {
+        return settings.getMaxMegabytes() * 1024L * 1024L;
+    }
+
+    /**
+     * Returns the SQL's significant tokens joined by single spaces with keywords upper-cased, or
+     * null if the query calls a volatile function. Identifiers keep their case, since some
+     * databases tell {@code t} and {@code T} apart.
+     */
+    static String fingerprint(String sql, Dialect dialect) {
+        SQLTokenizer tokenizer = new SQLTokenizer(sql, dialect);
+        StringBuilder sb = new StringBuilder(sql.length());
+        while (tokenizer.next()) {
+            TokenType type = tokenizer.type();
+            if (tokenizer.isInsignificant() || type == TokenType.DELIMITER) {
+                continue;
+            }
+            String token = sql.substring(tokenizer.start(), tokenizer.end());
+            if (type == TokenType.WORD) {
+                String upper = token.toUpperCase(Locale.ROOT);
+                if (VOLATILE_FUNCTIONS.contains(upper)) {
+                    return null;
+                }
+                if (KEYWORDS.contains(upper)) {
+                    token = upper;
+                }
+            }
+            if (!sb.isEmpty()) {
+                sb.append(' ');
+            }
+            sb.append(token);
+        }
+        return tokenizer.state().isNormal() ? sb.toString() : null;
+    }
+
+    private static String firstWord(String sql, Dialect dialect) {
+        SQLTokenizer tokenizer = new SQLTokenizer(sql, dialect);
+        while (tokenizer.next()) {
+            if (tokenizer.type() == TokenType.WORD) {
+                return sql.substring(tokenizer.start(), tokenizer.end()).toUpperCase(Locale.ROOT);
+            }
+            if (!tokenizer.isInsignificant()) {
+                return null;
+            }
+        }
+        return null;
+    }
+
+    private static boolean needsVersion(Dialect dialect) {
+        return dialect == Dialect.SQLITE || dialect == Dialect.POSTGRESQL;
+    }
+
+    /**
+     * Reads a value that changes whenever rows of the tables change, or null if the dialect has
+     * none. On PostgreSQL it is null when a name is not a plain table, e.g. a view, whose
+     * changes cannot be followed.
+     */
+    private static String readVersion(DatabaseConnection connection, Dialect dialect, Set<String> tables) throws SQLException {
+        if (dialect == Dialect.SQLITE) {
+            // Counts commits by connections other than this one, which covers the pool and other
+            // programs; this connection's own writes go through invalidate()
+            return connection.executeStreamingQuery("PRAGMA data_version", 0,
+                    rs -> rs.next() ? rs.getString(1) : null);
+        }
+        if (dialect == Dialect.POSTGRESQL) {
+            StringBuilder names = new StringBuilder();
+            for (String table : tables) {
+                if (!names.isEmpty()) {
+                    names.append(", ");
+                }
+                names.append('\'').append(table.replace("'", "''")).append('\'');
+            }
+            // The statistics lag commits by up to a second; writes made here are invalidated directly
+            String sql = "SELECT count(DISTINCT lower(relname)), coalesce(sum(n_tup_ins + n_tup_upd + n_tup_del), 0) "
+                    + "FROM pg_stat_user_tables WHERE lower(relname) IN (" + names + ")";
+            return connection.executeStreamingQuery(sql, 0, rs -> {
+                if (!rs.next() || rs.getInt(1) < tables.size()) {
+                    return null;
+                }
+                return rs.getString(2);
+            });
+        }
+        return null;
+    }
+
+    private static QueryResultCache cacheOf(DatabaseConnection connection) {
+        if (caches.isEmpty()) {
+            return null;
+        }
+        String key = keyOf(connection);
+        return key != null ? caches.get(key) : null;
+    }
+
+    private static String keyOf(DatabaseConnection connection) {
+        String url = connection.connectionUrl();
+        return url != null ? UUID.nameUUIDFromBytes(url.getBytes(StandardCharsets.UTF_8)).toString() : null;
+    }
+}
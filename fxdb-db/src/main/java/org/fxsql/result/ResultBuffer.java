@@ -0,0 +1,258 @@
+package org.fxsql.result;
+
+import org.fxdb.plugin.sdk.db.Dialect;
+import org.fxsql.dialect.DialectDetector;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Column-oriented store for query results.
+ * <p>
+ * Rows are copied straight from a {@link ResultSet} into one typed column per result
+ * column: integer types into {@code int[]}/{@code long[]}, floating point into
+ * {@code double[]}, character data into dictionary-encoded string columns and everything
+ * else into a plain object column. Each column tracks NULLs in its own bitmap.
+ * <p>
+ * Compared to one {@code ObservableList<Object>} per row this avoids boxing every cell and
+ * keeps large results to a handful of arrays. Table views read cells through
+ * {@link ResultRow} handles returned by {@link #rows()}.
+ * <p>
+ * A buffer has a single writer. Rows are published by the row count, so other threads may
+ * read any row below {@link #getRowCount()} while the writer is still appending.
+ */
+public final class ResultBuffer {
+
+    private static final int INITIAL_CAPACITY = 256;
+
+    private final List<String> columnNames;
+    private final int[] columnTypes;
+    private final ResultColumn[] columns;
+    // SQLite columns are dynamically typed, so values are read as objects and checked
+    private final boolean looseTyping;
+    private volatile int rowCount;
+
+    private ResultBuffer(List<String> columnNames, int[] columnTypes, ResultColumn[] columns, boolean looseTyping) {
+        this.columnNames = Collections.unmodifiableList(columnNames);
+        this.columnTypes = columnTypes;
+        this.columns = columns;
+        this.looseTyping = looseTyping;
+    }
+
+    /**
+     * Creates an empty buffer shaped after the columns of the given result set.
+     *
+     * @param rs The result set the buffer will be filled from
+     * @return An empty buffer
+     * @throws SQLException if the result set metadata cannot be read
+     */
+    public static ResultBuffer forResultSet(ResultSet rs) throws SQLException {
+        ResultSetMetaData metaData = rs.getMetaData();
+        int columnCount = metaData.getColumnCount();
+
+        List<String> names = new ArrayList<>(columnCount);
+        int[] types = new int[columnCount];
+        ResultColumn[] columns = new ResultColumn[columnCount];
+
+        for (int i = 1; i <= columnCount; i++) {
+            String colName = metaData.getColumnLabel(i);
+            if (colName == null || colName.isEmpty()) {
+                colName = metaData.getColumnName(i);
+            }
+            names.add(colName);
+            types[i - 1] = metaData.getColumnType(i);
+            columns[i - 1] = createColumn(types[i - 1], isSigned(metaData, i));
+        }
+
+        return new ResultBuffer(names, types, columns, isDynamicallyTyped(rs));
+    }
+
+    /**
+     * Reads up to {@code maxRows} rows from the result set into a new buffer.
+     * The result set is not closed.
+     *
+     * @param rs The result set to read
+     * @param maxRows The maximum number of rows to read
+     * @return A buffer holding the rows read
+     * @throws SQLException if a database access error occurs
+     */
+    public static ResultBuffer from(ResultSet rs, int maxRows) throws SQLException {
+        ResultBuffer buffer = forResultSet(rs);
+        buffer.appendRows(rs, maxRows);
+        return buffer;
+    }
+
+    /**
+     * Appends up to {@code maxRows} further rows from the result set.
+     *
+     * @param rs The result set, positioned before the next row to read
+     * @param maxRows The maximum number of rows to append
+     * @return The number of rows appended; less than {@code maxRows} once the result set is exhausted
+     * @throws SQLException if a database access error occurs
+     */
+    public int appendRows(ResultSet rs, int maxRows) throws SQLException {
+        int appended = 0;
+        while (appended < maxRows && rs.next()) {
+            appendCurrentRow(rs);
+            appended++;
+        }
+        return appended;
+    }
+
+    /**
+     * Appends the row the result set is currently positioned on.
+     *
+     * @param rs The result set
+     * @throws SQLException if a database access error occurs
+     */
+    public void appendCurrentRow(ResultSet rs) throws SQLException {
+        int row = rowCount;
+        if (looseTyping) {
+            for (int c = 0; c < columns.length; c++) {
+                columns[c] = columns[c].add(rs.getObject(c + 1), row);
+            }
+        } else {
+            for (int c = 0; c < columns.length; c++) {
+                columns[c] = columns[c].read(rs, c + 1, row);
+            }
+        }
+        rowCount = row + 1;
+    }
+
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    public int getColumnCount() {
+        return columns.length;
+    }
+
+    public List<String> getColumnNames() {
+        return columnNames;
+    }
+
+    public String getColumnName(int column) {
+        return columnNames.get(column);
+    }
+
+    /**
+     * Returns the {@link java.sql.Types} code reported for the column.
+     */
+    public int getColumnType(int column) {
+        return columnTypes[column];
+    }
+
+    /**
+     * Returns the value of a cell, or null if it is SQL NULL.
+     * Primitive columns box the value on each call.
+     */
+    public Object getValue(int row, int column) {
+        return columns[column].get(row);
+    }
+
+    public boolean isNull(int row, int column) {
+        return columns[column].isNull(row);
+    }
+
+    /**
+     * Copies one row into a new array, e.g. to make it editable.
+     */
+    public Object[] getRowValues(int row) {
+        Object[] values = new Object[columns.length];
+        for (int c = 0; c < columns.length; c++) {
+            values[c] = columns[c].get(row);
+        }
+        return values;
+    }
+
+    /**
+     * Returns a lightweight handle to one row.
+     */
+    public ResultRow row(int index) {
+        return new ResultRow(this, index);
+    }
+
+    /**
+     * Returns a read-only list view of the rows published so far.
+     * Elements are created on access and hold no cell data of their own.
+     */
+    public List<ResultRow> rows() {
+        return new RowList(this);
+    }
+
+    /**
+     * Returns roughly how many bytes of heap the buffer holds. Call it from the writing thread
+     * or once the buffer is complete.
+     */
+    public long estimateBytes() {
+        int rows = rowCount;
+        long bytes = 0;
+        for (ResultColumn column : columns) {
+            bytes += column.estimateBytes(rows);
+        }
+        return bytes;
+    }
+
+    private static ResultColumn createColumn(int sqlType, boolean signed) {
+        return switch (sqlType) {
+            case Types.TINYINT, Types.SMALLINT, Types.INTEGER -> new ResultColumn.IntColumn(INITIAL_CAPACITY);
+            // Unsigned BIGINT values may not fit in a long
+            case Types.BIGINT -> signed
+                    ? new ResultColumn.LongColumn(INITIAL_CAPACITY)
+                    : new ResultColumn.ObjectColumn(INITIAL_CAPACITY);
+            case Types.REAL -> new ResultColumn.DoubleColumn(INITIAL_CAPACITY, true);
+            case Types.FLOAT, Types.DOUBLE -> new ResultColumn.DoubleColumn(INITIAL_CAPACITY, false);
+            case Types.CHAR, Types.VARCHAR, Types.LONGVARCHAR,
+                 Types.NCHAR, Types.NVARCHAR, Types.LONGNVARCHAR -> new ResultColumn.StringColumn(INITIAL_CAPACITY);
+            default -> new ResultColumn.ObjectColumn(INITIAL_CAPACITY);
+        };
+    }
+
+    private static boolean isSigned(ResultSetMetaData metaData, int column) {
+        try {
+            return metaData.isSigned(column);
+        } catch (SQLException e) {
+            return true;
+        }
+    }
+
+    private static boolean isDynamicallyTyped(ResultSet rs) {
+        try {
+            Statement stmt = rs.getStatement();
+            return stmt != null && DialectDetector.detect(stmt.getConnection()) == Dialect.SQLITE;
+        } catch (SQLException e) {
+            return true;
+        }
+    }
+
+    private static final class RowList extends AbstractList<ResultRow> implements RandomAccess {
+        private final ResultBuffer buffer;
+        private final int size;
+
+        RowList(ResultBuffer buffer) {
+            this.buffer = buffer;
+            this.size = buffer.getRowCount();
+        }
+
+        @Override
+        public ResultRow get(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("Row " + index + " of " + size);
+            }
+            return new ResultRow(buffer, index);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
@@ -0,0 +1,491 @@
+package org.fxsql.result;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * A single column of a {@link ResultBuffer}.
+ * <p>
+ * Every column keeps its own null bitmap so SQL NULLs never need a placeholder value.
+ * Appends return the column that should be used from then on: a column that meets a
+ * value it cannot represent (an out-of-range integer, or a string in a numeric SQLite
+ * column) returns a wider replacement that already holds all previous rows.
+ * <p>
+ * Columns have a single writer. Rows below the buffer's published row count are never
+ * modified again, so readers on other threads can safely read them.
+ */
+abstract class ResultColumn {
+
+    // Rough JVM sizes used by the memory estimates
+    private static final long ARRAY_HEADER = 16;
+    private static final long OBJECT_SIZE = 24;
+
+    private long[] nullWords;
+
+    ResultColumn(int capacity) {
+        this.nullWords = new long[wordsFor(capacity)];
+    }
+
+    /**
+     * Reads the value at {@code columnIndex} of the current row using the column's
+     * primitive getter, and stores it at {@code row}.
+     */
+    final ResultColumn read(ResultSet rs, int columnIndex, int row) throws SQLException {
+        ensureCapacity(row + 1);
+        return readValue(rs, columnIndex, row);
+    }
+
+    /**
+     * Stores an already materialised value at {@code row}.
+     */
+    final ResultColumn add(Object value, int row) {
+        ensureCapacity(row + 1);
+        if (value == null) {
+            setNull(row);
+            return this;
+        }
+        return addValue(value, row);
+    }
+
+    protected abstract ResultColumn readValue(ResultSet rs, int columnIndex, int row) throws SQLException;
+
+    protected abstract ResultColumn addValue(Object value, int row);
+
+    /**
+     * Returns the value at {@code row}, boxed, or null if the value is SQL NULL.
+     */
+    abstract Object get(int row);
+
+    abstract int capacity();
+
+    protected abstract void grow(int newCapacity);
+
+    /**
+     * Returns roughly how many bytes of heap the column holds for its first {@code rows} rows,
+     * spare capacity included.
+     */
+    final long estimateBytes(int rows) {
+        return ARRAY_HEADER + nullWords.length * 8L + valueBytes(rows);
+    }
+
+    protected abstract long valueBytes(int rows);
+
+    static long stringBytes(String value) {
+        // Compact strings hold one byte per Latin-1 character
+        return OBJECT_SIZE + ARRAY_HEADER + value.length();
+    }
+
+    static long objectBytes(Object value) {
+        if (value instanceof String s) {
+            return stringBytes(s);
+        }
+        if (value instanceof byte[] bytes) {
+            return ARRAY_HEADER + bytes.length;
+        }
+        // Numbers, dates and the like; BigDecimals and odd driver types are a little larger
+        return OBJECT_SIZE + 8;
+    }
+
+    final boolean isNull(int row) {
+        int word = row >>> 6;
+        long[] words = nullWords;
+        return word < words.length && (words[word] & (1L << row)) != 0;
+    }
+
+    final void setNull(int row) {
+        nullWords[row >>> 6] |= 1L << row;
+    }
+
+    private void ensureCapacity(int required) {
+        int capacity = capacity();
+        if (required <= capacity) {
+            return;
+        }
+        int newCapacity = Math.max(required, capacity + (capacity >> 1) + 16);
+        grow(newCapacity);
+        int words = wordsFor(newCapacity);
+        if (words > nullWords.length) {
+            nullWords = Arrays.copyOf(nullWords, words);
+        }
+    }
+
+    /**
+     * Copies the null bitmap of {@code source} into this column; used when a column is
+     * widened or demoted.
+     */
+    final void copyNulls(ResultColumn source) {
+        long[] words = source.nullWords;
+        if (words.length > nullWords.length) {
+            nullWords = Arrays.copyOf(words, words.length);
+        } else {
+            System.arraycopy(words, 0, nullWords, 0, words.length);
+        }
+    }
+
+    /**
+     * Replaces this column with a generic object column holding the same rows.
+     */
+    final ObjectColumn demote(int rows) {
+        ObjectColumn objects = new ObjectColumn(Math.max(capacity(), rows + 1));
+        for (int i = 0; i < rows; i++) {
+            if (!isNull(i)) {
+                objects.values[i] = get(i);
+            }
+        }
+        objects.copyNulls(this);
+        return objects;
+    }
+
+    private static int wordsFor(int capacity) {
+        return (capacity + 63) >>> 6;
+    }
+
+    // ==================== Implementations ====================
+
+    static final class IntColumn extends ResultColumn {
+        int[] values;
+
+        IntColumn(int capacity) {
+            super(capacity);
+            this.values = new int[capacity];
+        }
+
+        @Override
+        protected ResultColumn readValue(ResultSet rs, int columnIndex, int row) throws SQLException {
+            long value = rs.getLong(columnIndex);
+            if (rs.wasNull()) {
+                setNull(row);
+                return this;
+            }
+            return store(value, row);
+        }
+
+        @Override
+        protected ResultColumn addValue(Object value, int row) {
+            if (value instanceof Integer || value instanceof Short || value instanceof Byte || value instanceof Long) {
+                return store(((Number) value).longValue(), row);
+            }
+            return demote(row).addValue(value, row);
+        }
+
+        private ResultColumn store(long value, int row) {
+            if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+                LongColumn wide = widen(row);
+                wide.values[row] = value;
+                return wide;
+            }
+            values[row] = (int) value;
+            return this;
+        }
+
+        private LongColumn widen(int rows) {
+            LongColumn wide = new LongColumn(values.length);
+            for (int i = 0; i < rows; i++) {
+                wide.values[i] = values[i];
+            }
+            wide.copyNulls(this);
+            return wide;
+        }
+
+        @Override
+        Object get(int row) {
+            return isNull(row) ? null : values[row];
+        }
+
+        @Override
+        int capacity() {
+            return values.length;
+        }
+
+        @Override
+        protected void grow(int newCapacity) {
+            values = Arrays.copyOf(values, newCapacity);
+        }
+
+        @Override
+        protected long valueBytes(int rows) {
+            return ARRAY_HEADER + values.length * 4L;
+        }
+    }
+
+    static final class LongColumn extends ResultColumn {
+        long[] values;
+
+        LongColumn(int capacity) {
+            super(capacity);
+            this.values = new long[capacity];
+        }
+
+        @Override
+        protected ResultColumn readValue(ResultSet rs, int columnIndex, int row) throws SQLException {
+            long value = rs.getLong(columnIndex);
+            if (rs.wasNull()) {
+                setNull(row);
+            } else {
+                values[row] = value;
+            }
+            return this;
+        }
+
+        @Override
+        protected ResultColumn addValue(Object value, int row) {
+            if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+                values[row] = ((Number) value).longValue();
+                return this;
+            }
+            return demote(row).addValue(value, row);
+        }
+
+        @Override
+        Object get(int row) {
+            return isNull(row) ? null : values[row];
+        }
+
+        @Override
+        int capacity() {
+            return values.length;
+        }
+
+        @Override
+        protected void grow(int newCapacity) {
+            values = Arrays.copyOf(values, newCapacity);
+        }
+
+        @Override
+        protected long valueBytes(int rows) {
+            return ARRAY_HEADER + values.length * 8L;
+        }
+    }
+
+    static final class DoubleColumn extends ResultColumn {
+        double[] values;
+        // REAL columns are single precision; hand them back as Float so they print as they were stored
+        private final boolean singlePrecision;
+
+        DoubleColumn(int capacity, boolean singlePrecision) {
+            super(capacity);
+            this.values = new double[capacity];
+            this.singlePrecision = singlePrecision;
+        }
+
+        @Override
+        protected ResultColumn readValue(ResultSet rs, int columnIndex, int row) throws SQLException {
+            double value = singlePrecision ? rs.getFloat(columnIndex) : rs.getDouble(columnIndex);
+            if (rs.wasNull()) {
+                setNull(row);
+            } else {
+                values[row] = value;
+            }
+            return this;
+        }
+
+        @Override
+        protected ResultColumn addValue(Object value, int row) {
+            if (value instanceof Double || value instanceof Float) {
+                values[row] = ((Number) value).doubleValue();
+                return this;
+            }
+            return demote(row).addValue(value, row);
+        }
+
+        @Override
+        Object get(int row) {
+            if (isNull(row)) {
+                return null;
+            }
+            return singlePrecision ? (Object) (float) values[row] : (Object) values[row];
+        }
+
+        @Override
+        int capacity() {
+            return values.length;
+        }
+
+        @Override
+        protected void grow(int newCapacity) {
+            values = Arrays.copyOf(values, newCapacity);
+        }
+
+        @Override
+        protected long valueBytes(int rows) {
+            return ARRAY_HEADER + values.length * 8L;
+        }
+    }
+
+    /**
+     * Dictionary-encoded string column. Repeated values (status codes, country names,
+     * enum-like text) are stored once and referenced by an {@code int} code. When a column
+     * turns out to be mostly unique the dictionary stops paying for itself, so the column
+     * switches to storing the strings directly.
+     */
+    static final class StringColumn extends ResultColumn {
+        private static final int DICTIONARY_CHECK_THRESHOLD = 4096;
+
+        private int[] codes;
+        private String[] dictionary = new String[64];
+        private int dictionarySize;
+        private HashMap<String, Integer> lookup = new HashMap<>();
+        // Non-null once the column has switched to plain storage
+        private String[] plain;
+
+        StringColumn(int capacity) {
+            super(capacity);
+            this.codes = new int[capacity];
+        }
+
+        @Override
+        protected ResultColumn readValue(ResultSet rs, int columnIndex, int row) throws SQLException {
+            String value = rs.getString(columnIndex);
+            if (value == null) {
+                setNull(row);
+            } else {
+                store(value, row);
+            }
+            return this;
+        }
+
+        @Override
+        protected ResultColumn addValue(Object value, int row) {
+            if (value instanceof String s) {
+                store(s, row);
+                return this;
+            }
+            return demote(row).addValue(value, row);
+        }
+
+        private void store(String value, int row) {
+            if (plain != null) {
+                plain[row] = value;
+                return;
+            }
+            Integer code = lookup.get(value);
+            if (code == null) {
+                if (dictionarySize == dictionary.length) {
+                    dictionary = Arrays.copyOf(dictionary, dictionarySize * 2);
+                }
+                code = dictionarySize;
+                dictionary[dictionarySize] = value;
+                lookup.put(value, code);
+                dictionarySize++;
+                if (dictionarySize >= DICTIONARY_CHECK_THRESHOLD && dictionarySize > (row + 1) / 2) {
+                    switchToPlain(row);
+                    plain[row] = value;
+                    return;
+                }
+            }
+            codes[row] = code;
+        }
+
+        private void switchToPlain(int rows) {
+            String[] values = new String[codes.length];
+            for (int i = 0; i < rows; i++) {
+                if (!isNull(i)) {
+                    values[i] = dictionary[codes[i]];
+                }
+            }
+            plain = values;
+            lookup = null;
+        }
+
+        @Override
+        Object get(int row) {
+            if (isNull(row)) {
+                return null;
+            }
+            String[] values = plain;
+            return values != null ? values[row] : dictionary[codes[row]];
+        }
+
+        @Override
+        int capacity() {
+            return plain != null ? plain.length : codes.length;
+        }
+
+        @Override
+        protected void grow(int newCapacity) {
+            if (plain != null) {
+                plain = Arrays.copyOf(plain, newCapacity);
+            } else {
+                codes = Arrays.copyOf(codes, newCapacity);
+            }
+        }
+
+        @Override
+        protected long valueBytes(int rows) {
+            long bytes = ARRAY_HEADER + dictionary.length * 8L;
+            String[] values = plain;
+            if (values != null) {
+                bytes += ARRAY_HEADER + values.length * 8L;
+                for (int i = 0; i < rows; i++) {
+                    if (values[i] != null) {
+                        bytes += stringBytes(values[i]);
+                    }
+                }
+                return bytes;
+            }
+            bytes += ARRAY_HEADER + codes.length * 4L;
+            for (int i = 0; i < dictionarySize; i++) {
+                bytes += stringBytes(dictionary[i]);
+            }
+            // Hash map entries with their boxed codes
+            return bytes + dictionarySize * 64L;
+        }
+    }
+
+    /**
+     * Fallback for types without a primitive representation (DECIMAL, dates, BLOBs, ...).
+     */
+    static final class ObjectColumn extends ResultColumn {
+        Object[] values;
+
+        ObjectColumn(int capacity) {
+            super(capacity);
+            this.values = new Object[capacity];
+        }
+
+        @Override
+        protected ResultColumn readValue(ResultSet rs, int columnIndex, int row) throws SQLException {
+            Object value = rs.getObject(columnIndex);
+            if (value == null) {
+                setNull(row);
+            } else {
+                values[row] = value;
+            }
+            return this;
+        }
+
+        @Override
+        protected ResultColumn addValue(Object value, int row) {
+            values[row] = value;
+            return this;
+        }
+
+        @Override
+        Object get(int row) {
+            return values[row];
+        }
+
+        @Override
+        int capacity() {
+            return values.length;
+        }
+
+        @Override
+        protected void grow(int newCapacity) {
+            values = Arrays.copyOf(values, newCapacity);
+        }
+
+        @Override
+        protected long valueBytes(int rows) {
+            long bytes = ARRAY_HEADER + values.length * 8L;
+            for (int i = 0; i < rows; i++) {
+                if (values[i] != null) {
+                    bytes += objectBytes(values[i]);
+                }
+            }
+            return bytes;
+        }
+    }
+}
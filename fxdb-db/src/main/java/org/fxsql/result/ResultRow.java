@@ -0,0 +1,23 @@
+package org.fxsql.result;
+
+/**
+ * A row of a {@link ResultBuffer}, addressed by index.
+ * Holds no cell data itself; values are read from the buffer's columns on access.
+ */
+public record ResultRow(ResultBuffer buffer, int index) {
+
+    /**
+     * Returns the value of the given column, or null if it is SQL NULL.
+     */
+    public Object get(int column) {
+        return buffer.getValue(index, column);
+    }
+
+    public boolean isNull(int column) {
+        return buffer.isNull(index, column);
+    }
+
+    public int size() {
+        return buffer.getColumnCount();
+    }
+}
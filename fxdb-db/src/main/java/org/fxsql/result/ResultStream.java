@@ -0,0 +1,159 @@
+package org.fxsql.result;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Reads a {@link ResultSet} into a {@link ResultBuffer} while reporting progress, so rows
+ * can be shown as soon as they arrive instead of after the whole result has been drained.
+ * <p>
+ * {@link #fetch(Listener)} runs on a background thread. The listener is called right
+ * after the first row, then at most about once per frame while rows keep coming, and a
+ * final time when fetching stops. Rows below the buffer's row count can be read from any
+ * thread at any time.
+ * <p>
+ * {@link #cancel()} may be called from any thread. It stops the fetch loop and cancels the
+ * statement, so the driver stops pulling rows from the server.
+ */
+public final class ResultStream {
+
+    private static final Logger logger = Logger.getLogger(ResultStream.class.getName());
+    // Roughly one frame at 60 fps; callers coalesce UI updates on top of this
+    private static final long NOTIFY_INTERVAL_NANOS = 16_000_000L;
+    private static final int CLOCK_CHECK_MASK = 63;
+
+    private final ResultSet resultSet;
+    private final ResultBuffer buffer;
+    private final int maxRows;
+
+    private volatile boolean cancelled;
+    private volatile boolean done;
+    private volatile boolean truncated;
+    private volatile long startNanos;
+    private volatile long endNanos;
+
+    /**
+     * Callback for fetch progress. Invoked on the fetching thread.
+     */
+    @FunctionalInterface
+    public interface Listener {
+        void onProgress(ResultStream stream);
+    }
+
+    /**
+     * @param resultSet The result set to read; it is closed once fetching stops
+     * @param maxRows The maximum number of rows to keep
+     * @throws SQLException if the result set metadata cannot be read
+     */
+    public ResultStream(ResultSet resultSet, int maxRows) throws SQLException {
+        this.resultSet = resultSet;
+        this.buffer = ResultBuffer.forResultSet(resultSet);
+        this.maxRows = maxRows;
+    }
+
+    /**
+     * Reads rows until the result set is exhausted, {@code maxRows} is reached or the
+     * stream is cancelled. Errors caused by cancelling are not reported.
+     *
+     * @param listener Receives progress updates on the calling thread
+     * @throws SQLException if reading fails for a reason other than cancellation
+     */
+    public void fetch(Listener listener) throws SQLException {
+        startNanos = System.nanoTime();
+        long lastNotify = startNanos;
+        try {
+            int rows = 0;
+            while (!cancelled && rows < maxRows && resultSet.next()) {
+                buffer.appendCurrentRow(resultSet);
+                rows++;
+                if (rows == 1) {
+                    lastNotify = System.nanoTime();
+                    listener.onProgress(this);
+                } else if ((rows & CLOCK_CHECK_MASK) == 0) {
+                    long now = System.nanoTime();
+                    if (now - lastNotify >= NOTIFY_INTERVAL_NANOS) {
+                        lastNotify = now;
+                        listener.onProgress(this);
+                    }
+                }
+            }
+            truncated = !cancelled && rows >= maxRows && resultSet.next();
+        } catch (SQLException e) {
+            if (!cancelled) {
+                throw e;
+            }
+            logger.log(Level.FINE, "Fetch stopped by cancellation", e);
+        } finally {
+            endNanos = System.nanoTime();
+            done = true;
+            try {
+                resultSet.close();
+            } catch (SQLException ignored) {}
+            listener.onProgress(this);
+        }
+    }
+
+    /**
+     * Stops fetching. Rows read so far stay in the buffer.
+     */
+    public void cancel() {
+        if (done || cancelled) {
+            return;
+        }
+        cancelled = true;
+        try {
+            Statement statement = resultSet.getStatement();
+            if (statement != null) {
+                statement.cancel();
+            }
+        } catch (SQLException e) {
+            logger.log(Level.FINE, "Could not cancel statement", e);
+        }
+    }
+
+    public ResultBuffer getBuffer() {
+        return buffer;
+    }
+
+    public int getRowCount() {
+        return buffer.getRowCount();
+    }
+
+    public boolean isDone() {
+        return done;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Returns true if the result had more than {@code maxRows} rows.
+     */
+    public boolean isTruncated() {
+        return truncated;
+    }
+
+    /**
+     * Returns the time spent fetching so far, in milliseconds.
+     */
+    public long getElapsedMillis() {
+        long start = startNanos;
+        if (start == 0) {
+            return 0;
+        }
+        long end = done ? endNanos : System.nanoTime();
+        return (end - start) / 1_000_000L;
+    }
+
+    /**
+     * Returns the average fetch rate in rows per second.
+     */
+    public double getRowsPerSecond() {
+        long elapsed = getElapsedMillis();
+        return elapsed > 0 ? getRowCount() * 1000.0 / elapsed : 0;
+    }
+}
@@ -0,0 +1,416 @@
+package org.fxsql.result;
+
+import org.fxdb.plugin.sdk.db.Dialect;
+import org.fxsql.DatabaseConnection;
+import org.fxsql.model.TableMetaData;
+import org.fxsql.pool.ConnectionLease;
+import org.fxsql.pool.ConnectionPool;
+import org.fxsql.schema.SchemaCache;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.logging.Logger;
+
+/**
+ * Server-side pagination over a single table.
+ * <p>
+ * Tables with a primary key are paged with keyset ("seek") queries: each page is read
+ * with {@code WHERE key > last key of the previous page ORDER BY key LIMIT n}, which the
+ * database answers from the key index no matter how deep the page is. The last key of
+ * every page that has been read is remembered, so moving to a neighbouring page is a
+ * single seek. Jumping to a page with no known neighbour first locates its start with an
+ * OFFSET query over the key columns only, counted from the nearest remembered page or,
+ * once the row count is known, from the end of the table.
+ * <p>
+ * Tables without a primary key fall back to plain {@code LIMIT/OFFSET}.
+ * <p>
+ * Recently read pages are kept in a small LRU cache. Page numbers are zero-based.
+ * Queries run on the calling thread and must not run concurrently; cache lookups
+ * ({@link #getCachedPage(int)}) are cheap and safe from any thread.
+ */
+public final class TablePager {
+
+    private static final Logger logger = Logger.getLogger(TablePager.class.getName());
+    private static final int MAX_CACHED_PAGES = 8;
+
+    private final DatabaseConnection connection;
+    private final String tableName;
+    private final List<String> keyColumns;
+    private final Dialect dialect;
+    // Table and key column names quoted for the dialect, ready to splice into queries
+    private final String quotedTable;
+    private final List<String> quotedKeys;
+    private final String orderBy;
+    private final String orderByDesc;
+    private int pageSize;
+    // Total row count if known; lets pages near the end be read from the end
+    private long rowCount = -1;
+
+    private final Map<Integer, ResultBuffer> pageCache = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, ResultBuffer> eldest) {
+            return size() > MAX_CACHED_PAGES;
+        }
+    };
+    // Last key of each page read so far, by page number
+    private final TreeMap<Integer, Object[]> lastKeys = new TreeMap<>();
+
+    private TablePager(DatabaseConnection connection, String tableName, List<String> keyColumns, int pageSize) {
+        this.connection = connection;
+        this.tableName = tableName;
+        this.keyColumns = Collections.unmodifiableList(keyColumns);
+        this.dialect = connection.getDialect();
+        this.quotedTable = quote(tableName);
+        this.quotedKeys = keyColumns.stream().map(this::quote).toList();
+        this.orderBy = String.join(", ", quotedKeys);
+        this.orderByDesc = String.join(" DESC, ", quotedKeys) + " DESC";
+        this.pageSize = pageSize;
+    }
+
+    /**
+     * Creates a pager for a table, using its primary key for keyset pagination if it has one.
+     *
+     * @param connection The database connection
+     * @param tableName The table to page through
+     * @param pageSize Rows per page
+     * @return A new pager
+     */
+    public static TablePager forTable(DatabaseConnection connection, String tableName, int pageSize) {
+        List<String> keys = new ArrayList<>();
+        try {
+            TableMetaData metaData = SchemaCache.forConnection(connection).getTableMetaData(connection, tableName);
+            metaData.getPrimaryKeys().stream()
+                    .sorted(Comparator.comparingInt(TableMetaData.PrimaryKeyInfo::getKeySeq))
+                    .forEach(pk -> keys.add(pk.getColumnName()));
+        } catch (SQLException e) {
+            logger.warning("Could not read primary key of " + tableName + ", using OFFSET paging: " + e.getMessage());
+        }
+        return new TablePager(connection, tableName, keys, pageSize);
+    }
+
+    /**
+     * Creates a pager with known key columns, without reading the table metadata again.
+     * An empty list selects OFFSET paging.
+     */
+    public static TablePager withKeyColumns(DatabaseConnection connection, String tableName,
+                                            List<String> keyColumns, int pageSize) {
+        return new TablePager(connection, tableName, new ArrayList<>(keyColumns), pageSize);
+    }
+
+    /**
+     * Returns true if pages are read with keyset queries, false if with OFFSET.
+     */
+    public boolean isKeyset() {
+        return !keyColumns.isEmpty();
+    }
+
+    /**
+     * Returns the primary key columns in key order; empty for OFFSET paging.
+     */
+    public List<String> getKeyColumns() {
+        return keyColumns;
+    }
+
+    public String getTableName() {
+        return tableName;
+    }
+
+    public synchronized int getPageSize() {
+        return pageSize;
+    }
+
+    /**
+     * Changes the page size. Cached pages and remembered keys are dropped; the row count is kept.
+     */
+    public synchronized void setPageSize(int pageSize) {
+        if (this.pageSize != pageSize) {
+            this.pageSize = pageSize;
+            pageCache.clear();
+            lastKeys.clear();
+        }
+    }
+
+    /**
+     * Drops cached pages, remembered keys and the row count, e.g. after the table has been modified.
+     */
+    public synchronized void invalidate() {
+        pageCache.clear();
+        lastKeys.clear();
+        rowCount = -1;
+    }
+
+    /**
+     * Sets the row count if it is already known, instead of {@link #countRows()}.
+     */
+    public synchronized void setRowCount(long rowCount) {
+        this.rowCount = rowCount;
+    }
+
+    /**
+     * Returns the page if it is cached, without querying the database.
+     */
+    public synchronized ResultBuffer getCachedPage(int page) {
+        return pageCache.get(page);
+    }
+
+    /**
+     * Counts the rows in the table and remembers the count.
+     */
+    public long countRows() throws SQLException {
+        long count;
+        try (ConnectionLease lease = ConnectionPool.lease(connection)) {
+            count = lease.connection().executeStreamingQuery("SELECT COUNT(*) FROM " + quotedTable, 0,
+                    rs -> rs.next() ? rs.getLong(1) : 0L);
+        }
+        synchronized (this) {
+            rowCount = count;
+        }
+        return count;
+    }
+
+    /**
+     * Returns a page, reading it from the database unless it is cached.
+     * A page past the end of the table is empty.
+     *
+     * @param page Zero-based page number
+     * @return The rows of the page
+     * @throws SQLException if the page cannot be read
+     */
+    public ResultBuffer getPage(int page) throws SQLException {
+        if (page < 0) {
+            throw new IllegalArgumentException("Page must not be negative: " + page);
+        }
+        ResultBuffer cached = getCachedPage(page);
+        if (cached != null) {
+            return cached;
+        }
+
+        int size = getPageSize();
+        ResultBuffer rows = isKeyset() ? readKeysetPage(page, size) : readOffsetPage(page, size);
+
+        synchronized (this) {
+            // Ignore results that were read with a page size that has since changed
+            if (size == pageSize) {
+                pageCache.put(page, rows);
+                if (isKeyset() && rows.getRowCount() > 0) {
+                    lastKeys.put(page, keyOf(rows, rows.getRowCount() - 1));
+                }
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Reads a page into the cache if it is not there yet.
+     */
+    public void prefetch(int page) throws SQLException {
+        if (page >= 0 && getCachedPage(page) == null) {
+            getPage(page);
+        }
+    }
+
+    private ResultBuffer readOffsetPage(int page, int size) throws SQLException {
+        String sql = "SELECT * FROM " + quotedTable + " LIMIT " + size + " OFFSET " + ((long) page * size);
+        return query(sql, null, size);
+    }
+
+    private ResultBuffer readKeysetPage(int page, int size) throws SQLException {
+        if (page == 0) {
+            return query("SELECT * FROM " + quotedTable + " ORDER BY " + orderBy + " LIMIT " + size, null, size);
+        }
+
+        Object[] previousKey;
+        Object[] nextFirstKey = null;
+        synchronized (this) {
+            previousKey = lastKeys.get(page - 1);
+            ResultBuffer next = pageCache.get(page + 1);
+            if (previousKey == null && next != null && next.getRowCount() > 0) {
+                nextFirstKey = keyOf(next, 0);
+            }
+        }
+
+        if (previousKey == null && nextFirstKey != null) {
+            // Seek backwards from the following page and restore ascending order
+            String sql = "SELECT * FROM (SELECT * FROM " + quotedTable + " WHERE " + keyCondition("<")
+                    + " ORDER BY " + orderByDesc + " LIMIT " + size + ") p ORDER BY " + orderBy;
+            return query(sql, nextFirstKey, size);
+        }
+
+        if (previousKey == null) {
+            ResultBuffer fromEnd = readFromEndIfCloser(page, size);
+            if (fromEnd != null) {
+                return fromEnd;
+            }
+            previousKey = locateLastKeyBefore(page, size);
+            if (previousKey == null) {
+                // The page starts past the end of the table
+                return query("SELECT * FROM " + quotedTable + " WHERE 1 = 0", null, 0);
+            }
+        }
+
+        String sql = "SELECT * FROM " + quotedTable + " WHERE " + keyCondition(">")
+                + " ORDER BY " + orderBy + " LIMIT " + size;
+        return query(sql, previousKey, size);
+    }
+
+    /**
+     * Reads the page by seeking backwards from the end of the table when that skips fewer
+     * rows than seeking forwards from the nearest known page, e.g. for the last page.
+     * Returns null if the row count is unknown or seeking forwards is cheaper.
+     */
+    private ResultBuffer readFromEndIfCloser(int page, int size) throws SQLException {
+        long total;
+        Integer anchorPage;
+        synchronized (this) {
+            total = rowCount;
+            anchorPage = lastKeys.lowerKey(page - 1);
+        }
+        long firstRow = (long) page * size;
+        if (total < 0 || firstRow >= total) {
+            return null;
+        }
+        long forwardSkip = firstRow - (anchorPage == null ? 0 : (long) (anchorPage + 1) * size);
+        long rows = Math.min(size, total - firstRow);
+        long backwardSkip = total - firstRow - rows;
+        if (backwardSkip >= forwardSkip) {
+            return null;
+        }
+
+        String sql = "SELECT * FROM (SELECT * FROM " + quotedTable + " ORDER BY " + orderByDesc
+                + " LIMIT " + rows + " OFFSET " + backwardSkip + ") p ORDER BY " + orderBy;
+        return query(sql, null, size);
+    }
+
+    /**
+     * Finds the key of the last row before {@code page}, counting from the nearest earlier
+     * page whose last key is known. Only the key columns are read.
+     */
+    private Object[] locateLastKeyBefore(int page, int size) throws SQLException {
+        Map.Entry<Integer, Object[]> anchor;
+        synchronized (this) {
+            anchor = lastKeys.lowerEntry(page - 1);
+        }
+
+        long targetRow = (long) page * size - 1;
+        String keyList = String.join(", ", quotedKeys);
+        String sql;
+        Object[] params = null;
+        long offset;
+        if (anchor == null) {
+            offset = targetRow;
+            sql = "SELECT " + keyList + " FROM " + quotedTable + " ORDER BY " + orderBy;
+        } else {
+            offset = targetRow - (long) (anchor.getKey() + 1) * size;
+            sql = "SELECT " + keyList + " FROM " + quotedTable + " WHERE " + keyCondition(">")
+                    + " ORDER BY " + orderBy;
+            params = anchor.getValue();
+        }
+        sql += " LIMIT 1 OFFSET " + offset;
+
+        ResultBuffer keys = query(sql, params, 1);
+        return keys.getRowCount() > 0 ? keys.getRowValues(0) : null;
+    }
+
+    /**
+     * Builds a lexicographic comparison of the key columns against bind parameters, e.g.
+     * {@code a > ? OR (a = ? AND b > ?)}. Row value comparisons would be shorter but are
+     * not supported everywhere.
+     */
+    private String keyCondition(String operator) {
+        StringBuilder condition = new StringBuilder();
+        for (int i = 0; i < keyColumns.size(); i++) {
+            if (i > 0) {
+                condition.append(" OR ");
+            }
+            condition.append('(');
+            for (int j = 0; j < i; j++) {
+                condition.append(quotedKeys.get(j)).append(" = ? AND ");
+            }
+            condition.append(quotedKeys.get(i)).append(' ').append(operator).append(" ?)");
+        }
+        return condition.toString();
+    }
+
+    /**
+     * Quotes a table or column name for the dialect, so mixed-case names and reserved words
+     * refer to the right object.
+     */
+    private String quote(String identifier) {
+        if (dialect == Dialect.MYSQL) {
+            return "`" + identifier.replace("`", "``") + "`";
+        }
+        return "\"" + identifier.replace("\"", "\"\"") + "\"";
+    }
+
+    private ResultBuffer query(String sql, Object[] key, int maxRows) throws SQLException {
+        // Pages read without a key, such as the first one shown when a table is opened, are
+        // served from the result cache while the table is unchanged
+        QueryResultCache.Lookup lookup = key == null ? QueryResultCache.lookup(connection, sql, maxRows) : null;
+        if (lookup != null && lookup.hit() != null) {
+            return lookup.hit().buffer();
+        }
+        ResultBuffer rows = read(sql, key, maxRows);
+        if (lookup != null) {
+            lookup.store(rows, false);
+        }
+        return rows;
+    }
+
+    private ResultBuffer read(String sql, Object[] key, int maxRows) throws SQLException {
+        // Page reads borrow from the pool so browsing does not wait for a script in another tab
+        try (ConnectionLease lease = ConnectionPool.lease(connection)) {
+            Connection conn = lease.connection().getConnection();
+            if (conn == null || conn.isClosed()) {
+                throw new SQLException("Connection is not established or is closed.");
+            }
+            logger.fine("Page query: " + sql);
+
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                if (key != null) {
+                    bindKey(stmt, key);
+                }
+                stmt.setFetchSize(Math.max(maxRows, 1));
+                try (ResultSet rs = stmt.executeQuery()) {
+                    return ResultBuffer.from(rs, Math.max(maxRows, 0));
+                }
+            }
+        }
+    }
+
+    private void bindKey(PreparedStatement stmt, Object[] key) throws SQLException {
+        // Parameters follow keyCondition: for key column i, the values of columns 0..i
+        int index = 1;
+        for (int i = 0; i < keyColumns.size(); i++) {
+            for (int j = 0; j <= i; j++) {
+                stmt.setObject(index++, key[j]);
+            }
+        }
+    }
+
+    private Object[] keyOf(ResultBuffer rows, int row) {
+        Object[] key = new Object[keyColumns.size()];
+        for (int i = 0; i < key.length; i++) {
+            key[i] = rows.getValue(row, columnIndex(rows, keyColumns.get(i)));
+        }
+        return key;
+    }
+
+    private static int columnIndex(ResultBuffer rows, String column) {
+        List<String> names = rows.getColumnNames();
+        for (int i = 0; i < names.size(); i++) {
+            if (names.get(i).equalsIgnoreCase(column)) {
+                return i;
+            }
+        }
+        throw new IllegalStateException("Key column " + column + " is not in the result");
+    }
+}
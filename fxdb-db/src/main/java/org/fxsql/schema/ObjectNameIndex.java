@@ -0,0 +1,579 @@
+package org.fxsql.schema;
+
+import org.fxsql.DatabaseObjects;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory index over the object names of every connection whose schema has been loaded, used to
+ * jump to a table, view or other object without browsing the tree.
+ * <p>
+ * Names starting with the query are found in a sorted array. Names containing it, at a word
+ * boundary or elsewhere, are found by intersecting trigram postings, and if that leaves too few
+ * matches, names sharing most of the query's rarer trigrams are added as fuzzy matches. Each
+ * connection has its own segment, updated with the names added and removed since its last load.
+ * <p>
+ * Thread-safe. Lookups are meant to run off the FX thread, since they wait for a segment that is
+ * being updated.
+ */
+public final class ObjectNameIndex {
+
+    /**
+     * The type of a database object, in the order matches of equal score are listed.
+     */
+    public enum Kind {
+        TABLE("Table"),
+        VIEW("View"),
+        FUNCTION("Function"),
+        TRIGGER("Trigger"),
+        INDEX("Index");
+
+        private final String label;
+
+        Kind(String label) {
+            this.label = label;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+    }
+
+    /**
+     * An object found by {@link #search(String, int)}; a higher score is a better match.
+     */
+    public record Match(String connection, Kind kind, String name, int score) {
+    }
+
+    private static final int GRAM = 3;
+    // Set on the postings of trigrams that start a name or a word in it
+    private static final long WORD_START = 1L << 48;
+    private static final Kind[] KINDS = Kind.values();
+    private static final Comparator<Match> BY_SCORE = Comparator.comparingInt(Match::score)
+            .thenComparing(Match::name, Comparator.reverseOrder());
+
+    // Scores fall in bands, so a band is skipped once enough better matches are found. Within a
+    // band, shorter names and tables rank first.
+    private static final int EXACT = 1000;
+    private static final int PREFIX = 900;
+    private static final int BOUNDARY = 800;
+    private static final int CONTAINS = 700;
+    private static final int FUZZY = 600;
+    private static final int MAX_PENALTY = 95;
+
+    private final Map<String, Segment> segments = new ConcurrentHashMap<>();
+
+    /**
+     * Replaces the indexed names of a connection with the given objects, applying only what changed.
+     */
+    public void update(String connection, DatabaseObjects objects) {
+        if (connection == null || objects == null) {
+            return;
+        }
+        segments.computeIfAbsent(connection, Segment::new).update(objects);
+    }
+
+    /**
+     * Removes a connection from the index, for example when it is deleted.
+     */
+    public void remove(String connection) {
+        if (connection != null) {
+            segments.remove(connection);
+        }
+    }
+
+    /**
+     * Returns the number of names indexed across all connections.
+     */
+    public int size() {
+        int total = 0;
+        for (Segment segment : segments.values()) {
+            total += segment.liveCount();
+        }
+        return total;
+    }
+
+    /**
+     * Returns the best matches for a query across all connections, best first. Queries shorter
+     * than three characters only match the start of a name.
+     */
+    public List<Match> search(String query, int limit) {
+        String q = query == null ? "" : query.trim().toLowerCase(Locale.ROOT);
+        if (q.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        long[] grams = grams(q);
+        PriorityQueue<Match> best = new PriorityQueue<>(limit + 1, BY_SCORE);
+        for (Segment segment : segments.values()) {
+            segment.searchLiteral(q, grams, limit, best);
+        }
+        if (grams.length > 0 && best.size() < limit) {
+            for (Segment segment : segments.values()) {
+                segment.searchFuzzy(q, grams, limit, best);
+            }
+        }
+        List<Match> matches = new ArrayList<>(best);
+        matches.sort(BY_SCORE.reversed());
+        return matches;
+    }
+
+    private static int score(int band, int extra, int kind) {
+        return band - Math.min(extra, MAX_PENALTY) - kind;
+    }
+
+    private static int threshold(PriorityQueue<Match> best, int limit) {
+        return best.size() < limit ? Integer.MIN_VALUE : best.peek().score();
+    }
+
+    private static boolean isBoundary(char c) {
+        return c == '_' || c == '.' || c == ' ' || c == '-' || c == '$';
+    }
+
+    /**
+     * Returns the first position from the given one where the query follows a word boundary, or -1.
+     */
+    private static int boundaryMatch(String key, String q, int from) {
+        for (int at = key.indexOf(q, from); at > 0; at = key.indexOf(q, at + 1)) {
+            if (isBoundary(key.charAt(at - 1))) {
+                return at;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the distinct trigrams of a query.
+     */
+    private static long[] grams(String q) {
+        Set<Long> seen = new LinkedHashSet<>();
+        for (int i = 0; i + GRAM <= q.length(); i++) {
+            seen.add(gram(q, i));
+        }
+        return seen.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    private static long gram(String s, int i) {
+        return ((long) s.charAt(i) << 32) | ((long) s.charAt(i + 1) << 16) | s.charAt(i + 2);
+    }
+
+    /**
+     * Finds an id in a sorted range, probing 1, 2, 4, ... ahead first, which is cheap when
+     * intersecting lists of similar length. Returns the index, or -(insertion point) - 1.
+     */
+    private static int gallop(int[] ids, int from, int to, int id) {
+        int bound = 1;
+        while (from + bound < to && ids[from + bound] < id) {
+            bound <<= 1;
+        }
+        return Arrays.binarySearch(ids, from + bound / 2, Math.min(from + bound + 1, to), id);
+    }
+
+    /**
+     * Growable list of ids in ascending order.
+     */
+    private static final class Postings {
+        int[] ids = new int[4];
+        int size;
+
+        void add(int id) {
+            // A name repeating a trigram is listed once
+            if (size > 0 && ids[size - 1] == id) {
+                return;
+            }
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[size++] = id;
+        }
+    }
+
+    /**
+     * Postings by trigram, in an open-addressing table so lookups do not box the trigram.
+     */
+    private static final class GramTable {
+        private long[] grams = new long[1024];
+        private Postings[] lists = new Postings[1024];
+        private int size;
+
+        Postings get(long gram) {
+            int mask = grams.length - 1;
+            for (int slot = slot(gram, mask); lists[slot] != null; slot = (slot + 1) & mask) {
+                if (grams[slot] == gram) {
+                    return lists[slot];
+                }
+            }
+            return null;
+        }
+
+        Postings getOrCreate(long gram) {
+            int mask = grams.length - 1;
+            int slot = slot(gram, mask);
+            for (; lists[slot] != null; slot = (slot + 1) & mask) {
+                if (grams[slot] == gram) {
+                    return lists[slot];
+                }
+            }
+            Postings list = new Postings();
+            grams[slot] = gram;
+            lists[slot] = list;
+            if (++size * 2 > grams.length) {
+                grow();
+            }
+            return list;
+        }
+
+        private void grow() {
+            long[] oldGrams = grams;
+            Postings[] oldLists = lists;
+            grams = new long[oldGrams.length * 2];
+            lists = new Postings[oldLists.length * 2];
+            int mask = grams.length - 1;
+            for (int i = 0; i < oldLists.length; i++) {
+                if (oldLists[i] != null) {
+                    int slot = slot(oldGrams[i], mask);
+                    while (lists[slot] != null) {
+                        slot = (slot + 1) & mask;
+                    }
+                    grams[slot] = oldGrams[i];
+                    lists[slot] = oldLists[i];
+                }
+            }
+        }
+
+        private static int slot(long gram, int mask) {
+            long h = gram * 0x9E3779B97F4A7C15L;
+            return (int) (h >>> 32) & mask;
+        }
+    }
+
+    /**
+     * The names of one connection. Removed names are only marked, and the segment is rebuilt once
+     * more than half of it is removed.
+     */
+    private static final class Segment {
+
+        private static final int COMPACT_THRESHOLD = 1024;
+
+        private final String connection;
+        private String[] names = new String[64];
+        private String[] keys = new String[64];
+        private byte[] kinds = new byte[64];
+        private int[] lengths = new int[64];
+        private int size;
+        private final BitSet removed = new BitSet();
+        private int removedCount;
+        // Live ids ordered by key, for prefix lookups
+        private int[] sorted = new int[0];
+        private int sortedSize;
+        private GramTable postings = new GramTable();
+        // Hit counts per id while a fuzzy search runs; all zero between searches
+        private int[] hits = new int[0];
+
+        Segment(String connection) {
+            this.connection = connection;
+        }
+
+        synchronized int liveCount() {
+            return size - removedCount;
+        }
+
+        synchronized void update(DatabaseObjects objects) {
+            List<List<String>> byKind = List.of(objects.getTables(), objects.getViews(),
+                    objects.getFunctions(), objects.getTriggers(), objects.getIndexes());
+
+            // Names not indexed yet, per kind; what remains after the pass below is new
+            List<Set<String>> incoming = new ArrayList<>(byKind.size());
+            for (List<String> names : byKind) {
+                Set<String> set = new HashSet<>(names);
+                set.remove(null);
+                incoming.add(set);
+            }
+
+            int firstAdded = size;
+            int removedBefore = removedCount;
+            for (int id = 0; id < size; id++) {
+                if (!removed.get(id) && !incoming.get(kinds[id]).remove(names[id])) {
+                    removed.set(id);
+                    removedCount++;
+                }
+            }
+
+            for (int kind = 0; kind < byKind.size(); kind++) {
+                Set<String> added = incoming.get(kind);
+                if (added.isEmpty()) {
+                    continue;
+                }
+                // In the order the database listed them
+                for (String name : byKind.get(kind)) {
+                    if (name != null && added.remove(name)) {
+                        add(kind, name);
+                    }
+                }
+            }
+
+            if (removedCount > COMPACT_THRESHOLD && removedCount * 2 > size) {
+                compact();
+                sortedSize = 0;
+                sortIds(0);
+            } else if (size > firstAdded || removedCount > removedBefore) {
+                sortIds(firstAdded);
+            }
+        }
+
+        /**
+         * Adds exact, prefix, word boundary and other substring matches, skipping each band
+         * once the matches found so far all score higher.
+         */
+        synchronized void searchLiteral(String q, long[] grams, int limit, PriorityQueue<Match> best) {
+            searchPrefix(q, limit, best);
+            if (grams.length == 0 || threshold(best, limit) >= BOUNDARY) {
+                return;
+            }
+            Postings[] lists = new Postings[grams.length];
+            for (int i = 0; i < grams.length; i++) {
+                lists[i] = postings.get(grams[i]);
+                if (lists[i] == null) {
+                    // A trigram no name has, so no name contains the query
+                    return;
+                }
+            }
+            Postings wordStarts = postings.get(grams[0] | WORD_START);
+            if (wordStarts != null) {
+                Postings[] boundaryLists = lists.clone();
+                boundaryLists[0] = wordStarts;
+                searchContains(q, boundaryLists, true, limit, best);
+            }
+            if (threshold(best, limit) < CONTAINS) {
+                searchContains(q, lists, false, limit, best);
+            }
+        }
+
+        /**
+         * Adds names sharing at least half of the query's rarer trigrams, e.g. with a typo,
+         * ranked by how many they share.
+         */
+        synchronized void searchFuzzy(String q, long[] grams, int limit, PriorityQueue<Match> best) {
+            if (threshold(best, limit) >= FUZZY) {
+                return;
+            }
+            List<Postings> lists = new ArrayList<>(grams.length);
+            for (long gram : grams) {
+                Postings list = postings.get(gram);
+                if (list != null) {
+                    lists.add(list);
+                }
+            }
+            // Rare trigrams say the most about a name; leave out common ones beyond a budget
+            lists.sort(Comparator.comparingInt(list -> list.size));
+            int budget = Math.max(size / 4, 256);
+            int used = 0;
+            int counted = 0;
+            while (used < lists.size() && (used < 2 || counted + lists.get(used).size <= budget)) {
+                counted += lists.get(used++).size;
+            }
+            int required = Math.max((grams.length + 1) / 2 - (grams.length - used), 1);
+            if (used < required) {
+                return;
+            }
+
+            if (hits.length < size) {
+                hits = new int[names.length];
+            }
+            for (int l = 0; l < used; l++) {
+                Postings list = lists.get(l);
+                for (int i = 0; i < list.size; i++) {
+                    hits[list.ids[i]]++;
+                }
+            }
+            for (int l = 0; l < used; l++) {
+                Postings list = lists.get(l);
+                for (int i = 0; i < list.size; i++) {
+                    int id = list.ids[i];
+                    int count = hits[id];
+                    if (count == 0) {
+                        continue;
+                    }
+                    hits[id] = 0;
+                    if (count < required || removed.get(id)) {
+                        continue;
+                    }
+                    int score = score(FUZZY * count / grams.length, Math.abs(lengths[id] - q.length()), kinds[id]);
+                    // Names containing the query were added by the literal search
+                    if (score >= threshold(best, limit) && !keys[id].contains(q)) {
+                        offer(best, limit, id, score);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Names starting with the query form one range of the sorted ids.
+         */
+        private void searchPrefix(String q, int limit, PriorityQueue<Match> best) {
+            int from = lowerBound(q);
+            int to = lowerBound(q + Character.MAX_VALUE);
+            for (int i = from; i < to; i++) {
+                int id = sorted[i];
+                if (removed.get(id)) {
+                    continue;
+                }
+                int extra = lengths[id] - q.length();
+                int score = score(extra == 0 ? EXACT : PREFIX, extra, kinds[id]);
+                if (score >= threshold(best, limit)) {
+                    offer(best, limit, id, score);
+                }
+            }
+        }
+
+        /**
+         * Intersects the postings of every query trigram, starting from the shortest list. For word
+         * boundary matches, the first list only holds names where that trigram starts a word.
+         */
+        private void searchContains(String q, Postings[] lists, boolean wordStarts, int limit,
+                                    PriorityQueue<Match> best) {
+            int band = wordStarts ? BOUNDARY : CONTAINS;
+            Arrays.sort(lists, Comparator.comparingInt(list -> list.size));
+            int[] positions = new int[lists.length];
+            Postings shortest = lists[0];
+            candidates:
+            for (int i = 0; i < shortest.size; i++) {
+                int id = shortest.ids[i];
+                for (int l = 1; l < lists.length; l++) {
+                    int at = gallop(lists[l].ids, positions[l], lists[l].size, id);
+                    if (at < 0) {
+                        positions[l] = -at - 1;
+                        continue candidates;
+                    }
+                    positions[l] = at + 1;
+                }
+                // Most candidates of a common trigram are ruled out by their length alone
+                int extra = lengths[id] - q.length();
+                if (removed.get(id) || score(band, extra, kinds[id]) < threshold(best, limit)) {
+                    continue;
+                }
+                // Prefix matches are already ranked, and a name can have every trigram but not the query
+                String key = keys[id];
+                int first = key.indexOf(q);
+                if (first <= 0) {
+                    continue;
+                }
+                boolean boundary = boundaryMatch(key, q, first) > 0;
+                if (wordStarts && boundary) {
+                    offer(best, limit, id, score(BOUNDARY, extra, kinds[id]));
+                } else if (!wordStarts && !boundary) {
+                    offer(best, limit, id, score(CONTAINS, first + extra, kinds[id]));
+                }
+            }
+        }
+
+        private int lowerBound(String key) {
+            int low = 0;
+            int high = sortedSize;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (keys[sorted[mid]].compareTo(key) < 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        private void offer(PriorityQueue<Match> best, int limit, int id, int score) {
+            Match match = new Match(connection, KINDS[kinds[id]], names[id], score);
+            if (best.size() < limit) {
+                best.add(match);
+            } else if (BY_SCORE.compare(match, best.peek()) > 0) {
+                best.poll();
+                best.add(match);
+            }
+        }
+
+        private void add(int kind, String name) {
+            if (size == names.length) {
+                int capacity = size * 2;
+                names = Arrays.copyOf(names, capacity);
+                keys = Arrays.copyOf(keys, capacity);
+                kinds = Arrays.copyOf(kinds, capacity);
+                lengths = Arrays.copyOf(lengths, capacity);
+            }
+            int id = size++;
+            String key = name.toLowerCase(Locale.ROOT);
+            names[id] = name;
+            keys[id] = key;
+            kinds[id] = (byte) kind;
+            lengths[id] = key.length();
+            for (int i = 0; i + GRAM <= key.length(); i++) {
+                long gram = gram(key, i);
+                postings.getOrCreate(gram).add(id);
+                if (i == 0 || isBoundary(key.charAt(i - 1))) {
+                    postings.getOrCreate(gram | WORD_START).add(id);
+                }
+            }
+        }
+
+        /**
+         * Merges the ids added from the given one on, sorted on their own, with the live ids
+         * already in order, so a small refresh does not sort the whole segment again.
+         */
+        private void sortIds(int firstAdded) {
+            Integer[] added = new Integer[size - firstAdded];
+            for (int i = 0; i < added.length; i++) {
+                added[i] = firstAdded + i;
+            }
+            Arrays.sort(added, (a, b) -> keys[a].compareTo(keys[b]));
+
+            int[] merged = new int[sortedSize + added.length];
+            int count = 0;
+            int i = 0;
+            int j = 0;
+            while (i < sortedSize || j < added.length) {
+                if (i < sortedSize && removed.get(sorted[i])) {
+                    i++;
+                } else if (j == added.length
+                        || (i < sortedSize && keys[sorted[i]].compareTo(keys[added[j]]) <= 0)) {
+                    merged[count++] = sorted[i++];
+                } else {
+                    merged[count++] = added[j++];
+                }
+            }
+            sorted = merged;
+            sortedSize = count;
+        }
+
+        private void compact() {
+            String[] oldNames = names;
+            byte[] oldKinds = kinds;
+            int oldSize = size;
+            BitSet oldRemoved = (BitSet) removed.clone();
+
+            int live = oldSize - removedCount;
+            names = new String[Math.max(64, live)];
+            keys = new String[names.length];
+            kinds = new byte[names.length];
+            lengths = new int[names.length];
+            size = 0;
+            removed.clear();
+            removedCount = 0;
+            postings = new GramTable();
+            hits = new int[0];
+            for (int id = 0; id < oldSize; id++) {
+                if (!oldRemoved.get(id)) {
+                    add(oldKinds[id], oldNames[id]);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,307 @@
+package org.fxsql.schema;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.fxsql.DatabaseConnection;
+import org.fxsql.DatabaseObjects;
+import org.fxsql.config.AppPaths;
+import org.fxsql.model.TableMetaData;
+import org.fxsql.pool.ConnectionLease;
+import org.fxsql.pool.ConnectionPool;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Schema objects and table metadata of one database, kept on disk between sessions so the
+ * database tree and table info can be shown without querying the catalog first.
+ * <p>
+ * Each cache stores a {@link SchemaFingerprint} next to the data. {@link #revalidate} reads the
+ * current fingerprint, which is a single cheap catalog query, and only reloads what changed:
+ * metadata of tables whose version moved is dropped and the object list is reloaded if anything
+ * moved at all. For dialects without a fingerprint every revalidation reloads everything.
+ * <p>
+ * Caches are stored under {@code cache/schema} in the app data directory, one file per
+ * connection URL.
+ */
+public final class SchemaCache {
+
+    private static final Logger logger = Logger.getLogger(SchemaCache.class.getName());
+    private static final String CACHE_DIR = "cache/schema";
+    private static final int FORMAT_VERSION = 1;
+
+    private static final ObjectMapper mapper = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    private static final Map<String, SchemaCache> caches = new ConcurrentHashMap<>();
+    private static final ExecutorService writer = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "SchemaCache-Writer");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private final File file;
+    private final AtomicBoolean savePending = new AtomicBoolean();
+    // Guarded by this
+    private Snapshot snapshot;
+
+    private SchemaCache(File file) {
+        this.file = file;
+        this.snapshot = read(file);
+    }
+
+    /**
+     * Returns the cache for the database a connection points to, reading it from disk on first use.
+     */
+    public static SchemaCache forConnection(DatabaseConnection connection) {
+        String key = UUID.nameUUIDFromBytes(connection.connectionUrl().getBytes(StandardCharsets.UTF_8)).toString();
+        return caches.computeIfAbsent(key, k -> new SchemaCache(AppPaths.getFile(CACHE_DIR, k + ".json")));
+    }
+
+    /**
+     * Returns the cached schema objects, or null if none have been loaded yet.
+     */
+    public synchronized DatabaseObjects getCachedObjects() {
+        return snapshot.tables != null ? snapshot.toDatabaseObjects() : null;
+    }
+
+    /**
+     * Loads the schema objects from the database and caches them.
+     *
+     * @param connection The primary connection
+     * @return The loaded objects
+     */
+    public DatabaseObjects loadObjects(DatabaseConnection connection) {
+        // Read the fingerprint first so a change made while loading is caught next time
+        Map<String, String> versions = readVersions(connection);
+        DatabaseObjects objects = connection.getAllDatabaseObjects();
+        synchronized (this) {
+            dropChangedTables(snapshot.versions, versions);
+            snapshot.versions = versions;
+            snapshot.replaceObjects(objects);
+        }
+        save();
+        return objects;
+    }
+
+    /**
+     * Checks the cache against the database and reloads whatever changed. Blocks; call it
+     * from a background thread.
+     *
+     * @param connection The primary connection
+     * @return true if the cached schema objects changed
+     */
+    public boolean revalidate(DatabaseConnection connection) {
+        Map<String, String> current = readVersions(connection);
+        DatabaseObjects previousObjects;
+        synchronized (this) {
+            Map<String, String> previous = snapshot.versions;
+            if (current != null && current.equals(previous) && snapshot.tables != null) {
+                return false;
+            }
+            dropChangedTables(previous, current);
+            previousObjects = getCachedObjects();
+        }
+
+        DatabaseObjects objects = connection.getAllDatabaseObjects();
+        synchronized (this) {
+            snapshot.versions = current;
+            snapshot.replaceObjects(objects);
+        }
+        save();
+        return previousObjects == null || !sameObjects(previousObjects, objects);
+    }
+
+    /**
+     * Returns the metadata of a table, from the cache if present or else from the database.
+     *
+     * @param connection The primary connection, used on a cache miss
+     * @param tableName The table to describe
+     * @return The table metadata
+     * @throws SQLException if the metadata had to be loaded and that failed
+     */
+    public TableMetaData getTableMetaData(DatabaseConnection connection, String tableName) throws SQLException {
+        String key = tableKey(tableName);
+        synchronized (this) {
+            TableMetaData cached = snapshot.tableMetaData.get(key);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        TableMetaData metaData;
+        try (ConnectionLease lease = ConnectionPool.lease(connection)) {
+            metaData = lease.connection().getTableMetaData(tableName);
+        }
+        synchronized (this) {
+            snapshot.tableMetaData.put(key, metaData);
+        }
+        save();
+        return metaData;
+    }
+
+    /**
+     * Returns the cached metadata of a table without going to the database, or null if none is cached.
+     */
+    public synchronized TableMetaData getCachedTableMetaData(String tableName) {
+        return snapshot.tableMetaData.get(tableKey(tableName));
+    }
+
+    /**
+     * Forgets the cached metadata of one table, e.g. after altering it.
+     */
+    public void invalidateTable(String tableName) {
+        synchronized (this) {
+            if (snapshot.tableMetaData.remove(tableKey(tableName)) == null) {
+                return;
+            }
+        }
+        save();
+    }
+
+    /**
+     * Forgets everything cached for this database.
+     */
+    public void clear() {
+        synchronized (this) {
+            snapshot = new Snapshot();
+        }
+        save();
+    }
+
+    private Map<String, String> readVersions(DatabaseConnection connection) {
+        if (!SchemaFingerprint.isSupported(connection)) {
+            return null;
+        }
+        try (ConnectionLease lease = ConnectionPool.lease(connection)) {
+            return SchemaFingerprint.read(lease.connection());
+        } catch (SQLException e) {
+            logger.log(Level.INFO, "Could not read schema fingerprint, reloading the full schema", e);
+            return null;
+        }
+    }
+
+    /**
+     * Drops cached table metadata whose version differs between two fingerprints.
+     * Without both fingerprints nothing can be compared and all of it is dropped.
+     */
+    private void dropChangedTables(Map<String, String> previous, Map<String, String> current) {
+        if (previous == null || current == null) {
+            snapshot.tableMetaData.clear();
+            return;
+        }
+        Set<String> changed = new HashSet<>();
+        for (String name : previous.keySet()) {
+            if (!Objects.equals(previous.get(name), current.get(name))) {
+                changed.add(tableKey(name));
+            }
+        }
+        for (String name : current.keySet()) {
+            if (!previous.containsKey(name)) {
+                changed.add(tableKey(name));
+            }
+        }
+        snapshot.tableMetaData.keySet().removeAll(changed);
+        if (!changed.isEmpty()) {
+            logger.fine("Schema changed for " + changed.size() + " object(s) in " + file.getName());
+        }
+    }
+
+    private static boolean sameObjects(DatabaseObjects a, DatabaseObjects b) {
+        return a.getTables().equals(b.getTables())
+                && a.getViews().equals(b.getViews())
+                && a.getTriggers().equals(b.getTriggers())
+                && a.getFunctions().equals(b.getFunctions())
+                && a.getIndexes().equals(b.getIndexes());
+    }
+
+    private static String tableKey(String tableName) {
+        return tableName.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Writes the cache in the background, coalescing bursts of changes into one write.
+     */
+    private void save() {
+        if (savePending.compareAndSet(false, true)) {
+            writer.execute(() -> {
+                savePending.set(false);
+                write();
+            });
+        }
+    }
+
+    private void write() {
+        try {
+            byte[] json;
+            synchronized (this) {
+                json = mapper.writeValueAsBytes(snapshot);
+            }
+            File tmp = new File(file.getParentFile(), file.getName() + ".tmp");
+            Files.write(tmp.toPath(), json);
+            Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Failed to write schema cache " + file, e);
+        }
+    }
+
+    private static Snapshot read(File file) {
+        if (!file.exists()) {
+            return new Snapshot();
+        }
+        try {
+            Snapshot snapshot = mapper.readValue(file, Snapshot.class);
+            if (snapshot.formatVersion == FORMAT_VERSION) {
+                return snapshot;
+            }
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Ignoring unreadable schema cache " + file, e);
+        }
+        return new Snapshot();
+    }
+
+    /**
+     * The persisted form of a cache.
+     */
+    static final class Snapshot {
+        public int formatVersion = FORMAT_VERSION;
+        // Fingerprint the objects and metadata were loaded at; null if unknown
+        public Map<String, String> versions;
+        public List<String> tables;
+        public List<String> views;
+        public List<String> triggers;
+        public List<String> functions;
+        public List<String> indexes;
+        // Keyed by lower-cased table name
+        public Map<String, TableMetaData> tableMetaData = new HashMap<>();
+
+        DatabaseObjects toDatabaseObjects() {
+            return new DatabaseObjects(tables, views, triggers, functions, indexes);
+        }
+
+        void replaceObjects(DatabaseObjects objects) {
+            tables = objects.getTables();
+            views = objects.getViews();
+            triggers = objects.getTriggers();
+            functions = objects.getFunctions();
+            indexes = objects.getIndexes();
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package org.fxsql.schema;
+
+import org.fxdb.plugin.sdk.db.Dialect;
+import org.fxsql.DatabaseConnection;
+import org.fxsql.GenericJdbcConnection;
+
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Reads a cheap version stamp for every table and view from the catalog, used to tell which
+ * cached metadata is out of date without reading the metadata itself.
+ * <p>
+ * The result maps object names to an opaque version string that changes whenever the object's
+ * definition changes. Keys starting with {@code #} cover objects not tied to one table, such as
+ * routines and triggers, or the schema as a whole.
+ */
+final class SchemaFingerprint {
+
+    // PostgreSQL bumps the xmin of a catalog row whenever the row is rewritten, so the table's
+    // own pg_class row plus its columns, indexes and constraints cover every definition change
+    private static final String POSTGRESQL_QUERY =
+            "SELECT c.relname, c.xmin::text " +
+            "|| '/' || (SELECT coalesce(max(a.xmin::text::bigint), 0) FROM pg_attribute a WHERE a.attrelid = c.oid) " +
+            "|| '/' || (SELECT count(*) || ':' || coalesce(max(i.xmin::text::bigint), 0) " +
+            "FROM pg_index i WHERE i.indrelid = c.oid) " +
+            "|| '/' || (SELECT count(*) || ':' || coalesce(max(k.xmin::text::bigint), 0) " +
+            "FROM pg_constraint k WHERE k.conrelid = c.oid) " +
+            "FROM pg_class c JOIN pg_namespace n ON n.oid = c.relnamespace " +
+            "WHERE n.nspname = 'public' AND c.relkind IN ('r', 'p', 'v') " +
+            "UNION ALL " +
+            "SELECT '#classes', count(*) || ':' || coalesce(max(c.xmin::text::bigint), 0) " +
+            "FROM pg_class c JOIN pg_namespace n ON n.oid = c.relnamespace WHERE n.nspname = 'public' " +
+            "UNION ALL " +
+            "SELECT '#routines', count(*) || ':' || coalesce(max(p.xmin::text::bigint), 0) " +
+            "FROM pg_proc p JOIN pg_namespace n ON n.oid = p.pronamespace WHERE n.nspname = 'public' " +
+            "UNION ALL " +
+            "SELECT '#triggers', count(*) || ':' || coalesce(max(t.xmin::text::bigint), 0) " +
+            "FROM pg_trigger t JOIN pg_class c ON c.oid = t.tgrelid JOIN pg_namespace n ON n.oid = c.relnamespace " +
+            "WHERE n.nspname = 'public'";
+
+    // CREATE_TIME moves when a table is rebuilt; instant ALTERs in MySQL 8 do not rebuild, so
+    // the columns and index definitions are checksummed as well. UPDATE_TIME is left out on
+    // purpose: it moves on every data change and would invalidate the cache all the time.
+    private static final String MYSQL_QUERY =
+            "SELECT t.table_name, CONCAT_WS('/', t.create_time, " +
+            "(SELECT SUM(CRC32(CONCAT_WS(',', c.column_name, c.column_type, c.is_nullable, c.column_default, c.extra))) " +
+            "FROM information_schema.columns c WHERE c.table_schema = t.table_schema AND c.table_name = t.table_name), " +
+            "(SELECT SUM(CRC32(CONCAT_WS(',', s.index_name, s.column_name, s.seq_in_index, s.non_unique))) " +
+            "FROM information_schema.statistics s WHERE s.table_schema = t.table_schema AND s.table_name = t.table_name)) " +
+            "FROM information_schema.tables t WHERE t.table_schema = DATABASE() " +
+            "UNION ALL " +
+            "SELECT '#routines', CONCAT(COUNT(*), ':', IFNULL(MAX(last_altered), '')) " +
+            "FROM information_schema.routines WHERE routine_schema = DATABASE() " +
+            "UNION ALL " +
+            "SELECT '#triggers', CONCAT(COUNT(*), ':', IFNULL(MAX(created), '')) " +
+            "FROM information_schema.triggers WHERE trigger_schema = DATABASE()";
+
+    // schema_version is bumped by every schema change; the per-table rows tell which table it was
+    private static final String SQLITE_QUERY =
+            "SELECT '#schema', CAST(schema_version AS TEXT) FROM pragma_schema_version " +
+            "UNION ALL " +
+            "SELECT tbl_name, group_concat(type || ':' || name || ':' || ifnull(sql, ''), '|') " +
+            "FROM sqlite_master WHERE name NOT LIKE 'sqlite_%' GROUP BY tbl_name";
+
+    private static final String DUCKDB_QUERY =
+            "SELECT table_name, CAST(sum(hash(column_name || ':' || data_type || ':' || is_nullable " +
+            "|| ':' || coalesce(column_default, ''))) AS VARCHAR) " +
+            "FROM information_schema.columns WHERE table_schema = 'main' GROUP BY table_name " +
+            "UNION ALL " +
+            "SELECT '#indexes', CAST(count(*) AS VARCHAR) || ':' || CAST(coalesce(sum(hash(sql)), 0) AS VARCHAR) " +
+            "FROM duckdb_indexes() WHERE schema_name = 'main' " +
+            "UNION ALL " +
+            "SELECT '#functions', CAST(count(*) AS VARCHAR) " +
+            "FROM duckdb_functions() WHERE schema_name = 'main' AND NOT internal";
+
+    private SchemaFingerprint() {}
+
+    /**
+     * Returns true if versions can be read for the connection's dialect.
+     */
+    static boolean isSupported(DatabaseConnection connection) {
+        // Generic connections list objects of every schema, the queries only cover the default one
+        return !(connection instanceof GenericJdbcConnection) && query(connection.getDialect()) != null;
+    }
+
+    /**
+     * Reads the current version of every table and view.
+     *
+     * @return Object name to version, or null if the dialect is not supported
+     * @throws SQLException if the catalog query fails
+     */
+    static Map<String, String> read(DatabaseConnection connection) throws SQLException {
+        String sql = query(connection.getDialect());
+        if (sql == null) {
+            return null;
+        }
+        return connection.executeStreamingQuery(sql, 0, rs -> {
+            Map<String, String> versions = new HashMap<>();
+            while (rs.next()) {
+                versions.put(rs.getString(1), rs.getString(2));
+            }
+            return versions;
+        });
+    }
+
+    private static String query(Dialect dialect) {
+        return switch (dialect) {
+            case POSTGRESQL -> POSTGRESQL_QUERY;
+            case MYSQL -> MYSQL_QUERY;
+            case SQLITE -> SQLITE_QUERY;
+            case DUCKDB -> DUCKDB_QUERY;
+            default -> null;
+        };
+    }
+}
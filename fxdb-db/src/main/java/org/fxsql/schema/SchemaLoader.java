@@ -0,0 +1,205 @@
+package org.fxsql.schema;
+
+import org.fxdb.plugin.sdk.db.Dialect;
+import org.fxsql.DatabaseConnection;
+import org.fxsql.DatabaseObjects;
+import org.fxsql.pool.ConnectionLease;
+import org.fxsql.pool.ConnectionPool;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Loads the names of all schema objects shown in the database tree.
+ * <p>
+ * Where the dialect allows it, every object kind comes from one catalog query returning
+ * {@code (kind, name)} rows, so the whole tree costs a single round trip. Otherwise, or if that
+ * query fails (e.g. on an older server version), the per-kind methods of
+ * {@link DatabaseConnection} are called: in parallel on pooled connections when the connection
+ * has a pool, one after another when it does not.
+ */
+public final class SchemaLoader {
+
+    private static final Logger logger = Logger.getLogger(SchemaLoader.class.getName());
+
+    private static final ExecutorService executor = Executors.newCachedThreadPool(r -> {
+        Thread t = new Thread(r, "SchemaLoader");
+        t.setDaemon(true);
+        return t;
+    });
+
+    // Object kinds as returned in the first column of the catalog queries
+    private static final String TABLE = "table";
+    private static final String VIEW = "view";
+    private static final String TRIGGER = "trigger";
+    private static final String FUNCTION = "function";
+    private static final String INDEX = "index";
+
+    private static final String POSTGRESQL_CATALOG_QUERY =
+            "SELECT CASE c.relkind WHEN 'v' THEN 'view' WHEN 'i' THEN 'index' ELSE 'table' END, c.relname " +
+            "FROM pg_class c JOIN pg_namespace n ON n.oid = c.relnamespace " +
+            "WHERE n.nspname = 'public' AND (c.relkind IN ('r', 'p', 'v') " +
+            "OR (c.relkind = 'i' AND c.relname NOT LIKE '%_pkey')) " +
+            "UNION ALL " +
+            "SELECT DISTINCT 'trigger', t.tgname " +
+            "FROM pg_trigger t JOIN pg_class c ON c.oid = t.tgrelid JOIN pg_namespace n ON n.oid = c.relnamespace " +
+            "WHERE n.nspname = 'public' AND NOT t.tgisinternal " +
+            "UNION ALL " +
+            "SELECT 'function', p.proname " +
+            "FROM pg_proc p JOIN pg_namespace n ON n.oid = p.pronamespace " +
+            "WHERE n.nspname = 'public' AND p.prokind IN ('f', 'p') " +
+            "ORDER BY 1, 2";
+
+    private static final String MYSQL_CATALOG_QUERY =
+            "SELECT 'table', table_name FROM information_schema.tables " +
+            "WHERE table_schema = DATABASE() AND table_type = 'BASE TABLE' " +
+            "UNION ALL " +
+            "SELECT 'view', table_name FROM information_schema.views WHERE table_schema = DATABASE() " +
+            "UNION ALL " +
+            "SELECT 'trigger', trigger_name FROM information_schema.triggers WHERE trigger_schema = DATABASE() " +
+            "UNION ALL " +
+            "SELECT 'function', routine_name FROM information_schema.routines " +
+            "WHERE routine_schema = DATABASE() AND routine_type IN ('FUNCTION', 'PROCEDURE') " +
+            "UNION ALL " +
+            "SELECT DISTINCT 'index', index_name FROM information_schema.statistics " +
+            "WHERE table_schema = DATABASE() AND index_name != 'PRIMARY' " +
+            "ORDER BY 1, 2";
+
+    private static final String SQLITE_CATALOG_QUERY =
+            "SELECT type, name FROM sqlite_master " +
+            "WHERE type IN ('table', 'view', 'trigger', 'index') AND name NOT LIKE 'sqlite_%' " +
+            "ORDER BY type, name";
+
+    private static final String DUCKDB_CATALOG_QUERY =
+            "SELECT 'table', table_name FROM information_schema.tables " +
+            "WHERE table_schema = 'main' AND table_type = 'BASE TABLE' " +
+            "UNION ALL " +
+            "SELECT 'view', table_name FROM information_schema.views WHERE table_schema = 'main' " +
+            "UNION ALL " +
+            "SELECT DISTINCT 'function', function_name FROM duckdb_functions() " +
+            "WHERE schema_name = 'main' AND function_type IN ('scalar', 'aggregate', 'macro') " +
+            "UNION ALL " +
+            "SELECT 'index', index_name FROM duckdb_indexes() WHERE schema_name = 'main' " +
+            "ORDER BY 1, 2";
+
+    private SchemaLoader() {}
+
+    /**
+     * Loads all schema objects visible through a connection.
+     *
+     * @param connection The primary connection; pooled connections are borrowed from its pool
+     * @return The objects by kind, each list sorted by name
+     */
+    public static DatabaseObjects load(DatabaseConnection connection) {
+        long start = System.nanoTime();
+        DatabaseObjects objects = null;
+
+        String catalogQuery = catalogQuery(connection.getDialect());
+        if (catalogQuery != null) {
+            try {
+                objects = loadSinglePass(connection, catalogQuery);
+            } catch (SQLException e) {
+                logger.log(Level.INFO, "Single-pass schema query failed, loading object kinds separately", e);
+            }
+        }
+        if (objects == null) {
+            objects = loadByKind(connection);
+        }
+
+        logger.fine(String.format("Loaded %d schema objects in %d ms",
+                objects.getTotalCount(), (System.nanoTime() - start) / 1_000_000L));
+        return objects;
+    }
+
+    /**
+     * Loads each object kind with its own query through the connection's per-kind methods,
+     * in parallel on pooled connections if the connection has a pool.
+     */
+    public static DatabaseObjects loadByKind(DatabaseConnection connection) {
+        return ConnectionPool.forConnection(connection) != null
+                ? loadInParallel(connection)
+                : loadSequentially(connection);
+    }
+
+    /**
+     * Returns the single catalog query for a dialect, or null if it has none.
+     */
+    static String catalogQuery(Dialect dialect) {
+        return switch (dialect) {
+            case POSTGRESQL -> POSTGRESQL_CATALOG_QUERY;
+            case MYSQL -> MYSQL_CATALOG_QUERY;
+            case SQLITE -> SQLITE_CATALOG_QUERY;
+            case DUCKDB -> DUCKDB_CATALOG_QUERY;
+            default -> null;
+        };
+    }
+
+    private static DatabaseObjects loadSinglePass(DatabaseConnection connection, String sql) throws SQLException {
+        List<String> tables = new ArrayList<>();
+        List<String> views = new ArrayList<>();
+        List<String> triggers = new ArrayList<>();
+        List<String> functions = new ArrayList<>();
+        List<String> indexes = new ArrayList<>();
+
+        try (ConnectionLease lease = ConnectionPool.lease(connection)) {
+            lease.connection().executeStreamingQuery(sql, 0, rs -> {
+                while (rs.next()) {
+                    String name = rs.getString(2);
+                    switch (rs.getString(1)) {
+                        case TABLE -> tables.add(name);
+                        case VIEW -> views.add(name);
+                        case TRIGGER -> triggers.add(name);
+                        case FUNCTION -> functions.add(name);
+                        case INDEX -> indexes.add(name);
+                        default -> {
+                            // Other sqlite_master entries are not shown
+                        }
+                    }
+                }
+                return null;
+            });
+        }
+        return new DatabaseObjects(tables, views, triggers, functions, indexes);
+    }
+
+    private static DatabaseObjects loadInParallel(DatabaseConnection connection) {
+        CompletableFuture<List<String>> tables = loadAsync(connection, DatabaseConnection::getTableNames);
+        CompletableFuture<List<String>> views = loadAsync(connection, DatabaseConnection::getViewNames);
+        CompletableFuture<List<String>> triggers = loadAsync(connection, DatabaseConnection::getTriggerNames);
+        CompletableFuture<List<String>> functions = loadAsync(connection, DatabaseConnection::getFunctionNames);
+        CompletableFuture<List<String>> indexes = loadAsync(connection, DatabaseConnection::getIndexNames);
+        return new DatabaseObjects(tables.join(), views.join(), triggers.join(), functions.join(), indexes.join());
+    }
+
+    private static CompletableFuture<List<String>> loadAsync(DatabaseConnection connection,
+                                                             Function<DatabaseConnection, List<String>> loader) {
+        return CompletableFuture.supplyAsync(() -> {
+            try (ConnectionLease lease = ConnectionPool.lease(connection)) {
+                return loader.apply(lease.connection());
+            } catch (SQLException e) {
+                throw new CompletionException(e);
+            }
+        }, executor).exceptionally(e -> {
+            logger.log(Level.WARNING, "Failed to load schema objects", e);
+            return new ArrayList<>();
+        });
+    }
+
+    private static DatabaseObjects loadSequentially(DatabaseConnection connection) {
+        return new DatabaseObjects(
+                connection.getTableNames(),
+                connection.getViewNames(),
+                connection.getTriggerNames(),
+                connection.getFunctionNames(),
+                connection.getIndexNames()
+        );
+    }
+}
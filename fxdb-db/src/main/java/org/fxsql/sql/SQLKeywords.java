@@ -0,0 +1,64 @@
+package org.fxsql.sql;
+
+import java.util.List;
+
+/**
+ * The SQL words FXDB knows without looking at a database: keywords, functions, operators and
+ * data types. Used for highlighting and as completion candidates.
+ */
+public final class SQLKeywords {
+
+    // SQL Keywords
+    public static final List<String> KEYWORDS = List.of(
+            "SELECT", "FROM", "WHERE", "INSERT", "INTO", "VALUES", "UPDATE", "SET",
+            "DELETE", "CREATE", "DROP", "ALTER", "TABLE", "INDEX", "VIEW", "DATABASE",
+            "JOIN", "INNER", "LEFT", "RIGHT", "OUTER", "FULL", "CROSS", "NATURAL",
+            "ON", "USING", "AS", "DISTINCT", "ALL", "TOP", "LIMIT", "OFFSET",
+            "ORDER", "BY", "ASC", "DESC", "NULLS", "FIRST", "LAST",
+            "GROUP", "HAVING", "UNION", "INTERSECT", "EXCEPT", "MINUS",
+            "EXISTS", "IN", "BETWEEN", "LIKE", "ILIKE", "ESCAPE", "SIMILAR",
+            "CASE", "WHEN", "THEN", "ELSE", "END", "IF", "ELSEIF",
+            "BEGIN", "COMMIT", "ROLLBACK", "SAVEPOINT", "TRANSACTION",
+            "PRIMARY", "KEY", "FOREIGN", "REFERENCES", "CONSTRAINT", "UNIQUE",
+            "NOT", "NULL", "DEFAULT", "AUTO_INCREMENT", "SERIAL", "IDENTITY",
+            "CHECK", "CASCADE", "RESTRICT", "NO", "ACTION",
+            "GRANT", "REVOKE", "PRIVILEGES", "TO", "WITH", "RECURSIVE",
+            "TRUNCATE", "MERGE", "UPSERT", "REPLACE", "EXPLAIN", "ANALYZE",
+            "RETURNING", "CONFLICT", "DO", "NOTHING"
+    );
+
+    // SQL Functions
+    public static final List<String> FUNCTIONS = List.of(
+            "COUNT", "SUM", "AVG", "MIN", "MAX", "ABS", "ROUND", "CEIL", "FLOOR",
+            "COALESCE", "NULLIF", "CAST", "CONVERT", "IFNULL", "NVL", "ISNULL",
+            "CONCAT", "SUBSTRING", "SUBSTR", "LENGTH", "LEN", "CHAR_LENGTH",
+            "UPPER", "LOWER", "TRIM", "LTRIM", "RTRIM", "REPLACE", "REVERSE",
+            "LEFT", "RIGHT", "LPAD", "RPAD", "REPEAT", "SPACE", "POSITION",
+            "NOW", "CURRENT_DATE", "CURRENT_TIME", "CURRENT_TIMESTAMP", "GETDATE",
+            "DATE", "TIME", "DATETIME", "TIMESTAMP", "YEAR", "MONTH", "DAY",
+            "HOUR", "MINUTE", "SECOND", "DATEADD", "DATEDIFF", "DATE_PART",
+            "EXTRACT", "TO_DATE", "TO_CHAR", "TO_NUMBER", "FORMAT",
+            "ROW_NUMBER", "RANK", "DENSE_RANK", "NTILE", "LAG", "LEAD",
+            "FIRST_VALUE", "LAST_VALUE", "NTH_VALUE", "OVER", "PARTITION",
+            "STRING_AGG", "ARRAY_AGG", "JSON_AGG", "LISTAGG",
+            "GREATEST", "LEAST", "POWER", "SQRT", "MOD", "RANDOM", "UUID"
+    );
+
+    // Operators
+    public static final List<String> OPERATORS = List.of(
+            "AND", "OR", "NOT", "IS", "TRUE", "FALSE", "UNKNOWN"
+    );
+
+    // Data types
+    public static final List<String> DATATYPES = List.of(
+            "INT", "INTEGER", "BIGINT", "SMALLINT", "TINYINT", "DECIMAL", "NUMERIC",
+            "FLOAT", "REAL", "DOUBLE", "PRECISION", "BOOLEAN", "BOOL", "BIT",
+            "CHAR", "VARCHAR", "TEXT", "NCHAR", "NVARCHAR", "NTEXT",
+            "DATE", "TIME", "DATETIME", "TIMESTAMP", "INTERVAL",
+            "BLOB", "CLOB", "BINARY", "VARBINARY", "BYTEA",
+            "JSON", "JSONB", "XML", "UUID", "ARRAY", "ENUM"
+    );
+
+    private SQLKeywords() {
+    }
+}
@@ -0,0 +1,238 @@
+package org.fxsql.sql;
+
+import org.fxdb.plugin.sdk.db.Dialect;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.regex.Pattern;
+
+/**
+ * Reads the statements of a SQL file one at a time, without loading the whole file.
+ * <p>
+ * The file is decoded in fixed-size chunks into a buffer that {@link SQLSplitter} works on, and
+ * text the splitter is done with is dropped, so memory use depends on the longest statement
+ * rather than on the size of the file.
+ * <p>
+ * PostgreSQL {@code COPY ... FROM stdin} data blocks, as written by {@code pg_dump}, cannot be sent
+ * over plain JDBC. The COPY statement is returned like any other and the data block after it is
+ * skipped.
+ */
+public class SQLScriptReader implements AutoCloseable {
+
+    private static final int CHUNK_SIZE = 64 * 1024;
+    private static final Pattern COPY_FROM_STDIN = Pattern.compile("\\bFROM\\s+STDIN\\b", Pattern.CASE_INSENSITIVE);
+
+    /**
+     * A statement read from the file.
+     *
+     * @param sql The statement text, without its delimiter
+     * @param keyword The first word of the statement in upper case, or empty if it has none
+     */
+    public record Statement(String sql, String keyword) {}
+
+    private final CountingInputStream in;
+    private final Reader reader;
+    private final long totalBytes;
+    private final StringBuilder buffer = new StringBuilder();
+    private final char[] chunk = new char[CHUNK_SIZE];
+    private final SQLSplitter splitter;
+    private boolean endOfFile;
+
+    // Set while skipping a COPY data block; copyLineStart is false until the COPY line itself is passed
+    private boolean inCopyData;
+    private boolean copyLineStart;
+    private int skippedCopyBlocks;
+
+    public SQLScriptReader(Path file, Charset charset, Dialect dialect) throws IOException {
+        this.totalBytes = Files.size(file);
+        this.in = new CountingInputStream(Files.newInputStream(file));
+        this.reader = new InputStreamReader(in, charset);
+        this.splitter = new SQLSplitter(buffer, dialect);
+        splitter.setEndOfInput(false);
+    }
+
+    /**
+     * Returns the next statement.
+     *
+     * @return The statement, or null at the end of the file
+     * @throws IOException if the file cannot be read
+     */
+    public Statement next() throws IOException {
+        while (true) {
+            if (inCopyData && !skipCopyData()) {
+                if (!fill()) {
+                    // Unterminated data block: nothing after it can be SQL
+                    inCopyData = false;
+                    splitter.skipTo(buffer.length());
+                }
+                continue;
+            }
+            SQLStatement statement = splitter.next();
+            if (statement != null) {
+                Statement result = new Statement(statement.text(buffer), statement.keyword());
+                if ("COPY".equals(result.keyword()) && COPY_FROM_STDIN.matcher(result.sql()).find()) {
+                    inCopyData = true;
+                    copyLineStart = false;
+                    skippedCopyBlocks++;
+                }
+                compact();
+                return result;
+            }
+            if (endOfFile || !fill()) {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Returns the number of bytes read from the file so far.
+     */
+    public long getBytesRead() {
+        return in.count;
+    }
+
+    /**
+     * Returns the size of the file in bytes.
+     */
+    public long getTotalBytes() {
+        return totalBytes;
+    }
+
+    /**
+     * Returns the number of {@code COPY ... FROM stdin} data blocks skipped so far.
+     */
+    public int getSkippedCopyBlocks() {
+        return skippedCopyBlocks;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    /**
+     * Appends the next chunk of the file to the buffer.
+     *
+     * @return false if the end of the file was already reached
+     */
+    private boolean fill() throws IOException {
+        if (endOfFile) {
+            return false;
+        }
+        int read = reader.read(chunk);
+        if (read < 0) {
+            endOfFile = true;
+            splitter.setEndOfInput(true);
+        } else {
+            buffer.append(chunk, 0, read);
+        }
+        return true;
+    }
+
+    /**
+     * Drops text the splitter no longer needs once enough of it has piled up.
+     */
+    private void compact() {
+        int done = splitter.retainFrom();
+        if (done >= CHUNK_SIZE) {
+            buffer.delete(0, done);
+            splitter.discard(done);
+        }
+    }
+
+    /**
+     * Skips the lines of a COPY data block up to and including its {@code \.} terminator.
+     *
+     * @return true once the terminator was passed, false if more input is needed first
+     */
+    private boolean skipCopyData() {
+        int lineStart = splitter.retainFrom();
+        if (!copyLineStart) {
+            // The rest of the line holding the COPY statement
+            int newline = indexOf('\n', lineStart);
+            if (newline < 0) {
+                return endOfFile && finishCopyData(buffer.length());
+            }
+            lineStart = newline + 1;
+            copyLineStart = true;
+        }
+        while (true) {
+            int newline = indexOf('\n', lineStart);
+            int lineEnd = newline >= 0 ? newline : buffer.length();
+            if (newline < 0 && !endOfFile) {
+                // Keep the partial line, drop the lines already passed
+                splitter.skipTo(lineStart);
+                compact();
+                return false;
+            }
+            if (lineEnd > lineStart && buffer.charAt(lineEnd - 1) == '\r') {
+                lineEnd--;
+            }
+            if (lineEnd - lineStart == 2 && buffer.charAt(lineStart) == '\\' && buffer.charAt(lineStart + 1) == '.') {
+                return finishCopyData(newline >= 0 ? newline + 1 : buffer.length());
+            }
+            if (newline < 0) {
+                return finishCopyData(buffer.length());
+            }
+            lineStart = newline + 1;
+        }
+    }
+
+    private boolean finishCopyData(int resumeAt) {
+        inCopyData = false;
+        splitter.skipTo(resumeAt);
+        compact();
+        return true;
+    }
+
+    private int indexOf(char c, int from) {
+        for (int i = from, length = buffer.length(); i < length; i++) {
+            if (buffer.charAt(i) == c) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Counts the bytes handed to the decoder, which reads ahead by at most one buffer.
+     */
+    private static final class CountingInputStream extends FilterInputStream {
+        private long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                count += n;
+            }
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            count += skipped;
+            return skipped;
+        }
+    }
+}
@@ -0,0 +1,445 @@
+package org.fxsql.sql;
+
+import org.fxdb.plugin.sdk.db.Dialect;
+import org.fxsql.DatabaseConnection;
+import org.fxsql.result.QueryResultCache;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.sql.BatchUpdateException;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Pattern;
+
+/**
+ * Runs a SQL file against a connection, streaming it from disk with {@link SQLScriptReader}.
+ * <p>
+ * Statements are sent in JDBC batches and committed every {@link #setCommitInterval commit
+ * interval} statements, so neither the file nor the transaction grows with the size of the
+ * script. Embedded databases (SQLite, DuckDB) run each statement directly: there is no round
+ * trip for a batch to save, and their drivers do not tell which batched statement failed. Statements that return rows run on their own and their results are discarded.
+ * Transaction control statements in the file ({@code BEGIN}, {@code COMMIT} and the like) are
+ * skipped because the runner manages the transaction itself. Statements the database refuses to
+ * run inside a transaction, such as PostgreSQL's {@code CREATE INDEX CONCURRENTLY} or
+ * {@code VACUUM}, are run on their own in auto-commit mode after committing what came before.
+ * <p>
+ * The run stops at the first failing statement and rolls back what was not committed yet;
+ * earlier commits stay applied.
+ */
+public class SQLScriptRunner {
+
+    private static final Logger logger = Logger.getLogger(SQLScriptRunner.class.getName());
+    private static final long PROGRESS_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(250);
+    // Upper bound on the SQL text held in one batch, for dumps with very long INSERTs
+    private static final long MAX_BATCH_CHARS = 4L * 1024 * 1024;
+
+    private static final Set<String> TRANSACTION_KEYWORDS = Set.of(
+            "BEGIN", "START", "COMMIT", "END", "ROLLBACK"
+    );
+    // The whole statement must match, so e.g. ROLLBACK TO SAVEPOINT or a BEGIN ... END block still runs
+    private static final Pattern TRANSACTION_CONTROL = Pattern.compile(
+            "(?is)(BEGIN(\\s+(TRANSACTION|WORK|DEFERRED|IMMEDIATE|EXCLUSIVE|ISOLATION|READ|NOT)\\b[^;]*)?"
+                    + "|START\\s+TRANSACTION\\b[^;]*"
+                    + "|COMMIT(\\s+(TRANSACTION|WORK|AND)\\b[^;]*)?"
+                    + "|END(\\s+(TRANSACTION|WORK))?"
+                    + "|ROLLBACK(\\s+(TRANSACTION|WORK|AND)\\b[^;]*)?)\\s*;?\\s*");
+    private static final Pattern POSTGRES_NON_TRANSACTIONAL = Pattern.compile(
+            "(?is)(VACUUM|(CREATE|DROP)\\s+(DATABASE|TABLESPACE)|ALTER\\s+SYSTEM"
+                    + "|(CREATE\\s+(UNIQUE\\s+)?INDEX|DROP\\s+INDEX|REINDEX)\\s+.*\\bCONCURRENTLY)\\b.*");
+    private static final Pattern SQLITE_NON_TRANSACTIONAL = Pattern.compile("(?is)VACUUM\\b.*");
+    private static final Set<String> ROW_KEYWORDS = Set.of(
+            "SELECT", "WITH", "SHOW", "DESCRIBE", "EXPLAIN", "PRAGMA", "VALUES"
+    );
+
+    /**
+     * Progress of a run.
+     *
+     * @param bytesRead Bytes of the file processed so far
+     * @param totalBytes Size of the file
+     * @param statements Statements executed so far
+     * @param elapsedNanos Time since the run started
+     */
+    public record Progress(long bytesRead, long totalBytes, long statements, long elapsedNanos) {
+
+        public double statementsPerSecond() {
+            return elapsedNanos > 0 ? statements * 1e9 / elapsedNanos : 0;
+        }
+
+        /**
+         * Returns the fraction of the file processed, between 0 and 1.
+         */
+        public double fraction() {
+            return totalBytes > 0 ? Math.min(1.0, (double) bytesRead / totalBytes) : 1.0;
+        }
+
+        /**
+         * Returns the estimated seconds left, extrapolated from the bytes processed so far,
+         * or -1 if there is nothing to extrapolate from yet.
+         */
+        public long etaSeconds() {
+            if (bytesRead <= 0 || elapsedNanos <= 0) {
+                return -1;
+            }
+            double nanosPerByte = (double) elapsedNanos / bytesRead;
+            return (long) (Math.max(0, totalBytes - bytesRead) * nanosPerByte / 1e9);
+        }
+    }
+
+    /**
+     * Outcome of a run.
+     *
+     * @param executed Statements executed
+     * @param committed Statements executed and committed
+     * @param skipped Transaction control statements skipped
+     * @param skippedCopyBlocks {@code COPY ... FROM stdin} data blocks skipped
+     * @param cancelled Whether the run was cancelled
+     * @param error The error that stopped the run, or null
+     * @param failedStatementNumber Position of the failing statement in the file, or 0
+     * @param failedStatement The failing statement, or null
+     * @param elapsedNanos Duration of the run
+     */
+    public record Result(long executed, long committed, long skipped, int skippedCopyBlocks, boolean cancelled,
+                         SQLException error, long failedStatementNumber, String failedStatement, long elapsedNanos) {
+
+        public boolean isSuccess() {
+            return error == null && !cancelled;
+        }
+    }
+
+    private final DatabaseConnection connection;
+    private final Dialect dialect;
+    private int batchSize = 200;
+    private int commitInterval = 5000;
+    private Charset charset = StandardCharsets.UTF_8;
+
+    private volatile boolean cancelled;
+    private volatile Statement activeStatement;
+
+    /**
+     * @param connection The connection to run on; the runner uses it exclusively while running
+     */
+    public SQLScriptRunner(DatabaseConnection connection) {
+        this.connection = connection;
+        this.dialect = connection.getDialect();
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * Sets how many statements are sent per JDBC batch; 1 sends each statement on its own.
+     * Ignored for embedded databases, which always run statements on their own.
+     */
+    public void setBatchSize(int batchSize) {
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    public int getCommitInterval() {
+        return commitInterval;
+    }
+
+    /**
+     * Sets after how many statements the transaction is committed.
+     */
+    public void setCommitInterval(int commitInterval) {
+        this.commitInterval = Math.max(1, commitInterval);
+    }
+
+    public Charset getCharset() {
+        return charset;
+    }
+
+    public void setCharset(Charset charset) {
+        this.charset = charset;
+    }
+
+    /**
+     * Stops the run after the statement or batch in flight, which is cancelled if the driver supports it.
+     */
+    public void cancel() {
+        cancelled = true;
+        Statement stmt = activeStatement;
+        if (stmt != null) {
+            try {
+                stmt.cancel();
+            } catch (SQLException e) {
+                logger.log(Level.FINE, "Driver could not cancel the running statement", e);
+            }
+        }
+    }
+
+    /**
+     * Runs the file. Blocks until it is done; call it from a background thread.
+     *
+     * @param file The SQL file
+     * @param progressListener Called on the running thread a few times per second, may be null
+     * @return The outcome; a failing statement is reported in it rather than thrown
+     * @throws IOException if the file cannot be read
+     * @throws SQLException if the connection is unusable or the transaction cannot be managed
+     */
+    public Result run(Path file, Consumer<Progress> progressListener) throws IOException, SQLException {
+        Connection conn = connection.getConnection();
+        if (conn == null || conn.isClosed()) {
+            throw new SQLException("Connection is not established or is closed.");
+        }
+
+        long startedAt = System.nanoTime();
+        boolean batching = batchSize > 1 && dialect != Dialect.SQLITE && dialect != Dialect.DUCKDB
+                && conn.getMetaData().supportsBatchUpdates();
+        boolean autoCommit = conn.getAutoCommit();
+
+        Run run = new Run(conn, batching);
+        SQLScriptReader reader = new SQLScriptReader(file, charset, dialect);
+        try (reader) {
+            conn.setAutoCommit(false);
+            run.openStatement();
+            long lastProgress = startedAt;
+            SQLScriptReader.Statement statement;
+            while (!cancelled && (statement = reader.next()) != null) {
+                run.number++;
+                if (isTransactionControl(statement)) {
+                    run.skipped++;
+                    continue;
+                }
+                if (requiresAutoCommit(statement)) {
+                    run.executeOutsideTransaction(statement);
+                } else {
+                    run.execute(statement);
+                }
+                if (run.executed - run.committed >= commitInterval) {
+                    run.commit();
+                }
+
+                long now = System.nanoTime();
+                if (progressListener != null && now - lastProgress >= PROGRESS_INTERVAL_NANOS) {
+                    lastProgress = now;
+                    progressListener.accept(new Progress(reader.getBytesRead(), reader.getTotalBytes(), run.executed, now - startedAt));
+                }
+            }
+
+            if (cancelled) {
+                run.rollback();
+            } else {
+                run.commit();
+            }
+            if (progressListener != null) {
+                progressListener.accept(new Progress(reader.getBytesRead(), reader.getTotalBytes(), run.executed, System.nanoTime() - startedAt));
+            }
+            return run.result(reader.getSkippedCopyBlocks(), null, startedAt);
+        } catch (SQLException e) {
+            run.rollbackQuietly();
+            if (cancelled) {
+                // Cancelling the statement in flight makes it fail; that is not an error
+                return run.result(reader.getSkippedCopyBlocks(), null, startedAt);
+            }
+            logger.log(Level.WARNING, "SQL file stopped at statement " + run.failedNumber, e);
+            return run.result(reader.getSkippedCopyBlocks(), e, startedAt);
+        } finally {
+            run.closeStatement();
+            activeStatement = null;
+            // The file may have changed anything; a rolled back run as well, if it held DDL
+            QueryResultCache.invalidateAll(connection);
+            try {
+                conn.setAutoCommit(autoCommit);
+            } catch (SQLException e) {
+                logger.log(Level.WARNING, "Failed to restore autocommit", e);
+            }
+        }
+    }
+
+    private static boolean isTransactionControl(SQLScriptReader.Statement statement) {
+        return TRANSACTION_KEYWORDS.contains(statement.keyword())
+                && TRANSACTION_CONTROL.matcher(statement.sql()).matches();
+    }
+
+    private boolean requiresAutoCommit(SQLScriptReader.Statement statement) {
+        Pattern pattern = switch (dialect) {
+            case POSTGRESQL -> POSTGRES_NON_TRANSACTIONAL;
+            case SQLITE -> SQLITE_NON_TRANSACTIONAL;
+            default -> null;
+        };
+        return pattern != null && pattern.matcher(statement.sql()).matches();
+    }
+
+    /**
+     * State of one run.
+     */
+    private final class Run {
+        private final Connection conn;
+        private final boolean batching;
+        private Statement stmt;
+        // Statements added to the current batch, kept to report which one failed
+        private final List<String> pending = new ArrayList<>();
+        private long pendingChars;
+        // Statement number in the file of the first pending statement
+        private long pendingFrom;
+
+        private long number;
+        private long executed;
+        private long committed;
+        private long skipped;
+        private long failedNumber;
+        private String failedSql;
+
+        Run(Connection conn, boolean batching) {
+            this.conn = conn;
+            this.batching = batching;
+        }
+
+        void openStatement() throws SQLException {
+            stmt = conn.createStatement();
+            // Dumps are plain SQL; JDBC escapes such as {fn ...} must not be rewritten
+            stmt.setEscapeProcessing(false);
+            activeStatement = stmt;
+        }
+
+        void closeStatement() {
+            if (stmt == null) {
+                return;
+            }
+            try {
+                stmt.close();
+            } catch (SQLException e) {
+                logger.log(Level.FINE, "Failed to close statement", e);
+            }
+        }
+
+        void execute(SQLScriptReader.Statement statement) throws SQLException {
+            String sql = statement.sql();
+            if (!batching || ROW_KEYWORDS.contains(statement.keyword())) {
+                flush();
+                executeSingle(sql);
+                return;
+            }
+            if (pending.isEmpty()) {
+                pendingFrom = number;
+            }
+            stmt.addBatch(sql);
+            pending.add(sql);
+            pendingChars += sql.length();
+            if (pending.size() >= batchSize || pendingChars >= MAX_BATCH_CHARS) {
+                flush();
+            }
+        }
+
+        private void executeSingle(String sql) throws SQLException {
+            try {
+                boolean hasResults = stmt.execute(sql);
+                // Drain every result so the driver moves on; the rows are not needed
+                while (hasResults || stmt.getUpdateCount() != -1) {
+                    if (hasResults) {
+                        try (ResultSet rs = stmt.getResultSet()) {
+                            // Closing is enough
+                        }
+                    }
+                    hasResults = stmt.getMoreResults();
+                }
+                executed++;
+            } catch (SQLException e) {
+                failedNumber = number;
+                failedSql = sql;
+                throw e;
+            }
+        }
+
+        void flush() throws SQLException {
+            if (pending.isEmpty()) {
+                return;
+            }
+            try {
+                stmt.executeBatch();
+                executed += pending.size();
+            } catch (BatchUpdateException e) {
+                int failed = failedIndex(e.getUpdateCounts());
+                executed += failed;
+                failedNumber = pendingFrom + failed;
+                failedSql = pending.get(Math.min(failed, pending.size() - 1));
+                throw e;
+            } catch (SQLException e) {
+                failedNumber = pendingFrom;
+                failedSql = pending.get(0);
+                throw e;
+            } finally {
+                pending.clear();
+                pendingChars = 0;
+                stmt.clearBatch();
+            }
+        }
+
+        /**
+         * Commits what came before, then runs the statement on its own in auto-commit mode.
+         */
+        void executeOutsideTransaction(SQLScriptReader.Statement statement) throws SQLException {
+            commit();
+            // SQLite refuses VACUUM while the statement that ran before it is still open
+            closeStatement();
+            openStatement();
+            conn.setAutoCommit(true);
+            try {
+                executeSingle(statement.sql());
+                committed = executed;
+            } finally {
+                conn.setAutoCommit(false);
+            }
+        }
+
+        void commit() throws SQLException {
+            flush();
+            conn.commit();
+            committed = executed;
+        }
+
+        /**
+         * Rolls back the open transaction; statements since the last commit no longer count as executed.
+         */
+        void rollback() throws SQLException {
+            pending.clear();
+            stmt.clearBatch();
+            conn.rollback();
+            executed = committed;
+        }
+
+        void rollbackQuietly() {
+            try {
+                pending.clear();
+                conn.rollback();
+            } catch (SQLException e) {
+                logger.log(Level.WARNING, "Rollback failed", e);
+            }
+            executed = committed;
+        }
+
+        Result result(int skippedCopyBlocks, SQLException error, long startedAt) {
+            return new Result(executed, committed, skipped, skippedCopyBlocks, cancelled, error,
+                    error != null ? failedNumber : 0, error != null ? failedSql : null, System.nanoTime() - startedAt);
+        }
+
+        /**
+         * Drivers either stop at the failing statement, returning counts for the ones before it,
+         * or run the whole batch and mark failures with {@link Statement#EXECUTE_FAILED}.
+         */
+        private static int failedIndex(int[] counts) {
+            if (counts == null) {
+                return 0;
+            }
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] == Statement.EXECUTE_FAILED) {
+                    return i;
+                }
+            }
+            return counts.length;
+        }
+    }
+}
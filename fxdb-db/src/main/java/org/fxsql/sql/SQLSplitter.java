@@ -0,0 +1,236 @@
+package org.fxsql.sql;
+
+import org.fxdb.plugin.sdk.db.Dialect;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Splits a SQL script into statements in a single pass over {@link SQLTokenizer} tokens.
+ * <p>
+ * Delimiters inside strings, quoted identifiers, comments and dollar-quoted bodies do not end a
+ * statement. Neither do delimiters inside the {@code BEGIN ... END} body of a {@code CREATE}
+ * statement such as a SQLite trigger. On MySQL and unknown dialects the client-side
+ * {@code DELIMITER} command is understood and is not returned as a statement.
+ * <p>
+ * The script may be read incrementally: append to the input, call
+ * {@link #setEndOfInput(boolean)} once it is complete, and call {@link #next()} until it returns
+ * null. Text before {@link #retainFrom()} is no longer needed and may be dropped from the input
+ * with {@link #discard(int)}.
+ */
+public final class SQLSplitter {
+
+    private final CharSequence input;
+    private final SQLTokenizer tokenizer;
+    private final boolean delimiterCommand;
+    private boolean endOfInput = true;
+
+    // The statement being read; start is -1 until its first significant token
+    private int start = -1;
+    private int end;
+    private String keyword;
+    private boolean create;
+    private int blockDepth;
+    private boolean pendingEnd;
+
+    public SQLSplitter(CharSequence input, Dialect dialect) {
+        this.input = input;
+        this.tokenizer = new SQLTokenizer(input, dialect);
+        this.delimiterCommand = dialect == null || dialect == Dialect.MYSQL || dialect == Dialect.UNKNOWN;
+    }
+
+    /**
+     * Splits a complete script.
+     */
+    public static List<SQLStatement> split(CharSequence script, Dialect dialect) {
+        SQLSplitter splitter = new SQLSplitter(script, dialect);
+        List<SQLStatement> statements = new ArrayList<>();
+        SQLStatement statement;
+        while ((statement = splitter.next()) != null) {
+            statements.add(statement);
+        }
+        return statements;
+    }
+
+    /**
+     * Sets whether the input is complete. While it is not, the last statement is held back
+     * until its delimiter arrives.
+     */
+    public void setEndOfInput(boolean endOfInput) {
+        this.endOfInput = endOfInput;
+        tokenizer.setEndOfInput(endOfInput);
+    }
+
+    /**
+     * Returns the next statement.
+     *
+     * @return The statement, or null at the end of the input or if more input is needed
+     */
+    public SQLStatement next() {
+        while (tokenizer.next()) {
+            if (tokenizer.isInsignificant()) {
+                continue;
+            }
+            if (tokenizer.type() == SQLTokenizer.TokenType.DELIMITER) {
+                resolvePendingEnd(false);
+                if (blockDepth > 0) {
+                    // A delimiter inside BEGIN ... END is part of the statement
+                    extend();
+                    continue;
+                }
+                SQLStatement statement = finish();
+                if (statement != null) {
+                    return statement;
+                }
+                continue;
+            }
+            if (tokenizer.type() == SQLTokenizer.TokenType.WORD) {
+                if (start < 0 && delimiterCommand && tokenizer.isWord("DELIMITER")) {
+                    if (!readDelimiterCommand()) {
+                        return null;
+                    }
+                    continue;
+                }
+                onWord();
+            } else {
+                resolvePendingEnd(false);
+            }
+            extend();
+        }
+        if (tokenizer.needsInput()) {
+            return null;
+        }
+        return finish();
+    }
+
+    /**
+     * Returns the offset before which the input is no longer needed.
+     */
+    public int retainFrom() {
+        return start >= 0 ? start : tokenizer.position();
+    }
+
+    /**
+     * Tells the splitter that the caller removed the first {@code count} characters of the
+     * input, which must not be more than {@link #retainFrom()}. Offsets of statements returned
+     * afterwards are relative to the shortened input.
+     */
+    public void discard(int count) {
+        if (count > retainFrom()) {
+            throw new IllegalArgumentException("Cannot discard " + count + " characters, only " + retainFrom() + " are done");
+        }
+        tokenizer.shift(-count);
+        if (start >= 0) {
+            start -= count;
+            end -= count;
+        }
+    }
+
+    /**
+     * Continues splitting at {@code offset}, skipping the input before it. Used to step over
+     * text that is not SQL, such as the data block after {@code COPY ... FROM stdin}.
+     *
+     * @throws IllegalStateException if a statement is partly read
+     */
+    public void skipTo(int offset) {
+        if (start >= 0) {
+            throw new IllegalStateException("Cannot skip input in the middle of a statement");
+        }
+        tokenizer.reset(offset);
+    }
+
+    /**
+     * Returns the delimiter currently in effect.
+     */
+    public String getDelimiter() {
+        return tokenizer.getDelimiter();
+    }
+
+    private void onWord() {
+        if (resolvePendingEnd(true)) {
+            return;
+        }
+        if (start < 0) {
+            keyword = input.subSequence(tokenizer.start(), tokenizer.end()).toString().toUpperCase(Locale.ROOT);
+            create = "CREATE".equals(keyword);
+        } else if (create) {
+            if (tokenizer.isWord("BEGIN") || tokenizer.isWord("CASE")) {
+                blockDepth++;
+            } else if (tokenizer.isWord("END") && blockDepth > 0) {
+                // Decided by the next token: END IF and the like do not close a block
+                pendingEnd = true;
+            }
+        }
+    }
+
+    /**
+     * Closes the block an earlier END belongs to, unless the current word shows it ends an
+     * IF, LOOP, WHILE or REPEAT instead.
+     *
+     * @return true if the current word was consumed as part of the END
+     */
+    private boolean resolvePendingEnd(boolean atWord) {
+        if (!pendingEnd) {
+            return false;
+        }
+        pendingEnd = false;
+        if (atWord && (tokenizer.isWord("IF") || tokenizer.isWord("LOOP")
+                || tokenizer.isWord("WHILE") || tokenizer.isWord("REPEAT"))) {
+            return true;
+        }
+        blockDepth--;
+        // END CASE closes the CASE, so the CASE must not open another block
+        return atWord && tokenizer.isWord("CASE");
+    }
+
+    private void extend() {
+        if (start < 0) {
+            start = tokenizer.start();
+            if (keyword == null) {
+                keyword = "";
+            }
+        }
+        end = tokenizer.end();
+    }
+
+    private SQLStatement finish() {
+        resolvePendingEnd(false);
+        SQLStatement statement = start >= 0 ? new SQLStatement(start, end, keyword) : null;
+        start = -1;
+        keyword = null;
+        create = false;
+        blockDepth = 0;
+        return statement;
+    }
+
+    /**
+     * Reads a {@code DELIMITER xx} line and switches to the new delimiter.
+     *
+     * @return false if the rest of the line has not been read yet
+     */
+    private boolean readDelimiterCommand() {
+        int length = input.length();
+        int i = tokenizer.end();
+        while (i < length && (input.charAt(i) == ' ' || input.charAt(i) == '\t')) {
+            i++;
+        }
+        int delimiterEnd = i;
+        while (delimiterEnd < length && !Character.isWhitespace(input.charAt(delimiterEnd))) {
+            delimiterEnd++;
+        }
+        int lineEnd = delimiterEnd;
+        while (lineEnd < length && input.charAt(lineEnd) != '\n') {
+            lineEnd++;
+        }
+        if (lineEnd >= length && !endOfInput) {
+            tokenizer.reset(tokenizer.start());
+            return false;
+        }
+        if (delimiterEnd > i) {
+            tokenizer.setDelimiter(input.subSequence(i, delimiterEnd).toString());
+        }
+        tokenizer.reset(lineEnd);
+        return true;
+    }
+}
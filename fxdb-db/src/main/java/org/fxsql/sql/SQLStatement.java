@@ -0,0 +1,24 @@
+package org.fxsql.sql;
+
+/**
+ * The position of one statement in a script, without its delimiter and without the whitespace
+ * and comments before it.
+ *
+ * @param start Offset of the statement's first character
+ * @param end Offset just past its last character
+ * @param keyword The statement's first word in upper case, e.g. {@code SELECT}, or an empty
+ *                string if it does not start with a word
+ */
+public record SQLStatement(int start, int end, String keyword) {
+
+    /**
+     * Returns the statement's text from the script it was found in.
+     */
+    public String text(CharSequence script) {
+        return script.subSequence(start, end).toString();
+    }
+
+    public int length() {
+        return end - start;
+    }
+}
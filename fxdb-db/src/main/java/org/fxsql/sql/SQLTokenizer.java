@@ -0,0 +1,417 @@
+package org.fxsql.sql;
+
+import org.fxdb.plugin.sdk.db.Dialect;
+
+import java.util.Objects;
+
+/**
+ * A single-pass SQL tokenizer that reports token offsets into the input instead of copying text.
+ * <p>
+ * Quoting rules follow the dialect: backslash escapes and {@code #} comments on MySQL, double
+ * quotes as strings on MySQL and as identifiers elsewhere, backticks on MySQL and SQLite,
+ * brackets on SQLite, and {@code $tag$} dollar quoting on PostgreSQL and DuckDB. Unknown
+ * dialects get the rules that are safe to apply everywhere plus dollar quoting.
+ * <p>
+ * The input may grow while it is being tokenized. Until {@link #setEndOfInput(boolean)} is set,
+ * a token that runs into the end of the input is not returned, since more input could change it,
+ * and {@link #needsInput()} becomes true. At the end of input an unterminated string or comment
+ * is returned up to the end, and {@link #state()} tells what it was in the middle of, so
+ * tokenizing can resume there, e.g. on the next line of an editor.
+ */
+public final class SQLTokenizer {
+
+    public enum TokenType {
+        WHITESPACE, LINE_COMMENT, BLOCK_COMMENT, STRING, QUOTED_IDENTIFIER, DOLLAR_STRING,
+        WORD, NUMBER, DELIMITER, OPEN_PAREN, CLOSE_PAREN, SYMBOL
+    }
+
+    /**
+     * What the tokenizer is in the middle of at a given point: nothing, or a string, quoted
+     * identifier or comment that has not been closed yet.
+     */
+    public static final class State {
+        public static final State NORMAL = new State(null, null, false);
+
+        private final TokenType type;
+        private final String closer;
+        private final boolean backslashEscapes;
+
+        private State(TokenType type, String closer, boolean backslashEscapes) {
+            this.type = type;
+            this.closer = closer;
+            this.backslashEscapes = backslashEscapes;
+        }
+
+        /**
+         * Returns the type of the unclosed token, or null in the normal state.
+         */
+        public TokenType getType() {
+            return type;
+        }
+
+        public boolean isNormal() {
+            return type == null;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof State other)) return false;
+            return type == other.type && backslashEscapes == other.backslashEscapes
+                    && Objects.equals(closer, other.closer);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(type, closer, backslashEscapes);
+        }
+    }
+
+    private final CharSequence input;
+    private final boolean backslashEscapes;
+    private final boolean doubleQuotedStrings;
+    private final boolean backtickIdentifiers;
+    private final boolean bracketIdentifiers;
+    private final boolean dollarQuotes;
+    private final boolean hashComments;
+
+    private String delimiter = ";";
+    private boolean endOfInput = true;
+    private boolean needsInput;
+    private State state;
+    private int pos;
+
+    private TokenType type;
+    private int start;
+    private int end;
+
+    public SQLTokenizer(CharSequence input, Dialect dialect) {
+        this(input, dialect, State.NORMAL);
+    }
+
+    /**
+     * @param input Text to tokenize; may be appended to while tokenizing
+     * @param dialect Decides the quoting and comment rules
+     * @param entry State to start in, as returned by {@link #state()} at the end of preceding text
+     */
+    public SQLTokenizer(CharSequence input, Dialect dialect, State entry) {
+        this.input = input;
+        Dialect d = dialect != null ? dialect : Dialect.UNKNOWN;
+        this.backslashEscapes = d == Dialect.MYSQL;
+        this.doubleQuotedStrings = d == Dialect.MYSQL;
+        this.backtickIdentifiers = d == Dialect.MYSQL || d == Dialect.SQLITE || d == Dialect.UNKNOWN;
+        this.bracketIdentifiers = d == Dialect.SQLITE;
+        this.dollarQuotes = d == Dialect.POSTGRESQL || d == Dialect.DUCKDB || d == Dialect.UNKNOWN;
+        this.hashComments = d == Dialect.MYSQL;
+        this.state = entry != null ? entry : State.NORMAL;
+    }
+
+    /**
+     * Sets whether the input is complete. While it is not, tokens touching the end of the
+     * input are held back.
+     */
+    public void setEndOfInput(boolean endOfInput) {
+        this.endOfInput = endOfInput;
+    }
+
+    /**
+     * Sets the statement delimiter, as changed by the MySQL {@code DELIMITER} command.
+     */
+    public void setDelimiter(String delimiter) {
+        this.delimiter = delimiter;
+    }
+
+    public String getDelimiter() {
+        return delimiter;
+    }
+
+    /**
+     * Advances to the next token.
+     *
+     * @return false at the end of the input, or if more input is needed to finish the next token
+     */
+    public boolean next() {
+        needsInput = false;
+        int length = input.length();
+        if (pos >= length) {
+            needsInput = !endOfInput;
+            return false;
+        }
+
+        int tokenStart = pos;
+        int tokenEnd;
+        TokenType tokenType;
+        State after = State.NORMAL;
+
+        if (!state.isNormal()) {
+            tokenType = state.type;
+            int close = findCloser(tokenStart, state);
+            tokenEnd = close >= 0 ? close : length;
+            after = close >= 0 ? State.NORMAL : state;
+        } else {
+            char c = input.charAt(pos);
+            State opened = null;
+            int bodyStart = pos + 1;
+
+            if (startsWith(pos, delimiter)) {
+                tokenType = TokenType.DELIMITER;
+                tokenEnd = pos + delimiter.length();
+            } else if (Character.isWhitespace(c)) {
+                tokenType = TokenType.WHITESPACE;
+                tokenEnd = pos + 1;
+                while (tokenEnd < length && Character.isWhitespace(input.charAt(tokenEnd))) {
+                    tokenEnd++;
+                }
+            } else if ((c == '-' && charAt(pos + 1) == '-') || (c == '#' && hashComments)) {
+                tokenType = TokenType.LINE_COMMENT;
+                tokenEnd = pos + 1;
+                while (tokenEnd < length && input.charAt(tokenEnd) != '\n') {
+                    tokenEnd++;
+                }
+            } else if (c == '/' && charAt(pos + 1) == '*') {
+                tokenType = TokenType.BLOCK_COMMENT;
+                opened = new State(TokenType.BLOCK_COMMENT, "*/", false);
+                bodyStart = pos + 2;
+                tokenEnd = -1;
+            } else if (c == '\'') {
+                tokenType = TokenType.STRING;
+                opened = new State(TokenType.STRING, "'", backslashEscapes);
+                tokenEnd = -1;
+            } else if ((c == 'E' || c == 'e') && charAt(pos + 1) == '\'' && dollarQuotes && !isWordChar(charAt(pos - 1))) {
+                // PostgreSQL escape string, E'...', which allows backslash escapes
+                tokenType = TokenType.STRING;
+                opened = new State(TokenType.STRING, "'", true);
+                bodyStart = pos + 2;
+                tokenEnd = -1;
+            } else if (c == '"') {
+                tokenType = doubleQuotedStrings ? TokenType.STRING : TokenType.QUOTED_IDENTIFIER;
+                opened = new State(tokenType, "\"", doubleQuotedStrings && backslashEscapes);
+                tokenEnd = -1;
+            } else if (c == '`' && backtickIdentifiers) {
+                tokenType = TokenType.QUOTED_IDENTIFIER;
+                opened = new State(TokenType.QUOTED_IDENTIFIER, "`", false);
+                tokenEnd = -1;
+            } else if (c == '[' && bracketIdentifiers) {
+                tokenType = TokenType.QUOTED_IDENTIFIER;
+                opened = new State(TokenType.QUOTED_IDENTIFIER, "]", false);
+                tokenEnd = -1;
+            } else if (c == '$' && dollarQuotes && !isWordChar(charAt(pos - 1)) && dollarTagEnd(pos) > 0) {
+                int tagEnd = dollarTagEnd(pos);
+                tokenType = TokenType.DOLLAR_STRING;
+                opened = new State(TokenType.DOLLAR_STRING, input.subSequence(pos, tagEnd).toString(), false);
+                bodyStart = tagEnd;
+                tokenEnd = -1;
+            } else if (Character.isLetter(c) || c == '_') {
+                tokenType = TokenType.WORD;
+                tokenEnd = pos + 1;
+                while (tokenEnd < length && (isWordChar(input.charAt(tokenEnd)) || input.charAt(tokenEnd) == '$')) {
+                    tokenEnd++;
+                }
+            } else if (Character.isDigit(c)) {
+                tokenType = TokenType.NUMBER;
+                tokenEnd = numberEnd(pos);
+            } else if (c == '(') {
+                tokenType = TokenType.OPEN_PAREN;
+                tokenEnd = pos + 1;
+            } else if (c == ')') {
+                tokenType = TokenType.CLOSE_PAREN;
+                tokenEnd = pos + 1;
+            } else {
+                tokenType = TokenType.SYMBOL;
+                tokenEnd = pos + 1;
+            }
+
+            if (opened != null) {
+                int close = findCloser(bodyStart, opened);
+                tokenEnd = close >= 0 ? close : length;
+                after = close >= 0 ? State.NORMAL : opened;
+            }
+        }
+
+        // More input could still extend or close this token
+        if (!endOfInput && tokenEnd >= length) {
+            needsInput = true;
+            return false;
+        }
+
+        type = tokenType;
+        start = tokenStart;
+        end = tokenEnd;
+        state = after;
+        pos = tokenEnd;
+        return true;
+    }
+
+    public TokenType type() {
+        return type;
+    }
+
+    /**
+     * Returns the offset of the current token's first character.
+     */
+    public int start() {
+        return start;
+    }
+
+    /**
+     * Returns the offset just past the current token.
+     */
+    public int end() {
+        return end;
+    }
+
+    /**
+     * Returns true if the last call to {@link #next()} stopped because more input is needed.
+     */
+    public boolean needsInput() {
+        return needsInput;
+    }
+
+    /**
+     * Returns the state at the current position; not normal if the input ended inside an
+     * unclosed string, quoted identifier or comment.
+     */
+    public State state() {
+        return state;
+    }
+
+    /**
+     * Returns the offset tokenizing continues from.
+     */
+    public int position() {
+        return pos;
+    }
+
+    /**
+     * Continues tokenizing from an offset, which must be a token boundary, in the normal state.
+     */
+    public void reset(int position) {
+        this.pos = position;
+        this.state = State.NORMAL;
+    }
+
+    /**
+     * Moves all offsets by {@code delta}, after the caller removed text before the current position.
+     */
+    public void shift(int delta) {
+        pos += delta;
+        start += delta;
+        end += delta;
+    }
+
+    /**
+     * Returns true if the current token is a word equal to {@code word}, ignoring case.
+     */
+    public boolean isWord(String word) {
+        return type == TokenType.WORD && end - start == word.length() && regionMatchesIgnoreCase(start, word);
+    }
+
+    /**
+     * Returns true if the current token is whitespace or a comment. MySQL executable comments,
+     * which start with {@code /*!}, are run by the server and count as significant.
+     */
+    public boolean isInsignificant() {
+        if (type == TokenType.BLOCK_COMMENT) {
+            return !(hashComments && end - start > 2 && input.charAt(start + 2) == '!');
+        }
+        return type == TokenType.WHITESPACE || type == TokenType.LINE_COMMENT;
+    }
+
+    /**
+     * Returns the index just past the closing sequence of a quoted token whose body starts at
+     * {@code from}, or -1 if it is not closed within the input.
+     */
+    private int findCloser(int from, State quote) {
+        String closer = quote.closer;
+        char first = closer.charAt(0);
+        int length = input.length();
+        for (int i = from; i < length; i++) {
+            char c = input.charAt(i);
+            if (c == '\\' && quote.backslashEscapes) {
+                i++;
+            } else if (c == first && startsWith(i, closer)) {
+                int after = i + closer.length();
+                // A doubled quote stands for the quote character itself
+                boolean doubled = closer.length() == 1 && first != ']' && charAt(after) == first;
+                if (!doubled) {
+                    return after;
+                }
+                i = after;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the index just past a dollar-quote opener such as {@code $$} or {@code $body$}
+     * starting at {@code from}, or -1 if there is none.
+     */
+    private int dollarTagEnd(int from) {
+        int length = input.length();
+        int i = from + 1;
+        if (i < length && Character.isDigit(input.charAt(i))) {
+            // $1 is a parameter
+            return -1;
+        }
+        while (i < length && isWordChar(input.charAt(i))) {
+            i++;
+        }
+        return i < length && input.charAt(i) == '$' ? i + 1 : -1;
+    }
+
+    private int numberEnd(int from) {
+        int length = input.length();
+        int i = from;
+        while (i < length && Character.isDigit(input.charAt(i))) {
+            i++;
+        }
+        if (i + 1 < length && input.charAt(i) == '.' && Character.isDigit(input.charAt(i + 1))) {
+            i++;
+            while (i < length && Character.isDigit(input.charAt(i))) {
+                i++;
+            }
+        }
+        if (i < length && (input.charAt(i) == 'e' || input.charAt(i) == 'E')) {
+            int j = i + 1;
+            if (j < length && (input.charAt(j) == '+' || input.charAt(j) == '-')) {
+                j++;
+            }
+            if (j < length && Character.isDigit(input.charAt(j))) {
+                i = j;
+                while (i < length && Character.isDigit(input.charAt(i))) {
+                    i++;
+                }
+            }
+        }
+        return i;
+    }
+
+    private boolean startsWith(int offset, String s) {
+        if (offset + s.length() > input.length()) {
+            return false;
+        }
+        for (int i = 0; i < s.length(); i++) {
+            if (input.charAt(offset + i) != s.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean regionMatchesIgnoreCase(int offset, String s) {
+        for (int i = 0; i < s.length(); i++) {
+            if (Character.toUpperCase(input.charAt(offset + i)) != Character.toUpperCase(s.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private char charAt(int index) {
+        return index >= 0 && index < input.length() ? input.charAt(index) : '\0';
+    }
+
+    private static boolean isWordChar(char c) {
+        return Character.isLetterOrDigit(c) || c == '_';
+    }
+}
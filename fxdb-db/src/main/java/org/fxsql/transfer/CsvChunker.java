@@ -0,0 +1,136 @@
+package org.fxsql.transfer;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Cuts a memory-mapped delimited file into chunks that each hold whole records, so the chunks can
+ * be decoded and parsed independently on several threads.
+ * <p>
+ * A record ends at a line feed outside quotes. Quotes and line feeds are single bytes in every
+ * ASCII-compatible charset and never occur inside a multi-byte UTF-8 sequence, so boundaries are
+ * found on the raw bytes without decoding them. Finding a boundary is a sequential byte scan,
+ * which is far cheaper than parsing; the parsing is what runs in parallel.
+ */
+final class CsvChunker {
+
+    // Bytes mapped at a time while scanning
+    private static final long WINDOW_SIZE = 64L * 1024 * 1024;
+
+    /**
+     * A run of whole records.
+     *
+     * @param start Offset of the first byte
+     * @param end Offset just past the last byte
+     * @param firstLine 1-based line number of the first byte in the file
+     */
+    record Chunk(long start, long end, long firstLine) {}
+
+    private final FileChannel channel;
+    private final long size;
+    private final byte quote;
+    private final int chunkSize;
+    private final long headerStart;
+    private final long dataStart;
+
+    private MappedByteBuffer window;
+    private long windowStart;
+    private long position;
+    private long line = 1;
+
+    CsvChunker(FileChannel channel, CsvFormat format, int chunkSize) throws IOException {
+        this.channel = channel;
+        this.size = channel.size();
+        this.quote = (byte) format.getQuote();
+        this.chunkSize = chunkSize;
+
+        long start = hasUtf8Bom() ? 3 : 0;
+        this.headerStart = start;
+        this.position = start;
+        if (format.hasHeader()) {
+            Chunk header = scan(start, start + 1);
+            position = header.end();
+        }
+        this.dataStart = position;
+    }
+
+    long getSize() {
+        return size;
+    }
+
+    /**
+     * Returns the offset of the header record, after a byte order mark if there is one.
+     */
+    long getHeaderStart() {
+        return headerStart;
+    }
+
+    /**
+     * Returns the offset of the first data record.
+     */
+    long getDataStart() {
+        return dataStart;
+    }
+
+    /**
+     * Returns the next chunk of about the configured size, extended to the end of its last record.
+     *
+     * @return The chunk, or null at the end of the file
+     */
+    Chunk next() throws IOException {
+        if (position >= size) {
+            return null;
+        }
+        Chunk chunk = scan(position, position + chunkSize);
+        position = chunk.end();
+        return chunk;
+    }
+
+    /**
+     * Maps a byte range for reading. Ranges returned by {@link #next()} are at most a few
+     * chunk sizes long.
+     */
+    MappedByteBuffer map(long start, long end) throws IOException {
+        return channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+    }
+
+    /**
+     * Scans from {@code start} to the first record end at or after {@code target}.
+     */
+    private Chunk scan(long start, long target) throws IOException {
+        long firstLine = line;
+        boolean quoted = false;
+        long pos = start;
+        while (pos < size) {
+            byte b = byteAt(pos++);
+            if (b == quote) {
+                quoted = !quoted;
+            } else if (b == '\n') {
+                line++;
+                if (!quoted && pos >= target) {
+                    return new Chunk(start, pos, firstLine);
+                }
+            }
+        }
+        return new Chunk(start, size, firstLine);
+    }
+
+    private byte byteAt(long pos) throws IOException {
+        if (window == null || pos < windowStart || pos >= windowStart + window.limit()) {
+            windowStart = pos;
+            window = channel.map(FileChannel.MapMode.READ_ONLY, pos, Math.min(WINDOW_SIZE, size - pos));
+        }
+        return window.get((int) (pos - windowStart));
+    }
+
+    private boolean hasUtf8Bom() throws IOException {
+        if (size < 3) {
+            return false;
+        }
+        ByteBuffer bom = ByteBuffer.allocate(3);
+        channel.read(bom, 0);
+        return bom.get(0) == (byte) 0xEF && bom.get(1) == (byte) 0xBB && bom.get(2) == (byte) 0xBF;
+    }
+}
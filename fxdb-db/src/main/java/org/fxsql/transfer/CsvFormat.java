@@ -0,0 +1,91 @@
+package org.fxsql.transfer;
+
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * Layout of a delimited text file: CSV, TSV or anything else with a single-character delimiter.
+ * <p>
+ * Fields may be enclosed in the quote character, with a doubled quote standing for a literal one.
+ * An empty unquoted field is NULL and an empty quoted field ({@code ""}) is an empty string, the
+ * same convention PostgreSQL's CSV format uses.
+ */
+public class CsvFormat {
+
+    private char delimiter = ',';
+    private char quote = '"';
+    private boolean header = true;
+    private Charset charset = StandardCharsets.UTF_8;
+
+    public CsvFormat() {
+    }
+
+    public static CsvFormat csv() {
+        return new CsvFormat();
+    }
+
+    public static CsvFormat tsv() {
+        CsvFormat format = new CsvFormat();
+        format.setDelimiter('\t');
+        return format;
+    }
+
+    /**
+     * Returns the format matching a file's extension: TSV for {@code .tsv} and {@code .tab}, CSV otherwise.
+     */
+    public static CsvFormat forFile(Path file) {
+        String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+        return name.endsWith(".tsv") || name.endsWith(".tab") ? tsv() : csv();
+    }
+
+    public char getDelimiter() {
+        return delimiter;
+    }
+
+    public void setDelimiter(char delimiter) {
+        this.delimiter = delimiter;
+    }
+
+    public char getQuote() {
+        return quote;
+    }
+
+    public void setQuote(char quote) {
+        this.quote = quote;
+    }
+
+    /**
+     * Whether the first record holds column names rather than data.
+     */
+    public boolean hasHeader() {
+        return header;
+    }
+
+    public void setHeader(boolean header) {
+        this.header = header;
+    }
+
+    public Charset getCharset() {
+        return charset;
+    }
+
+    /**
+     * Sets the file encoding. Files are split into chunks on raw bytes, so the charset must
+     * encode ASCII as single bytes, as UTF-8 and the ISO-8859 and Windows code pages do.
+     *
+     * @throws IllegalArgumentException for charsets such as UTF-16
+     */
+    public void setCharset(Charset charset) {
+        if (!isAsciiCompatible(charset)) {
+            throw new IllegalArgumentException("Unsupported file encoding: " + charset.name());
+        }
+        this.charset = charset;
+    }
+
+    private static boolean isAsciiCompatible(Charset charset) {
+        byte[] encoded = "\n\r\",;\t'|".getBytes(charset);
+        return encoded.length == 8 && new String(encoded, StandardCharsets.US_ASCII).equals("\n\r\",;\t'|");
+    }
+}
@@ -0,0 +1,133 @@
+package org.fxsql.transfer;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.CodingErrorAction;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Parses records out of decoded delimited text. Stateless; one call parses one chunk of whole records.
+ */
+final class CsvParser {
+
+    /**
+     * Receives parsed records.
+     */
+    @FunctionalInterface
+    interface RecordHandler {
+        /**
+         * @param fields The fields; null for an empty unquoted field
+         * @param line 1-based line number the record starts on
+         */
+        void record(String[] fields, long line) throws SQLException;
+    }
+
+    private CsvParser() {}
+
+    /**
+     * Decodes a chunk of bytes with the format's charset. Malformed input is replaced rather than rejected.
+     */
+    static CharBuffer decode(ByteBuffer bytes, CsvFormat format) throws CharacterCodingException {
+        return format.getCharset().newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE)
+                .decode(bytes);
+    }
+
+    /**
+     * Parses every record in {@code text}. Blank lines are skipped.
+     *
+     * @param text Whole records
+     * @param format The file format
+     * @param firstLine Line number of the first character in the file
+     * @param handler Receives each record
+     */
+    static void parse(CharBuffer text, CsvFormat format, long firstLine, RecordHandler handler) throws SQLException {
+        char[] chars;
+        int offset;
+        if (text.hasArray()) {
+            chars = text.array();
+            offset = text.arrayOffset() + text.position();
+        } else {
+            chars = text.toString().toCharArray();
+            offset = 0;
+        }
+        int end = offset + text.remaining();
+        char delimiter = format.getDelimiter();
+        char quote = format.getQuote();
+
+        List<String> fields = new ArrayList<>();
+        StringBuilder quoted = new StringBuilder();
+        long line = firstLine;
+        int i = offset;
+        while (i < end) {
+            // Blank line
+            if (chars[i] == '\n' || (chars[i] == '\r' && i + 1 < end && chars[i + 1] == '\n')) {
+                i += chars[i] == '\r' ? 2 : 1;
+                line++;
+                continue;
+            }
+
+            long recordLine = line;
+            fields.clear();
+            boolean endOfRecord = false;
+            while (!endOfRecord) {
+                String field;
+                if (i < end && chars[i] == quote) {
+                    quoted.setLength(0);
+                    i++;
+                    while (i < end) {
+                        char c = chars[i];
+                        if (c == quote) {
+                            if (i + 1 < end && chars[i + 1] == quote) {
+                                quoted.append(quote);
+                                i += 2;
+                                continue;
+                            }
+                            i++;
+                            break;
+                        }
+                        if (c == '\n') {
+                            line++;
+                        }
+                        quoted.append(c);
+                        i++;
+                    }
+                    // Anything between the closing quote and the delimiter is kept, as lenient parsers do
+                    while (i < end && chars[i] != delimiter && chars[i] != '\n' && chars[i] != '\r') {
+                        quoted.append(chars[i++]);
+                    }
+                    field = quoted.toString();
+                } else {
+                    int start = i;
+                    while (i < end && chars[i] != delimiter && chars[i] != '\n') {
+                        i++;
+                    }
+                    int fieldEnd = i;
+                    if (fieldEnd > start && chars[fieldEnd - 1] == '\r' && (i >= end || chars[i] == '\n')) {
+                        fieldEnd--;
+                    }
+                    field = fieldEnd > start ? new String(chars, start, fieldEnd - start) : null;
+                }
+                fields.add(field);
+
+                if (i < end && chars[i] == delimiter) {
+                    i++;
+                } else {
+                    if (i < end && chars[i] == '\r') {
+                        i++;
+                    }
+                    if (i < end && chars[i] == '\n') {
+                        i++;
+                        line++;
+                    }
+                    endOfRecord = true;
+                }
+            }
+            handler.record(fields.toArray(new String[0]), recordLine);
+        }
+    }
+}
@@ -0,0 +1,578 @@
+package org.fxsql.transfer;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.fxdb.plugin.sdk.db.Dialect;
+import org.fxsql.DatabaseConnection;
+import org.fxsql.FetchPolicy;
+
+import java.io.BufferedOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.HexFormat;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Exports the full result of a query to a file. The query is run again with a forward-only
+ * streaming cursor and rows are written as they arrive, so exports are not bound by the rows a
+ * result tab holds and never keep the result in memory.
+ * <p>
+ * CSV and JSON Lines are written here, optionally gzip-compressed. Parquet and zstd have no
+ * writer on the client; they are available on DuckDB, which writes the file itself with
+ * {@code COPY ... TO}. The file is written under a temporary name and only moved into place
+ * once complete, so a cancelled or failed export leaves no partial file behind.
+ */
+public class ResultExporter {
+
+    private static final Logger logger = Logger.getLogger(ResultExporter.class.getName());
+    private static final int MIN_FETCH_SIZE = 1000;
+    private static final int BUFFER_SIZE = 256 * 1024;
+    private static final long PROGRESS_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(250);
+
+    /**
+     * File formats.
+     */
+    public enum Format {
+        CSV("CSV", "csv"),
+        JSON_LINES("JSON Lines", "jsonl"),
+        PARQUET("Parquet", "parquet");
+
+        private final String label;
+        private final String extension;
+
+        Format(String label, String extension) {
+            this.label = label;
+            this.extension = extension;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+    }
+
+    /**
+     * Compression of the file. Parquet compresses its pages internally and keeps its extension.
+     */
+    public enum Compression {
+        NONE("None", ""),
+        GZIP("gzip", ".gz"),
+        ZSTD("zstd", ".zst");
+
+        private final String label;
+        private final String suffix;
+
+        Compression(String label, String suffix) {
+            this.label = label;
+            this.suffix = suffix;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+
+        public String getSuffix() {
+            return suffix;
+        }
+    }
+
+    /**
+     * Progress of an export.
+     *
+     * @param rows Rows written so far, or -1 while the database writes the file itself
+     * @param bytesWritten Bytes written to the file so far, after compression
+     * @param elapsedNanos Time since the export started
+     */
+    public record Progress(long rows, long bytesWritten, long elapsedNanos) {
+
+        public double rowsPerSecond() {
+            return elapsedNanos > 0 && rows > 0 ? rows * 1e9 / elapsedNanos : 0;
+        }
+    }
+
+    /**
+     * Outcome of an export.
+     *
+     * @param rows Rows written
+     * @param bytesWritten Size of the file
+     * @param elapsedNanos Duration of the export
+     * @param cancelled Whether the export was cancelled; no file is left behind then
+     */
+    public record Result(long rows, long bytesWritten, long elapsedNanos, boolean cancelled) {
+
+        public double rowsPerSecond() {
+            return elapsedNanos > 0 ? rows * 1e9 / elapsedNanos : 0;
+        }
+    }
+
+    private final DatabaseConnection connection;
+    private final String sql;
+    private final Path target;
+    private final Format format;
+    private final Compression compression;
+    private final CsvFormat csvFormat = CsvFormat.csv();
+
+    private volatile boolean cancelled;
+    private volatile Statement activeStatement;
+
+    /**
+     * @param connection The connection to read through; the exporter uses it exclusively while running
+     * @param sql The query whose result is exported
+     * @param target The file to write; replaced if it exists
+     * @param format The file format
+     * @param compression The file compression
+     * @throws IllegalArgumentException if the database cannot write the format or compression,
+     *                                  see {@link #isSupported}
+     */
+    public ResultExporter(DatabaseConnection connection, String sql, Path target, Format format, Compression compression) {
+        if (!isSupported(connection.getDialect(), format, compression)) {
+            throw new IllegalArgumentException(format.getLabel() + " with " + compression.getLabel()
+                    + " compression can only be exported from DuckDB");
+        }
+        this.connection = connection;
+        this.sql = stripTerminator(sql);
+        this.target = target;
+        this.format = format;
+        this.compression = compression;
+    }
+
+    /**
+     * Returns whether a result from a database can be exported in a format and compression.
+     */
+    public static boolean isSupported(Dialect dialect, Format format, Compression compression) {
+        if (dialect == Dialect.DUCKDB) {
+            return true;
+        }
+        return format != Format.PARQUET && compression != Compression.ZSTD;
+    }
+
+    /**
+     * Returns the usual file name for an export, e.g. {@code orders.csv.gz}.
+     */
+    public static String fileName(String baseName, Format format, Compression compression) {
+        String name = baseName + "." + format.getExtension();
+        return format == Format.PARQUET ? name : name + compression.getSuffix();
+    }
+
+    /**
+     * Stops the export. The statement in flight is cancelled if the driver supports it.
+     */
+    public void cancel() {
+        cancelled = true;
+        Statement stmt = activeStatement;
+        if (stmt != null) {
+            try {
+                stmt.cancel();
+            } catch (SQLException e) {
+                logger.log(Level.FINE, "Driver could not cancel the export query", e);
+            }
+        }
+    }
+
+    /**
+     * Runs the export. Blocks until it is done; call it from a background thread.
+     *
+     * @param progressListener Called on the exporting thread a few times per second, may be null
+     * @return The outcome
+     * @throws IOException if the file cannot be written
+     * @throws SQLException if the query fails
+     */
+    public Result run(Consumer<Progress> progressListener) throws IOException, SQLException {
+        Connection conn = connection.getConnection();
+        if (conn == null || conn.isClosed()) {
+            throw new SQLException("Connection is not established or is closed.");
+        }
+
+        long startedAt = System.nanoTime();
+        Path partial = target.resolveSibling(target.getFileName() + ".part");
+        boolean complete = false;
+        try {
+            Result result = connection.getDialect() == Dialect.DUCKDB
+                    ? copyTo(conn, partial, progressListener, startedAt)
+                    : stream(partial, progressListener, startedAt);
+            if (cancelled) {
+                return new Result(result.rows(), result.bytesWritten(), result.elapsedNanos(), true);
+            }
+            moveIntoPlace(partial);
+            complete = true;
+            logger.info("Exported " + result.rows() + " rows to " + target);
+            return result;
+        } catch (SQLException e) {
+            if (cancelled) {
+                return new Result(0, 0, System.nanoTime() - startedAt, true);
+            }
+            throw e;
+        } finally {
+            activeStatement = null;
+            if (!complete) {
+                Files.deleteIfExists(partial);
+            }
+        }
+    }
+
+    // ==================== Streaming ====================
+
+    /**
+     * Reads the result with a forward-only streaming cursor and writes each row as it arrives.
+     */
+    private Result stream(Path file, Consumer<Progress> progressListener, long startedAt) throws IOException, SQLException {
+        FetchPolicy configured = connection.getFetchPolicy();
+        // Applied to the export's own statement; the connection may be shared with table browsing
+        FetchPolicy streaming = new FetchPolicy();
+        streaming.setForwardOnly(true);
+        streaming.setStreaming(true);
+        streaming.setUseCursorFetch(configured.isUseCursorFetch());
+        streaming.setFetchSize(Math.max(configured.getFetchSize(), MIN_FETCH_SIZE));
+        // The row cap of the connection is for browsing, an export has none
+        streaming.setMaxRows(0);
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            CountingOutputStream counter = new CountingOutputStream(Channels.newOutputStream(channel));
+            OutputStream out = compression == Compression.GZIP
+                    ? new GZIPOutputStream(counter, BUFFER_SIZE)
+                    : counter;
+            out = new BufferedOutputStream(out, BUFFER_SIZE);
+
+            long rows;
+            try (RowWriter writer = format == Format.JSON_LINES ? new JsonLinesWriter(out) : new CsvWriter(out, csvFormat)) {
+                rows = connection.executeStreamingQuery(sql, streaming, 0, rs -> {
+                    activeStatement = rs.getStatement();
+                    try {
+                        return writeRows(rs, writer, counter, progressListener, startedAt);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            return new Result(rows, counter.getCount(), System.nanoTime() - startedAt, false);
+        }
+    }
+
+    private long writeRows(ResultSet rs, RowWriter writer, CountingOutputStream counter,
+                           Consumer<Progress> progressListener, long startedAt) throws SQLException, IOException {
+        ResultSetMetaData meta = rs.getMetaData();
+        int columnCount = meta.getColumnCount();
+        String[] names = new String[columnCount];
+        int[] types = new int[columnCount];
+        for (int i = 0; i < columnCount; i++) {
+            names[i] = meta.getColumnLabel(i + 1);
+            types[i] = meta.getColumnType(i + 1);
+        }
+        writer.header(names);
+
+        long rows = 0;
+        long lastReport = startedAt;
+        while (!cancelled && rs.next()) {
+            writer.row(rs, types);
+            rows++;
+            if (progressListener != null && (rows & 0xFF) == 0) {
+                long now = System.nanoTime();
+                if (now - lastReport >= PROGRESS_INTERVAL_NANOS) {
+                    lastReport = now;
+                    progressListener.accept(new Progress(rows, counter.getCount(), now - startedAt));
+                }
+            }
+        }
+        return rows;
+    }
+
+    // ==================== DuckDB ====================
+
+    /**
+     * Has DuckDB write the file with {@code COPY (query) TO}, which covers Parquet and zstd and
+     * writes on the database's own threads.
+     */
+    private Result copyTo(Connection conn, Path file, Consumer<Progress> progressListener, long startedAt) throws IOException, SQLException {
+        StringBuilder options = new StringBuilder("FORMAT ");
+        switch (format) {
+            case CSV -> options.append("csv, HEADER true, DELIMITER ").append(literal(String.valueOf(csvFormat.getDelimiter())));
+            case JSON_LINES -> options.append("json");
+            default -> options.append("parquet");
+        }
+        switch (compression) {
+            case GZIP -> options.append(", COMPRESSION gzip");
+            case ZSTD -> options.append(", COMPRESSION zstd");
+            default -> options.append(format == Format.PARQUET ? ", COMPRESSION uncompressed" : ", COMPRESSION none");
+        }
+        String copy = "COPY (" + sql + ") TO " + literal(file.toAbsolutePath().toString()) + " (" + options + ")";
+
+        if (progressListener != null) {
+            progressListener.accept(new Progress(-1, 0, System.nanoTime() - startedAt));
+        }
+        long rows;
+        try (Statement stmt = conn.createStatement()) {
+            activeStatement = stmt;
+            if (stmt.execute(copy)) {
+                try (ResultSet rs = stmt.getResultSet()) {
+                    rows = rs.next() ? rs.getLong(1) : 0;
+                }
+            } else {
+                rows = Math.max(0, stmt.getUpdateCount());
+            }
+        }
+        return new Result(rows, Files.size(file), System.nanoTime() - startedAt, false);
+    }
+
+    // ==================== Helpers ====================
+
+    private void moveIntoPlace(Path partial) throws IOException {
+        try {
+            Files.move(partial, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(partial, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static String stripTerminator(String sql) {
+        String trimmed = sql.strip();
+        while (trimmed.endsWith(";")) {
+            trimmed = trimmed.substring(0, trimmed.length() - 1).stripTrailing();
+        }
+        return trimmed;
+    }
+
+    private static String literal(String value) {
+        return "'" + value.replace("'", "''") + "'";
+    }
+
+    private static boolean isBinary(int type) {
+        return type == Types.BINARY || type == Types.VARBINARY || type == Types.LONGVARBINARY || type == Types.BLOB;
+    }
+
+    /**
+     * Writes rows in one file format.
+     */
+    private interface RowWriter extends AutoCloseable {
+
+        void header(String[] names) throws IOException;
+
+        void row(ResultSet rs, int[] types) throws SQLException, IOException;
+
+        @Override
+        void close() throws IOException;
+    }
+
+    /**
+     * Writes CSV that {@link TableImporter} reads back as it was: NULL is an empty field, an
+     * empty string is {@code ""}. Binary values are written as hex.
+     */
+    private static final class CsvWriter implements RowWriter {
+        private static final HexFormat HEX = HexFormat.of();
+
+        private final Writer out;
+        private final char delimiter;
+        private final char quote;
+
+        CsvWriter(OutputStream out, CsvFormat format) {
+            this.out = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+            this.delimiter = format.getDelimiter();
+            this.quote = format.getQuote();
+        }
+
+        @Override
+        public void header(String[] names) throws IOException {
+            for (int i = 0; i < names.length; i++) {
+                if (i > 0) {
+                    out.write(delimiter);
+                }
+                field(names[i]);
+            }
+            out.write('\n');
+        }
+
+        @Override
+        public void row(ResultSet rs, int[] types) throws SQLException, IOException {
+            for (int i = 0; i < types.length; i++) {
+                if (i > 0) {
+                    out.write(delimiter);
+                }
+                if (isBinary(types[i])) {
+                    byte[] bytes = rs.getBytes(i + 1);
+                    if (bytes != null) {
+                        out.write(HEX.formatHex(bytes));
+                    }
+                } else {
+                    field(rs.getString(i + 1));
+                }
+            }
+            out.write('\n');
+        }
+
+        private void field(String value) throws IOException {
+            if (value == null) {
+                return;
+            }
+            if (!value.isEmpty() && !needsQuotes(value)) {
+                out.write(value);
+                return;
+            }
+            out.write(quote);
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c == quote) {
+                    out.write(quote);
+                }
+                out.write(c);
+            }
+            out.write(quote);
+        }
+
+        private boolean needsQuotes(String value) {
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c == delimiter || c == quote || c == '\n' || c == '\r') {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.close();
+        }
+    }
+
+    /**
+     * Writes one JSON object per line. Numbers and booleans keep their JSON types, binary values
+     * are base64 and everything else is the driver's text for the value.
+     */
+    private static final class JsonLinesWriter implements RowWriter {
+        private static final JsonFactory FACTORY = new JsonFactory();
+
+        private final JsonGenerator json;
+        private String[] names;
+
+        JsonLinesWriter(OutputStream out) throws IOException {
+            this.json = FACTORY.createGenerator(out, JsonEncoding.UTF8);
+        }
+
+        @Override
+        public void header(String[] names) {
+            this.names = names;
+        }
+
+        @Override
+        public void row(ResultSet rs, int[] types) throws SQLException, IOException {
+            json.writeStartObject();
+            for (int i = 0; i < types.length; i++) {
+                json.writeFieldName(names[i]);
+                int column = i + 1;
+                switch (types[i]) {
+                    case Types.TINYINT, Types.SMALLINT, Types.INTEGER, Types.BIGINT -> {
+                        long value = rs.getLong(column);
+                        if (rs.wasNull()) {
+                            json.writeNull();
+                        } else {
+                            json.writeNumber(value);
+                        }
+                    }
+                    case Types.DECIMAL, Types.NUMERIC -> {
+                        BigDecimal value = rs.getBigDecimal(column);
+                        if (value == null) {
+                            json.writeNull();
+                        } else {
+                            json.writeNumber(value);
+                        }
+                    }
+                    case Types.REAL, Types.FLOAT, Types.DOUBLE -> {
+                        double value = rs.getDouble(column);
+                        if (rs.wasNull()) {
+                            json.writeNull();
+                        } else {
+                            json.writeNumber(value);
+                        }
+                    }
+                    case Types.BOOLEAN -> {
+                        boolean value = rs.getBoolean(column);
+                        if (rs.wasNull()) {
+                            json.writeNull();
+                        } else {
+                            json.writeBoolean(value);
+                        }
+                    }
+                    case Types.BINARY, Types.VARBINARY, Types.LONGVARBINARY, Types.BLOB -> {
+                        byte[] value = rs.getBytes(column);
+                        if (value == null) {
+                            json.writeNull();
+                        } else {
+                            json.writeBinary(value);
+                        }
+                    }
+                    default -> {
+                        String value = rs.getString(column);
+                        if (value == null) {
+                            json.writeNull();
+                        } else {
+                            json.writeString(value);
+                        }
+                    }
+                }
+            }
+            json.writeEndObject();
+            json.writeRaw('\n');
+        }
+
+        @Override
+        public void close() throws IOException {
+            json.close();
+        }
+    }
+
+    /**
+     * Counts the bytes that reach the file, after compression.
+     */
+    private static final class CountingOutputStream extends FilterOutputStream {
+        private long count;
+
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+
+        long getCount() {
+            return count;
+        }
+    }
+}
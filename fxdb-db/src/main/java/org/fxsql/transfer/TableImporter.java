@@ -0,0 +1,778 @@
+package org.fxsql.transfer;
+
+import org.fxdb.plugin.sdk.db.Dialect;
+import org.fxsql.DatabaseConnection;
+import org.fxsql.model.TableMetaData;
+import org.fxsql.result.QueryResultCache;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.BatchUpdateException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLDataException;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.DateTimeException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Loads a CSV or TSV file into an existing table, using the fastest path the database offers:
+ * <ul>
+ *     <li>PostgreSQL: {@code COPY ... FROM STDIN} through the driver's {@code CopyManager}</li>
+ *     <li>MySQL: {@code LOAD DATA LOCAL INFILE}, fed from the file by the driver</li>
+ *     <li>DuckDB: {@code INSERT ... SELECT FROM read_csv(...)}, which DuckDB reads in parallel itself</li>
+ *     <li>Anything else: batched prepared inserts</li>
+ * </ul>
+ * For the batched path the file is memory-mapped and cut into chunks of whole records, which are
+ * decoded, parsed and converted to the column types on several threads while the loading thread
+ * binds and sends the rows. Only a few chunks are in memory at once, whatever the file size.
+ * <p>
+ * When a native path is unavailable (the PostgreSQL driver API cannot be reached, MySQL has local
+ * infile disabled) or cannot express the mapping, the import falls back to batched inserts.
+ * The whole import runs in one transaction: it either loads every row or none.
+ */
+public class TableImporter {
+
+    private static final Logger logger = Logger.getLogger(TableImporter.class.getName());
+    private static final int CHUNK_SIZE = 2 * 1024 * 1024;
+    private static final int BATCH_SIZE = 1000;
+    private static final long PROGRESS_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(250);
+
+    /**
+     * How the rows are loaded.
+     */
+    public enum LoadMethod {
+        COPY("PostgreSQL COPY"),
+        LOAD_DATA("MySQL LOAD DATA"),
+        READ_CSV("DuckDB read_csv"),
+        BATCH_INSERT("batched INSERT");
+
+        private final String label;
+
+        LoadMethod(String label) {
+            this.label = label;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+    }
+
+    /**
+     * Progress of an import.
+     *
+     * @param bytesRead Bytes of the file loaded so far
+     * @param totalBytes Size of the file
+     * @param rows Rows loaded so far, or -1 while the database is reading the file itself
+     * @param elapsedNanos Time since the import started
+     */
+    public record Progress(long bytesRead, long totalBytes, long rows, long elapsedNanos) {
+
+        public double rowsPerSecond() {
+            return elapsedNanos > 0 && rows > 0 ? rows * 1e9 / elapsedNanos : 0;
+        }
+
+        public double fraction() {
+            return totalBytes > 0 ? Math.min(1.0, (double) bytesRead / totalBytes) : 1.0;
+        }
+
+        /**
+         * Returns the estimated seconds left, or -1 if unknown.
+         */
+        public long etaSeconds() {
+            if (bytesRead <= 0 || elapsedNanos <= 0) {
+                return -1;
+            }
+            return (long) (Math.max(0, totalBytes - bytesRead) * ((double) elapsedNanos / bytesRead) / 1e9);
+        }
+    }
+
+    /**
+     * Outcome of an import.
+     *
+     * @param method How the rows were loaded
+     * @param rows Rows loaded; 0 if cancelled, as the transaction is rolled back
+     * @param elapsedNanos Duration of the import
+     * @param cancelled Whether the import was cancelled
+     */
+    public record Result(LoadMethod method, long rows, long elapsedNanos, boolean cancelled) {
+
+        public double rowsPerSecond() {
+            return elapsedNanos > 0 ? rows * 1e9 / elapsedNanos : 0;
+        }
+    }
+
+    private final DatabaseConnection connection;
+    private final TableMetaData table;
+    private final Path file;
+    private final CsvFormat format;
+    private final Dialect dialect;
+    private final Map<String, TableMetaData.ColumnInfo> columnsByName = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+    private List<String> mapping;
+    private int parserThreads = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+
+    private volatile boolean cancelled;
+    private volatile Statement activeStatement;
+
+    /**
+     * @param connection The connection to load through; the importer uses it exclusively while running
+     * @param table The target table
+     * @param file The file to load
+     * @param format The file's layout
+     */
+    public TableImporter(DatabaseConnection connection, TableMetaData table, Path file, CsvFormat format) throws IOException {
+        this.connection = connection;
+        this.table = table;
+        this.file = file;
+        this.format = format;
+        this.dialect = connection.getDialect();
+        for (TableMetaData.ColumnInfo column : table.getColumns()) {
+            columnsByName.put(column.getName(), column);
+        }
+        this.mapping = defaultMapping(readHeader(file, format), table, format.hasHeader());
+    }
+
+    /**
+     * Reads the column names from the first record of a file. Without a header the columns are
+     * named {@code column1}, {@code column2} and so on.
+     */
+    public static List<String> readHeader(Path file, CsvFormat format) throws IOException {
+        CsvFormat firstRecord = new CsvFormat();
+        firstRecord.setDelimiter(format.getDelimiter());
+        firstRecord.setQuote(format.getQuote());
+        firstRecord.setCharset(format.getCharset());
+        firstRecord.setHeader(true);
+
+        List<String> names = new ArrayList<>();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            CsvChunker chunker = new CsvChunker(channel, firstRecord, CHUNK_SIZE);
+            if (chunker.getDataStart() == chunker.getHeaderStart()) {
+                return names;
+            }
+            CharBuffer text = CsvParser.decode(chunker.map(chunker.getHeaderStart(), chunker.getDataStart()), format);
+            try {
+                CsvParser.parse(text, format, 1, (fields, line) -> {
+                    if (names.isEmpty()) {
+                        for (int i = 0; i < fields.length; i++) {
+                            String name = fields[i] != null ? fields[i].trim() : "";
+                            names.add(format.hasHeader() && !name.isEmpty() ? name : "column" + (i + 1));
+                        }
+                    }
+                });
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+        return names;
+    }
+
+    /**
+     * Matches file columns to table columns: by name, ignoring case, when the file has a header,
+     * and by position otherwise.
+     *
+     * @return The target column for each file column, null where a file column is skipped
+     */
+    public static List<String> defaultMapping(List<String> fileColumns, TableMetaData table, boolean byName) {
+        Map<String, String> names = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        for (TableMetaData.ColumnInfo column : table.getColumns()) {
+            names.put(column.getName(), column.getName());
+        }
+        List<String> mapping = new ArrayList<>();
+        for (int i = 0; i < fileColumns.size(); i++) {
+            if (byName) {
+                mapping.add(names.get(fileColumns.get(i)));
+            } else {
+                mapping.add(i < table.getColumns().size() ? table.getColumns().get(i).getName() : null);
+            }
+        }
+        return mapping;
+    }
+
+    /**
+     * Returns the target column for each file column, null where a file column is skipped.
+     */
+    public List<String> getMapping() {
+        return Collections.unmodifiableList(mapping);
+    }
+
+    /**
+     * Sets the target column for each file column; null skips a file column.
+     *
+     * @throws IllegalArgumentException if a target is not a column of the table or is used twice
+     */
+    public void setMapping(List<String> mapping) {
+        List<String> targets = new ArrayList<>();
+        for (String target : mapping) {
+            if (target == null) {
+                continue;
+            }
+            if (!columnsByName.containsKey(target)) {
+                throw new IllegalArgumentException("Table " + table.getTableName() + " has no column " + target);
+            }
+            if (targets.stream().anyMatch(target::equalsIgnoreCase)) {
+                throw new IllegalArgumentException("Column " + target + " is mapped more than once");
+            }
+            targets.add(target);
+        }
+        this.mapping = new ArrayList<>(mapping);
+    }
+
+    /**
+     * Sets how many threads parse the file on the batched insert path.
+     */
+    public void setParserThreads(int parserThreads) {
+        this.parserThreads = Math.max(1, parserThreads);
+    }
+
+    /**
+     * Returns the method the import will try first for this database and mapping.
+     */
+    public LoadMethod preferredMethod() {
+        if (!StandardCharsets.UTF_8.equals(format.getCharset())) {
+            // Native loaders are told the file is UTF-8; other encodings are decoded here
+            return LoadMethod.BATCH_INSERT;
+        }
+        return switch (dialect) {
+            // COPY cannot skip file columns
+            case POSTGRESQL -> mapping.contains(null) ? LoadMethod.BATCH_INSERT : LoadMethod.COPY;
+            case MYSQL -> LoadMethod.LOAD_DATA;
+            case DUCKDB -> LoadMethod.READ_CSV;
+            default -> LoadMethod.BATCH_INSERT;
+        };
+    }
+
+    /**
+     * Stops the import, which then rolls back. The statement in flight is cancelled if the driver supports it.
+     */
+    public void cancel() {
+        cancelled = true;
+        Statement stmt = activeStatement;
+        if (stmt != null) {
+            try {
+                stmt.cancel();
+            } catch (SQLException e) {
+                logger.log(Level.FINE, "Driver could not cancel the import statement", e);
+            }
+        }
+    }
+
+    /**
+     * Runs the import. Blocks until it is done; call it from a background thread.
+     *
+     * @param progressListener Called on the loading thread a few times per second, may be null
+     * @return The outcome
+     * @throws IOException if the file cannot be read
+     * @throws SQLException if loading fails; the transaction is rolled back and nothing is loaded.
+     *                      Bad values are reported as {@link SQLDataException} with their line number.
+     */
+    public Result run(Consumer<Progress> progressListener) throws IOException, SQLException {
+        Connection conn = connection.getConnection();
+        if (conn == null || conn.isClosed()) {
+            throw new SQLException("Connection is not established or is closed.");
+        }
+        if (mapping.stream().allMatch(Objects::isNull)) {
+            throw new IllegalStateException("No file column is mapped to a table column");
+        }
+
+        long startedAt = System.nanoTime();
+        ProgressReporter progress = new ProgressReporter(progressListener, Files.size(file), startedAt);
+        boolean autoCommit = conn.getAutoCommit();
+        LoadMethod method = preferredMethod();
+        try {
+            conn.setAutoCommit(false);
+            Long rows = switch (method) {
+                case COPY -> copy(conn, progress);
+                case LOAD_DATA -> loadData(conn, progress);
+                case READ_CSV -> readCsv(conn, progress);
+                case BATCH_INSERT -> null;
+            };
+            if (rows == null) {
+                method = LoadMethod.BATCH_INSERT;
+                rows = batchInsert(conn, progress);
+            }
+
+            if (cancelled) {
+                conn.rollback();
+                return new Result(method, 0, System.nanoTime() - startedAt, true);
+            }
+            conn.commit();
+            QueryResultCache.invalidateTable(connection, table.getTableName());
+            logger.info("Imported " + rows + " rows into " + table.getTableName() + " with " + method.getLabel());
+            return new Result(method, rows, System.nanoTime() - startedAt, false);
+        } catch (SQLException | IOException e) {
+            rollbackQuietly(conn);
+            if (cancelled) {
+                return new Result(method, 0, System.nanoTime() - startedAt, true);
+            }
+            throw e;
+        } finally {
+            activeStatement = null;
+            try {
+                conn.setAutoCommit(autoCommit);
+            } catch (SQLException e) {
+                logger.log(Level.WARNING, "Failed to restore autocommit", e);
+            }
+        }
+    }
+
+    // ==================== PostgreSQL ====================
+
+    /**
+     * Streams the file to {@code COPY ... FROM STDIN}. The driver is loaded at runtime, so its
+     * copy API is reached reflectively.
+     *
+     * @return The rows copied, or null if the copy API is not available
+     */
+    private Long copy(Connection conn, ProgressReporter progress) throws IOException, SQLException {
+        Object copyManager;
+        Method copyIn;
+        try {
+            Class<?> pgConnection = Class.forName("org.postgresql.PGConnection", false, conn.getClass().getClassLoader());
+            copyManager = pgConnection.getMethod("getCopyAPI").invoke(conn.unwrap(pgConnection));
+            copyIn = copyManager.getClass().getMethod("copyIn", String.class, InputStream.class);
+        } catch (ReflectiveOperationException | SQLException e) {
+            logger.log(Level.INFO, "PostgreSQL copy API not available, falling back to batched inserts", e);
+            return null;
+        }
+
+        String sql = "COPY " + quote(table.getTableName()) + " (" + quotedList(targetColumns()) + ") FROM STDIN WITH ("
+                + "FORMAT csv, HEADER " + format.hasHeader()
+                + ", DELIMITER " + literal(format.getDelimiter())
+                + ", QUOTE " + literal(format.getQuote()) + ")";
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+             InputStream in = progressStream(channel, progress)) {
+            return (Long) copyIn.invoke(copyManager, sql, in);
+        } catch (InvocationTargetException e) {
+            throw unwrap(e);
+        } catch (IllegalAccessException e) {
+            throw new SQLException("PostgreSQL copy API is not accessible", e);
+        }
+    }
+
+    // ==================== MySQL ====================
+
+    /**
+     * Runs {@code LOAD DATA LOCAL INFILE}, handing the driver a stream over the file so it does
+     * not open the file by name. Requires local infile to be enabled on both client and server.
+     *
+     * @return The rows loaded, or null if local infile is not available
+     */
+    private Long loadData(Connection conn, ProgressReporter progress) throws IOException, SQLException {
+        StringBuilder columns = new StringBuilder();
+        StringBuilder assignments = new StringBuilder();
+        for (int i = 0; i < mapping.size(); i++) {
+            if (i > 0) {
+                columns.append(", ");
+            }
+            columns.append("@c").append(i);
+            if (mapping.get(i) != null) {
+                // Empty fields become NULL, as on the other paths
+                assignments.append(assignments.isEmpty() ? "" : ", ")
+                        .append(quote(mapping.get(i))).append(" = NULLIF(@c").append(i).append(", '')");
+            }
+        }
+        String sql = "LOAD DATA LOCAL INFILE " + mysqlLiteral(file.getFileName().toString())
+                + " INTO TABLE " + quote(table.getTableName()) + " CHARACTER SET utf8mb4"
+                + " FIELDS TERMINATED BY " + mysqlLiteral(String.valueOf(format.getDelimiter()))
+                + " OPTIONALLY ENCLOSED BY " + mysqlLiteral(String.valueOf(format.getQuote()))
+                + " ESCAPED BY ''"
+                + " LINES TERMINATED BY " + (usesCrLf() ? "'\\r\\n'" : "'\\n'")
+                + (format.hasHeader() ? " IGNORE 1 LINES" : "")
+                + " (" + columns + ") SET " + assignments;
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+             InputStream in = progressStream(channel, progress);
+             Statement stmt = conn.createStatement()) {
+            if (!setLocalInfileStream(stmt, in)) {
+                logger.info("MySQL driver does not accept an infile stream, falling back to batched inserts");
+                return null;
+            }
+            activeStatement = stmt;
+            try {
+                return (long) stmt.executeUpdate(sql);
+            } catch (SQLException e) {
+                if (isLocalInfileDisabled(e)) {
+                    logger.log(Level.INFO, "MySQL local infile is disabled, falling back to batched inserts", e);
+                    conn.rollback();
+                    return null;
+                }
+                throw e;
+            }
+        }
+    }
+
+    private static boolean setLocalInfileStream(Statement stmt, InputStream in) throws SQLException {
+        // Connector/J 8 and later, then 5.x
+        for (String className : new String[]{"com.mysql.cj.jdbc.JdbcStatement", "com.mysql.jdbc.Statement"}) {
+            try {
+                Class<?> type = Class.forName(className, false, stmt.getClass().getClassLoader());
+                type.getMethod("setLocalInfileInputStream", InputStream.class).invoke(stmt.unwrap(type), in);
+                return true;
+            } catch (ReflectiveOperationException | SQLException e) {
+                logger.log(Level.FINE, "No " + className + " infile hook", e);
+            }
+        }
+        return false;
+    }
+
+    private static boolean isLocalInfileDisabled(SQLException e) {
+        // ER_NOT_ALLOWED_COMMAND, ER_CLIENT_LOCAL_FILES_DISABLED, CR_LOAD_DATA_LOCAL_INFILE_REJECTED
+        int code = e.getErrorCode();
+        String message = e.getMessage() != null ? e.getMessage().toLowerCase(Locale.ROOT) : "";
+        return code == 1148 || code == 3948 || code == 2068 || message.contains("loading local data is disabled");
+    }
+
+    private boolean usesCrLf() throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer head = ByteBuffer.allocate((int) Math.min(channel.size(), 64 * 1024));
+            channel.read(head, 0);
+            for (int i = 0; i < head.position(); i++) {
+                if (head.get(i) == '\n') {
+                    return i > 0 && head.get(i - 1) == '\r';
+                }
+            }
+            return false;
+        }
+    }
+
+    // ==================== DuckDB ====================
+
+    /**
+     * Lets DuckDB read the file with its own parallel CSV reader. All columns are read as text
+     * and cast to the column types on insert, so DuckDB's type sniffing cannot disagree with the table.
+     */
+    private Long readCsv(Connection conn, ProgressReporter progress) throws SQLException {
+        StringBuilder names = new StringBuilder();
+        List<String> targets = new ArrayList<>();
+        List<String> sources = new ArrayList<>();
+        for (int i = 0; i < mapping.size(); i++) {
+            names.append(i > 0 ? ", " : "").append("'c").append(i).append("': 'VARCHAR'");
+            if (mapping.get(i) != null) {
+                targets.add(mapping.get(i));
+                sources.add("c" + i);
+            }
+        }
+        String sql = "INSERT INTO " + quote(table.getTableName()) + " (" + quotedList(targets) + ") "
+                + "SELECT " + String.join(", ", sources) + " FROM read_csv("
+                + literal(file.toAbsolutePath().toString())
+                + ", header = " + format.hasHeader()
+                + ", delim = " + literal(format.getDelimiter())
+                + ", quote = " + literal(format.getQuote())
+                + ", escape = " + literal(format.getQuote())
+                + ", columns = {" + names + "})";
+        try (Statement stmt = conn.createStatement()) {
+            activeStatement = stmt;
+            long rows = stmt.executeLargeUpdate(sql);
+            progress.finish(rows);
+            return rows;
+        }
+    }
+
+    // ==================== Batched inserts ====================
+
+    /**
+     * Parses chunks of the file on a pool of threads and inserts the rows in order, in batches.
+     */
+    private long batchInsert(Connection conn, ProgressReporter progress) throws IOException, SQLException {
+        List<String> targets = targetColumns();
+        int[] sourceIndexes = new int[targets.size()];
+        ValueConverter[] converters = new ValueConverter[targets.size()];
+        TableMetaData.ColumnInfo[] columns = new TableMetaData.ColumnInfo[targets.size()];
+        for (int i = 0, t = 0; i < mapping.size(); i++) {
+            if (mapping.get(i) != null) {
+                sourceIndexes[t] = i;
+                columns[t] = columnsByName.get(mapping.get(i));
+                converters[t] = ValueConverter.forColumn(columns[t], dialect);
+                t++;
+            }
+        }
+        String sql = "INSERT INTO " + quote(table.getTableName()) + " (" + quotedList(targets) + ") VALUES ("
+                + String.join(", ", Collections.nCopies(targets.size(), "?")) + ")";
+
+        ExecutorService parsers = Executors.newFixedThreadPool(parserThreads, r -> {
+            Thread t = new Thread(r, "CsvImport-Parser");
+            t.setDaemon(true);
+            return t;
+        });
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            activeStatement = ps;
+            CsvChunker chunker = new CsvChunker(channel, format, CHUNK_SIZE);
+            ArrayDeque<Future<ParsedChunk>> window = new ArrayDeque<>();
+            int maxAhead = parserThreads + 2;
+            long[] batchLines = new long[BATCH_SIZE];
+            int inBatch = 0;
+            long rows = 0;
+
+            CsvChunker.Chunk chunk;
+            while (window.size() < maxAhead && (chunk = chunker.next()) != null) {
+                window.add(submitParse(parsers, chunker, chunk, sourceIndexes, converters, columns));
+            }
+            while (!window.isEmpty() && !cancelled) {
+                ParsedChunk parsed = await(window.poll());
+                if (window.size() < maxAhead && (chunk = chunker.next()) != null) {
+                    window.add(submitParse(parsers, chunker, chunk, sourceIndexes, converters, columns));
+                }
+
+                for (int r = 0; r < parsed.rows.size() && !cancelled; r++) {
+                    Object[] values = parsed.rows.get(r);
+                    for (int c = 0; c < values.length; c++) {
+                        if (values[c] == null) {
+                            ps.setNull(c + 1, columns[c].getDataType());
+                        } else {
+                            ps.setObject(c + 1, values[c]);
+                        }
+                    }
+                    ps.addBatch();
+                    batchLines[inBatch++] = parsed.lines[r];
+                    if (inBatch == BATCH_SIZE) {
+                        executeBatch(ps, batchLines, inBatch);
+                        rows += inBatch;
+                        inBatch = 0;
+                        progress.report(parsed.end, rows);
+                    }
+                }
+            }
+            if (inBatch > 0 && !cancelled) {
+                executeBatch(ps, batchLines, inBatch);
+                rows += inBatch;
+            }
+            progress.finish(rows);
+            return rows;
+        } finally {
+            parsers.shutdownNow();
+        }
+    }
+
+    private Future<ParsedChunk> submitParse(ExecutorService parsers, CsvChunker chunker, CsvChunker.Chunk chunk,
+                                            int[] sourceIndexes, ValueConverter[] converters,
+                                            TableMetaData.ColumnInfo[] columns) {
+        return parsers.submit(() -> {
+            CharBuffer text = CsvParser.decode(chunker.map(chunk.start(), chunk.end()), format);
+            List<Object[]> rows = new ArrayList<>();
+            List<Long> lines = new ArrayList<>();
+            CsvParser.parse(text, format, chunk.firstLine(), (fields, line) -> {
+                Object[] values = new Object[sourceIndexes.length];
+                for (int c = 0; c < sourceIndexes.length; c++) {
+                    String field = sourceIndexes[c] < fields.length ? fields[sourceIndexes[c]] : null;
+                    if (field == null) {
+                        continue;
+                    }
+                    try {
+                        values[c] = converters[c].convert(field);
+                    } catch (IllegalArgumentException | DateTimeException e) {
+                        throw new SQLDataException(String.format("Line %d, column %s: '%s' is not a valid %s",
+                                line, columns[c].getName(), abbreviate(field), ValueConverter.typeName(columns[c])));
+                    }
+                }
+                rows.add(values);
+                lines.add(line);
+            });
+            return new ParsedChunk(rows, lines.stream().mapToLong(Long::longValue).toArray(), chunk.end());
+        });
+    }
+
+    private static void executeBatch(PreparedStatement ps, long[] batchLines, int size) throws SQLException {
+        try {
+            ps.executeBatch();
+        } catch (BatchUpdateException e) {
+            int failed = e.getUpdateCounts() != null ? failedIndex(e.getUpdateCounts()) : 0;
+            long line = batchLines[Math.min(failed, size - 1)];
+            throw new SQLException("Line " + line + ": " + e.getMessage(), e.getSQLState(), e.getErrorCode(), e);
+        }
+    }
+
+    private static int failedIndex(int[] counts) {
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] == Statement.EXECUTE_FAILED) {
+                return i;
+            }
+        }
+        return counts.length;
+    }
+
+    private static ParsedChunk await(Future<ParsedChunk> future) throws IOException, SQLException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Import interrupted");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof SQLException sqlException) {
+                throw sqlException;
+            }
+            if (cause instanceof IOException ioException) {
+                throw ioException;
+            }
+            throw new IOException("Failed to parse the file", cause);
+        }
+    }
+
+    /**
+     * Rows parsed from one chunk, with the line each starts on.
+     */
+    private record ParsedChunk(List<Object[]> rows, long[] lines, long end) {}
+
+    // ==================== Helpers ====================
+
+    private List<String> targetColumns() {
+        List<String> targets = new ArrayList<>();
+        for (String target : mapping) {
+            if (target != null) {
+                targets.add(target);
+            }
+        }
+        return targets;
+    }
+
+    /**
+     * Returns an input stream over the file, past a byte order mark, that reports progress as it is read
+     * and fails once the import is cancelled.
+     */
+    private InputStream progressStream(FileChannel channel, ProgressReporter progress) throws IOException {
+        CsvChunker chunker = new CsvChunker(channel, format, CHUNK_SIZE);
+        channel.position(chunker.getHeaderStart());
+        return new FilterInputStream(Channels.newInputStream(channel)) {
+            private long position = chunker.getHeaderStart();
+
+            @Override
+            public int read() throws IOException {
+                byte[] one = new byte[1];
+                return read(one, 0, 1) < 0 ? -1 : one[0] & 0xFF;
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                if (cancelled) {
+                    throw new InterruptedIOException("Import cancelled");
+                }
+                int n = super.read(b, off, len);
+                if (n > 0) {
+                    position += n;
+                    progress.report(position, -1);
+                }
+                return n;
+            }
+        };
+    }
+
+    private static SQLException unwrap(InvocationTargetException e) throws IOException {
+        Throwable cause = e.getCause();
+        if (cause instanceof SQLException sqlException) {
+            return sqlException;
+        }
+        if (cause instanceof IOException ioException) {
+            throw ioException;
+        }
+        return new SQLException(cause != null ? cause.getMessage() : e.getMessage(), cause);
+    }
+
+    /**
+     * Quotes a table or column name for the target dialect, so mixed-case names, reserved words
+     * and names with spaces refer to the right object.
+     */
+    private String quote(String identifier) {
+        if (dialect == Dialect.MYSQL) {
+            return "`" + identifier.replace("`", "``") + "`";
+        }
+        return "\"" + identifier.replace("\"", "\"\"") + "\"";
+    }
+
+    private String quotedList(List<String> identifiers) {
+        StringBuilder sb = new StringBuilder();
+        for (String identifier : identifiers) {
+            sb.append(sb.isEmpty() ? "" : ", ").append(quote(identifier));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Quotes a character as a standard SQL string literal.
+     */
+    private static String literal(char c) {
+        return literal(String.valueOf(c));
+    }
+
+    private static String literal(String text) {
+        return "'" + text.replace("'", "''") + "'";
+    }
+
+    /**
+     * Quotes text as a MySQL string literal, where backslashes are escapes.
+     */
+    private static String mysqlLiteral(String text) {
+        return "'" + text.replace("\\", "\\\\").replace("'", "''") + "'";
+    }
+
+    private static String abbreviate(String text) {
+        return text.length() > 40 ? text.substring(0, 37) + "..." : text;
+    }
+
+    private static void rollbackQuietly(Connection conn) {
+        try {
+            conn.rollback();
+        } catch (SQLException e) {
+            logger.log(Level.WARNING, "Rollback failed", e);
+        }
+    }
+
+    /**
+     * Throttles progress callbacks to a few per second.
+     */
+    private static final class ProgressReporter {
+        private final Consumer<Progress> listener;
+        private final long totalBytes;
+        private final long startedAt;
+        private long lastReport;
+
+        ProgressReporter(Consumer<Progress> listener, long totalBytes, long startedAt) {
+            this.listener = listener;
+            this.totalBytes = totalBytes;
+            this.startedAt = startedAt;
+            this.lastReport = startedAt;
+        }
+
+        void report(long bytesRead, long rows) {
+            long now = System.nanoTime();
+            if (listener != null && now - lastReport >= PROGRESS_INTERVAL_NANOS) {
+                lastReport = now;
+                listener.accept(new Progress(bytesRead, totalBytes, rows, now - startedAt));
+            }
+        }
+
+        void finish(long rows) {
+            if (listener != null) {
+                listener.accept(new Progress(totalBytes, totalBytes, rows, System.nanoTime() - startedAt));
+            }
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package org.fxsql.transfer;
+
+import org.fxdb.plugin.sdk.db.Dialect;
+import org.fxsql.model.TableMetaData;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Locale;
+
+/**
+ * Turns a text field into the Java value bound for a column, based on the column's JDBC type.
+ * Types without a dedicated conversion are passed as text and left to the driver.
+ */
+@FunctionalInterface
+interface ValueConverter {
+
+    /**
+     * @param text The field, never null
+     * @throws IllegalArgumentException if the text is not a valid value of the column's type
+     */
+    Object convert(String text);
+
+    static ValueConverter forColumn(TableMetaData.ColumnInfo column, Dialect dialect) {
+        int type = column.getDataType();
+        if (dialect == Dialect.SQLITE && (type == Types.DATE || type == Types.TIME
+                || type == Types.TIMESTAMP || type == Types.TIMESTAMP_WITH_TIMEZONE)) {
+            // SQLite has no date types; the driver would store bound dates as epoch millis, not as the text given
+            return text -> text;
+        }
+        return switch (type) {
+            case Types.TINYINT, Types.SMALLINT, Types.INTEGER, Types.BIGINT -> text -> Long.parseLong(text.trim());
+            case Types.DECIMAL, Types.NUMERIC -> text -> new BigDecimal(text.trim());
+            case Types.REAL, Types.FLOAT, Types.DOUBLE -> text -> Double.parseDouble(text.trim());
+            case Types.BOOLEAN, Types.BIT -> ValueConverter::parseBoolean;
+            case Types.DATE -> text -> Date.valueOf(LocalDate.parse(text.trim()));
+            case Types.TIME -> text -> Time.valueOf(LocalTime.parse(text.trim()));
+            case Types.TIMESTAMP, Types.TIMESTAMP_WITH_TIMEZONE -> ValueConverter::parseTimestamp;
+            default -> text -> text;
+        };
+    }
+
+    /**
+     * Returns a readable name for the column's type, for error messages.
+     */
+    static String typeName(TableMetaData.ColumnInfo column) {
+        return column.getTypeName() != null ? column.getTypeName() : "type " + column.getDataType();
+    }
+
+    private static Object parseBoolean(String text) {
+        return switch (text.trim().toLowerCase(Locale.ROOT)) {
+            case "true", "t", "yes", "y", "1" -> Boolean.TRUE;
+            case "false", "f", "no", "n", "0" -> Boolean.FALSE;
+            default -> throw new IllegalArgumentException("not a boolean");
+        };
+    }
+
+    private static Object parseTimestamp(String text) {
+        String value = text.trim();
+        try {
+            // Both 2024-01-31T10:15:00 and 2024-01-31 10:15:00 are common in exports
+            return Timestamp.valueOf(LocalDateTime.parse(value.replace(' ', 'T')));
+        } catch (DateTimeParseException e) {
+            try {
+                return Timestamp.from(OffsetDateTime.parse(value.replace(' ', 'T')).toInstant());
+            } catch (DateTimeParseException ignored) {
+                // A date alone stands for its midnight
+                return Timestamp.valueOf(LocalDate.parse(value).atStartOfDay());
+            }
+        }
+    }
+}
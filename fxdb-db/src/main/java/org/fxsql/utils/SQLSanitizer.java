@@ -1,5 +1,11 @@
 package org.fxsql.utils;
 
+import org.fxdb.plugin.sdk.db.Dialect;
+import org.fxsql.sql.SQLSplitter;
+import org.fxsql.sql.SQLStatement;
+
+import java.util.List;
+import java.util.Set;
 import java.util.regex.Pattern;
 
 /**
@@ -10,8 +16,7 @@ public final class SQLSanitizer {
 
     // Pattern to detect potential SQL injection attempts
     private static final Pattern INJECTION_PATTERN = Pattern.compile(
-            "(?i)(;\\s*(DROP|DELETE|TRUNCATE|ALTER|CREATE|INSERT|UPDATE)\\s)" +
-                    "|(--\\s*$)" +
+            "(?i)(--\\s*$)" +
                     "|(\\b(UNION|UNION\\s+ALL)\\s+SELECT\\b)" +
                     "|(\\bEXEC(UTE)?\\s+(XP_|SP_))" +
                     "|(\\bINTO\\s+(OUTFILE|DUMPFILE)\\b)" +
@@ -20,9 +25,9 @@ public final class SQLSanitizer {
                     "|(\\bSLEEP\\s*\\()"
     );
 
-    // Pattern to detect multiple statements (potential batch injection)
-    private static final Pattern MULTI_STATEMENT_PATTERN = Pattern.compile(
-            ";\\s*(?=\\S)"
+    // Statements that are suspicious when chained after another one (potential batch injection)
+    private static final Set<String> CHAINED_KEYWORDS = Set.of(
+            "DROP", "DELETE", "TRUNCATE", "ALTER", "CREATE", "INSERT", "UPDATE"
     );
 
     // Dangerous keywords that should trigger warnings
@@ -59,13 +64,27 @@ public final class SQLSanitizer {
     }
 
     /**
-     * Validates and sanitizes a SQL query.
+     * Validates and sanitizes a SQL query, splitting statements without dialect-specific rules.
      *
      * @param query The SQL query to validate
      * @param allowMultipleStatements Whether to allow multiple statements
      * @return ValidationResult containing the result of validation
      */
     public static ValidationResult validateQuery(String query, boolean allowMultipleStatements) {
+        return validateQuery(query, Dialect.UNKNOWN, allowMultipleStatements);
+    }
+
+    /**
+     * Validates and sanitizes a SQL query. Statements are split with the rules of the given
+     * dialect, the same way the editor split them, so for example a backslash-escaped quote
+     * in a MySQL string does not end the string.
+     *
+     * @param query The SQL query to validate
+     * @param dialect The dialect of the connection the query will run on
+     * @param allowMultipleStatements Whether to allow multiple statements
+     * @return ValidationResult containing the result of validation
+     */
+    public static ValidationResult validateQuery(String query, Dialect dialect, boolean allowMultipleStatements) {
         if (query == null || query.trim().isEmpty()) {
             return new ValidationResult(false, false, "Query is empty", null);
         }
@@ -79,11 +98,23 @@ public final class SQLSanitizer {
                     null);
         }
 
-        // Check for multiple statements if not allowed
-        if (!allowMultipleStatements && MULTI_STATEMENT_PATTERN.matcher(trimmedQuery).find()) {
-            return new ValidationResult(false, false,
-                    "Query contains multiple statements. Please execute one statement at a time or use the script executor.",
-                    null);
+        // Semicolons inside strings, comments and statement bodies do not separate statements
+        List<SQLStatement> statements = SQLSplitter.split(trimmedQuery, dialect);
+        if (statements.size() > 1) {
+            for (SQLStatement statement : statements.subList(1, statements.size())) {
+                if (CHAINED_KEYWORDS.contains(statement.keyword())) {
+                    return new ValidationResult(false, false,
+                            "Query contains potentially dangerous patterns that could indicate SQL injection",
+                            null);
+                }
+            }
+
+            // Check for multiple statements if not allowed
+            if (!allowMultipleStatements) {
+                return new ValidationResult(false, false,
+                        "Query contains multiple statements. Please execute one statement at a time or use the script executor.",
+                        null);
+            }
         }
 
         // Check for dangerous operations (warning only)
@@ -116,9 +147,6 @@ public final class SQLSanitizer {
         // Remove null bytes
         sanitized = sanitized.replace("\0", "");
 
-        // Normalize whitespace (but preserve structure)
-        sanitized = sanitized.replaceAll("\\s+", " ");
-
         // Remove trailing semicolons for single queries
         if (sanitized.endsWith(";")) {
             sanitized = sanitized.substring(0, sanitized.length() - 1).trim();
@@ -0,0 +1,139 @@
+package org.fxsql.pool;
+
+import org.fxsql.DatabaseConnection;
+import org.fxsql.SqliteConnection;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConnectionPoolTest {
+
+    @TempDir
+    Path dir;
+
+    private DatabaseConnection primary;
+
+    @BeforeEach
+    void connect() throws Exception {
+        primary = open();
+        try (Statement stmt = primary.getConnection().createStatement()) {
+            stmt.execute("CREATE TABLE t (id INTEGER PRIMARY KEY)");
+        }
+    }
+
+    @AfterEach
+    void disconnect() {
+        ConnectionPool.unregister(primary);
+        primary.disconnect();
+    }
+
+    private DatabaseConnection open() throws Exception {
+        SqliteConnection connection = new SqliteConnection();
+        connection.connect(dir.resolve("pool.db").toString());
+        return connection;
+    }
+
+    private ConnectionPool register(int maxSize) {
+        PoolSettings settings = new PoolSettings();
+        settings.setMinSize(0);
+        settings.setMaxSize(maxSize);
+        settings.setBorrowTimeoutSeconds(1);
+        ConnectionPool pool = new ConnectionPool("test", settings, this::open);
+        ConnectionPool.register(primary, pool);
+        return pool;
+    }
+
+    private static int count(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement(); ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM t")) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+
+    @Test
+    void leaseWrapsPrimaryWithoutPool() throws Exception {
+        try (ConnectionLease lease = ConnectionPool.lease(primary)) {
+            assertFalse(lease.isPooled());
+            assertSame(primary, lease.connection());
+        }
+    }
+
+    @Test
+    void returnedConnectionIsReusedWithTransactionRolledBack() throws Exception {
+        ConnectionPool pool = register(1);
+        DatabaseConnection first;
+        try (ConnectionLease lease = pool.borrow()) {
+            first = lease.connection();
+            Connection conn = first.getConnection();
+            conn.setAutoCommit(false);
+            try (Statement stmt = conn.createStatement()) {
+                stmt.executeUpdate("INSERT INTO t VALUES (1)");
+            }
+        }
+        try (ConnectionLease lease = pool.borrow()) {
+            assertSame(first, lease.connection());
+            assertTrue(lease.connection().getConnection().getAutoCommit());
+            assertEquals(0, count(lease.connection().getConnection()));
+        }
+        assertEquals(1, pool.getOpenCount());
+        assertEquals(0, pool.getActiveCount());
+    }
+
+    @Test
+    void leaseFallsBackToPrimaryWhenBorrowTimesOut() throws Exception {
+        ConnectionPool pool = register(1);
+        try (ConnectionLease held = pool.borrow()) {
+            assertTrue(held.isPooled());
+            assertThrows(SQLException.class, pool::borrow);
+            try (ConnectionLease lease = ConnectionPool.lease(primary)) {
+                assertFalse(lease.isPooled());
+                assertSame(primary, lease.connection());
+            }
+        }
+    }
+
+    @Test
+    void sessionsDoNotCountAgainstMaxSize() throws Exception {
+        ConnectionPool pool = register(1);
+        try (ConnectionLease first = ConnectionPool.session(primary);
+             ConnectionLease second = ConnectionPool.session(primary)) {
+            assertTrue(first.isPooled());
+            assertTrue(second.isPooled());
+            assertNotSame(first.connection(), second.connection());
+            assertEquals(0, pool.getOpenCount());
+
+            try (ConnectionLease lease = ConnectionPool.lease(primary)) {
+                assertTrue(lease.isPooled());
+                assertEquals(1, pool.getOpenCount());
+            }
+            assertEquals(2, pool.getActiveCount());
+        }
+        assertEquals(0, pool.getActiveCount());
+        assertEquals(1, pool.getOpenCount());
+    }
+
+    @Test
+    void sessionConnectionIsClosedWhenSessionEnds() throws Exception {
+        register(1);
+        DatabaseConnection connection;
+        try (ConnectionLease session = ConnectionPool.session(primary)) {
+            connection = session.connection();
+            assertTrue(connection.getConnection().isValid(1));
+        }
+        assertTrue(connection.getConnection() == null || connection.getConnection().isClosed());
+    }
+}
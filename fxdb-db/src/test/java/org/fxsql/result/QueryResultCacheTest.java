@@ -0,0 +1,86 @@
+package org.fxsql.result;
+
+import org.fxdb.plugin.sdk.db.Dialect;
+import org.fxsql.DatabaseConnection;
+import org.fxsql.SqliteConnection;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.Statement;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class QueryResultCacheTest {
+
+    @TempDir
+    Path dir;
+
+    private static String fingerprint(String sql) {
+        return QueryResultCache.fingerprint(sql, Dialect.POSTGRESQL);
+    }
+
+    @Test
+    void ignoresWhitespaceCommentsAndKeywordCase() {
+        String expected = "SELECT * FROM Orders WHERE id = 1";
+        assertEquals(expected, fingerprint("select *\n  from  Orders -- latest\n where id = 1;"));
+        assertEquals(expected, fingerprint("SELECT /* all */ * FROM Orders WHERE id = 1"));
+    }
+
+    @Test
+    void keepsIdentifierCaseAndQuotes() {
+        assertNotEquals(fingerprint("SELECT * FROM Orders"), fingerprint("SELECT * FROM orders"));
+        assertEquals("SELECT \"Id\" FROM t", fingerprint("select \"Id\" from t"));
+        assertNotEquals(fingerprint("SELECT * FROM t WHERE s = 'A'"), fingerprint("SELECT * FROM t WHERE s = 'a'"));
+    }
+
+    @Test
+    void volatileFunctionsAreNotCached() {
+        assertNull(fingerprint("SELECT now() FROM t"));
+        assertNull(fingerprint("select random()"));
+        assertNull(fingerprint("SELECT * FROM t ORDER BY RANDOM()"));
+    }
+
+    @Test
+    void unterminatedSqlIsNotCached() {
+        assertNull(fingerprint("SELECT 'open FROM t"));
+        assertNull(fingerprint("SELECT * FROM t /* open"));
+    }
+
+    @Test
+    void tablesNamedByKeywordsAreNotCached() throws Exception {
+        DatabaseConnection connection = new SqliteConnection();
+        connection.connect(dir.resolve("cache.db").toString());
+        try {
+            try (Statement stmt = connection.getConnection().createStatement()) {
+                for (String table : List.of("orders", "\"key\"", "\"action\"")) {
+                    stmt.execute("CREATE TABLE " + table + " (id INTEGER PRIMARY KEY)");
+                }
+            }
+            QueryCacheSettings settings = new QueryCacheSettings();
+            settings.setEnabled(true);
+            QueryResultCache.configure(connection, settings);
+
+            assertNotNull(QueryResultCache.lookup(connection, "SELECT * FROM orders", 0));
+            assertNull(QueryResultCache.lookup(connection, "SELECT * FROM key", 0));
+            assertNull(QueryResultCache.lookup(connection,
+                    "SELECT o.id FROM orders o JOIN action a ON a.id = o.id", 0));
+
+            // Quoted, the name is known, and an unquoted write to it still drops the result
+            String sql = "SELECT * FROM \"key\"";
+            QueryResultCache.Lookup lookup = QueryResultCache.lookup(connection, sql, 0);
+            assertNotNull(lookup);
+            lookup.store(connection.executeStreamingQuery(sql, 0, rs -> ResultBuffer.from(rs, 0)), false);
+            assertNotNull(QueryResultCache.lookup(connection, sql, 0).hit());
+            QueryResultCache.invalidate(connection, "DELETE FROM key");
+            assertNull(QueryResultCache.lookup(connection, sql, 0).hit());
+        } finally {
+            QueryResultCache.release(connection);
+            connection.disconnect();
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package org.fxsql.result;
+
+import org.fxsql.DatabaseConnection;
+import org.fxsql.SqliteConnection;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TablePagerTest {
+
+    private static final int ROWS = 25;
+    private static final int PAGE_SIZE = 10;
+
+    @TempDir
+    Path dir;
+
+    private DatabaseConnection connection;
+
+    @BeforeEach
+    void createTable() throws Exception {
+        connection = new SqliteConnection();
+        connection.connect(dir.resolve("pager.db").toString());
+        // Mixed-case and reserved-word names only work when the pager quotes them
+        try (Statement stmt = connection.getConnection().createStatement()) {
+            stmt.execute("CREATE TABLE \"Order Items\" (\"userId\" INTEGER, \"order\" INTEGER, note TEXT,"
+                    + " PRIMARY KEY (\"userId\", \"order\"))");
+        }
+        try (PreparedStatement stmt = connection.getConnection()
+                .prepareStatement("INSERT INTO \"Order Items\" VALUES (?, ?, ?)")) {
+            for (int i = 0; i < ROWS; i++) {
+                stmt.setInt(1, i / 3);
+                stmt.setInt(2, i % 3);
+                stmt.setString(3, "row " + i);
+                stmt.executeUpdate();
+            }
+        }
+    }
+
+    @AfterEach
+    void disconnect() {
+        connection.disconnect();
+    }
+
+    private TablePager pager() {
+        return TablePager.withKeyColumns(connection, "Order Items", List.of("userId", "order"), PAGE_SIZE);
+    }
+
+    private static List<String> notes(ResultBuffer page) {
+        List<String> notes = new ArrayList<>();
+        int column = page.getColumnNames().indexOf("note");
+        for (int row = 0; row < page.getRowCount(); row++) {
+            notes.add((String) page.getValue(row, column));
+        }
+        return notes;
+    }
+
+    private static List<String> expected(int page) {
+        List<String> notes = new ArrayList<>();
+        for (int i = page * PAGE_SIZE; i < Math.min(ROWS, (page + 1) * PAGE_SIZE); i++) {
+            notes.add("row " + i);
+        }
+        return notes;
+    }
+
+    @Test
+    void readsPagesInOrderWithCompositeKey() throws Exception {
+        TablePager pager = pager();
+        assertTrue(pager.isKeyset());
+        for (int page = 0; page < 3; page++) {
+            assertEquals(expected(page), notes(pager.getPage(page)));
+        }
+        assertEquals(0, pager.getPage(3).getRowCount());
+    }
+
+    @Test
+    void jumpsToPageWithoutReadingEarlierPages() throws Exception {
+        TablePager pager = pager();
+        assertEquals(expected(1), notes(pager.getPage(1)));
+        assertEquals(expected(2), notes(pager.getPage(2)));
+        assertEquals(0, pager().getPage(5).getRowCount());
+    }
+
+    @Test
+    void seeksBackwardsFromFollowingPage() throws Exception {
+        TablePager pager = pager();
+        pager.getPage(0);
+        pager.getPage(1);
+        pager.getPage(2);
+        // Forget page 0's last key but keep page 2 cached, so page 1 is read by seeking backwards
+        pager.setPageSize(PAGE_SIZE + 1);
+        pager.setPageSize(PAGE_SIZE);
+        pager.getPage(2);
+        assertEquals(expected(1), notes(pager.getPage(1)));
+    }
+
+    @Test
+    void readsLastPageFromTheEnd() throws Exception {
+        TablePager pager = pager();
+        assertEquals(ROWS, pager.countRows());
+        assertEquals(expected(2), notes(pager.getPage(2)));
+    }
+
+    @Test
+    void offsetPagingQuotesTableName() throws Exception {
+        TablePager pager = TablePager.withKeyColumns(connection, "Order Items", List.of(), PAGE_SIZE);
+        assertEquals(PAGE_SIZE, pager.getPage(0).getRowCount());
+        assertEquals(ROWS, pager.countRows());
+    }
+}
@@ -0,0 +1,60 @@
+package org.fxsql.schema;
+
+import org.fxsql.DatabaseObjects;
+import org.fxsql.schema.ObjectNameIndex.Kind;
+import org.fxsql.schema.ObjectNameIndex.Match;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ObjectNameIndexTest {
+
+    private static DatabaseObjects tables(String... names) {
+        return new DatabaseObjects(List.of(names), null, null, null, null);
+    }
+
+    private static List<String> names(List<Match> matches) {
+        return matches.stream().map(m -> m.connection() + ":" + m.name()).toList();
+    }
+
+    @Test
+    void findsPrefixBoundaryAndFuzzyMatches() {
+        ObjectNameIndex index = new ObjectNameIndex();
+        index.update("shop", new DatabaseObjects(List.of("orders", "order_items", "customers"),
+                List.of("order_summary"), null, null, List.of("idx_orders_status")));
+
+        List<Match> matches = index.search("order", 10);
+        assertEquals(List.of("shop:orders", "shop:order_items", "shop:order_summary", "shop:idx_orders_status"),
+                names(matches));
+        assertEquals(Kind.VIEW, matches.get(2).kind());
+        assertEquals(List.of("shop:order_items"), names(index.search("items", 10)));
+        assertEquals("shop:customers", names(index.search("custmers", 10)).get(0));
+    }
+
+    @Test
+    void updateAppliesAddedAndRemovedNames() {
+        ObjectNameIndex index = new ObjectNameIndex();
+        index.update("shop", tables("orders", "order_items", "customers"));
+        assertEquals(3, index.size());
+
+        index.update("shop", tables("orders", "invoices"));
+        assertEquals(2, index.size());
+        assertEquals(List.of("shop:orders"), names(index.search("order", 10)));
+        assertEquals(List.of("shop:invoices"), names(index.search("invoice", 10)));
+        assertTrue(index.search("customers", 10).stream().noneMatch(m -> m.name().equals("customers")));
+    }
+
+    @Test
+    void removeDropsOnlyThatConnection() {
+        ObjectNameIndex index = new ObjectNameIndex();
+        index.update("shop", tables("orders"));
+        index.update("archive", tables("orders", "orders_2019"));
+
+        index.remove("shop");
+        assertEquals(2, index.size());
+        assertEquals(List.of("archive:orders", "archive:orders_2019"), names(index.search("orders", 10)));
+    }
+}
@@ -0,0 +1,107 @@
+package org.fxsql.sql;
+
+import org.fxsql.DatabaseConnection;
+import org.fxsql.SqliteConnection;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SQLScriptRunnerTest {
+
+    @TempDir
+    Path dir;
+
+    private DatabaseConnection connection;
+
+    @BeforeEach
+    void connect() throws Exception {
+        connection = new SqliteConnection();
+        connection.connect(dir.resolve("script.db").toString());
+    }
+
+    @AfterEach
+    void disconnect() {
+        connection.disconnect();
+    }
+
+    private Path script(String sql) throws Exception {
+        Path file = dir.resolve("script.sql");
+        Files.writeString(file, sql, StandardCharsets.UTF_8);
+        return file;
+    }
+
+    private int count() throws SQLException {
+        try (Statement stmt = connection.getConnection().createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM t")) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+
+    @Test
+    void runsBatchesAndSkipsTransactionControl() throws Exception {
+        StringBuilder sql = new StringBuilder("-- dump\nBEGIN TRANSACTION;\nCREATE TABLE t (id INTEGER PRIMARY KEY, note TEXT);\n");
+        for (int i = 1; i <= 1000; i++) {
+            sql.append("INSERT INTO t VALUES (").append(i).append(", 'a;b ").append(i).append("');\n");
+        }
+        sql.append("SELECT COUNT(*) FROM t;\nCOMMIT;\n");
+
+        SQLScriptRunner runner = new SQLScriptRunner(connection);
+        runner.setBatchSize(50);
+        runner.setCommitInterval(300);
+        SQLScriptRunner.Result result = runner.run(script(sql.toString()), null);
+
+        assertTrue(result.isSuccess());
+        assertEquals(1002, result.executed());
+        assertEquals(1002, result.committed());
+        assertEquals(2, result.skipped());
+        assertEquals(1000, count());
+        assertTrue(connection.getConnection().getAutoCommit());
+    }
+
+    @Test
+    void stopsAtFailingStatementAndKeepsEarlierCommits() throws Exception {
+        StringBuilder sql = new StringBuilder("CREATE TABLE t (id INTEGER PRIMARY KEY);\n");
+        for (int i = 1; i <= 6; i++) {
+            sql.append("INSERT INTO t VALUES (").append(i).append(");\n");
+        }
+        sql.append("INSERT INTO t VALUES (3);\nINSERT INTO t VALUES (7);\n");
+
+        SQLScriptRunner runner = new SQLScriptRunner(connection);
+        runner.setBatchSize(3);
+        runner.setCommitInterval(4);
+        SQLScriptRunner.Result result = runner.run(script(sql.toString()), null);
+
+        // The first four statements were committed; the inserts after them were rolled back
+        assertNotNull(result.error());
+        assertEquals(4, result.committed());
+        assertEquals(4, result.executed());
+        assertEquals(8, result.failedStatementNumber());
+        assertEquals("INSERT INTO t VALUES (3)", result.failedStatement());
+        assertEquals(3, count());
+        assertTrue(connection.getConnection().getAutoCommit());
+    }
+
+    @Test
+    void runsVacuumOutsideTheTransaction() throws Exception {
+        SQLScriptRunner runner = new SQLScriptRunner(connection);
+        SQLScriptRunner.Result result = runner.run(script(
+                "CREATE TABLE t (id INTEGER);\nINSERT INTO t VALUES (1);\nVACUUM;\nINSERT INTO t VALUES (2);\n"), null);
+
+        assertTrue(result.isSuccess(), () -> String.valueOf(result.error()));
+        assertEquals(4, result.executed());
+        assertEquals(2, count());
+    }
+}
@@ -0,0 +1,70 @@
+package org.fxsql.sql;
+
+import org.fxdb.plugin.sdk.db.Dialect;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class SQLSplitterTest {
+
+    private static List<String> split(String script, Dialect dialect) {
+        List<String> texts = new ArrayList<>();
+        for (SQLStatement statement : SQLSplitter.split(script, dialect)) {
+            texts.add(statement.text(script));
+        }
+        return texts;
+    }
+
+    @Test
+    void ignoresDelimitersInStringsAndComments() {
+        assertEquals(List.of("SELECT 1", "SELECT ';'", "SELECT 2"),
+                split("SELECT 1; SELECT ';' ; -- c;\nSELECT 2", Dialect.SQLITE));
+    }
+
+    @Test
+    void keepsDollarQuotedBodyTogether() {
+        String script = "CREATE FUNCTION f() RETURNS int AS $$ BEGIN RETURN 1; END; $$ LANGUAGE plpgsql; SELECT f();";
+        assertEquals(List.of("CREATE FUNCTION f() RETURNS int AS $$ BEGIN RETURN 1; END; $$ LANGUAGE plpgsql",
+                "SELECT f()"), split(script, Dialect.POSTGRESQL));
+    }
+
+    @Test
+    void understandsMySqlDelimiterCommand() {
+        String script = "DELIMITER //\nCREATE PROCEDURE p() BEGIN SELECT 1; SELECT 2; END//\nDELIMITER ;\nSELECT 3;";
+        List<SQLStatement> statements = SQLSplitter.split(script, Dialect.MYSQL);
+        assertEquals(2, statements.size());
+        assertEquals("CREATE PROCEDURE p() BEGIN SELECT 1; SELECT 2; END", statements.get(0).text(script));
+        assertEquals("CREATE", statements.get(0).keyword());
+        assertEquals("SELECT 3", statements.get(1).text(script));
+    }
+
+    @Test
+    void delimiterCommandIsPlainTextOnPostgres() {
+        assertEquals(List.of("DELIMITER //\nSELECT 1//"), split("DELIMITER //\nSELECT 1//", Dialect.POSTGRESQL));
+    }
+
+    @Test
+    void keepsTriggerBodyTogether() {
+        assertEquals(List.of("CREATE TRIGGER t AFTER INSERT ON a BEGIN UPDATE b SET x = 1; DELETE FROM c; END", "SELECT 1"),
+                split("CREATE TRIGGER t AFTER INSERT ON a BEGIN UPDATE b SET x = 1; DELETE FROM c; END; SELECT 1",
+                        Dialect.SQLITE));
+    }
+
+    @Test
+    void holdsBackLastStatementUntilInputEnds() {
+        StringBuilder input = new StringBuilder("SELECT 1; SELECT 'a;");
+        SQLSplitter splitter = new SQLSplitter(input, Dialect.SQLITE);
+        splitter.setEndOfInput(false);
+        assertEquals("SELECT 1", splitter.next().text(input));
+        assertNull(splitter.next());
+
+        input.append("b'");
+        splitter.setEndOfInput(true);
+        assertEquals("SELECT 'a;b'", splitter.next().text(input));
+        assertNull(splitter.next());
+    }
+}
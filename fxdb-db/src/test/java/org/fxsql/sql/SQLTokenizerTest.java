@@ -0,0 +1,92 @@
+package org.fxsql.sql;
+
+import org.fxdb.plugin.sdk.db.Dialect;
+import org.fxsql.sql.SQLTokenizer.TokenType;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SQLTokenizerTest {
+
+    /**
+     * Returns the significant tokens as {@code TYPE:text}.
+     */
+    private static List<String> tokens(String sql, Dialect dialect) {
+        SQLTokenizer tokenizer = new SQLTokenizer(sql, dialect);
+        List<String> tokens = new ArrayList<>();
+        while (tokenizer.next()) {
+            if (tokenizer.type() != TokenType.WHITESPACE) {
+                tokens.add(tokenizer.type() + ":" + sql.substring(tokenizer.start(), tokenizer.end()));
+            }
+        }
+        return tokens;
+    }
+
+    @Test
+    void doubledQuoteStaysInString() {
+        assertEquals(List.of("WORD:SELECT", "STRING:'it''s; ok'", "DELIMITER:;"),
+                tokens("SELECT 'it''s; ok';", Dialect.POSTGRESQL));
+    }
+
+    @Test
+    void backslashEscapesOnlyOnMySql() {
+        String sql = "SELECT 'a\\'; b';";
+        assertEquals(List.of("WORD:SELECT", "STRING:'a\\'; b'", "DELIMITER:;"), tokens(sql, Dialect.MYSQL));
+        assertEquals(List.of("WORD:SELECT", "STRING:'a\\'", "DELIMITER:;", "WORD:b", "STRING:';"),
+                tokens(sql, Dialect.POSTGRESQL));
+    }
+
+    @Test
+    void postgresEscapeStringAllowsBackslash() {
+        assertEquals(List.of("WORD:SELECT", "STRING:E'a\\'b'"), tokens("SELECT E'a\\'b'", Dialect.POSTGRESQL));
+    }
+
+    @Test
+    void doubleQuotesDependOnDialect() {
+        assertEquals(List.of("WORD:SELECT", "STRING:\"a;b\""), tokens("SELECT \"a;b\"", Dialect.MYSQL));
+        assertEquals(List.of("WORD:SELECT", "QUOTED_IDENTIFIER:\"a;b\""), tokens("SELECT \"a;b\"", Dialect.SQLITE));
+    }
+
+    @Test
+    void backticksAndBracketsAreIdentifiers() {
+        assertEquals(List.of("WORD:SELECT", "QUOTED_IDENTIFIER:`a b`", "SYMBOL:,", "QUOTED_IDENTIFIER:[c;d]"),
+                tokens("SELECT `a b`, [c;d]", Dialect.SQLITE));
+        assertEquals(List.of("WORD:SELECT", "SYMBOL:[", "WORD:c", "SYMBOL:]"), tokens("SELECT [c]", Dialect.MYSQL));
+    }
+
+    @Test
+    void hashCommentsOnlyOnMySql() {
+        assertEquals(List.of("WORD:SELECT", "NUMBER:1", "LINE_COMMENT:# note; more"),
+                tokens("SELECT 1 # note; more", Dialect.MYSQL));
+        assertEquals(List.of("WORD:SELECT", "NUMBER:1", "SYMBOL:#", "WORD:note", "DELIMITER:;", "WORD:more"),
+                tokens("SELECT 1 # note; more", Dialect.SQLITE));
+    }
+
+    @Test
+    void dollarQuotesOnPostgres() {
+        assertEquals(List.of("WORD:SELECT", "DOLLAR_STRING:$tag$ a; $b$ ; $tag$", "SYMBOL:,", "SYMBOL:$", "NUMBER:1"),
+                tokens("SELECT $tag$ a; $b$ ; $tag$, $1", Dialect.POSTGRESQL));
+        assertTrue(tokens("SELECT $tag$ a; $tag$", Dialect.SQLITE).contains("DELIMITER:;"));
+    }
+
+    @Test
+    void stateCarriesAcrossInputs() {
+        SQLTokenizer first = new SQLTokenizer("SELECT 1 /* open", Dialect.POSTGRESQL);
+        while (first.next()) {
+            // Tokenize to the end
+        }
+        assertFalse(first.state().isNormal());
+        assertEquals(TokenType.BLOCK_COMMENT, first.state().getType());
+
+        String rest = "still; comment */ FROM t";
+        SQLTokenizer second = new SQLTokenizer(rest, Dialect.POSTGRESQL, first.state());
+        assertTrue(second.next());
+        assertEquals(TokenType.BLOCK_COMMENT, second.type());
+        assertEquals("still; comment */", rest.substring(second.start(), second.end()));
+    }
+}
@@ -0,0 +1,90 @@
+package org.fxsql.transfer;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CsvChunkerTest {
+
+    @TempDir
+    Path dir;
+
+    private record Parsed(long line, String[] fields) {
+    }
+
+    /**
+     * Chunks the file and parses each chunk on its own, as the importer does.
+     */
+    private List<Parsed> parseInChunks(Path file, CsvFormat format, int chunkSize) throws Exception {
+        List<Parsed> records = new ArrayList<>();
+        try (FileChannel channel = FileChannel.open(file)) {
+            CsvChunker chunker = new CsvChunker(channel, format, chunkSize);
+            CsvChunker.Chunk chunk;
+            while ((chunk = chunker.next()) != null) {
+                CsvParser.parse(CsvParser.decode(chunker.map(chunk.start(), chunk.end()), format), format,
+                        chunk.firstLine(), (fields, line) -> records.add(new Parsed(line, fields)));
+            }
+        }
+        return records;
+    }
+
+    @Test
+    void quotedLineFeedsDoNotEndAChunk() throws Exception {
+        Path file = dir.resolve("orders.csv");
+        Files.writeString(file, "\uFEFFid,note\n1,\"multi\nline, with \"\"quotes\"\"\"\n2,plain\n\n3,\"x\"\r\n4,\n",
+                StandardCharsets.UTF_8);
+
+        // Chunks far smaller than a record force a boundary inside every quoted field
+        List<Parsed> records = parseInChunks(file, CsvFormat.csv(), 4);
+
+        assertEquals(4, records.size());
+        assertArrayEquals(new String[]{"1", "multi\nline, with \"quotes\""}, records.get(0).fields());
+        assertEquals(2, records.get(0).line());
+        assertArrayEquals(new String[]{"2", "plain"}, records.get(1).fields());
+        assertEquals(4, records.get(1).line());
+        assertArrayEquals(new String[]{"3", "x"}, records.get(2).fields());
+        assertEquals(6, records.get(2).line());
+        assertArrayEquals(new String[]{"4", null}, records.get(3).fields());
+    }
+
+    @Test
+    void skipsByteOrderMarkAndHeader() throws Exception {
+        Path file = dir.resolve("header.csv");
+        Files.writeString(file, "\uFEFFid,note\n1,a\n", StandardCharsets.UTF_8);
+        try (FileChannel channel = FileChannel.open(file)) {
+            CsvChunker chunker = new CsvChunker(channel, CsvFormat.csv(), 1024);
+            assertEquals(3, chunker.getHeaderStart());
+            assertEquals(11, chunker.getDataStart());
+        }
+    }
+
+    @Test
+    void chunkSizeDoesNotChangeRecords() throws Exception {
+        StringBuilder csv = new StringBuilder("id,note\n");
+        for (int i = 0; i < 200; i++) {
+            csv.append(i).append(",\"note ").append(i).append("\n\"\"continued\"\", still ").append(i).append("\"\n");
+        }
+        Path file = dir.resolve("many.csv");
+        Files.writeString(file, csv, StandardCharsets.UTF_8);
+
+        List<Parsed> whole = parseInChunks(file, CsvFormat.csv(), Integer.MAX_VALUE);
+        assertEquals(200, whole.size());
+        for (int chunkSize : new int[]{1, 7, 64, 1000}) {
+            List<Parsed> chunked = parseInChunks(file, CsvFormat.csv(), chunkSize);
+            assertEquals(whole.size(), chunked.size());
+            for (int i = 0; i < whole.size(); i++) {
+                assertArrayEquals(whole.get(i).fields(), chunked.get(i).fields());
+                assertEquals(whole.get(i).line(), chunked.get(i).line());
+            }
+        }
+    }
+}
@@ -2,12 +2,17 @@ package org.fxsql;
 
 import java.io.File;
 import java.io.IOException;
+import java.lang.management.ManagementFactory;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Stream;
 
+import org.fxsql.startup.CdsArchive;
+
 /**
  * Launcher class for the FXDB application.
  *
@@ -20,6 +25,11 @@ import java.util.stream.Stream;
  * JavaFX 17 does not support native Wayland — it requires X11 (or XWayland).
  * If DISPLAY is not set, the launcher detects the correct display and xauth
  * file, then re-launches with the proper environment.
+ *
+ * When started from the shaded JAR it also relaunches with a class data sharing archive,
+ * creating the archive on the first run; see {@link CdsArchive}. Run with {@code -Dfxdb.cds=train}
+ * to create the archive with a training launch that exits once startup is complete, or
+ * {@code -Dfxdb.cds=off} to start without one.
  */
 public class Launcher {
 
@@ -27,8 +37,10 @@ public class Launcher {
     private static final String[] CANDIDATE_DISPLAYS = {":0", ":1", ":2"};
 
     public static void main(String[] args) {
-        if (needsDisplayFix()) {
-            relaunchWithDisplay(args);
+        boolean fixDisplay = needsDisplayFix();
+        CdsArchive cdsArchive = CdsArchive.forLaunch();
+        if (fixDisplay || cdsArchive != null) {
+            relaunch(args, fixDisplay, cdsArchive);
             return;
         }
         MainApplication.main(args);
@@ -48,7 +60,37 @@ public class Launcher {
         return display == null || display.isEmpty();
     }
 
-    private static void relaunchWithDisplay(String[] args) {
+    private static void relaunch(String[] args, boolean fixDisplay, CdsArchive cdsArchive) {
+        Map<String, String> environment = new HashMap<>();
+        if (fixDisplay && !detectDisplayEnvironment(environment)) {
+            System.exit(1);
+            return;
+        }
+
+        List<String> command = buildCommand(args, cdsArchive);
+
+        try {
+            ProcessBuilder pb = new ProcessBuilder(command);
+            pb.environment().putAll(environment);
+            pb.inheritIO();
+            Process process = pb.start();
+            int exitCode = process.waitFor();
+            if (cdsArchive != null) {
+                cdsArchive.afterRun(exitCode);
+            }
+            System.exit(exitCode);
+        } catch (IOException | InterruptedException e) {
+            System.err.println("Failed to relaunch — " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Finds the X11 display and xauth file and puts them into the child's environment.
+     *
+     * @return false if no display could be found
+     */
+    private static boolean detectDisplayEnvironment(Map<String, String> environment) {
         // Detect XAUTHORITY — needed for X11 authentication
         String xauthority = System.getenv("XAUTHORITY");
         if (xauthority == null || xauthority.isEmpty() || !new File(xauthority).exists()) {
@@ -68,28 +110,16 @@ public class Launcher {
                 "  export DISPLAY=:0\n" +
                 "Or run with: DISPLAY=:0 java -jar fxdb.jar"
             );
-            System.exit(1);
-            return;
+            return false;
         }
 
         System.err.println("DISPLAY not set, relaunching with DISPLAY=" + display
                 + (xauthority != null ? " XAUTHORITY=" + xauthority : ""));
-
-        List<String> command = buildCommand(args);
-
-        try {
-            ProcessBuilder pb = new ProcessBuilder(command);
-            pb.environment().put("DISPLAY", display);
-            if (xauthority != null) {
-                pb.environment().put("XAUTHORITY", xauthority);
-            }
-            pb.inheritIO();
-            Process process = pb.start();
-            System.exit(process.waitFor());
-        } catch (IOException | InterruptedException e) {
-            System.err.println("Failed to relaunch — " + e.getMessage());
-            System.exit(1);
+        environment.put("DISPLAY", display);
+        if (xauthority != null) {
+            environment.put("XAUTHORITY", xauthority);
         }
+        return true;
     }
 
     /**
@@ -202,24 +232,27 @@ public class Launcher {
         }
     }
 
-    private static List<String> buildCommand(String[] args) {
+    private static List<String> buildCommand(String[] args, CdsArchive cdsArchive) {
         String javaHome = System.getProperty("java.home");
         String javaBin = javaHome + File.separator + "bin" + File.separator + "java";
         String classpath = System.getProperty("java.class.path");
 
         List<String> command = new ArrayList<>();
         command.add(javaBin);
+        // Keep the options this JVM was started with, e.g. the heap size set by the native launcher
+        for (String option : ManagementFactory.getRuntimeMXBean().getInputArguments()) {
+            // A debugger would try to bind the same port again
+            if (!option.startsWith("-agentlib:jdwp") && !CdsArchive.isArchiveOption(option)) {
+                command.add(option);
+            }
+        }
         command.add("-D" + DISPLAY_RELAUNCH_FLAG + "=true");
+        if (cdsArchive != null) {
+            command.addAll(cdsArchive.jvmOptions());
+        }
         command.add("-cp");
         command.add(classpath);
 
-        for (String prop : new String[]{"fxdb.dev"}) {
-            String value = System.getProperty(prop);
-            if (value != null) {
-                command.add("-D" + prop + "=" + value);
-            }
-        }
-
         command.add(Launcher.class.getName());
         for (String arg : args) {
             command.add(arg);
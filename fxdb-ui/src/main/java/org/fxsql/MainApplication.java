@@ -16,9 +16,12 @@ import javafx.stage.Stage;
 import javafx.stage.StageStyle;
 import org.dockfx.DockPane;
 import org.fxsql.settings.UISettingsService;
+import org.fxsql.startup.Bootstrap;
+import org.fxsql.startup.CdsArchive;
+import org.fxsql.startup.StartupBenchmark;
 
-import java.io.IOException;
 import java.util.Objects;
+import java.util.concurrent.Callable;
 
 public class MainApplication extends Application {
 
@@ -31,9 +34,9 @@ public class MainApplication extends Application {
     }
 
     @Override
-    public void init() {
+    public void init() throws Exception {
         // Guice setup runs on the launcher thread (not FX thread) — no UI lag
-        injector = Guice.createInjector(new DatabaseModule());
+        injector = Bootstrap.get().critical("Create injector", () -> Guice.createInjector(new DatabaseModule()));
     }
 
     @Override
@@ -46,18 +49,18 @@ public class MainApplication extends Application {
         // Load main UI in the background
         Task<Parent> loadTask = new Task<>() {
             @Override
-            protected Parent call() throws IOException {
+            protected Parent call() throws Exception {
                 FXMLLoader fxmlLoader = new FXMLLoader(
                         getClass().getClassLoader().getResource("main.fxml"),
                         null, null, injector::getInstance
                 );
-                Parent root = fxmlLoader.load();
+                Parent root = Bootstrap.get().critical("Load main window", (Callable<Parent>) fxmlLoader::load);
                 mainController = fxmlLoader.getController();
                 return root;
             }
         };
 
-        loadTask.setOnSucceeded(event -> {
+        loadTask.setOnSucceeded(event -> Bootstrap.get().critical("Show main window", () -> {
             Parent root = loadTask.getValue();
             Scene scene = new Scene(root, 1200, 800);
 
@@ -82,7 +85,19 @@ public class MainApplication extends Application {
             primaryStage.show();
 
             splashStage.close();
-        });
+            // Queued behind showing the window, so the critical path ends once it is on screen
+            Platform.runLater(() -> {
+                Bootstrap.get().firstFrameShown();
+                if (StartupBenchmark.isBenchmarkRun()) {
+                    StartupBenchmark.reportFirstFrame(Bootstrap.get().getFirstFrameMillis());
+                    Platform.exit();
+                }
+            });
+            if (CdsArchive.isTraining()) {
+                // Registered last, so it runs after every other idle step has loaded its classes
+                Bootstrap.get().whenIdle("Finish class data sharing training", Platform::exit);
+            }
+        }));
 
         loadTask.setOnFailed(event -> {
             splashStage.close();
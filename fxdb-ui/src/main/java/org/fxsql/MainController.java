@@ -2,6 +2,7 @@ package org.fxsql;
 
 import atlantafx.base.controls.Tile;
 import com.google.inject.Inject;
+import com.google.inject.Provider;
 import javafx.application.Platform;
 import javafx.collections.FXCollections;
 import javafx.concurrent.Task;
@@ -16,6 +17,8 @@ import org.dockfx.DockPos;
 import org.fxsql.components.AboutPane;
 import org.fxsql.components.AppMenuBar;
 import org.fxsql.components.EditableTablePane;
+import org.fxsql.components.ObjectFinderPopup;
+import org.fxsql.components.StartupReportPane;
 import org.fxsql.components.alerts.StackTraceAlert;
 import org.fxsql.components.notifications.NotificationContainer;
 import org.fxsql.components.sqlScriptExecutor.SQLScriptPane;
@@ -42,7 +45,9 @@ import org.fxdb.plugin.sdk.runtime.FXPluginRegistry;
 import org.fxdb.plugin.sdk.ui.PluginUIContext;
 import org.fxsql.service.WindowManager;
 import org.fxsql.service.WindowManager.WindowResult;
+import org.fxsql.schema.ObjectNameIndex;
 import org.fxsql.services.DynamicSQLView;
+import org.fxsql.startup.Bootstrap;
 import org.fxsql.workspace.WorkspaceManager;
 import org.fxsql.workspace.WorkspaceState;
 
@@ -50,6 +55,7 @@ import java.sql.SQLException;
 import java.util.HashSet;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.logging.Logger;
@@ -97,17 +103,25 @@ public class MainController {
     private DatabaseManager databaseManager;
 
     private DynamicSQLView dynamicSQLView;
+    private final ObjectNameIndex objectIndex = new ObjectNameIndex();
+    private ObjectFinderPopup objectFinder;
+    // Opened once the connection it belongs to has been switched to
+    private ObjectNameIndex.Match pendingObject;
     private ComboBox<String> tileComboBox;
     private JDBCDriverLoader jdbcLoader;
 
+    // Both read their state from disk when created, so they are created when idle rather than before the first frame
     @Inject
-    private DriverDownloader driverDownloader;
+    private Provider<DriverDownloader> driverDownloader;
     @Inject
     private WindowManager windowManager;
     @Inject
-    private PluginManager pluginManager;
+    private Provider<PluginManager> pluginManager;
 
+    // Created once, by the background startup step or on first use, whichever comes first
+    private final Object workspaceLock = new Object();
     private WorkspaceManager workspaceManager;
+    private final CompletableFuture<WorkspaceManager> workspaceReady = new CompletableFuture<>();
     private String currentConnectionName = "none";
 
     @FXML
@@ -138,6 +152,7 @@ public class MainController {
 
         logger.info("Refreshing database objects for: " + connectionName);
         dynamicSQLView.setDatabaseConnection(connection);
+        dynamicSQLView.setConnectionName(connectionName);
         dynamicSQLView.loadTableNames();
     }
 
@@ -169,7 +184,7 @@ public class MainController {
                 var currentConnection = dynamicSQLView.getDatabaseConnection();
                 if (currentConnection != null && currentConnection.isConnected()) {
                     System.out.println("Disconnecting current connection");
-                    currentConnection.disconnect();
+                    databaseManager.disconnect(currentConnection);
                 }
 
                 DatabaseConnection existingConnection = metaData.getDatabaseConnection();
@@ -188,10 +203,16 @@ public class MainController {
             if (result != null) {
                 if (result.isConnected()) {
                     dynamicSQLView.setDatabaseConnection(result);
+                    dynamicSQLView.setConnectionName(connectionName);
+                    if (pendingObject != null && pendingObject.connection().equals(connectionName)) {
+                        // The tree still shows the previous connection until the load below is applied
+                        dynamicSQLView.openObjectWhenLoaded(connectionName, pendingObject.kind(), pendingObject.name());
+                    }
                     dynamicSQLView.loadTableNames();
                     updateSqlDialectLabel(connectionName);
                     notificationContainer.showSuccess("Connected to " + connectionName);
                 }
+                pendingObject = null;
                 logger.info("Table names loaded for connection: " + connectionName);
             }
         });
@@ -239,9 +260,8 @@ public class MainController {
                     connections.add("none");
                     connections.addAll(databaseManager.getConnectionList());
 
-                    tileComboBox.setItems(FXCollections.observableArrayList(connections));
-
                     Platform.runLater(() -> {
+                        tileComboBox.setItems(FXCollections.observableArrayList(connections));
                         tileComboBox.getSelectionModel().select("none");
                         databaseSelectorTile.setAction(tileComboBox);
                     });
@@ -271,7 +291,7 @@ public class MainController {
                 }
             }
         });
-        task.run();
+        Bootstrap.get().deferInBackground("Load stored connections", task);
     }
 
     private boolean hasUnsavedChanges() {
@@ -342,13 +362,10 @@ public class MainController {
             return;
         }
 
-        if (workspaceManager == null) {
-            workspaceManager = new WorkspaceManager();
-        }
-
-        WorkspaceState state = workspaceManager.getWorkspace(currentConnectionName);
+        WorkspaceManager manager = workspaceManager();
+        WorkspaceState state = manager.getWorkspace(currentConnectionName);
         if (state == null) {
-            state = workspaceManager.createWorkspace(currentConnectionName);
+            state = manager.createWorkspace(currentConnectionName);
         }
 
         if (actionTabPane != null) {
@@ -364,7 +381,7 @@ public class MainController {
             }
         }
 
-        workspaceManager.saveWorkspace(state);
+        manager.saveWorkspace(state);
         notificationContainer.showInfo("Workspace saved for " + currentConnectionName);
         logger.info("Workspace saved for connection: " + currentConnectionName);
     }
@@ -410,11 +427,28 @@ public class MainController {
 
         loadConnection(connectionName);
 
-        if (workspaceManager != null) {
-            WorkspaceState savedState = workspaceManager.getWorkspace(connectionName);
+        // Waits for the workspaces if they are still being loaded at startup
+        workspaceReady.thenAcceptAsync(manager -> {
+            if (!connectionName.equals(currentConnectionName)) {
+                return;
+            }
+            WorkspaceState savedState = manager.getWorkspace(connectionName);
             if (savedState != null && savedState.getCurrentTableName() != null) {
                 notificationContainer.showInfo("Previous workspace available for " + connectionName);
             }
+        }, Platform::runLater);
+    }
+
+    /**
+     * Returns the workspace manager, creating it on first use.
+     */
+    private WorkspaceManager workspaceManager() {
+        synchronized (workspaceLock) {
+            if (workspaceManager == null) {
+                workspaceManager = new WorkspaceManager();
+                workspaceReady.complete(workspaceManager);
+            }
+            return workspaceManager;
         }
     }
 
@@ -462,6 +496,7 @@ public class MainController {
         Optional<ButtonType> result = confirmDialog.showAndWait();
         if (result.isPresent() && result.get() == ButtonType.OK) {
             databaseManager.removeConnection(connectionName);
+            objectIndex.remove(connectionName);
             refreshConnectionList();
             notificationContainer.showSuccess("Connection removed: " + connectionName);
             logger.info("Connection removed: " + connectionName);
@@ -476,19 +511,24 @@ public class MainController {
         tileComboBox.getSelectionModel().select("none");
     }
 
+    /**
+     * Builds the main window. Only what the first frame needs runs here; loading connections,
+     * drivers and workspaces waits until the window is shown, see {@link Bootstrap}.
+     */
     public void initialize() {
+        Bootstrap bootstrap = Bootstrap.get();
+
         // Initialize DockFX layout
-        initializeDockLayout();
+        bootstrap.critical("Dock layout", this::initializeDockLayout);
 
         appMenuBar.setDatabaseManager(databaseManager);
-        appMenuBar.setDriverDownloader(driverDownloader);
         appMenuBar.setWindowManager(windowManager);
         jdbcLoader = new JDBCDriverLoader();
 
-        workspaceManager = new WorkspaceManager();
+        bootstrap.deferInBackground("Load workspaces", this::workspaceManager);
 
         // Load JDBC drivers in background
-        jdbcLoader.loadAllDriversOnStartupAsync(
+        bootstrap.defer("Start JDBC driver loading", () -> jdbcLoader.loadAllDriversOnStartupAsync(
                 result -> {
                     Platform.runLater(() -> {
                         driverLoadProgressBar.setVisible(false);
@@ -506,21 +546,28 @@ public class MainController {
                         driverLoadProgressBar.setManaged(true);
                         driverLoadProgressBar.setProgress(progress.getPercentage() / 100.0);
                     });
-                });
+                }));
 
         driverEventListener.setNotificationContainer(notificationContainer);
 
         // Add the About tab as the default landing page
-        Tab aboutTab = new Tab("About");
-        FontIcon aboutIcon = new FontIcon(Feather.INFO);
-        aboutIcon.setIconSize(12);
-        aboutTab.setGraphic(aboutIcon);
-        aboutTab.setContent(new AboutPane());
-        actionTabPane.getTabs().add(aboutTab);
+        bootstrap.critical("About tab", () -> {
+            Tab aboutTab = new Tab("About");
+            FontIcon aboutIcon = new FontIcon(Feather.INFO);
+            aboutIcon.setIconSize(12);
+            aboutTab.setGraphic(aboutIcon);
+            aboutTab.setContent(new AboutPane());
+            actionTabPane.getTabs().add(aboutTab);
+        });
 
         // Set up the SQL table view and table browser
-        dynamicSQLView = new DynamicSQLView(null, tableBrowser);
-        dynamicSQLView.setTabPane(actionTabPane);
+        bootstrap.critical("Table browser", () -> {
+            dynamicSQLView = new DynamicSQLView(null, tableBrowser);
+            dynamicSQLView.setTabPane(actionTabPane);
+            dynamicSQLView.setObjectIndex(objectIndex);
+            connectionDockNode.getFilterField().textProperty().addListener(
+                    (obs, oldText, newText) -> dynamicSQLView.setFilter(newText));
+        });
 
         // Set up plugin browser tree (hidden bridge — PluginDockNode listens and creates tabs)
         TreeItem<String> pluginBrowserRoot = new TreeItem<>("Plugins");
@@ -538,7 +585,7 @@ public class MainController {
                 pluginBrowserSeparator, pluginBrowserHeader);
         FXPluginRegistry.INSTANCE.addInstance("ui.context", uiContext);
 
-        setDatabaseSelectorTile();
+        bootstrap.critical("Database selector", this::setDatabaseSelectorTile);
 
         // Wire refresh button
         connectionDockNode.getRefreshButton().setOnAction(e -> onRefreshData());
@@ -551,7 +598,9 @@ public class MainController {
         // Set up file open callback for AppMenuBar
         appMenuBar.setOnOpenSqlFile(this::openSqlFileInTab);
         appMenuBar.setOnShowAbout(this::showAboutTab);
+        appMenuBar.setOnShowStartupReport(this::showStartupReportTab);
         appMenuBar.setOnShowExplorer(this::showExplorerPanel);
+        appMenuBar.setOnGoToObject(this::showObjectFinder);
 
         // Set up Explorer event handlers
         explorerDockNode.getFileExplorerPane().setupContextMenu();
@@ -565,6 +614,26 @@ public class MainController {
             Workspace ws = ((FxdbDockEvent<Workspace>) event).getPayload();
             ws.getFiles().forEach(this::openSqlFileByPath);
         });
+
+        bootstrap.whenIdle("Driver references", () -> appMenuBar.setDriverDownloader(driverDownloader.get()));
+        bootstrap.whenIdle("Plugin manifest", pluginManager::get);
+        bootstrap.whenIdle("Preload SQL editor", this::preloadSqlEditor);
+    }
+
+    /**
+     * Loads and initializes the classes behind the first SQL tab, so opening it does not pay for it.
+     */
+    private void preloadSqlEditor() {
+        ClassLoader loader = getClass().getClassLoader();
+        try {
+            Class.forName("org.fxsql.components.sqlScriptExecutor.SQLHighlighter", true, loader);
+            Class.forName("org.fxsql.sql.SQLSplitter", true, loader);
+            // Controls are only loaded; initializing them is left to the JavaFX thread
+            Class.forName("org.fxmisc.richtext.CodeArea", false, loader);
+            Class.forName("org.fxsql.components.sqlScriptExecutor.SQLScriptPane", false, loader);
+        } catch (ClassNotFoundException e) {
+            logger.fine("Could not preload SQL editor: " + e.getMessage());
+        }
     }
 
     private void initializeDockLayout() {
@@ -776,6 +845,30 @@ public class MainController {
         }
     }
 
+    private void showObjectFinder() {
+        if (objectFinder == null) {
+            objectFinder = new ObjectFinderPopup(objectIndex, this::openFoundObject);
+        }
+        objectFinder.show(actionTabPane.getScene().getWindow());
+    }
+
+    /**
+     * Opens an object found by the object finder, switching to its connection first if needed.
+     */
+    private void openFoundObject(ObjectNameIndex.Match match) {
+        DatabaseConnection current = dynamicSQLView.getDatabaseConnection();
+        if (match.connection().equals(tileComboBox.getValue()) && current != null && current.isConnected()) {
+            dynamicSQLView.openObject(match.kind(), match.name());
+            return;
+        }
+        pendingObject = match;
+        if (match.connection().equals(tileComboBox.getValue())) {
+            loadConnection(match.connection());
+        } else {
+            tileComboBox.setValue(match.connection());
+        }
+    }
+
     private void showAboutTab() {
         for (Tab tab : actionTabPane.getTabs()) {
             if (tab.getContent() instanceof AboutPane) {
@@ -793,6 +886,24 @@ public class MainController {
         actionTabPane.getSelectionModel().select(aboutTab);
     }
 
+    private void showStartupReportTab() {
+        for (Tab tab : actionTabPane.getTabs()) {
+            if (tab.getContent() instanceof StartupReportPane reportPane) {
+                reportPane.refresh();
+                actionTabPane.getSelectionModel().select(tab);
+                return;
+            }
+        }
+
+        Tab reportTab = new Tab("Startup Report");
+        FontIcon reportIcon = new FontIcon(Feather.ACTIVITY);
+        reportIcon.setIconSize(12);
+        reportTab.setGraphic(reportIcon);
+        reportTab.setContent(new StartupReportPane());
+        actionTabPane.getTabs().add(reportTab);
+        actionTabPane.getSelectionModel().select(reportTab);
+    }
+
     private void updateSqlDialectLabel(String connectionName) {
         ConnectionMetaData metaData = databaseManager.getConnectionMetaData(connectionName);
         if (metaData != null && metaData.getDatabaseType() != null) {
@@ -814,7 +925,7 @@ public class MainController {
             dynamicSQLView.shutdown();
         }
         if (pluginManager != null) {
-            pluginManager.shutdown();
+            pluginManager.get().shutdown();
         }
         if (actionTabPane != null) {
             for (Tab tab : actionTabPane.getTabs()) {
@@ -28,7 +28,9 @@ public class AppMenuBar extends MenuBar {
     private WindowManager windowManager;
     private Consumer<File> onOpenSqlFile;
     private Runnable onShowAbout;
+    private Runnable onShowStartupReport;
     private Runnable onShowExplorer;
+    private Runnable onGoToObject;
 
     public AppMenuBar() {
         getMenus().addAll(fileMenu(), editMenu(), viewMenu(), toolsMenu());
@@ -57,10 +59,18 @@ public class AppMenuBar extends MenuBar {
         this.onShowAbout = callback;
     }
 
+    public void setOnShowStartupReport(Runnable callback) {
+        this.onShowStartupReport = callback;
+    }
+
     public void setOnShowExplorer(Runnable callback) {
         this.onShowExplorer = callback;
     }
 
+    public void setOnGoToObject(Runnable callback) {
+        this.onGoToObject = callback;
+    }
+
     private Menu fileMenu() {
         Menu menu = new Menu("_File");
         menu.setMnemonicParsing(true);
@@ -155,6 +165,14 @@ public class AppMenuBar extends MenuBar {
             }
         });
 
+        var goToObjectItem = createItem("_Go to Object...", Feather.SEARCH, new KeyCodeCombination(KeyCode.O, KeyCombination.CONTROL_DOWN, KeyCombination.SHIFT_DOWN));
+        goToObjectItem.setMnemonicParsing(true);
+        goToObjectItem.setOnAction(event -> {
+            if (onGoToObject != null) {
+                onGoToObject.run();
+            }
+        });
+
         var aboutItem = createItem("_About", Feather.INFO, null);
         aboutItem.setMnemonicParsing(true);
         aboutItem.setOnAction(event -> {
@@ -163,7 +181,15 @@ public class AppMenuBar extends MenuBar {
             }
         });
 
-        menu.getItems().addAll(settingsItem, new SeparatorMenuItem(), explorerItem, new SeparatorMenuItem(), aboutItem);
+        var startupReportItem = createItem("Startup Report", Feather.ACTIVITY, null);
+        startupReportItem.setOnAction(event -> {
+            if (onShowStartupReport != null) {
+                onShowStartupReport.run();
+            }
+        });
+
+        menu.getItems().addAll(settingsItem, new SeparatorMenuItem(), explorerItem, goToObjectItem, new SeparatorMenuItem(),
+                startupReportItem, aboutItem);
         return menu;
     }
 
@@ -16,12 +16,17 @@ import javafx.scene.layout.Region;
 import javafx.scene.layout.VBox;
 import javafx.util.StringConverter;
 import org.fxsql.DatabaseConnection;
+import org.fxsql.components.windows.ResultExportWindow;
 import org.fxsql.model.RowChange;
+import org.fxsql.pool.ConnectionLease;
+import org.fxsql.pool.ConnectionPool;
+import org.fxsql.result.QueryResultCache;
+import org.fxsql.result.ResultBuffer;
+import org.fxsql.result.TablePager;
+import org.fxsql.services.RowChangeWriter;
 import org.kordamp.ikonli.feather.Feather;
 import org.kordamp.ikonli.javafx.FontIcon;
 
-import java.sql.ResultSet;
-import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.util.*;
 import java.util.concurrent.ExecutorService;
@@ -37,7 +42,7 @@ public class EditableTablePane extends VBox {
     private static final Logger logger = Logger.getLogger(EditableTablePane.class.getName());
     private static final int[] PAGE_SIZE_OPTIONS = {25, 50, 100, 200, 500};
     private static final int DEFAULT_PAGE_SIZE = 100;
-    private static final int MAX_ROWS = 10000;
+    private static final int SCROLL_BLOCK_SIZE = 200;
 
     // UI Components
     private final TableView<ObservableList<Object>> tableView;
@@ -53,6 +58,7 @@ public class EditableTablePane extends VBox {
     private final Button addRowButton;
     private final Button deleteRowButton;
     private final Button refreshButton;
+    private final Button exportButton;
     private final ProgressIndicator progressIndicator;
     private final ConnectionStatusIndicator connectionStatusIndicator;
 
@@ -61,9 +67,18 @@ public class EditableTablePane extends VBox {
     private final Button prevButton;
     private final Button nextButton;
     private final Button lastButton;
+    private final ToggleButton scrollModeButton;
 
     // Data
-    private ObservableList<ObservableList<Object>> allData = FXCollections.observableArrayList();
+    // Pages are read from the server on demand and kept in column storage
+    private TablePager pager;
+    private ResultBuffer pageData;
+    // Editable row lists for the shown page and for rows with pending changes, by absolute row index
+    private final Map<Long, ObservableList<Object>> materializedRows = new HashMap<>();
+    // Rows added in the grid, newest first, shown above the current page until saved
+    private final List<ObservableList<Object>> addedRows = new ArrayList<>();
+    // Read-only list over the whole table while scroll mode is on, otherwise null
+    private VirtualRowList<ObservableList<Object>> scrollRows;
     private List<String> columnNames = new ArrayList<>();
     private List<Integer> columnTypes = new ArrayList<>();
     private String currentTableName;
@@ -74,7 +89,8 @@ public class EditableTablePane extends VBox {
     private int currentPage = 1;
     private int pageSize = DEFAULT_PAGE_SIZE;
     private int totalPages = 1;
-    private int totalRows = 0;
+    // Row count of the table, or -1 while it is being counted
+    private long totalRows = 0;
 
     // Change tracking
     private final Map<ObservableList<Object>, RowChange> pendingChanges = new LinkedHashMap<>();
@@ -106,11 +122,16 @@ public class EditableTablePane extends VBox {
         this.addRowButton = createIconButton(Feather.PLUS, "Add a new row");
         this.deleteRowButton = createIconButton(Feather.TRASH_2, "Delete selected row");
         this.refreshButton = createIconButton(Feather.REFRESH_CW, "Reload data");
+        this.exportButton = createIconButton(Feather.DOWNLOAD, "Export all rows to a file");
 
         this.firstButton = createIconButton(Feather.CHEVRONS_LEFT, "First page");
         this.prevButton = createIconButton(Feather.CHEVRON_LEFT, "Previous page");
         this.nextButton = createIconButton(Feather.CHEVRON_RIGHT, "Next page");
         this.lastButton = createIconButton(Feather.CHEVRONS_RIGHT, "Last page");
+        this.scrollModeButton = new ToggleButton();
+        this.scrollModeButton.setGraphic(new FontIcon(Feather.LIST));
+        this.scrollModeButton.setTooltip(new Tooltip("Scroll through all rows (read-only)"));
+        this.scrollModeButton.getStyleClass().addAll(Styles.BUTTON_ICON, Styles.FLAT);
 
         setupUI();
         setupEventHandlers();
@@ -150,6 +171,7 @@ public class EditableTablePane extends VBox {
                 progressIndicator,
                 statusLabel,
                 new Separator(),
+                exportButton,
                 refreshButton
         );
 
@@ -185,7 +207,9 @@ public class EditableTablePane extends VBox {
                 new Label("of"),
                 pageInfoLabel,
                 nextButton,
-                lastButton
+                lastButton,
+                new Separator(),
+                scrollModeButton
         );
 
         totalRowsLabel.getStyleClass().addAll(Styles.TEXT_SMALL, Styles.TEXT_BOLD);
@@ -202,8 +226,10 @@ public class EditableTablePane extends VBox {
         pageSizeCombo.valueProperty().addListener((obs, oldVal, newVal) -> {
             if (newVal != null) {
                 pageSize = newVal;
-                currentPage = 1;
-                updateTableData();
+                if (pager != null) {
+                    pager.setPageSize(newVal);
+                }
+                goToPage(1);
             }
         });
 
@@ -227,10 +253,12 @@ public class EditableTablePane extends VBox {
         saveButton.setOnAction(e -> saveChanges());
         discardButton.setOnAction(e -> discardChanges());
         refreshButton.setOnAction(e -> refreshData());
+        exportButton.setOnAction(e -> exportTable());
+        scrollModeButton.setOnAction(e -> setScrollMode(scrollModeButton.isSelected()));
 
         // Selection change
         tableView.getSelectionModel().selectedItemProperty().addListener((obs, oldVal, newVal) -> {
-            deleteRowButton.setDisable(newVal == null);
+            deleteRowButton.setDisable(newVal == null || scrollRows != null);
         });
     }
 
@@ -276,75 +304,58 @@ public class EditableTablePane extends VBox {
         Task<Void> loadTask = new Task<>() {
             @Override
             protected Void call() throws Exception {
-                String query = "SELECT * FROM " + tableName + " LIMIT " + MAX_ROWS;
-                ResultSet rs = connection.executeReadQuery(query);
-
-                if (rs == null) {
-                    throw new SQLException("No result returned");
-                }
-
-                ResultSetMetaData metaData = rs.getMetaData();
-                int columnCount = metaData.getColumnCount();
+                TablePager tablePager = TablePager.forTable(connection, tableName, pageSize);
+                ResultBuffer firstPage = tablePager.getPage(0);
 
                 // Get column info
-                List<String> cols = new ArrayList<>();
+                List<String> cols = new ArrayList<>(firstPage.getColumnNames());
                 List<Integer> types = new ArrayList<>();
-                int pkIndex = -1;
-
-                for (int i = 1; i <= columnCount; i++) {
-                    String colName = metaData.getColumnLabel(i);
-                    if (colName == null || colName.isEmpty()) {
-                        colName = metaData.getColumnName(i);
-                    }
-                    cols.add(colName);
-                    types.add(metaData.getColumnType(i));
-
-                    // Try to detect primary key (simple heuristic)
-                    if (pkIndex < 0 && (colName.equalsIgnoreCase("id") ||
-                            colName.toLowerCase().endsWith("_id") ||
-                            colName.toLowerCase().endsWith("id"))) {
-                        pkIndex = i - 1;
-                    }
+                for (int i = 0; i < firstPage.getColumnCount(); i++) {
+                    types.add(firstPage.getColumnType(i));
                 }
-
-                // Get row data
-                List<ObservableList<Object>> rows = new ArrayList<>();
-                while (rs.next()) {
-                    ObservableList<Object> row = FXCollections.observableArrayList();
-                    for (int i = 1; i <= columnCount; i++) {
-                        Object value = rs.getObject(i);
-                        row.add(value);
-                    }
-                    rows.add(row);
-                }
-
-                rs.close();
+                int pkIndex = findPrimaryKeyIndex(cols, tablePager.getKeyColumns());
 
                 final List<String> finalCols = cols;
                 final List<Integer> finalTypes = types;
                 final int finalPkIndex = pkIndex;
-                final List<ObservableList<Object>> finalRows = rows;
 
                 Platform.runLater(() -> {
                     columnNames = finalCols;
                     columnTypes = finalTypes;
                     primaryKeyIndex = finalPkIndex;
-                    allData = FXCollections.observableArrayList(finalRows);
-                    totalRows = finalRows.size();
+                    pager = tablePager;
+                    materializedRows.clear();
+                    addedRows.clear();
+                    totalRows = -1;
 
                     setupColumns();
-                    calculateTotalPages();
+                    exitScrollMode();
                     currentPage = 1;
-                    updateTableData();
-                    updateButtonStates();
-                    updateLabels();
                     clearPendingChanges();
+                    showPage(firstPage);
 
                     setLoading(false);
-                    statusLabel.setText("Loaded " + totalRows + " rows from " + tableName);
+                    statusLabel.setText("Loaded " + tableName + (tablePager.isKeyset() ? "" : " (no primary key, using OFFSET paging)"));
                     connectionStatusIndicator.setStatus(ConnectionStatusIndicator.Status.CONNECTED);
                 });
 
+                // Count after the first page is shown so it doesn't delay it
+                long count;
+                try {
+                    count = tablePager.countRows();
+                } catch (SQLException e) {
+                    logger.log(Level.WARNING, "Failed to count rows of " + tableName, e);
+                    return null;
+                }
+                Platform.runLater(() -> {
+                    if (pager == tablePager) {
+                        totalRows = count;
+                        calculateTotalPages();
+                        updateLabels();
+                        updateButtonStates();
+                    }
+                });
+
                 return null;
             }
         };
@@ -362,6 +373,35 @@ public class EditableTablePane extends VBox {
         executor.submit(loadTask);
     }
 
+    /**
+     * Picks the column used to identify rows in UPDATE and DELETE statements: the primary key
+     * if it is a single column, all columns for composite keys, and a name heuristic for tables
+     * without a declared key.
+     */
+    private static int findPrimaryKeyIndex(List<String> cols, List<String> keyColumns) {
+        if (keyColumns.size() == 1) {
+            for (int i = 0; i < cols.size(); i++) {
+                if (cols.get(i).equalsIgnoreCase(keyColumns.get(0))) {
+                    return i;
+                }
+            }
+        }
+        if (!keyColumns.isEmpty()) {
+            return -1;
+        }
+
+        // Try to detect primary key (simple heuristic)
+        for (int i = 0; i < cols.size(); i++) {
+            String colName = cols.get(i);
+            if (colName.equalsIgnoreCase("id") ||
+                    colName.toLowerCase().endsWith("_id") ||
+                    colName.toLowerCase().endsWith("id")) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
     private void setupColumns() {
         tableView.getColumns().clear();
 
@@ -372,7 +412,8 @@ public class EditableTablePane extends VBox {
             // Cell value factory
             column.setCellValueFactory(param -> {
                 ObservableList<Object> row = param.getValue();
-                if (colIndex < row.size()) {
+                // Rows of scroll mode are null while they load
+                if (row != null && colIndex < row.size()) {
                     return new SimpleObjectProperty<>(row.get(colIndex));
                 }
                 return new SimpleObjectProperty<>(null);
@@ -429,16 +470,13 @@ public class EditableTablePane extends VBox {
             newRow.add(null);
         }
 
-        allData.add(0, newRow);
+        addedRows.add(0, newRow);
         newRows.add(newRow);
-        totalRows++;
 
         RowChange change = new RowChange(RowChange.ChangeType.INSERT, currentTableName,
                 null, newRow, columnNames, primaryKeyIndex);
         pendingChanges.put(newRow, change);
 
-        calculateTotalPages();
-        currentPage = 1;
         updateTableData();
         updateLabels();
         updateButtonStates();
@@ -467,10 +505,9 @@ public class EditableTablePane extends VBox {
         if (result.isPresent() && result.get() == ButtonType.OK) {
             if (newRows.contains(selectedRow)) {
                 // Remove unsaved new row immediately
-                allData.remove(selectedRow);
+                addedRows.remove(selectedRow);
                 newRows.remove(selectedRow);
                 pendingChanges.remove(selectedRow);
-                totalRows--;
             } else {
                 // Mark existing row for deletion
                 deletedRows.add(selectedRow);
@@ -501,7 +538,7 @@ public class EditableTablePane extends VBox {
         Alert confirm = new Alert(Alert.AlertType.CONFIRMATION);
         confirm.setTitle("Confirm Save");
         confirm.setHeaderText("Save " + getTotalPendingChanges() + " change(s)?");
-        confirm.setContentText("This will execute the following SQL statements.");
+        confirm.setContentText("All changes are written in one transaction.");
 
         Optional<ButtonType> result = confirm.showAndWait();
         if (result.isEmpty() || result.get() != ButtonType.OK) {
@@ -511,41 +548,31 @@ public class EditableTablePane extends VBox {
         setLoading(true);
         statusLabel.setText("Saving changes...");
 
-        Task<Integer> saveTask = new Task<>() {
-            @Override
-            protected Integer call() throws Exception {
-                int successCount = 0;
-                List<String> errors = new ArrayList<>();
-
-                for (RowChange change : pendingChanges.values()) {
-                    String sql = change.toSql();
-                    if (sql == null || sql.isEmpty()) {
-                        continue;
-                    }
-
-                    try {
-                        logger.info("Executing: " + sql);
-                        databaseConnection.executeWriteQuery(sql);
-                        successCount++;
-                    } catch (SQLException e) {
-                        errors.add(e.getMessage());
-                        logger.log(Level.WARNING, "Failed to execute: " + sql, e);
-                    }
-                }
+        // Snapshot the changes; the writer runs off the FX thread
+        List<RowChange> changes = new ArrayList<>(pendingChanges.values());
+        List<Integer> types = new ArrayList<>(columnTypes);
+        String tableName = currentTableName;
 
-                if (!errors.isEmpty()) {
-                    throw new SQLException("Some operations failed: " + String.join("; ", errors));
+        Task<RowChangeWriter.SaveResult> saveTask = new Task<>() {
+            @Override
+            protected RowChangeWriter.SaveResult call() throws Exception {
+                try (ConnectionLease lease = ConnectionPool.lease(databaseConnection)) {
+                    return new RowChangeWriter(lease.connection().getConnection(), types).save(changes);
+                } finally {
+                    QueryResultCache.invalidateTable(databaseConnection, tableName);
                 }
-
-                return successCount;
             }
         };
 
         saveTask.setOnSucceeded(event -> {
-            int count = saveTask.getValue();
+            RowChangeWriter.SaveResult saveResult = saveTask.getValue();
             Platform.runLater(() -> {
                 setLoading(false);
-                statusLabel.setText("Saved " + count + " change(s) successfully");
+                if (!saveResult.isSuccess()) {
+                    showSaveErrors(saveResult.getErrors());
+                    return;
+                }
+                statusLabel.setText("Saved " + saveResult.getSavedCount() + " change(s) successfully");
                 statusLabel.getStyleClass().removeAll(Styles.DANGER);
                 statusLabel.getStyleClass().add(Styles.SUCCESS);
 
@@ -565,6 +592,27 @@ public class EditableTablePane extends VBox {
         executor.submit(saveTask);
     }
 
+    /**
+     * Reports rows that failed to save. Nothing was written, so the changes stay pending.
+     */
+    private void showSaveErrors(List<RowChangeWriter.RowError> errors) {
+        showError("Save failed, no changes were written: " + errors.get(0)
+                + (errors.size() > 1 ? " (and " + (errors.size() - 1) + " more)" : ""));
+
+        StringBuilder details = new StringBuilder();
+        for (RowChangeWriter.RowError error : errors) {
+            details.append(error).append('\n');
+        }
+        Alert alert = new Alert(Alert.AlertType.ERROR);
+        alert.setTitle("Save Failed");
+        alert.setHeaderText(errors.size() + " row(s) could not be saved. All changes were rolled back.");
+        TextArea textArea = new TextArea(details.toString());
+        textArea.setEditable(false);
+        textArea.setWrapText(true);
+        alert.getDialogPane().setContent(textArea);
+        alert.show();
+    }
+
     private void discardChanges() {
         if (pendingChanges.isEmpty()) {
             statusLabel.setText("No changes to discard");
@@ -588,6 +636,16 @@ public class EditableTablePane extends VBox {
         }
     }
 
+    /**
+     * Exports every row of the table, not just the loaded pages. Pending edits are not included.
+     */
+    private void exportTable() {
+        if (currentTableName != null && databaseConnection != null) {
+            ResultExportWindow.open(getScene().getWindow(), databaseConnection,
+                    "SELECT * FROM " + currentTableName, currentTableName);
+        }
+    }
+
     /**
      * Refreshes the data and resets to page 1.
      */
@@ -610,37 +668,187 @@ public class EditableTablePane extends VBox {
 
     // Pagination methods
     private void calculateTotalPages() {
-        int dataSize = allData.size() - deletedRows.size();
-        totalPages = Math.max(1, (int) Math.ceil((double) dataSize / pageSize));
+        if (totalRows < 0) {
+            // Not counted yet; allow moving on while pages come back full
+            boolean pageFull = pageData != null && pageData.getRowCount() >= pageSize;
+            totalPages = pageFull ? currentPage + 1 : currentPage;
+        } else {
+            totalPages = (int) Math.max(1, (totalRows + pageSize - 1) / pageSize);
+        }
     }
 
     private void goToPage(int page) {
         if (page < 1) page = 1;
         if (page > totalPages) page = totalPages;
         currentPage = page;
+
+        if (pager == null) {
+            updateTableData();
+            updateLabels();
+            updateButtonStates();
+            return;
+        }
+
+        ResultBuffer cached = pager.getCachedPage(page - 1);
+        if (cached != null) {
+            showPage(cached);
+            return;
+        }
+
+        TablePager tablePager = pager;
+        int requestedPage = page;
+        setLoading(true);
+        statusLabel.setText("Loading page " + page + "...");
+
+        Task<ResultBuffer> pageTask = new Task<>() {
+            @Override
+            protected ResultBuffer call() throws Exception {
+                return tablePager.getPage(requestedPage - 1);
+            }
+        };
+
+        pageTask.setOnSucceeded(event -> {
+            setLoading(false);
+            if (pager == tablePager && currentPage == requestedPage) {
+                statusLabel.setText("");
+                showPage(pageTask.getValue());
+            }
+        });
+
+        pageTask.setOnFailed(event -> {
+            setLoading(false);
+            Throwable ex = pageTask.getException();
+            showError("Failed to load page: " + (ex != null ? ex.getMessage() : "Unknown error"));
+            logger.log(Level.SEVERE, "Failed to load page " + requestedPage, ex);
+        });
+
+        executor.submit(pageTask);
+    }
+
+    /**
+     * Shows a page of the current table and reads its neighbours in the background.
+     */
+    private void showPage(ResultBuffer page) {
+        pageData = page;
+
+        // Keep editable rows only for the new page and for rows with pending changes
+        Set<ObservableList<Object>> changedRows = Collections.newSetFromMap(new IdentityHashMap<>());
+        changedRows.addAll(pendingChanges.keySet());
+        materializedRows.values().removeIf(row -> !changedRows.contains(row));
+
+        calculateTotalPages();
         updateTableData();
         updateLabels();
         updateButtonStates();
+        prefetchNeighbours();
+    }
+
+    private void prefetchNeighbours() {
+        TablePager tablePager = pager;
+        int pageIndex = currentPage - 1;
+        executor.submit(() -> {
+            try {
+                tablePager.prefetch(pageIndex + 1);
+                if (pageIndex > 0) {
+                    tablePager.prefetch(pageIndex - 1);
+                }
+            } catch (SQLException e) {
+                logger.log(Level.FINE, "Failed to prefetch pages", e);
+            }
+        });
     }
 
     private void updateTableData() {
-        // Filter out deleted rows
-        List<ObservableList<Object>> visibleData = new ArrayList<>();
-        for (ObservableList<Object> row : allData) {
-            if (!deletedRows.contains(row)) {
-                visibleData.add(row);
+        ObservableList<ObservableList<Object>> rows = FXCollections.observableArrayList(addedRows);
+
+        if (pageData != null) {
+            long firstRow = (long) (currentPage - 1) * pageSize;
+            for (int i = 0; i < pageData.getRowCount(); i++) {
+                ObservableList<Object> row = rowAt(firstRow + i, i);
+                if (!deletedRows.contains(row)) {
+                    rows.add(row);
+                }
             }
         }
 
-        int fromIndex = (currentPage - 1) * pageSize;
-        int toIndex = Math.min(fromIndex + pageSize, visibleData.size());
+        tableView.setItems(rows);
+    }
 
-        if (fromIndex >= visibleData.size()) {
-            tableView.setItems(FXCollections.observableArrayList());
-        } else {
-            List<ObservableList<Object>> pageData = visibleData.subList(fromIndex, toIndex);
-            tableView.setItems(FXCollections.observableArrayList(pageData));
+    /**
+     * Returns the editable row for a row of the current page, creating it on first use.
+     */
+    private ObservableList<Object> rowAt(long rowIndex, int pageRow) {
+        return materializedRows.computeIfAbsent(rowIndex,
+                i -> FXCollections.observableArrayList(pageData.getRowValues(pageRow)));
+    }
+
+    /**
+     * Switches between paged editing and a read-only view that scrolls through the whole table.
+     */
+    private void setScrollMode(boolean enabled) {
+        if (!enabled) {
+            exitScrollMode();
+            goToPage(currentPage);
+            return;
+        }
+        if (scrollRows != null || pager == null) {
+            return;
+        }
+        if (hasUnsavedChanges()) {
+            scrollModeButton.setSelected(false);
+            showError("Save or discard pending changes before switching to scroll mode");
+            return;
         }
+
+        setLoading(true);
+        statusLabel.setText("Counting rows...");
+        TablePager pagedPager = pager;
+        long knownRows = totalRows;
+
+        Task<Long> countTask = new Task<>() {
+            @Override
+            protected Long call() throws Exception {
+                return knownRows >= 0 ? knownRows : pagedPager.countRows();
+            }
+        };
+
+        countTask.setOnSucceeded(event -> {
+            setLoading(false);
+            if (pager != pagedPager || !scrollModeButton.isSelected()) {
+                return;
+            }
+            totalRows = countTask.getValue();
+            TablePager blockPager = TablePager.withKeyColumns(databaseConnection, currentTableName,
+                    pagedPager.getKeyColumns(), SCROLL_BLOCK_SIZE);
+            blockPager.setRowCount(totalRows);
+            scrollRows = new VirtualRowList<>(blockPager, totalRows,
+                    (rows, i) -> FXCollections.observableArrayList(rows.getRowValues(i)), executor);
+            scrollRows.setOnError(ex -> showError("Failed to load rows: " + ex.getMessage()));
+
+            tableView.setEditable(false);
+            tableView.setItems(scrollRows);
+            statusLabel.setText("");
+            updateLabels();
+            updateButtonStates();
+        });
+
+        countTask.setOnFailed(event -> {
+            setLoading(false);
+            scrollModeButton.setSelected(false);
+            Throwable ex = countTask.getException();
+            showError("Failed to count rows: " + (ex != null ? ex.getMessage() : "Unknown error"));
+        });
+
+        executor.submit(countTask);
+    }
+
+    private void exitScrollMode() {
+        scrollModeButton.setSelected(false);
+        if (scrollRows == null) {
+            return;
+        }
+        scrollRows = null;
+        tableView.setEditable(true);
     }
 
     private void updateButtonStates() {
@@ -648,28 +856,47 @@ public class EditableTablePane extends VBox {
         firstButton.setDisable(currentPage <= 1);
         prevButton.setDisable(currentPage <= 1);
         nextButton.setDisable(currentPage >= totalPages);
-        lastButton.setDisable(currentPage >= totalPages);
+        lastButton.setDisable(currentPage >= totalPages || totalRows < 0);
 
         // CRUD buttons
         boolean hasChanges = !pendingChanges.isEmpty();
         saveButton.setDisable(!hasChanges);
         discardButton.setDisable(!hasChanges);
-        deleteRowButton.setDisable(tableView.getSelectionModel().getSelectedItem() == null);
+        deleteRowButton.setDisable(tableView.getSelectionModel().getSelectedItem() == null || scrollRows != null);
 
         boolean hasConnection = databaseConnection != null && databaseConnection.isConnected();
-        addRowButton.setDisable(!hasConnection || currentTableName == null);
+        addRowButton.setDisable(!hasConnection || currentTableName == null || scrollRows != null);
+        exportButton.setDisable(!hasConnection || currentTableName == null);
+        scrollModeButton.setDisable(pager == null);
+
+        if (scrollRows != null) {
+            firstButton.setDisable(true);
+            prevButton.setDisable(true);
+            nextButton.setDisable(true);
+            lastButton.setDisable(true);
+            pageSizeCombo.setDisable(true);
+            pageInput.setDisable(true);
+        } else {
+            pageSizeCombo.setDisable(false);
+            pageInput.setDisable(false);
+        }
         refreshButton.setDisable(!hasConnection || currentTableName == null);
     }
 
     private void updateLabels() {
-        pageInfoLabel.setText(String.valueOf(totalPages));
+        if (scrollRows != null) {
+            totalRowsLabel.setText(String.format("%d rows (scroll mode)", scrollRows.size()));
+            return;
+        }
+        pageInfoLabel.setText(totalRows < 0 ? "?" : String.valueOf(totalPages));
         pageInput.setText(String.valueOf(currentPage));
 
-        int visibleCount = totalRows - deletedRows.size();
-        int fromRow = visibleCount == 0 ? 0 : (currentPage - 1) * pageSize + 1;
-        int toRow = Math.min(currentPage * pageSize, visibleCount);
+        int pageRows = pageData != null ? pageData.getRowCount() : 0;
+        long fromRow = pageRows == 0 ? 0 : (long) (currentPage - 1) * pageSize + 1;
+        long toRow = pageRows == 0 ? 0 : fromRow + pageRows - 1;
+        String total = totalRows < 0 ? "..." : String.valueOf(totalRows);
 
-        totalRowsLabel.setText(String.format("Showing %d-%d of %d rows", fromRow, toRow, visibleCount));
+        totalRowsLabel.setText(String.format("Showing %d-%d of %s rows", fromRow, toRow, total));
     }
 
     private void setLoading(boolean loading) {
@@ -718,8 +945,12 @@ public class EditableTablePane extends VBox {
      * Clears all data and pending changes without saving.
      */
     public void clearAllData() {
+        exitScrollMode();
         clearPendingChanges();
-        allData.clear();
+        pager = null;
+        pageData = null;
+        materializedRows.clear();
+        addedRows.clear();
         tableView.getItems().clear();
         tableView.getColumns().clear();
         columnNames.clear();
@@ -803,7 +1034,8 @@ public class EditableTablePane extends VBox {
                     setText(null);
                     setGraphic(textField);
                 } else {
-                    setText(getDisplayText(item));
+                    boolean loading = getTableRow() != null && getTableRow().getItem() == null;
+                    setText(loading ? "…" : getDisplayText(item));
                     setGraphic(null);
 
                     // Highlight modified/new/deleted rows using theme-aware colors
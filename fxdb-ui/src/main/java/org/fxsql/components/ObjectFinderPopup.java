@@ -0,0 +1,192 @@
+package org.fxsql.components;
+
+import atlantafx.base.theme.Styles;
+import javafx.application.Platform;
+import javafx.collections.FXCollections;
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.control.Label;
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ListView;
+import javafx.scene.control.TextField;
+import javafx.scene.input.KeyEvent;
+import javafx.scene.input.MouseButton;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.Region;
+import javafx.scene.layout.VBox;
+import javafx.stage.Popup;
+import javafx.stage.Window;
+import org.fxsql.schema.ObjectNameIndex;
+import org.kordamp.ikonli.feather.Feather;
+import org.kordamp.ikonli.javafx.FontIcon;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+/**
+ * Quick-open popup that finds tables, views and other objects by name across every connection
+ * whose schema has been loaded. Lookups run in the background as the user types, so a large
+ * index never stalls typing.
+ */
+public class ObjectFinderPopup extends Popup {
+
+    private static final int MAX_RESULTS = 50;
+    private static final double WIDTH = 520;
+
+    private final ObjectNameIndex index;
+    private final Consumer<ObjectNameIndex.Match> onOpen;
+    private final TextField queryField = new TextField();
+    private final ListView<ObjectNameIndex.Match> resultList = new ListView<>();
+    private final Label statusLabel = new Label();
+    private final ExecutorService searchExecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "Object-Finder");
+        t.setDaemon(true);
+        return t;
+    });
+
+    // Only the newest query's results are shown
+    private volatile long generation;
+
+    public ObjectFinderPopup(ObjectNameIndex index, Consumer<ObjectNameIndex.Match> onOpen) {
+        this.index = index;
+        this.onOpen = onOpen;
+        setAutoHide(true);
+        setupUI();
+    }
+
+    private void setupUI() {
+        queryField.setPromptText("Go to table, view, function...");
+        queryField.textProperty().addListener((obs, oldText, newText) -> search(newText));
+        queryField.addEventFilter(KeyEvent.KEY_PRESSED, this::handleKey);
+
+        resultList.setCellFactory(list -> new MatchCell());
+        resultList.setPrefHeight(320);
+        resultList.setPlaceholder(new Label("Type to search loaded connections"));
+        resultList.setOnMouseClicked(e -> {
+            if (e.getButton() == MouseButton.PRIMARY && e.getClickCount() == 2) {
+                openSelected();
+            }
+        });
+
+        statusLabel.getStyleClass().add(Styles.TEXT_MUTED);
+        statusLabel.setStyle("-fx-font-size: 11px;");
+
+        VBox content = new VBox(6, queryField, resultList, statusLabel);
+        content.setPadding(new Insets(8));
+        content.setPrefWidth(WIDTH);
+        content.setStyle("-fx-background-color: -color-bg-default; -fx-border-color: -color-border-default;"
+                + " -fx-border-width: 1; -fx-effect: dropshadow(gaussian, rgba(0,0,0,0.25), 12, 0, 0, 4);");
+        getContent().add(content);
+    }
+
+    /**
+     * Shows the popup near the top of the given window with the last query selected.
+     */
+    public void show(Window owner) {
+        show(owner, owner.getX() + (owner.getWidth() - WIDTH) / 2, owner.getY() + 80);
+        queryField.requestFocus();
+        queryField.selectAll();
+        search(queryField.getText());
+    }
+
+    private void search(String query) {
+        long current = ++generation;
+        searchExecutor.submit(() -> {
+            if (current != generation) {
+                return;
+            }
+            long start = System.nanoTime();
+            List<ObjectNameIndex.Match> matches = index.search(query, MAX_RESULTS);
+            double millis = (System.nanoTime() - start) / 1_000_000.0;
+            int indexed = index.size();
+            Platform.runLater(() -> {
+                if (current != generation) {
+                    return;
+                }
+                resultList.setItems(FXCollections.observableArrayList(matches));
+                if (!matches.isEmpty()) {
+                    resultList.getSelectionModel().selectFirst();
+                    resultList.scrollTo(0);
+                }
+                statusLabel.setText(String.format("%d of %,d objects, %.1f ms", matches.size(), indexed, millis));
+            });
+        });
+    }
+
+    private void handleKey(KeyEvent event) {
+        switch (event.getCode()) {
+            case DOWN -> {
+                resultList.getSelectionModel().selectNext();
+                resultList.scrollTo(resultList.getSelectionModel().getSelectedIndex());
+                event.consume();
+            }
+            case UP -> {
+                resultList.getSelectionModel().selectPrevious();
+                resultList.scrollTo(resultList.getSelectionModel().getSelectedIndex());
+                event.consume();
+            }
+            case ENTER -> {
+                openSelected();
+                event.consume();
+            }
+            case ESCAPE -> {
+                hide();
+                event.consume();
+            }
+            default -> {
+            }
+        }
+    }
+
+    private void openSelected() {
+        ObjectNameIndex.Match match = resultList.getSelectionModel().getSelectedItem();
+        if (match != null) {
+            hide();
+            onOpen.accept(match);
+        }
+    }
+
+    private static Feather iconFor(ObjectNameIndex.Kind kind) {
+        return switch (kind) {
+            case TABLE -> Feather.GRID;
+            case VIEW -> Feather.EYE;
+            case FUNCTION -> Feather.CODE;
+            case TRIGGER -> Feather.ZAP;
+            case INDEX -> Feather.LIST;
+        };
+    }
+
+    private static final class MatchCell extends ListCell<ObjectNameIndex.Match> {
+
+        private final FontIcon icon = new FontIcon(Feather.GRID);
+        private final Label nameLabel = new Label();
+        private final Label detailLabel = new Label();
+        private final HBox row;
+
+        MatchCell() {
+            icon.setIconSize(12);
+            detailLabel.getStyleClass().add(Styles.TEXT_MUTED);
+            detailLabel.setStyle("-fx-font-size: 11px;");
+            Region spacer = new Region();
+            HBox.setHgrow(spacer, Priority.ALWAYS);
+            row = new HBox(6, icon, nameLabel, spacer, detailLabel);
+            row.setAlignment(Pos.CENTER_LEFT);
+        }
+
+        @Override
+        protected void updateItem(ObjectNameIndex.Match match, boolean empty) {
+            super.updateItem(match, empty);
+            if (empty || match == null) {
+                setGraphic(null);
+                return;
+            }
+            icon.setIconCode(iconFor(match.kind()));
+            nameLabel.setText(match.name());
+            detailLabel.setText(match.kind().getLabel() + " in " + match.connection());
+            setGraphic(row);
+        }
+    }
+}
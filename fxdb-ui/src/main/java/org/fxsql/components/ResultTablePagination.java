@@ -170,10 +170,14 @@ public class ResultTablePagination<T> extends VBox {
      * Adds data to the existing dataset.
      */
     public void addData(List<T> data) {
+        int previousSize = allData.size();
         this.allData.addAll(data);
         this.totalRows.set(allData.size());
         calculateTotalPages();
-        updateTableData();
+        // Rows appended after a full page do not change what is shown
+        if (previousSize < currentPage.get() * pageSize.get()) {
+            updateTableData();
+        }
         updateButtonStates();
         updateLabels();
     }
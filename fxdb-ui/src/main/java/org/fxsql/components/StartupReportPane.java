@@ -0,0 +1,158 @@
+package org.fxsql.components;
+
+import atlantafx.base.theme.Styles;
+import javafx.beans.property.SimpleStringProperty;
+import javafx.collections.FXCollections;
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.control.*;
+import javafx.scene.input.Clipboard;
+import javafx.scene.input.ClipboardContent;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.VBox;
+import org.fxsql.startup.Bootstrap;
+import org.kordamp.ikonli.feather.Feather;
+import org.kordamp.ikonli.javafx.FontIcon;
+
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * A pane that shows how long each startup phase and step took, as recorded by {@link Bootstrap}.
+ * The same steps are recorded as JFR events, so a flight recording of a cold or warm start can be
+ * compared with this report.
+ */
+public class StartupReportPane extends VBox {
+
+    private static final String JFR_HINT = "Record with -XX:StartFlightRecording=filename=fxdb-startup.jfr"
+            + " and look for FXDB / Startup events in JDK Mission Control.";
+
+    private final Label firstFrameLabel = new Label();
+    private final Label deferredLabel = new Label();
+    private final Label idleLabel = new Label();
+    private final TableView<Bootstrap.Step> stepsTable = new TableView<>();
+
+    public StartupReportPane() {
+        setupUI();
+        refresh();
+    }
+
+    private void setupUI() {
+        HBox titleBar = new HBox(10);
+        titleBar.setAlignment(Pos.CENTER_LEFT);
+        titleBar.setPadding(new Insets(10));
+
+        FontIcon titleIcon = new FontIcon(Feather.ACTIVITY);
+        titleIcon.setIconSize(18);
+        Label titleLabel = new Label("Startup Report");
+        titleLabel.getStyleClass().add(Styles.TITLE_4);
+
+        Button refreshButton = new Button("Refresh");
+        FontIcon refreshIcon = new FontIcon(Feather.REFRESH_CW);
+        refreshIcon.setIconSize(12);
+        refreshButton.setGraphic(refreshIcon);
+        refreshButton.setStyle("-fx-font-size: 11px;");
+        refreshButton.setOnAction(e -> refresh());
+
+        Button copyButton = new Button("Copy");
+        FontIcon copyIcon = new FontIcon(Feather.COPY);
+        copyIcon.setIconSize(12);
+        copyButton.setGraphic(copyIcon);
+        copyButton.setStyle("-fx-font-size: 11px;");
+        copyButton.setTooltip(new Tooltip("Copy the report as tab-separated text"));
+        copyButton.setOnAction(e -> copyReport());
+
+        HBox spacer = new HBox();
+        HBox.setHgrow(spacer, Priority.ALWAYS);
+        titleBar.getChildren().addAll(titleIcon, titleLabel, spacer, copyButton, refreshButton);
+
+        HBox summary = new HBox(24, firstFrameLabel, deferredLabel, idleLabel);
+        summary.setPadding(new Insets(0, 10, 10, 10));
+
+        Label hint = new Label(JFR_HINT);
+        hint.getStyleClass().add(Styles.TEXT_MUTED);
+        hint.setWrapText(true);
+        hint.setPadding(new Insets(6, 10, 10, 10));
+
+        createColumns();
+        stepsTable.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY_FLEX_LAST_COLUMN);
+        stepsTable.setPlaceholder(new Label("No startup steps recorded"));
+        VBox.setVgrow(stepsTable, Priority.ALWAYS);
+
+        getChildren().addAll(titleBar, summary, stepsTable, hint);
+    }
+
+    private void createColumns() {
+        TableColumn<Bootstrap.Step, String> phaseCol = new TableColumn<>("Phase");
+        phaseCol.setCellValueFactory(data -> new SimpleStringProperty(data.getValue().phase().getLabel()));
+        phaseCol.setPrefWidth(110);
+
+        TableColumn<Bootstrap.Step, String> stepCol = new TableColumn<>("Step");
+        stepCol.setCellValueFactory(data -> new SimpleStringProperty(
+                "    ".repeat(data.getValue().depth()) + data.getValue().name()
+                        + (data.getValue().failed() ? " (failed)" : "")));
+        stepCol.setPrefWidth(260);
+
+        TableColumn<Bootstrap.Step, String> threadCol = new TableColumn<>("Thread");
+        threadCol.setCellValueFactory(data -> new SimpleStringProperty(data.getValue().thread()));
+        threadCol.setPrefWidth(160);
+
+        TableColumn<Bootstrap.Step, String> startCol = new TableColumn<>("Start (ms)");
+        startCol.setCellValueFactory(data -> new SimpleStringProperty(formatMillis(data.getValue().startMillis())));
+        startCol.setStyle("-fx-alignment: CENTER-RIGHT;");
+        startCol.setPrefWidth(90);
+
+        TableColumn<Bootstrap.Step, String> durationCol = new TableColumn<>("Duration (ms)");
+        durationCol.setCellValueFactory(data -> new SimpleStringProperty(formatMillis(data.getValue().durationMillis())));
+        durationCol.setStyle("-fx-alignment: CENTER-RIGHT;");
+        durationCol.setPrefWidth(100);
+
+        stepsTable.getColumns().addAll(List.of(phaseCol, stepCol, threadCol, startCol, durationCol));
+    }
+
+    /**
+     * Reloads the steps recorded so far; deferred and idle steps may still be running.
+     */
+    public void refresh() {
+        Bootstrap bootstrap = Bootstrap.get();
+        firstFrameLabel.setText("First frame: " + formatMilestone(bootstrap.getFirstFrameMillis()));
+        deferredLabel.setText("Deferred done: " + formatMilestone(bootstrap.getDeferredDoneMillis()));
+        idleLabel.setText("Idle done: " + formatMilestone(bootstrap.getIdleDoneMillis()));
+        stepsTable.setItems(FXCollections.observableArrayList(sortedSteps()));
+    }
+
+    private static List<Bootstrap.Step> sortedSteps() {
+        // Steps are recorded when they end; list them as they started so nested steps follow their parent
+        return Bootstrap.get().getSteps().stream()
+                .sorted(Comparator.comparingDouble(Bootstrap.Step::startMillis))
+                .toList();
+    }
+
+    private void copyReport() {
+        Bootstrap bootstrap = Bootstrap.get();
+        StringBuilder report = new StringBuilder();
+        report.append("First frame\t").append(formatMilestone(bootstrap.getFirstFrameMillis())).append('\n');
+        report.append("Deferred done\t").append(formatMilestone(bootstrap.getDeferredDoneMillis())).append('\n');
+        report.append("Idle done\t").append(formatMilestone(bootstrap.getIdleDoneMillis())).append('\n');
+        report.append('\n').append("Phase\tStep\tThread\tStart (ms)\tDuration (ms)\n");
+        for (Bootstrap.Step step : sortedSteps()) {
+            report.append(step.phase().getLabel()).append('\t')
+                    .append("  ".repeat(step.depth())).append(step.name()).append(step.failed() ? " (failed)" : "").append('\t')
+                    .append(step.thread()).append('\t')
+                    .append(formatMillis(step.startMillis())).append('\t')
+                    .append(formatMillis(step.durationMillis())).append('\n');
+        }
+        ClipboardContent content = new ClipboardContent();
+        content.putString(report.toString());
+        Clipboard.getSystemClipboard().setContent(content);
+    }
+
+    private static String formatMilestone(double millis) {
+        return millis < 0 ? "pending" : formatMillis(millis) + " ms after JVM start";
+    }
+
+    private static String formatMillis(double millis) {
+        return String.format("%,.1f", millis);
+    }
+}
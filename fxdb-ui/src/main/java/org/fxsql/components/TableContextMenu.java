@@ -17,6 +17,7 @@ public class TableContextMenu extends ContextMenu {
     private final MenuItem openItem;
     private final MenuItem openScriptWindow;
     private final MenuItem tableInfoItem;
+    private final MenuItem importItem;
 
     private DatabaseConnection databaseConnection;
     private TabPane tabPane;
@@ -41,6 +42,11 @@ public class TableContextMenu extends ContextMenu {
         FontIcon infoIcon = new FontIcon(Feather.INFO);
         infoIcon.setIconSize(14);
         tableInfoItem.setGraphic(infoIcon);
+
+        importItem = new MenuItem("Import Data...");
+        FontIcon importIcon = new FontIcon(Feather.UPLOAD);
+        importIcon.setIconSize(14);
+        importItem.setGraphic(importIcon);
     }
 
     public void setDatabaseConnection(DatabaseConnection connection) {
@@ -174,15 +180,49 @@ public class TableContextMenu extends ContextMenu {
         }
     }
 
+    private void handleImport() {
+        TreeItem<String> selectedItem = tableSelector.getSelectionModel().getSelectedItem();
+        if (selectedItem != null && tabPane != null && databaseConnection != null) {
+            String tableName = selectedItem.getValue();
+
+            // Check if an import tab already exists for this table
+            for (Tab tab : tabPane.getTabs()) {
+                if (tab.getContent() instanceof TableImportPane importPane) {
+                    if (tableName.equals(importPane.getCurrentTableName())) {
+                        tabPane.getSelectionModel().select(tab);
+                        return;
+                    }
+                }
+            }
+
+            Tab tab = new Tab("Import: " + tableName);
+            FontIcon tabIcon = new FontIcon(Feather.UPLOAD);
+            tabIcon.setIconSize(12);
+            tab.setGraphic(tabIcon);
+
+            TableImportPane importPane = new TableImportPane();
+            importPane.loadTable(databaseConnection, tableName);
+            tab.setContent(importPane);
+
+            tab.setOnClosed(event -> {
+                importPane.shutdown();
+            });
+
+            tabPane.getTabs().add(tab);
+            tabPane.getSelectionModel().select(tab);
+        }
+    }
+
     public void showContextMenu(DatabaseConnection connection, MouseEvent mouseEvent) {
         TreeItem<String> selectedItem = tableSelector.getSelectionModel().getSelectedItem();
         if (selectedItem != null) {
             this.databaseConnection = connection;
             this.getItems().clear();
 
-            this.getItems().addAll(openItem, tableInfoItem, new SeparatorMenuItem(), openScriptWindow);
+            this.getItems().addAll(openItem, tableInfoItem, importItem, new SeparatorMenuItem(), openScriptWindow);
             openItem.setOnAction(event -> handleOpenItem());
             tableInfoItem.setOnAction(event -> handleTableInfo());
+            importItem.setOnAction(event -> handleImport());
             openScriptWindow.setOnAction(event -> handleOpenScriptWindowInTab());
 
             this.show(tableSelector, mouseEvent.getScreenX(), mouseEvent.getScreenY());
@@ -0,0 +1,406 @@
+package org.fxsql.components;
+
+import atlantafx.base.theme.Styles;
+import javafx.beans.property.SimpleStringProperty;
+import javafx.beans.property.StringProperty;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.concurrent.Task;
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.control.*;
+import javafx.scene.control.cell.ComboBoxTableCell;
+import javafx.scene.layout.GridPane;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.VBox;
+import javafx.stage.FileChooser;
+import javafx.stage.Window;
+import org.fxsql.DatabaseConnection;
+import org.fxsql.model.TableMetaData;
+import org.fxsql.pool.ConnectionLease;
+import org.fxsql.pool.ConnectionPool;
+import org.fxsql.schema.SchemaCache;
+import org.fxsql.transfer.CsvFormat;
+import org.fxsql.transfer.TableImporter;
+import org.kordamp.ikonli.feather.Feather;
+import org.kordamp.ikonli.javafx.FontIcon;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A pane that imports a CSV or TSV file into a table. File columns are matched to table columns
+ * by header name and the mapping can be adjusted before importing.
+ */
+public class TableImportPane extends VBox {
+
+    private static final Logger logger = Logger.getLogger(TableImportPane.class.getName());
+    private static final String SKIP = "(skip)";
+    private static final String[] DELIMITERS = {"Comma (CSV)", "Tab (TSV)", "Semicolon", "Pipe"};
+
+    private final Label titleLabel;
+    private final Label statusLabel;
+    private final TextField fileField;
+    private final ComboBox<String> delimiterBox;
+    private final CheckBox headerBox;
+    private final TableView<MappingRow> mappingTable;
+    private final ProgressBar progressBar;
+    private final Label progressLabel;
+    private final Button importButton;
+    private final Button cancelButton;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "TableImport-Executor");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private DatabaseConnection databaseConnection;
+    private String currentTableName;
+    private TableMetaData metaData;
+    private File file;
+    private volatile TableImporter activeImporter;
+
+    public TableImportPane() {
+        this.titleLabel = new Label("Import Data");
+        this.statusLabel = new Label();
+        this.fileField = new TextField();
+        this.delimiterBox = new ComboBox<>(FXCollections.observableArrayList(DELIMITERS));
+        this.headerBox = new CheckBox("First row holds column names");
+        this.mappingTable = createMappingTable();
+        this.progressBar = new ProgressBar(0);
+        this.progressLabel = new Label();
+        this.importButton = new Button("Import");
+        this.cancelButton = new Button("Cancel");
+
+        setupUI();
+    }
+
+    private void setupUI() {
+        // Title bar
+        HBox titleBar = new HBox(10);
+        titleBar.setAlignment(Pos.CENTER_LEFT);
+        titleBar.setPadding(new Insets(10));
+
+        FontIcon titleIcon = new FontIcon(Feather.UPLOAD);
+        titleIcon.setIconSize(18);
+        titleLabel.getStyleClass().addAll(Styles.TITLE_4);
+
+        HBox spacer = new HBox();
+        HBox.setHgrow(spacer, Priority.ALWAYS);
+        titleBar.getChildren().addAll(titleIcon, titleLabel, spacer, statusLabel);
+
+        // File and format
+        fileField.setEditable(false);
+        fileField.setPromptText("Choose a CSV or TSV file");
+        HBox.setHgrow(fileField, Priority.ALWAYS);
+        Button browseButton = new Button("Browse...");
+        FontIcon browseIcon = new FontIcon(Feather.FOLDER);
+        browseIcon.setIconSize(12);
+        browseButton.setGraphic(browseIcon);
+        browseButton.setOnAction(e -> chooseFile());
+
+        delimiterBox.getSelectionModel().select(0);
+        delimiterBox.setOnAction(e -> reloadColumns());
+        headerBox.setSelected(true);
+        headerBox.setOnAction(e -> reloadColumns());
+
+        GridPane form = new GridPane();
+        form.setHgap(8);
+        form.setVgap(8);
+        form.setPadding(new Insets(0, 10, 10, 10));
+        HBox fileRow = new HBox(8, fileField, browseButton);
+        GridPane.setHgrow(fileRow, Priority.ALWAYS);
+        form.addRow(0, new Label("File:"), fileRow);
+        form.addRow(1, new Label("Delimiter:"), delimiterBox);
+        form.add(headerBox, 1, 2);
+
+        // Mapping
+        Label mappingLabel = new Label("Column mapping");
+        mappingLabel.getStyleClass().add(Styles.TEXT_BOLD);
+        VBox mappingBox = new VBox(6, mappingLabel, mappingTable);
+        mappingBox.setPadding(new Insets(0, 10, 0, 10));
+        VBox.setVgrow(mappingTable, Priority.ALWAYS);
+        VBox.setVgrow(mappingBox, Priority.ALWAYS);
+
+        // Progress and actions
+        progressBar.setMaxWidth(Double.MAX_VALUE);
+        progressBar.setVisible(false);
+        HBox.setHgrow(progressBar, Priority.ALWAYS);
+
+        FontIcon importIcon = new FontIcon(Feather.UPLOAD);
+        importIcon.setIconSize(12);
+        importButton.setGraphic(importIcon);
+        importButton.getStyleClass().add(Styles.ACCENT);
+        importButton.setDisable(true);
+        importButton.setOnAction(e -> startImport());
+
+        cancelButton.setDisable(true);
+        cancelButton.setOnAction(e -> cancelImport());
+
+        HBox actions = new HBox(8, progressBar, cancelButton, importButton);
+        actions.setAlignment(Pos.CENTER_LEFT);
+        actions.setPadding(new Insets(6, 10, 6, 10));
+        actions.setStyle("-fx-border-color: #e0e0e0; -fx-border-width: 1 0 0 0;");
+
+        progressLabel.setPadding(new Insets(0, 10, 6, 10));
+
+        this.getChildren().addAll(titleBar, form, mappingBox, actions, progressLabel);
+    }
+
+    private TableView<MappingRow> createMappingTable() {
+        TableView<MappingRow> table = new TableView<>();
+        table.setEditable(true);
+        table.setPlaceholder(new Label("Choose a file to map its columns"));
+        table.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY);
+
+        TableColumn<MappingRow, String> fileColumn = new TableColumn<>("File Column");
+        fileColumn.setCellValueFactory(data -> new SimpleStringProperty(data.getValue().fileColumn));
+        fileColumn.setEditable(false);
+
+        TableColumn<MappingRow, String> targetColumn = new TableColumn<>("Table Column");
+        targetColumn.setCellValueFactory(data -> data.getValue().target);
+        targetColumn.setEditable(true);
+
+        table.getColumns().addAll(List.of(fileColumn, targetColumn));
+        return table;
+    }
+
+    /**
+     * Loads the target table's columns.
+     */
+    public void loadTable(DatabaseConnection connection, String tableName) {
+        this.databaseConnection = connection;
+        this.currentTableName = tableName;
+        titleLabel.setText("Import into " + tableName);
+
+        if (connection == null || !connection.isConnected()) {
+            showError("No active database connection");
+            return;
+        }
+
+        Task<TableMetaData> loadTask = new Task<>() {
+            @Override
+            protected TableMetaData call() throws Exception {
+                return SchemaCache.forConnection(connection).getTableMetaData(connection, tableName);
+            }
+        };
+        loadTask.setOnSucceeded(event -> {
+            metaData = loadTask.getValue();
+            ObservableList<String> targets = FXCollections.observableArrayList(SKIP);
+            metaData.getColumns().forEach(column -> targets.add(column.getName()));
+            @SuppressWarnings("unchecked")
+            TableColumn<MappingRow, String> targetColumn = (TableColumn<MappingRow, String>) mappingTable.getColumns().get(1);
+            targetColumn.setCellFactory(ComboBoxTableCell.forTableColumn(targets));
+            statusLabel.setText(metaData.getColumns().size() + " columns");
+            reloadColumns();
+        });
+        loadTask.setOnFailed(event -> {
+            Throwable ex = loadTask.getException();
+            logger.log(Level.SEVERE, "Failed to load table metadata", ex);
+            showError("Failed to load table: " + (ex != null ? ex.getMessage() : "Unknown error"));
+        });
+        executor.submit(loadTask);
+    }
+
+    private void chooseFile() {
+        FileChooser fileChooser = new FileChooser();
+        fileChooser.setTitle("Import into " + currentTableName);
+        fileChooser.getExtensionFilters().addAll(
+                new FileChooser.ExtensionFilter("Delimited Files", "*.csv", "*.tsv", "*.tab", "*.txt"),
+                new FileChooser.ExtensionFilter("All Files", "*.*")
+        );
+        Window window = this.getScene() != null ? this.getScene().getWindow() : null;
+        File chosen = fileChooser.showOpenDialog(window);
+        if (chosen == null) {
+            return;
+        }
+        file = chosen;
+        fileField.setText(chosen.getAbsolutePath());
+        delimiterBox.getSelectionModel().select(CsvFormat.forFile(chosen.toPath()).getDelimiter() == '\t' ? 1 : 0);
+        reloadColumns();
+    }
+
+    /**
+     * Reads the file's columns and matches them to the table again, after the file or format changed.
+     */
+    private void reloadColumns() {
+        if (file == null || metaData == null) {
+            return;
+        }
+        CsvFormat format = currentFormat();
+        TableMetaData table = metaData;
+        Task<List<MappingRow>> readTask = new Task<>() {
+            @Override
+            protected List<MappingRow> call() throws Exception {
+                List<String> fileColumns = TableImporter.readHeader(file.toPath(), format);
+                List<String> mapping = TableImporter.defaultMapping(fileColumns, table, format.hasHeader());
+                List<MappingRow> rows = new ArrayList<>();
+                for (int i = 0; i < fileColumns.size(); i++) {
+                    rows.add(new MappingRow(fileColumns.get(i), mapping.get(i) != null ? mapping.get(i) : SKIP));
+                }
+                return rows;
+            }
+        };
+        readTask.setOnSucceeded(event -> {
+            mappingTable.getItems().setAll(readTask.getValue());
+            importButton.setDisable(readTask.getValue().isEmpty());
+            statusLabel.getStyleClass().remove(Styles.DANGER);
+            statusLabel.setText(readTask.getValue().size() + " file columns");
+        });
+        readTask.setOnFailed(event -> {
+            Throwable ex = readTask.getException();
+            logger.log(Level.WARNING, "Failed to read " + file, ex);
+            showError("Could not read file: " + (ex != null ? ex.getMessage() : "Unknown error"));
+            importButton.setDisable(true);
+        });
+        executor.submit(readTask);
+    }
+
+    private CsvFormat currentFormat() {
+        CsvFormat format = CsvFormat.csv();
+        format.setDelimiter(switch (delimiterBox.getSelectionModel().getSelectedIndex()) {
+            case 1 -> '\t';
+            case 2 -> ';';
+            case 3 -> '|';
+            default -> ',';
+        });
+        format.setHeader(headerBox.isSelected());
+        return format;
+    }
+
+    private void startImport() {
+        List<String> mapping = new ArrayList<>();
+        for (MappingRow row : mappingTable.getItems()) {
+            mapping.add(SKIP.equals(row.target.get()) ? null : row.target.get());
+        }
+        if (mapping.stream().allMatch(Objects::isNull)) {
+            showError("Map at least one file column to a table column");
+            return;
+        }
+
+        CsvFormat format = currentFormat();
+        TableMetaData table = metaData;
+        File source = file;
+        Task<TableImporter.Result> importTask = new Task<>() {
+            @Override
+            protected TableImporter.Result call() throws Exception {
+                // A pooled connection of its own, held for the whole import
+                try (ConnectionLease lease = ConnectionPool.lease(databaseConnection)) {
+                    TableImporter importer = new TableImporter(lease.connection(), table, source.toPath(), format);
+                    importer.setMapping(mapping);
+                    updateMessage("Loading with " + importer.preferredMethod().getLabel());
+                    activeImporter = importer;
+                    try {
+                        return importer.run(progress -> {
+                            updateProgress(progress.bytesRead(), progress.totalBytes());
+                            updateMessage(formatProgress(progress));
+                        });
+                    } finally {
+                        activeImporter = null;
+                    }
+                }
+            }
+        };
+
+        progressBar.progressProperty().bind(importTask.progressProperty());
+        progressLabel.textProperty().bind(importTask.messageProperty());
+        setRunning(true);
+
+        importTask.setOnSucceeded(event -> {
+            endImport();
+            TableImporter.Result result = importTask.getValue();
+            if (result.cancelled()) {
+                progressLabel.setText("Import cancelled; no rows were loaded.");
+            } else {
+                progressLabel.setText(String.format("Imported %,d rows in %s (%,.0f rows/s) using %s",
+                        result.rows(), formatDuration(TimeUnit.NANOSECONDS.toSeconds(result.elapsedNanos())),
+                        result.rowsPerSecond(), result.method().getLabel()));
+            }
+        });
+        importTask.setOnFailed(event -> {
+            endImport();
+            Throwable ex = importTask.getException();
+            logger.log(Level.WARNING, "Import into " + currentTableName + " failed", ex);
+            progressLabel.setText("Import failed, no rows were loaded: " + (ex != null ? ex.getMessage() : "Unknown error"));
+        });
+        executor.submit(importTask);
+    }
+
+    private void cancelImport() {
+        TableImporter importer = activeImporter;
+        if (importer != null) {
+            importer.cancel();
+            cancelButton.setDisable(true);
+        }
+    }
+
+    private void endImport() {
+        progressBar.progressProperty().unbind();
+        progressLabel.textProperty().unbind();
+        setRunning(false);
+    }
+
+    private void setRunning(boolean running) {
+        importButton.setDisable(running);
+        cancelButton.setDisable(!running);
+        delimiterBox.setDisable(running);
+        headerBox.setDisable(running);
+        mappingTable.setDisable(running);
+        progressBar.setVisible(running);
+    }
+
+    private static String formatProgress(TableImporter.Progress progress) {
+        long eta = progress.etaSeconds();
+        String rows = progress.rows() >= 0
+                ? String.format(" · %,d rows · %,.0f rows/s", progress.rows(), progress.rowsPerSecond())
+                : "";
+        return String.format("%.0f%% of %,d MB%s · ETA %s", progress.fraction() * 100,
+                progress.totalBytes() / (1024 * 1024), rows, eta >= 0 ? formatDuration(eta) : "--");
+    }
+
+    private static String formatDuration(long seconds) {
+        if (seconds >= 3600) {
+            return String.format("%d:%02d:%02d", seconds / 3600, seconds / 60 % 60, seconds % 60);
+        }
+        return String.format("%d:%02d", seconds / 60, seconds % 60);
+    }
+
+    private void showError(String message) {
+        statusLabel.setText(message);
+        if (!statusLabel.getStyleClass().contains(Styles.DANGER)) {
+            statusLabel.getStyleClass().add(Styles.DANGER);
+        }
+        logger.warning(message);
+    }
+
+    public void shutdown() {
+        cancelImport();
+        executor.shutdownNow();
+    }
+
+    public String getCurrentTableName() {
+        return currentTableName;
+    }
+
+    /**
+     * One file column and the table column it loads into.
+     */
+    private static final class MappingRow {
+        private final String fileColumn;
+        private final StringProperty target;
+
+        MappingRow(String fileColumn, String target) {
+            this.fileColumn = fileColumn;
+            this.target = new SimpleStringProperty(target);
+        }
+    }
+}
@@ -20,6 +20,9 @@ import org.fxsql.DatabaseConnection;
 import org.fxsql.controller.AddColumnController;
 import org.fxsql.controller.AddForeignKeyController;
 import org.fxsql.model.TableMetaData;
+import org.fxsql.pool.ConnectionLease;
+import org.fxsql.pool.ConnectionPool;
+import org.fxsql.schema.SchemaCache;
 import org.fxsql.utils.SQLSanitizer;
 import org.kordamp.ikonli.feather.Feather;
 import org.kordamp.ikonli.javafx.FontIcon;
@@ -475,7 +478,9 @@ public class TableInfoPane extends VBox {
         Task<Void> task = new Task<>() {
             @Override
             protected Void call() throws Exception {
-                databaseConnection.executeWriteQuery(sql);
+                try (ConnectionLease lease = ConnectionPool.lease(databaseConnection)) {
+                    lease.connection().executeWriteQuery(sql);
+                }
                 return null;
             }
         };
@@ -686,7 +691,7 @@ public class TableInfoPane extends VBox {
         Task<TableMetaData> loadTask = new Task<>() {
             @Override
             protected TableMetaData call() throws Exception {
-                return connection.getTableMetaData(tableName);
+                return SchemaCache.forConnection(connection).getTableMetaData(connection, tableName);
             }
         };
 
@@ -720,6 +725,7 @@ public class TableInfoPane extends VBox {
      */
     private void refresh() {
         if (databaseConnection != null && currentTableName != null) {
+            SchemaCache.forConnection(databaseConnection).invalidateTable(currentTableName);
             loadTableInfo(databaseConnection, currentTableName);
         }
     }
@@ -13,6 +13,7 @@ import javafx.scene.layout.Priority;
 import javafx.scene.layout.VBox;
 import org.fxsql.DatabaseConnection;
 import org.fxsql.model.TableMetaData;
+import org.fxsql.schema.SchemaCache;
 import org.kordamp.ikonli.feather.Feather;
 import org.kordamp.ikonli.javafx.FontIcon;
 
@@ -156,7 +157,7 @@ public class ViewInfoPane extends VBox {
             @Override
             protected ViewData call() throws Exception {
                 String definition = connection.getViewDefinition(viewName);
-                TableMetaData metadata = connection.getTableMetaData(viewName);
+                TableMetaData metadata = SchemaCache.forConnection(connection).getTableMetaData(connection, viewName);
                 return new ViewData(definition, metadata);
             }
         };
@@ -0,0 +1,157 @@
+package org.fxsql.components;
+
+import javafx.application.Platform;
+import javafx.collections.ObservableListBase;
+import org.fxsql.result.ResultBuffer;
+import org.fxsql.result.TablePager;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A read-only list that reports the full row count of a table but only holds the rows
+ * around what is being looked at.
+ * <p>
+ * Rows are fetched in blocks through a {@link TablePager} whose page size is the block size.
+ * When the table view asks for a row whose block is not loaded, {@link #get(int)} returns
+ * null and the block is read in the background; once it arrives the list reports the
+ * block's rows as replaced so the visible cells refresh. Loaded blocks live in a bounded
+ * LRU cache, and the next blocks in the direction of scrolling are prefetched. Requests
+ * that scrolled far out of view before they ran are dropped.
+ * <p>
+ * Must be used on the JavaFX thread. Table cells must accept null rows, which stand for
+ * rows that are still loading.
+ */
+public class VirtualRowList<T> extends ObservableListBase<T> {
+
+    private static final Logger logger = Logger.getLogger(VirtualRowList.class.getName());
+    private static final int MAX_CACHED_BLOCKS = 32;
+    private static final int PREFETCH_BLOCKS = 2;
+    // Requests further than this from the block being looked at are skipped
+    private static final int STALE_BLOCK_DISTANCE = 4;
+
+    private final TablePager pager;
+    private final int blockSize;
+    private final int size;
+    private final int blockCount;
+    private final BiFunction<ResultBuffer, Integer, T> rowMapper;
+    private final Executor executor;
+
+    private final Map<Integer, List<T>> blocks = new LinkedHashMap<>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, List<T>> eldest) {
+            return size() > MAX_CACHED_BLOCKS;
+        }
+    };
+    private final Set<Integer> pendingBlocks = new HashSet<>();
+    private volatile int focusBlock;
+    private int lastBlock = -1;
+    private Consumer<Throwable> onError = e -> {};
+
+    /**
+     * @param pager Reads blocks; its page size is used as the block size
+     * @param rowCount The number of rows in the table
+     * @param rowMapper Turns row {@code i} of a fetched block into a list element; called off the FX thread
+     * @param executor Runs block reads; should be the executor that owns the connection
+     */
+    public VirtualRowList(TablePager pager, long rowCount, BiFunction<ResultBuffer, Integer, T> rowMapper,
+                          Executor executor) {
+        this.pager = pager;
+        this.blockSize = pager.getPageSize();
+        this.size = (int) Math.min(rowCount, Integer.MAX_VALUE);
+        this.blockCount = (size + blockSize - 1) / blockSize;
+        this.rowMapper = rowMapper;
+        this.executor = executor;
+    }
+
+    /**
+     * Sets a handler for failed block reads, called on the FX thread.
+     */
+    public void setOnError(Consumer<Throwable> onError) {
+        this.onError = Objects.requireNonNull(onError);
+    }
+
+    @Override
+    public T get(int index) {
+        Objects.checkIndex(index, size);
+        int block = index / blockSize;
+        if (block != lastBlock) {
+            onBlockChanged(block);
+        }
+
+        List<T> rows = blocks.get(block);
+        if (rows == null) {
+            request(block);
+            return null;
+        }
+        int offset = index - block * blockSize;
+        return offset < rows.size() ? rows.get(offset) : null;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    private void onBlockChanged(int block) {
+        int direction = lastBlock < 0 || block > lastBlock ? 1 : -1;
+        lastBlock = block;
+        focusBlock = block;
+        for (int i = 1; i <= PREFETCH_BLOCKS; i++) {
+            request(block + direction * i);
+        }
+    }
+
+    private void request(int block) {
+        if (block < 0 || block >= blockCount || blocks.containsKey(block) || !pendingBlocks.add(block)) {
+            return;
+        }
+
+        executor.execute(() -> {
+            if (Math.abs(block - focusBlock) > STALE_BLOCK_DISTANCE) {
+                Platform.runLater(() -> pendingBlocks.remove(block));
+                return;
+            }
+            try {
+                ResultBuffer buffer = pager.getPage(block);
+                List<T> rows = new ArrayList<>(buffer.getRowCount());
+                for (int i = 0; i < buffer.getRowCount(); i++) {
+                    rows.add(rowMapper.apply(buffer, i));
+                }
+                Platform.runLater(() -> blockLoaded(block, rows));
+            } catch (SQLException e) {
+                logger.log(Level.WARNING, "Failed to load rows " + (long) block * blockSize, e);
+                Platform.runLater(() -> {
+                    pendingBlocks.remove(block);
+                    onError.accept(e);
+                });
+            }
+        });
+    }
+
+    private void blockLoaded(int block, List<T> rows) {
+        pendingBlocks.remove(block);
+        blocks.put(block, rows);
+
+        int from = block * blockSize;
+        int to = Math.min(from + blockSize, size);
+        if (from < to) {
+            // The rows were reported as null until now
+            beginChange();
+            nextReplace(from, to, new ArrayList<>(Collections.nCopies(to - from, (T) null)));
+            endChange();
+        }
+    }
+}
@@ -0,0 +1,248 @@
+package org.fxsql.components.sqlScriptExecutor;
+
+import atlantafx.base.theme.Styles;
+import javafx.application.Platform;
+import javafx.collections.FXCollections;
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.control.Label;
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ListView;
+import javafx.scene.input.KeyCode;
+import javafx.scene.input.KeyEvent;
+import javafx.scene.input.MouseButton;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.Region;
+import javafx.scene.layout.VBox;
+import javafx.stage.Popup;
+import org.fxdb.plugin.sdk.db.Dialect;
+import org.fxmisc.richtext.CodeArea;
+import org.fxsql.completion.SQLCompletionEngine;
+import org.fxsql.completion.SQLCompletionEngine.Completion;
+import org.kordamp.ikonli.feather.Feather;
+import org.kordamp.ikonli.javafx.FontIcon;
+
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * Completion popup for a {@link CodeArea} holding SQL. Opens on Ctrl+Space and after typing a
+ * dot, and narrows its candidates as the user keeps typing. Candidates come from a
+ * {@link SQLCompletionEngine}, which answers from what it has loaded; columns still loading are
+ * shown once they arrive.
+ */
+public class SQLCompletionPopup extends Popup {
+
+    private static final Pattern PLAIN_IDENTIFIER = Pattern.compile("[A-Za-z_][A-Za-z0-9_$]*");
+    // Most text lexed on either side of the caret per keystroke
+    static final int MAX_LEXED_CHARS = 64 * 1024;
+
+    private final CodeArea codeArea;
+    private final SQLHighlighter highlighter;
+    private final Supplier<SQLCompletionEngine> engine;
+    private final Supplier<Dialect> dialect;
+    private final ListView<Completion> resultList = new ListView<>();
+    private final Label loadingLabel = new Label("Loading columns...");
+
+    private int replaceStart;
+    // Only the newest request's late columns refresh the list
+    private long generation;
+
+    /**
+     * @param highlighter The area's highlighter, whose lexer state says where lexing the
+     *                    statement at the caret can start
+     */
+    public SQLCompletionPopup(CodeArea codeArea, SQLHighlighter highlighter, Supplier<SQLCompletionEngine> engine,
+                              Supplier<Dialect> dialect) {
+        this.codeArea = codeArea;
+        this.highlighter = highlighter;
+        this.engine = engine;
+        this.dialect = dialect;
+        setAutoHide(true);
+        setupUI();
+
+        codeArea.addEventFilter(KeyEvent.KEY_PRESSED, this::handleKey);
+        codeArea.plainTextChanges().subscribe(change -> {
+            String inserted = change.getInserted();
+            if (isShowing() && !inserted.isEmpty() && !isWordOrDot(inserted.charAt(inserted.length() - 1))) {
+                hide();
+            } else if (isShowing()) {
+                // The caret moves after the change is reported
+                Platform.runLater(this::update);
+            } else if (".".equals(change.getInserted())) {
+                Platform.runLater(this::open);
+            }
+        });
+        codeArea.focusedProperty().addListener((obs, wasFocused, focused) -> {
+            if (!focused) {
+                hide();
+            }
+        });
+    }
+
+    private void setupUI() {
+        resultList.setCellFactory(list -> new CompletionCell());
+        resultList.setPrefSize(380, 220);
+        resultList.setFocusTraversable(false);
+        resultList.setOnMouseClicked(e -> {
+            if (e.getButton() == MouseButton.PRIMARY && e.getClickCount() == 2) {
+                acceptSelected();
+            }
+        });
+
+        loadingLabel.getStyleClass().add(Styles.TEXT_MUTED);
+        loadingLabel.setStyle("-fx-font-size: 11px;");
+        loadingLabel.managedProperty().bind(loadingLabel.visibleProperty());
+
+        VBox content = new VBox(4, resultList, loadingLabel);
+        content.setPadding(new Insets(4));
+        content.setStyle("-fx-background-color: -color-bg-default; -fx-border-color: -color-border-default;"
+                + " -fx-border-width: 1; -fx-effect: dropshadow(gaussian, rgba(0,0,0,0.25), 8, 0, 0, 3);");
+        getContent().add(content);
+    }
+
+    /**
+     * Shows the completions at the caret, if there are any.
+     */
+    public void open() {
+        update();
+    }
+
+    private void update() {
+        long current = ++generation;
+        int caret = codeArea.getCaretPosition();
+        SQLHighlighter.Window window = highlighter.statementWindow(caret, MAX_LEXED_CHARS);
+        SQLCompletionEngine.Result result = engine.get().complete(codeArea.getText(window.start(), window.end()),
+                caret - window.start(), window.entry(), dialect.get(), () -> Platform.runLater(() -> {
+                    if (current == generation && isShowing()) {
+                        update();
+                    }
+                }));
+        if (result == null || (result.completions().isEmpty() && !result.loading())) {
+            hide();
+            return;
+        }
+
+        replaceStart = window.start() + result.replaceStart();
+        resultList.setItems(FXCollections.observableArrayList(result.completions()));
+        if (!result.completions().isEmpty()) {
+            resultList.getSelectionModel().selectFirst();
+            resultList.scrollTo(0);
+        }
+        loadingLabel.setVisible(result.loading());
+        if (!isShowing()) {
+            codeArea.getCaretBounds().ifPresent(bounds -> show(codeArea, bounds.getMinX(), bounds.getMaxY() + 2));
+        }
+    }
+
+    private void handleKey(KeyEvent event) {
+        if (event.getCode() == KeyCode.SPACE && event.isControlDown()) {
+            open();
+            event.consume();
+            return;
+        }
+        if (!isShowing()) {
+            return;
+        }
+        switch (event.getCode()) {
+            case DOWN -> {
+                resultList.getSelectionModel().selectNext();
+                resultList.scrollTo(resultList.getSelectionModel().getSelectedIndex());
+                event.consume();
+            }
+            case UP -> {
+                resultList.getSelectionModel().selectPrevious();
+                resultList.scrollTo(resultList.getSelectionModel().getSelectedIndex());
+                event.consume();
+            }
+            case ENTER, TAB -> {
+                if (resultList.getSelectionModel().getSelectedItem() != null) {
+                    acceptSelected();
+                    event.consume();
+                }
+            }
+            case ESCAPE, LEFT, RIGHT, HOME, END -> {
+                hide();
+                if (event.getCode() == KeyCode.ESCAPE) {
+                    event.consume();
+                }
+            }
+            default -> {
+            }
+        }
+    }
+
+    private void acceptSelected() {
+        Completion completion = resultList.getSelectionModel().getSelectedItem();
+        if (completion == null) {
+            return;
+        }
+        hide();
+        int caret = codeArea.getCaretPosition();
+        if (replaceStart <= caret) {
+            codeArea.replaceText(replaceStart, caret, insertText(completion));
+        }
+    }
+
+    /**
+     * Returns the text to insert, quoting schema names that would not parse as plain identifiers.
+     */
+    private String insertText(Completion completion) {
+        String text = completion.text();
+        boolean schemaName = completion.kind() == SQLCompletionEngine.Kind.COLUMN
+                || completion.kind() == SQLCompletionEngine.Kind.TABLE
+                || completion.kind() == SQLCompletionEngine.Kind.VIEW;
+        if (!schemaName || PLAIN_IDENTIFIER.matcher(text).matches()) {
+            return text;
+        }
+        String quote = dialect.get() == Dialect.MYSQL ? "`" : "\"";
+        return quote + text.replace(quote, quote + quote) + quote;
+    }
+
+    private static boolean isWordOrDot(char c) {
+        return Character.isLetterOrDigit(c) || c == '_' || c == '$' || c == '.';
+    }
+
+    private static Feather iconFor(SQLCompletionEngine.Kind kind) {
+        return switch (kind) {
+            case COLUMN -> Feather.COLUMNS;
+            case ALIAS -> Feather.TAG;
+            case TABLE -> Feather.GRID;
+            case VIEW -> Feather.EYE;
+            case FUNCTION -> Feather.CODE;
+            case KEYWORD -> Feather.TYPE;
+        };
+    }
+
+    private static final class CompletionCell extends ListCell<Completion> {
+
+        private final FontIcon icon = new FontIcon(Feather.TYPE);
+        private final Label nameLabel = new Label();
+        private final Label detailLabel = new Label();
+        private final HBox row;
+
+        CompletionCell() {
+            icon.setIconSize(12);
+            detailLabel.getStyleClass().add(Styles.TEXT_MUTED);
+            detailLabel.setStyle("-fx-font-size: 11px;");
+            Region spacer = new Region();
+            HBox.setHgrow(spacer, Priority.ALWAYS);
+            row = new HBox(6, icon, nameLabel, spacer, detailLabel);
+            row.setAlignment(Pos.CENTER_LEFT);
+        }
+
+        @Override
+        protected void updateItem(Completion completion, boolean empty) {
+            super.updateItem(completion, empty);
+            if (empty || completion == null) {
+                setGraphic(null);
+                return;
+            }
+            icon.setIconCode(iconFor(completion.kind()));
+            nameLabel.setText(completion.text());
+            detailLabel.setText(completion.detail());
+            setGraphic(row);
+        }
+    }
+}
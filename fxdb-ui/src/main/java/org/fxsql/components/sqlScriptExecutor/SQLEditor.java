@@ -1,16 +1,17 @@
 package org.fxsql.components.sqlScriptExecutor;
 
+import javafx.animation.PauseTransition;
 import javafx.beans.value.ObservableValue;
 import javafx.scene.layout.Priority;
 import javafx.scene.layout.VBox;
+import javafx.util.Duration;
 import org.fxmisc.richtext.CodeArea;
+import org.fxdb.plugin.sdk.db.Dialect;
 import org.fxmisc.richtext.LineNumberFactory;
-import org.fxmisc.richtext.model.StyleSpans;
-import org.fxmisc.richtext.model.StyleSpansBuilder;
+import org.fxsql.completion.SQLCompletionEngine;
+import org.fxsql.sql.SQLSplitter;
 
-import java.util.*;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.Objects;
 
 /**
  * SQL Editor component with syntax highlighting.
@@ -21,86 +22,17 @@ import java.util.regex.Pattern;
  * - String literals ('text')
  * - Numbers
  * - Comments (-- and /*
+ * Highlighting is incremental and runs in the background, see {@link SQLHighlighter}.
+ * Ctrl+Space and typing a dot show completions from the connection's schema, see {@link SQLCompletionPopup}.
  * */
 
 public class SQLEditor extends VBox {
 
-    // SQL Keywords
-    private static final String[] KEYWORDS = new String[]{
-            "SELECT", "FROM", "WHERE", "INSERT", "INTO", "VALUES", "UPDATE", "SET",
-            "DELETE", "CREATE", "DROP", "ALTER", "TABLE", "INDEX", "VIEW", "DATABASE",
-            "JOIN", "INNER", "LEFT", "RIGHT", "OUTER", "FULL", "CROSS", "NATURAL",
-            "ON", "USING", "AS", "DISTINCT", "ALL", "TOP", "LIMIT", "OFFSET",
-            "ORDER", "BY", "ASC", "DESC", "NULLS", "FIRST", "LAST",
-            "GROUP", "HAVING", "UNION", "INTERSECT", "EXCEPT", "MINUS",
-            "EXISTS", "IN", "BETWEEN", "LIKE", "ILIKE", "ESCAPE", "SIMILAR",
-            "CASE", "WHEN", "THEN", "ELSE", "END", "IF", "ELSEIF",
-            "BEGIN", "COMMIT", "ROLLBACK", "SAVEPOINT", "TRANSACTION",
-            "PRIMARY", "KEY", "FOREIGN", "REFERENCES", "CONSTRAINT", "UNIQUE",
-            "NOT", "NULL", "DEFAULT", "AUTO_INCREMENT", "SERIAL", "IDENTITY",
-            "CHECK", "CASCADE", "RESTRICT", "NO", "ACTION",
-            "GRANT", "REVOKE", "PRIVILEGES", "TO", "WITH", "RECURSIVE",
-            "TRUNCATE", "MERGE", "UPSERT", "REPLACE", "EXPLAIN", "ANALYZE",
-            "RETURNING", "CONFLICT", "DO", "NOTHING"
-    };
-
-    // SQL Functions
-    private static final String[] FUNCTIONS = new String[]{
-            "COUNT", "SUM", "AVG", "MIN", "MAX", "ABS", "ROUND", "CEIL", "FLOOR",
-            "COALESCE", "NULLIF", "CAST", "CONVERT", "IFNULL", "NVL", "ISNULL",
-            "CONCAT", "SUBSTRING", "SUBSTR", "LENGTH", "LEN", "CHAR_LENGTH",
-            "UPPER", "LOWER", "TRIM", "LTRIM", "RTRIM", "REPLACE", "REVERSE",
-            "LEFT", "RIGHT", "LPAD", "RPAD", "REPEAT", "SPACE", "POSITION",
-            "NOW", "CURRENT_DATE", "CURRENT_TIME", "CURRENT_TIMESTAMP", "GETDATE",
-            "DATE", "TIME", "DATETIME", "TIMESTAMP", "YEAR", "MONTH", "DAY",
-            "HOUR", "MINUTE", "SECOND", "DATEADD", "DATEDIFF", "DATE_PART",
-            "EXTRACT", "TO_DATE", "TO_CHAR", "TO_NUMBER", "FORMAT",
-            "ROW_NUMBER", "RANK", "DENSE_RANK", "NTILE", "LAG", "LEAD",
-            "FIRST_VALUE", "LAST_VALUE", "NTH_VALUE", "OVER", "PARTITION",
-            "STRING_AGG", "ARRAY_AGG", "JSON_AGG", "LISTAGG",
-            "GREATEST", "LEAST", "POWER", "SQRT", "MOD", "RANDOM", "UUID"
-    };
-
-    // Operators
-    private static final String[] OPERATORS = new String[]{
-            "AND", "OR", "NOT", "IS", "TRUE", "FALSE", "UNKNOWN"
-    };
-
-    // Data types
-    private static final String[] DATATYPES = new String[]{
-            "INT", "INTEGER", "BIGINT", "SMALLINT", "TINYINT", "DECIMAL", "NUMERIC",
-            "FLOAT", "REAL", "DOUBLE", "PRECISION", "BOOLEAN", "BOOL", "BIT",
-            "CHAR", "VARCHAR", "TEXT", "NCHAR", "NVARCHAR", "NTEXT",
-            "DATE", "TIME", "DATETIME", "TIMESTAMP", "INTERVAL",
-            "BLOB", "CLOB", "BINARY", "VARBINARY", "BYTEA",
-            "JSON", "JSONB", "XML", "UUID", "ARRAY", "ENUM"
-    };
-
-    private static final String KEYWORD_PATTERN = "\\b(" + String.join("|", KEYWORDS) + ")\\b";
-    private static final String FUNCTION_PATTERN = "\\b(" + String.join("|", FUNCTIONS) + ")\\s*(?=\\()";
-    private static final String OPERATOR_PATTERN = "\\b(" + String.join("|", OPERATORS) + ")\\b";
-    private static final String DATATYPE_PATTERN = "\\b(" + String.join("|", DATATYPES) + ")\\b";
-    private static final String STRING_PATTERN = "'([^'\\\\]|\\\\.)*'";
-    private static final String NUMBER_PATTERN = "\\b\\d+(\\.\\d+)?\\b";
-    private static final String COMMENT_SINGLE_PATTERN = "--[^\n]*";
-    private static final String COMMENT_MULTI_PATTERN = "/\\*[^*]*\\*+(?:[^/*][^*]*\\*+)*/";
-    private static final String PAREN_PATTERN = "[()]";
-    private static final String SEMICOLON_PATTERN = ";";
-
-    private static final Pattern PATTERN = Pattern.compile(
-            "(?<COMMENT>" + COMMENT_SINGLE_PATTERN + "|" + COMMENT_MULTI_PATTERN + ")"
-                    + "|(?<STRING>" + STRING_PATTERN + ")"
-                    + "|(?<FUNCTION>" + FUNCTION_PATTERN + ")"
-                    + "|(?<KEYWORD>" + KEYWORD_PATTERN + ")"
-                    + "|(?<OPERATOR>" + OPERATOR_PATTERN + ")"
-                    + "|(?<DATATYPE>" + DATATYPE_PATTERN + ")"
-                    + "|(?<NUMBER>" + NUMBER_PATTERN + ")"
-                    + "|(?<PAREN>" + PAREN_PATTERN + ")"
-                    + "|(?<SEMICOLON>" + SEMICOLON_PATTERN + ")",
-            Pattern.CASE_INSENSITIVE
-    );
-
     private final CodeArea codeArea;
+    private final SQLHighlighter highlighter;
+    private final PauseTransition prefetchDelay = new PauseTransition(Duration.millis(400));
+    private Dialect dialect = Dialect.UNKNOWN;
+    private SQLCompletionEngine completionEngine = SQLCompletionEngine.forConnection(null);
 
     public SQLEditor() {
         this.codeArea = new CodeArea();
@@ -111,12 +43,18 @@ public class SQLEditor extends VBox {
         codeArea.setEditable(true);
         codeArea.setFocusTraversable(true);
 
-        // Apply highlighting on text changes
-        codeArea.textProperty().addListener((obs, oldText, newText) -> {
-            if (newText != null && !newText.isEmpty()) {
-                codeArea.setStyleSpans(0, computeHighlighting(newText));
-            }
+        // Highlight edited paragraphs in the background
+        this.highlighter = new SQLHighlighter(codeArea);
+
+        // Complete from the schema, loading the columns of tables being typed about in the background
+        new SQLCompletionPopup(codeArea, highlighter, () -> completionEngine, () -> dialect);
+        prefetchDelay.setOnFinished(e -> {
+            int caret = codeArea.getCaretPosition();
+            SQLHighlighter.Window window = highlighter.statementWindow(caret, SQLCompletionPopup.MAX_LEXED_CHARS);
+            completionEngine.prefetch(codeArea.getText(window.start(), window.end()), caret - window.start(),
+                    window.entry(), dialect);
         });
+        codeArea.plainTextChanges().subscribe(change -> prefetchDelay.playFromStart());
 
         // Add the code area to this pane and make it grow
         this.getChildren().add(codeArea);
@@ -140,60 +78,32 @@ public class SQLEditor extends VBox {
         }
     }
 
-    private StyleSpans<Collection<String>> computeHighlighting(String text) {
-        Matcher matcher = PATTERN.matcher(text);
-        int lastKwEnd = 0;
-        StyleSpansBuilder<Collection<String>> spansBuilder = new StyleSpansBuilder<>();
-
-        while (matcher.find()) {
-            String styleClass = null;
-
-            if (matcher.group("COMMENT") != null) {
-                styleClass = "comment";
-            } else if (matcher.group("STRING") != null) {
-                styleClass = "string";
-            } else if (matcher.group("FUNCTION") != null) {
-                styleClass = "function";
-            } else if (matcher.group("KEYWORD") != null) {
-                styleClass = "keyword";
-            } else if (matcher.group("OPERATOR") != null) {
-                styleClass = "operator";
-            } else if (matcher.group("DATATYPE") != null) {
-                styleClass = "datatype";
-            } else if (matcher.group("NUMBER") != null) {
-                styleClass = "number";
-            } else if (matcher.group("PAREN") != null) {
-                styleClass = "paren";
-            } else if (matcher.group("SEMICOLON") != null) {
-                styleClass = "semicolon";
-            }
-
-            spansBuilder.add(Collections.emptyList(), matcher.start() - lastKwEnd);
-            spansBuilder.add(
-                    styleClass != null ? Collections.singleton(styleClass) : Collections.emptyList(),
-                    matcher.end() - matcher.start()
-            );
-            lastKwEnd = matcher.end();
-        }
-
-        spansBuilder.add(Collections.emptyList(), text.length() - lastKwEnd);
-        return spansBuilder.create();
-    }
-
     /**
-     * Returns all SQL queries from the editor, split by semicolon.
-     * Empty queries are filtered out.
+     * Returns all SQL statements from the editor. Delimiters inside strings, comments and
+     * statement bodies do not split a statement. Empty statements are filtered out.
      */
     public String[] sqlQueriesInEditor() {
         String sqlText = codeArea.getText();
-
-        // Split by semicolon and trim each query
-        return Arrays.stream(sqlText.split(";"))
-                .map(String::trim)
-                .filter(q -> !q.isEmpty())
+        return SQLSplitter.split(sqlText, dialect).stream()
+                .map(statement -> statement.text(sqlText))
                 .toArray(String[]::new);
     }
 
+    /**
+     * Sets the dialect used to split and highlight the SQL in the editor.
+     */
+    public void setDialect(Dialect dialect) {
+        this.dialect = dialect != null ? dialect : Dialect.UNKNOWN;
+        highlighter.setDialect(this.dialect);
+    }
+
+    /**
+     * Sets the engine completions come from; null offers keywords and functions only.
+     */
+    public void setCompletionEngine(SQLCompletionEngine completionEngine) {
+        this.completionEngine = completionEngine != null ? completionEngine : SQLCompletionEngine.forConnection(null);
+    }
+
     /**
      * Returns the currently selected text, or null if nothing is selected.
      */
@@ -20,6 +20,7 @@ public class SQLEditorToolBar extends ToolBar {
     private Button executeScript;
     private Button stopExecutingScript;
     private Button executeSelection;
+    private Button runFile;
     private Button formatSql;
     private Button clearEditor;
 
@@ -34,6 +35,7 @@ public class SQLEditorToolBar extends ToolBar {
                 new Separator(),
                 executeScript,
                 executeSelection,
+                runFile,
                 new Separator(),
                 stopExecutingScript,
                 new Separator(),
@@ -57,6 +59,9 @@ public class SQLEditorToolBar extends ToolBar {
         // Run selected query
         executeSelection = createButton("Run Selection", Feather.PLAY_CIRCLE, "Execute selected text (Ctrl+Shift+Enter)");
 
+        // Run a file from disk without opening it
+        runFile = createButton("Run File", Feather.FILE_TEXT, "Execute a SQL file from disk, e.g. a large dump");
+
         // Stop execution
         stopExecutingScript = createButton("Stop", Feather.SQUARE, "Stop query execution");
         stopExecutingScript.setDisable(true); // Disabled by default
@@ -86,6 +91,10 @@ public class SQLEditorToolBar extends ToolBar {
         return executeSelection;
     }
 
+    public Button getRunFile() {
+        return runFile;
+    }
+
     public Button getStopExecutingScript() {
         return stopExecutingScript;
     }
@@ -121,6 +130,7 @@ public class SQLEditorToolBar extends ToolBar {
     public void setRunning(boolean running) {
         executeScript.setDisable(running);
         executeSelection.setDisable(running);
+        runFile.setDisable(running);
         stopExecutingScript.setDisable(!running);
     }
 }
\ No newline at end of file
@@ -0,0 +1,387 @@
+package org.fxsql.components.sqlScriptExecutor;
+
+import javafx.animation.PauseTransition;
+import javafx.application.Platform;
+import javafx.util.Duration;
+import org.fxmisc.richtext.CodeArea;
+import org.fxmisc.richtext.model.PlainTextChange;
+import org.fxmisc.richtext.model.StyleSpans;
+import org.fxmisc.richtext.model.StyleSpansBuilder;
+import org.fxmisc.richtext.model.TwoDimensional.Bias;
+import org.fxdb.plugin.sdk.db.Dialect;
+import org.fxsql.sql.SQLKeywords;
+import org.fxsql.sql.SQLTokenizer;
+import org.fxsql.sql.SQLTokenizer.State;
+import org.fxsql.sql.SQLTokenizer.TokenType;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Incremental syntax highlighting for a {@link CodeArea} holding SQL.
+ * <p>
+ * Each paragraph is lexed on its own, starting in the state the previous paragraph ended in,
+ * so block comments and strings spanning lines are handled without looking at the whole
+ * document. An edit only marks the paragraphs it touched as stale. After a short pause in
+ * typing the stale paragraphs are lexed on a background thread, and relexing carries on to
+ * following paragraphs only while their starting state changed, e.g. after opening a block
+ * comment. Style spans are set per paragraph and only where they differ from before, so the
+ * cost of a keystroke does not grow with the size of the document.
+ * <p>
+ * Tokens come from {@link SQLTokenizer}, the tokenizer scripts are split into statements with,
+ * so highlighting and execution agree on where strings and comments are.
+ */
+public class SQLHighlighter {
+
+    private static final Logger logger = Logger.getLogger(SQLHighlighter.class.getName());
+    private static final Duration DEBOUNCE = Duration.millis(60);
+    // Paragraphs lexed per background job; large documents are highlighted in several passes
+    private static final int MAX_LINES_PER_JOB = 2000;
+
+    private static final ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "SQLHighlighter");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private static final Set<String> KEYWORD_SET = new HashSet<>(SQLKeywords.KEYWORDS);
+    // Functions are highlighted only when followed by "("
+    private static final Set<String> FUNCTION_SET = new HashSet<>(SQLKeywords.FUNCTIONS);
+    private static final Set<String> OPERATOR_SET = new HashSet<>(SQLKeywords.OPERATORS);
+    private static final Set<String> DATATYPE_SET = new HashSet<>(SQLKeywords.DATATYPES);
+
+    /**
+     * A run of characters with one style class, or none if {@code style} is null.
+     */
+    record Span(String style, int length) {
+    }
+
+    /**
+     * The result of lexing one paragraph.
+     *
+     * @param delimited Whether the paragraph has a statement delimiter
+     */
+    record LexedLine(State exit, List<Span> spans, boolean delimited) {
+    }
+
+    /**
+     * A stretch of the document and the lexer state it starts in.
+     */
+    record Window(int start, int end, State entry) {
+    }
+
+    /**
+     * One paragraph of the document and what is known about its highlighting.
+     * An edit replaces the objects for the paragraphs it touched, so an unchanged object
+     * always belongs to unchanged text.
+     */
+    private static final class Line {
+        final String text;
+        // State the paragraph was lexed with; null until lexed
+        State entry;
+        State exit;
+        List<Span> spans;
+        boolean delimited;
+
+        Line(String text) {
+            this.text = text;
+        }
+    }
+
+    private final CodeArea codeArea;
+    private final PauseTransition debounce = new PauseTransition(DEBOUNCE);
+
+    // Only touched on the FX thread
+    private final List<Line> lines = new ArrayList<>();
+    private int scanFrom;
+    private long version;
+    private boolean jobRunning;
+    private Dialect dialect = Dialect.UNKNOWN;
+
+    public SQLHighlighter(CodeArea codeArea) {
+        this.codeArea = codeArea;
+        debounce.setOnFinished(e -> runPass());
+        resetLines();
+        codeArea.plainTextChanges().subscribe(this::onTextChanged);
+    }
+
+    /**
+     * Sets the dialect whose quoting and comment rules apply, and rehighlights the document.
+     */
+    public void setDialect(Dialect dialect) {
+        Dialect newDialect = dialect != null ? dialect : Dialect.UNKNOWN;
+        if (newDialect == this.dialect) {
+            return;
+        }
+        this.dialect = newDialect;
+        version++;
+        resetLines();
+        runPass();
+    }
+
+    private void onTextChanged(PlainTextChange change) {
+        version++;
+        int paragraph = codeArea.offsetToPosition(change.getPosition(), Bias.Forward).getMajor();
+        int removedLines = countLines(change.getRemoved());
+        int insertedLines = countLines(change.getInserted());
+
+        if (paragraph + removedLines >= lines.size()
+                || paragraph + insertedLines >= codeArea.getParagraphs().size()) {
+            resetLines();
+        } else {
+            List<Line> replaced = lines.subList(paragraph, paragraph + removedLines + 1);
+            replaced.clear();
+            for (int i = 0; i <= insertedLines; i++) {
+                replaced.add(new Line(codeArea.getParagraph(paragraph + i).getText()));
+            }
+            if (lines.size() != codeArea.getParagraphs().size()) {
+                resetLines();
+            }
+        }
+        scanFrom = Math.min(scanFrom, paragraph);
+        debounce.playFromStart();
+    }
+
+    /**
+     * Forgets all highlighting state and relexes the whole document in the background.
+     */
+    private void resetLines() {
+        lines.clear();
+        codeArea.getParagraphs().forEach(p -> lines.add(new Line(p.getText())));
+        scanFrom = 0;
+    }
+
+    /**
+     * Starts a background job for the next run of stale paragraphs, if there is one.
+     */
+    private void runPass() {
+        if (jobRunning) {
+            // Picked up when the running job completes
+            return;
+        }
+        int start = scanFrom;
+        while (start < lines.size() && !isStale(start)) {
+            start++;
+        }
+        scanFrom = start;
+        if (start >= lines.size()) {
+            return;
+        }
+
+        State entry = start == 0 || lines.get(start - 1).exit == null ? State.NORMAL : lines.get(start - 1).exit;
+        List<Line> batch = new ArrayList<>();
+        for (int i = start; i < lines.size() && batch.size() < MAX_LINES_PER_JOB; i++) {
+            if (!batch.isEmpty() && !isStale(i)) {
+                break;
+            }
+            batch.add(lines.get(i));
+        }
+
+        jobRunning = true;
+        long jobVersion = version;
+        Dialect jobDialect = dialect;
+        int jobStart = start;
+        executor.execute(() -> {
+            List<LexedLine> results = new ArrayList<>(batch.size());
+            try {
+                State state = entry;
+                for (Line line : batch) {
+                    LexedLine lexed = lex(line.text, state, jobDialect);
+                    results.add(lexed);
+                    state = lexed.exit();
+                }
+            } catch (RuntimeException e) {
+                logger.log(Level.WARNING, "Syntax highlighting failed", e);
+            }
+            Platform.runLater(() -> applyJob(jobStart, jobVersion, entry, batch, results));
+        });
+    }
+
+    private void applyJob(int start, long jobVersion, State entry, List<Line> batch, List<LexedLine> results) {
+        jobRunning = false;
+        int index = jobVersion == version ? start : lines.indexOf(batch.get(0));
+        if (index >= 0) {
+            State state = entry;
+            for (int k = 0; k < results.size(); k++) {
+                int i = index + k;
+                Line line = batch.get(k);
+                State expected = i == 0 ? State.NORMAL : lines.get(i - 1).exit;
+                // Stop where an edit replaced the paragraph or changed what precedes it
+                if (i >= lines.size() || lines.get(i) != line || !state.equals(expected)) {
+                    break;
+                }
+                if (codeArea.getParagraph(i).length() != line.text.length()) {
+                    // Out of step with the document; relex this paragraph from its current text
+                    lines.set(i, new Line(codeArea.getParagraph(i).getText()));
+                    scanFrom = Math.min(scanFrom, i);
+                    break;
+                }
+                LexedLine lexed = results.get(k);
+                line.entry = state;
+                line.exit = lexed.exit();
+                line.delimited = lexed.delimited();
+                if (!lexed.spans().equals(line.spans)) {
+                    line.spans = lexed.spans();
+                    codeArea.setStyleSpans(i, 0, toStyleSpans(lexed.spans()));
+                }
+                state = lexed.exit();
+                if (jobVersion == version) {
+                    scanFrom = i + 1;
+                }
+            }
+        }
+        // Continue right away with whatever is still stale
+        runPass();
+    }
+
+    /**
+     * Returns the stretch of the document to lex for the statement at the caret, so completion
+     * does not lex the document from its start. It begins at the last paragraph before the
+     * caret's that has a statement delimiter, or where the paragraphs before the caret add up to
+     * {@code maxChars}, and ends at the next paragraph with a delimiter within the same distance.
+     * The start is always a paragraph whose entry state is known, unless none in reach is; then
+     * it is assumed to start outside any string or comment.
+     */
+    Window statementWindow(int caret, int maxChars) {
+        int caretParagraph = codeArea.offsetToPosition(caret, Bias.Backward).getMajor();
+        if (lines.size() != codeArea.getParagraphs().size() || caretParagraph >= lines.size()) {
+            return new Window(0, codeArea.getLength(), State.NORMAL);
+        }
+
+        int first = -1;
+        int budget = maxChars;
+        int i = caretParagraph;
+        for (; i >= 0 && budget > 0; i--) {
+            if (i == 0 || !isStale(i)) {
+                first = i;
+                if (i < caretParagraph && lines.get(i).delimited) {
+                    break;
+                }
+            }
+            budget -= lines.get(i).text.length() + 1;
+        }
+        State entry;
+        if (first >= 0) {
+            entry = first == 0 ? State.NORMAL : lines.get(first).entry;
+        } else {
+            first = Math.max(0, i + 1);
+            entry = State.NORMAL;
+        }
+
+        int last = caretParagraph;
+        budget = maxChars - lines.get(last).text.length();
+        while (last + 1 < lines.size() && budget > 0 && !lines.get(last).delimited) {
+            last++;
+            budget -= lines.get(last).text.length() + 1;
+        }
+        return new Window(codeArea.getAbsolutePosition(first, 0),
+                codeArea.getAbsolutePosition(last, codeArea.getParagraphLength(last)), entry);
+    }
+
+    private boolean isStale(int index) {
+        Line line = lines.get(index);
+        if (line.entry == null) {
+            return true;
+        }
+        State expected = index == 0 ? State.NORMAL : lines.get(index - 1).exit;
+        return !line.entry.equals(expected);
+    }
+
+    private static int countLines(String text) {
+        int count = 0;
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) == '\n') {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static StyleSpans<Collection<String>> toStyleSpans(List<Span> spans) {
+        StyleSpansBuilder<Collection<String>> builder = new StyleSpansBuilder<>();
+        // An empty paragraph still needs one (empty) span
+        builder.add(Collections.emptyList(), 0);
+        for (Span span : spans) {
+            builder.add(span.style() != null ? Collections.singleton(span.style()) : Collections.emptyList(),
+                    span.length());
+        }
+        return builder.create();
+    }
+
+    /**
+     * Lexes one paragraph starting in the given state.
+     */
+    static LexedLine lex(String text, State entry, Dialect dialect) {
+        List<Span> spans = new ArrayList<>();
+        SQLTokenizer tokenizer = new SQLTokenizer(text, dialect, entry);
+        int pos = 0;
+        boolean delimited = false;
+        while (tokenizer.next()) {
+            delimited |= tokenizer.type() == TokenType.DELIMITER;
+            addSpan(spans, null, tokenizer.start() - pos);
+            addSpan(spans, tokenStyle(tokenizer, text), tokenizer.end() - tokenizer.start());
+            pos = tokenizer.end();
+        }
+        return new LexedLine(tokenizer.state(), spans, delimited);
+    }
+
+    private static String tokenStyle(SQLTokenizer tokenizer, String text) {
+        return switch (tokenizer.type()) {
+            case LINE_COMMENT, BLOCK_COMMENT -> "comment";
+            case STRING, DOLLAR_STRING -> "string";
+            case WORD -> wordStyle(text, tokenizer.start(), tokenizer.end());
+            case NUMBER -> "number";
+            case OPEN_PAREN, CLOSE_PAREN -> "paren";
+            case DELIMITER -> "semicolon";
+            default -> null;
+        };
+    }
+
+    private static String wordStyle(String text, int start, int end) {
+        String word = text.substring(start, end).toUpperCase(Locale.ROOT);
+        if (FUNCTION_SET.contains(word) && followedByParen(text, end)) {
+            return "function";
+        } else if (KEYWORD_SET.contains(word)) {
+            return "keyword";
+        } else if (OPERATOR_SET.contains(word)) {
+            return "operator";
+        } else if (DATATYPE_SET.contains(word)) {
+            return "datatype";
+        }
+        return null;
+    }
+
+    private static boolean followedByParen(String text, int pos) {
+        while (pos < text.length() && Character.isWhitespace(text.charAt(pos))) {
+            pos++;
+        }
+        return pos < text.length() && text.charAt(pos) == '(';
+    }
+
+    /**
+     * Appends a span, merging it into the previous one if both have the same style.
+     */
+    private static void addSpan(List<Span> spans, String style, int length) {
+        if (length <= 0) {
+            return;
+        }
+        if (!spans.isEmpty()) {
+            Span last = spans.get(spans.size() - 1);
+            if (Objects.equals(last.style(), style)) {
+                spans.set(spans.size() - 1, new Span(style, last.length() + length));
+                return;
+            }
+        }
+        spans.add(new Span(style, length));
+    }
+}
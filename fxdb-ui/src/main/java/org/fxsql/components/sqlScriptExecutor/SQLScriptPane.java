@@ -1,35 +1,46 @@
 package org.fxsql.components.sqlScriptExecutor;
 
 import javafx.application.Platform;
-import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
 import javafx.concurrent.Task;
 import javafx.geometry.Insets;
 import javafx.geometry.Orientation;
+import javafx.geometry.Pos;
 import javafx.scene.control.*;
 import javafx.scene.input.KeyCode;
 import javafx.scene.input.KeyCodeCombination;
 import javafx.scene.input.KeyCombination;
 import javafx.scene.input.MouseEvent;
+import javafx.scene.layout.HBox;
 import javafx.scene.layout.Priority;
 import javafx.scene.layout.VBox;
 import javafx.stage.FileChooser;
 import javafx.stage.Window;
+import org.fxdb.plugin.sdk.db.Dialect;
 import org.fxsql.DatabaseConnection;
+import org.fxsql.pool.ConnectionLease;
+import org.fxsql.pool.ConnectionPool;
 import org.fxsql.components.ResultTablePagination;
-import org.fxsql.services.TableInteractionService;
+import org.fxsql.components.windows.ResultExportWindow;
+import org.fxsql.completion.SQLCompletionEngine;
+import org.fxsql.result.QueryResultCache;
+import org.fxsql.result.ResultBuffer;
+import org.fxsql.result.ResultRow;
+import org.fxsql.result.ResultStream;
+import org.fxsql.services.StreamingResultPublisher;
+import org.fxsql.sql.SQLScriptRunner;
 import org.fxsql.utils.SQLSanitizer;
+import org.kordamp.ikonli.feather.Feather;
+import org.kordamp.ikonli.javafx.FontIcon;
 
 import java.io.File;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
-import java.sql.ResultSet;
-import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.function.Consumer;
@@ -50,6 +61,7 @@ public class SQLScriptPane extends VBox {
     private final TextArea statusArea;
     private final ExecutorService executorService;
     private final ProgressIndicator progressIndicator;
+    private final Label progressLabel;
     private final SplitPane splitPane;
     private DatabaseConnection connection;
 
@@ -60,8 +72,13 @@ public class SQLScriptPane extends VBox {
     private Consumer<String> titleChangeCallback;
 
     // Task tracking for cancellation
-    private Task<List<QueryResult>> currentTask;
+    private Task<?> currentTask;
     private volatile boolean cancelRequested;
+    private volatile ResultStream activeStream;
+    private volatile SQLScriptRunner activeRunner;
+
+    // The editor's own connection, kept from one run to the next; guarded by this
+    private ConnectionLease session;
 
     public SQLScriptPane(DatabaseConnection connection) {
         super();
@@ -75,9 +92,12 @@ public class SQLScriptPane extends VBox {
         // Initialize UI components
         toolBar = new SQLEditorToolBar();
         editor = new SQLEditor();
+        editor.setDialect(dialectOf(connection));
+        editor.setCompletionEngine(SQLCompletionEngine.forConnection(connection));
         resultsTabPane = new TabPane();
         statusArea = new TextArea();
         progressIndicator = new ProgressIndicator();
+        progressLabel = new Label();
         splitPane = new SplitPane();
 
         setupUI();
@@ -100,6 +120,9 @@ public class SQLScriptPane extends VBox {
         progressIndicator.setVisible(false);
         progressIndicator.setMaxSize(30, 30);
         progressIndicator.setPadding(new Insets(5));
+        progressLabel.setVisible(false);
+        HBox progressBox = new HBox(8, progressIndicator, progressLabel);
+        progressBox.setAlignment(Pos.CENTER_LEFT);
 
         // Configure results tab pane
         resultsTabPane.setTabClosingPolicy(TabPane.TabClosingPolicy.ALL_TABS);
@@ -117,7 +140,7 @@ public class SQLScriptPane extends VBox {
         VBox.setVgrow(splitPane, Priority.ALWAYS);
 
         // Layout - toolbar at top, then split pane
-        this.getChildren().addAll(toolBar, progressIndicator, splitPane);
+        this.getChildren().addAll(toolBar, progressBox, splitPane);
         this.setSpacing(2);
         this.setPadding(new Insets(5));
     }
@@ -139,6 +162,9 @@ public class SQLScriptPane extends VBox {
             executeSelectionBtn.setOnMouseClicked(this::executeSelectionOnBtnAction);
         }
 
+        // Run file button
+        toolBar.getRunFile().setOnMouseClicked(e -> runFile());
+
         // Stop execution button
         Button stopBtn = toolBar.getStopExecutingScript();
         if (stopBtn != null) {
@@ -200,7 +226,18 @@ public class SQLScriptPane extends VBox {
      */
     private void cancelExecution() {
         if (currentTask != null && currentTask.isRunning()) {
+            SQLScriptRunner runner = activeRunner;
+            if (runner != null) {
+                // Let the run roll back its open transaction and report what was committed
+                runner.cancel();
+                appendStatus("\n⚠ Stopping after the current batch...\n");
+                return;
+            }
             cancelRequested = true;
+            ResultStream stream = activeStream;
+            if (stream != null) {
+                stream.cancel();
+            }
             currentTask.cancel(true);
             appendStatus("\n⚠ Execution cancelled by user.\n");
             toolBar.setRunning(false);
@@ -245,7 +282,7 @@ public class SQLScriptPane extends VBox {
             String query = queries[i].trim();
             if (query.isEmpty()) continue;
 
-            SQLSanitizer.ValidationResult validation = SQLSanitizer.validateQuery(query, false);
+            SQLSanitizer.ValidationResult validation = SQLSanitizer.validateQuery(query, dialectOf(connection), false);
 
             if (!validation.isValid()) {
                 appendStatus(String.format("Query %d: BLOCKED - %s\n", i + 1, validation.getMessage()));
@@ -298,6 +335,8 @@ public class SQLScriptPane extends VBox {
             protected List<QueryResult> call() throws Exception {
                 List<QueryResult> results = new ArrayList<>();
 
+                DatabaseConnection primary = connection;
+                DatabaseConnection sessionConnection = sessionConnection();
                 for (int i = 0; i < queries.length; i++) {
                     // Check for cancellation before each query
                     if (isCancelled() || cancelRequested) {
@@ -311,7 +350,7 @@ public class SQLScriptPane extends VBox {
                     updateMessage("Executing query " + queryNum + " of " + queries.length);
 
                     try {
-                        QueryResult result = executeQuery(query, queryNum);
+                        QueryResult result = executeQuery(primary, sessionConnection, query, queryNum);
                         results.add(result);
                     } catch (Exception e) {
                         // Check if this was due to cancellation
@@ -372,7 +411,157 @@ public class SQLScriptPane extends VBox {
         executorService.submit(executionTask);
     }
 
-    private QueryResult executeQuery(String query, int queryNumber) throws SQLException {
+    /**
+     * Runs a SQL file straight from disk without loading it into the editor, for dumps too
+     * large to open. The file is streamed, so memory use does not grow with its size.
+     */
+    public void runFile() {
+        if (currentTask != null && currentTask.isRunning()) {
+            return;
+        }
+        if (connection == null) {
+            appendStatus("No connection to run the file on.\n");
+            return;
+        }
+
+        FileChooser fileChooser = createFileChooser("Run SQL File");
+        Window window = this.getScene() != null ? this.getScene().getWindow() : null;
+        File file = fileChooser.showOpenDialog(window);
+        if (file == null || !confirmRunFile(file)) {
+            return;
+        }
+
+        resultsTabPane.getTabs().removeIf(tab -> !tab.getText().equals("Messages"));
+        statusArea.clear();
+        appendStatus("═══════════════════════════════════════════════════════\n");
+        appendStatus("Running file " + file.getAbsolutePath() + " (" + formatBytes(file.length()) + ")\n");
+        appendStatus("═══════════════════════════════════════════════════════\n\n");
+
+        Task<SQLScriptRunner.Result> runTask = new Task<>() {
+            @Override
+            protected SQLScriptRunner.Result call() throws Exception {
+                SQLScriptRunner runner = new SQLScriptRunner(sessionConnection());
+                activeRunner = runner;
+                try {
+                    return runner.run(file.toPath(), progress -> {
+                        updateProgress(progress.bytesRead(), progress.totalBytes());
+                        updateMessage(formatProgress(progress));
+                    });
+                } finally {
+                    activeRunner = null;
+                }
+            }
+        };
+
+        currentTask = runTask;
+
+        runTask.setOnRunning(event -> {
+            progressIndicator.progressProperty().bind(runTask.progressProperty());
+            progressLabel.textProperty().bind(runTask.messageProperty());
+            progressLabel.setVisible(true);
+            progressIndicator.setVisible(true);
+            toolBar.setRunning(true);
+        });
+
+        runTask.setOnSucceeded(event -> {
+            endFileRun();
+            reportFileRun(runTask.getValue());
+        });
+
+        // Only when cancelled before the runner started; a running file stops through the runner
+        runTask.setOnCancelled(event -> endFileRun());
+
+        runTask.setOnFailed(event -> {
+            endFileRun();
+            Throwable e = runTask.getException();
+            logger.log(Level.SEVERE, "Failed to run SQL file " + file, e);
+            appendStatus("✗ ERROR: Failed to run file\n" + e.getMessage() + "\n");
+            showErrorAlert("Run File Failed", "Could not run " + file.getName(), e.getMessage(), e);
+        });
+
+        executorService.submit(runTask);
+    }
+
+    private boolean confirmRunFile(File file) {
+        Alert alert = new Alert(Alert.AlertType.CONFIRMATION);
+        alert.setTitle("Run SQL File");
+        alert.setHeaderText("Run " + file.getName() + " (" + formatBytes(file.length()) + ")?");
+        alert.setContentText("Every statement in the file is executed on the current connection without the "
+                + "checks applied to editor queries. Changes are committed periodically; if a statement "
+                + "fails the run stops and earlier commits stay applied.");
+
+        Optional<ButtonType> result = alert.showAndWait();
+        return result.isPresent() && result.get() == ButtonType.OK;
+    }
+
+    private void endFileRun() {
+        progressIndicator.progressProperty().unbind();
+        progressIndicator.setProgress(ProgressIndicator.INDETERMINATE_PROGRESS);
+        progressIndicator.setVisible(false);
+        progressLabel.textProperty().unbind();
+        progressLabel.setText("");
+        progressLabel.setVisible(false);
+        toolBar.setRunning(false);
+        currentTask = null;
+    }
+
+    private void reportFileRun(SQLScriptRunner.Result result) {
+        String duration = formatDuration(TimeUnit.NANOSECONDS.toSeconds(result.elapsedNanos()));
+        if (result.isSuccess()) {
+            appendStatus(String.format("✓ Completed: %,d statement(s) in %s\n", result.committed(), duration));
+        } else if (result.cancelled()) {
+            appendStatus(String.format("⚠ Cancelled after %s: %,d statement(s) committed, the rest rolled back\n",
+                    duration, result.committed()));
+        } else {
+            appendStatus(String.format("✗ Statement %,d FAILED after %s\n", result.failedStatementNumber(), duration));
+            appendStatus("  SQL: " + truncateQuery(result.failedStatement()) + "\n");
+            appendStatus("  ERROR: " + result.error().getMessage() + "\n");
+            appendStatus(String.format("  %,d statement(s) committed before the failure stay applied\n", result.committed()));
+        }
+        if (result.skipped() > 0) {
+            appendStatus(String.format("  Skipped %,d transaction statement(s); commits are managed by the run\n",
+                    result.skipped()));
+        }
+        if (result.skippedCopyBlocks() > 0) {
+            appendStatus(String.format("  Skipped %d COPY ... FROM stdin data block(s), which cannot be sent over JDBC; "
+                    + "dump with pg_dump --inserts to include the data\n", result.skippedCopyBlocks()));
+        }
+    }
+
+    private static String formatProgress(SQLScriptRunner.Progress progress) {
+        long eta = progress.etaSeconds();
+        return String.format("%s of %s (%.0f%%) · %,d statements · %,.0f stmt/s · ETA %s",
+                formatBytes(progress.bytesRead()), formatBytes(progress.totalBytes()), progress.fraction() * 100,
+                progress.statements(), progress.statementsPerSecond(), eta >= 0 ? formatDuration(eta) : "--");
+    }
+
+    private static String formatBytes(long bytes) {
+        if (bytes < 1024) {
+            return bytes + " B";
+        }
+        String[] units = {"KB", "MB", "GB", "TB"};
+        double value = bytes;
+        int unit = -1;
+        while (value >= 1024 && unit < units.length - 1) {
+            value /= 1024;
+            unit++;
+        }
+        return String.format("%.1f %s", value, units[unit]);
+    }
+
+    private static String formatDuration(long seconds) {
+        if (seconds >= 3600) {
+            return String.format("%d:%02d:%02d", seconds / 3600, seconds / 60 % 60, seconds % 60);
+        }
+        return String.format("%d:%02d", seconds / 60, seconds % 60);
+    }
+
+    /**
+     * @param primary    The connection the editor was opened for; the result cache is keyed on it
+     * @param connection The connection the query runs on
+     */
+    private QueryResult executeQuery(DatabaseConnection primary, DatabaseConnection connection, String query,
+                                     int queryNumber) throws SQLException {
         QueryResult result = new QueryResult();
         result.queryNumber = queryNumber;
         result.query = query;
@@ -381,20 +570,41 @@ public class SQLScriptPane extends VBox {
 
         if (SQLSanitizer.isReadOnlyQuery(query)) {
             // Read query (SELECT, WITH, SHOW, etc.)
-            ResultSet rs = connection.executeReadQuery(query);
-            if (rs != null) {
-                result.columns = extractColumns(rs);
-                result.data = extractResultSetData(rs, MAX_ROWS_PER_QUERY);
-                result.rowCount = result.data.size();
+            QueryResultCache.Lookup lookup = QueryResultCache.lookup(primary, query, MAX_ROWS_PER_QUERY);
+            if (lookup != null && lookup.hit() != null) {
+                QueryResultCache.Hit hit = lookup.hit();
+                Platform.runLater(() -> showCachedResult(hit, query, queryNumber));
+                result.data = hit.buffer();
+                result.rowCount = hit.buffer().getRowCount();
                 result.isReadQuery = true;
-                result.truncated = result.rowCount >= MAX_ROWS_PER_QUERY;
+                result.truncated = hit.truncated();
+                result.cached = true;
+                result.executionTime = System.currentTimeMillis() - startTime;
+                result.success = true;
+                return result;
+            }
 
-                // Close the result set
+            // One row past the limit tells whether the result was truncated
+            ResultStream stream = connection.executeStreamingQuery(query, MAX_ROWS_PER_QUERY + 1, rs -> {
+                // Rows are shown in a result tab while they are still being fetched
+                ResultStream s = new ResultStream(rs, MAX_ROWS_PER_QUERY);
+                activeStream = s;
+                if (cancelRequested) {
+                    s.cancel();
+                }
                 try {
-                    rs.close();
-                } catch (SQLException ignored) {}
-            } else {
-                throw new SQLException("Query returned null ResultSet");
+                    s.fetch(new ResultTabPublisher(s, query, queryNumber));
+                } finally {
+                    activeStream = null;
+                }
+                return s;
+            });
+            result.data = stream.getBuffer();
+            result.rowCount = stream.getRowCount();
+            result.isReadQuery = true;
+            result.truncated = stream.isTruncated();
+            if (lookup != null && !stream.isCancelled()) {
+                lookup.store(stream.getBuffer(), stream.isTruncated());
             }
         } else {
             // Write query (INSERT, UPDATE, DELETE, CREATE, etc.)
@@ -410,42 +620,6 @@ public class SQLScriptPane extends VBox {
         return result;
     }
 
-    private List<String> extractColumns(ResultSet rs) throws SQLException {
-        List<String> columns = new ArrayList<>();
-        ResultSetMetaData metaData = rs.getMetaData();
-        int columnCount = metaData.getColumnCount();
-
-        for (int i = 1; i <= columnCount; i++) {
-            String columnName = metaData.getColumnLabel(i);
-            if (columnName == null || columnName.isEmpty()) {
-                columnName = metaData.getColumnName(i);
-            }
-            columns.add(columnName);
-        }
-
-        return columns;
-    }
-
-    private List<ObservableList<Object>> extractResultSetData(ResultSet rs, int maxRows) throws SQLException {
-        List<ObservableList<Object>> data = new ArrayList<>();
-        ResultSetMetaData metaData = rs.getMetaData();
-        int columnCount = metaData.getColumnCount();
-
-        int rowCount = 0;
-        while (rs.next() && rowCount < maxRows) {
-            ObservableList<Object> row = FXCollections.observableArrayList();
-            for (int i = 1; i <= columnCount; i++) {
-                Object value = rs.getObject(i);
-                // Convert null to displayable string
-                row.add(value != null ? value : "[NULL]");
-            }
-            data.add(row);
-            rowCount++;
-        }
-
-        return data;
-    }
-
     private void displayResults(List<QueryResult> results) {
         int successCount = 0;
         int failureCount = 0;
@@ -463,8 +637,7 @@ public class SQLScriptPane extends VBox {
                     String rowInfo = result.truncated
                             ? String.format("  Returned %d row(s) (truncated, max %d)", result.rowCount, MAX_ROWS_PER_QUERY)
                             : String.format("  Returned %d row(s)", result.rowCount);
-                    appendStatus(rowInfo + "\n");
-                    createResultTab(result);
+                    appendStatus(rowInfo + (result.cached ? " from the result cache" : "") + "\n");
                 } else {
                     appendStatus(String.format("  Affected %d row(s)\n", result.rowCount));
                 }
@@ -493,65 +666,92 @@ public class SQLScriptPane extends VBox {
         appendStatus("═══════════════════════════════════════════════════════\n");
     }
 
-    private void createResultTab(QueryResult result) {
-        Platform.runLater(() -> {
-            // Create table view
-            TableView<ObservableList<Object>> resultTable = new TableView<>();
-            resultTable.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY);
-
-            // Create columns
-            for (int i = 0; i < result.columns.size(); i++) {
-                final int colIndex = i;
-                TableColumn<ObservableList<Object>, Object> column =
-                        new TableColumn<>(result.columns.get(i));
-
-                column.setCellValueFactory(param -> {
-                    ObservableList<Object> row = param.getValue();
-                    if (colIndex < row.size()) {
-                        return new javafx.beans.property.SimpleObjectProperty<>(row.get(colIndex));
-                    }
-                    return new javafx.beans.property.SimpleObjectProperty<>(null);
-                });
-
-                // Custom cell factory to handle different data types
-                column.setCellFactory(tc -> new TableCell<>() {
-                    @Override
-                    protected void updateItem(Object item, boolean empty) {
-                        super.updateItem(item, empty);
-                        if (empty || item == null) {
-                            setText(null);
-                            setStyle("");
-                        } else if ("[NULL]".equals(item.toString())) {
-                            setText("NULL");
-                            setStyle("-fx-text-fill: #888; -fx-font-style: italic;");
-                        } else {
-                            setText(item.toString());
-                            setStyle("");
-                        }
-                    }
-                });
+    /**
+     * Context menu of a result tab. Exporting runs the query again, so the file holds the whole
+     * result rather than the rows shown.
+     */
+    private ContextMenu createResultTabMenu(String query, int queryNumber) {
+        MenuItem exportItem = new MenuItem("Export Full Result...");
+        exportItem.setGraphic(new FontIcon(Feather.DOWNLOAD));
+        exportItem.setOnAction(e -> {
+            if (connection == null) {
+                appendStatus("No connection to export from.\n");
+                return;
+            }
+            ResultExportWindow.open(getScene().getWindow(), connection, query, "query" + queryNumber);
+        });
+        return new ContextMenu(exportItem);
+    }
 
-                column.setMinWidth(80);
-                resultTable.getColumns().add(column);
+    /**
+     * Shows a result served by the {@link QueryResultCache} in a new tab, marked as cached.
+     */
+    private void showCachedResult(QueryResultCache.Hit hit, String query, int queryNumber) {
+        ResultBuffer buffer = hit.buffer();
+        ResultTablePagination<ResultRow> table = new ResultTablePagination<>(createResultTable(buffer));
+        table.addData(buffer.rows());
+
+        FontIcon icon = new FontIcon(Feather.ARCHIVE);
+        icon.setIconSize(12);
+        Tab tab = new Tab(String.format("Query %d (%d rows%s, cached)",
+                queryNumber, buffer.getRowCount(), hit.truncated() ? "+" : ""), table);
+        tab.setGraphic(icon);
+        tab.setTooltip(new Tooltip("From the result cache, read " + TimeUnit.MILLISECONDS.toSeconds(hit.ageMillis())
+                + " s ago. Clear the cache to run the query again."));
+
+        ContextMenu menu = createResultTabMenu(query, queryNumber);
+        MenuItem clearItem = new MenuItem("Clear Result Cache");
+        clearItem.setGraphic(new FontIcon(Feather.TRASH_2));
+        clearItem.setOnAction(e -> {
+            if (connection != null) {
+                QueryResultCache.invalidateAll(connection);
+                appendStatus("Result cache cleared.\n");
             }
+        });
+        menu.getItems().add(clearItem);
+        tab.setContextMenu(menu);
 
-            // Create pagination wrapper
-            ResultTablePagination<ObservableList<Object>> paginatedTable = new ResultTablePagination<>(resultTable);
-            paginatedTable.setData(result.data);
+        resultsTabPane.getTabs().add(tab);
+        resultsTabPane.getSelectionModel().select(tab);
+    }
 
-            // Create tab
-            String tabTitle = String.format("Query %d (%d rows%s)",
-                    result.queryNumber,
-                    result.rowCount,
-                    result.truncated ? "+" : "");
+    private TableView<ResultRow> createResultTable(ResultBuffer buffer) {
+        // Create table view
+        TableView<ResultRow> resultTable = new TableView<>();
+        resultTable.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY);
+
+        // Create columns
+        for (int i = 0; i < buffer.getColumnCount(); i++) {
+            final int colIndex = i;
+            TableColumn<ResultRow, Object> column =
+                    new TableColumn<>(buffer.getColumnName(i));
+
+            column.setCellValueFactory(param ->
+                    new javafx.beans.property.SimpleObjectProperty<>(param.getValue().get(colIndex)));
+
+            // Custom cell factory to handle different data types
+            column.setCellFactory(tc -> new TableCell<>() {
+                @Override
+                protected void updateItem(Object item, boolean empty) {
+                    super.updateItem(item, empty);
+                    if (empty) {
+                        setText(null);
+                        setStyle("");
+                    } else if (item == null) {
+                        setText("NULL");
+                        setStyle("-fx-text-fill: #888; -fx-font-style: italic;");
+                    } else {
+                        setText(item.toString());
+                        setStyle("");
+                    }
+                }
+            });
 
-            Tab resultTab = new Tab(tabTitle);
-            resultTab.setContent(paginatedTable);
-            resultsTabPane.getTabs().add(resultTab);
+            column.setMinWidth(80);
+            resultTable.getColumns().add(column);
+        }
 
-            // Select the new tab
-            resultsTabPane.getSelectionModel().select(resultTab);
-        });
+        return resultTable;
     }
 
     private void appendStatus(String text) {
@@ -601,8 +801,41 @@ public class SQLScriptPane extends VBox {
         return sb.toString();
     }
 
+    /**
+     * Returns the connection this editor runs its queries on. It is borrowed from the
+     * connection's pool on first use and kept for the editor's lifetime, so that session
+     * settings, temporary tables and transactions opened in one run carry over to the next,
+     * while a long script still does not hold up table browsing on the primary connection.
+     */
+    private synchronized DatabaseConnection sessionConnection() {
+        if (session != null && session.isStale()) {
+            session.close();
+            session = null;
+        }
+        if (session == null) {
+            session = ConnectionPool.session(connection);
+        }
+        return session.connection();
+    }
+
+    private synchronized void releaseSession() {
+        if (session != null) {
+            session.close();
+            session = null;
+        }
+    }
+
     public void setConnection(DatabaseConnection connection) {
+        if (connection != this.connection) {
+            releaseSession();
+        }
         this.connection = connection;
+        editor.setDialect(dialectOf(connection));
+        editor.setCompletionEngine(SQLCompletionEngine.forConnection(connection));
+    }
+
+    private static Dialect dialectOf(DatabaseConnection connection) {
+        return connection != null ? connection.getDialect() : Dialect.UNKNOWN;
     }
 
     public DatabaseConnection getConnection() {
@@ -823,6 +1056,55 @@ public class SQLScriptPane extends VBox {
 
     public void shutdown() {
         executorService.shutdownNow();
+        releaseSession();
+    }
+
+    /**
+     * Opens the result tab when the first row arrives and appends rows as they are fetched.
+     */
+    private class ResultTabPublisher extends StreamingResultPublisher {
+        private final String query;
+        private final int queryNumber;
+        private Tab tab;
+        private ResultTablePagination<ResultRow> table;
+
+        ResultTabPublisher(ResultStream stream, String query, int queryNumber) {
+            super(stream);
+            this.query = query;
+            this.queryNumber = queryNumber;
+        }
+
+        @Override
+        protected void publish(List<ResultRow> newRows, boolean done) {
+            ResultStream stream = getStream();
+            if (tab == null) {
+                // Create pagination wrapper
+                table = new ResultTablePagination<>(createResultTable(stream.getBuffer()));
+
+                tab = new Tab();
+                tab.setContent(table);
+                tab.setContextMenu(createResultTabMenu(query, queryNumber));
+                resultsTabPane.getTabs().add(tab);
+
+                // Select the new tab
+                resultsTabPane.getSelectionModel().select(tab);
+            }
+            if (!newRows.isEmpty()) {
+                table.addData(newRows);
+            }
+
+            if (done) {
+                tab.setText(String.format("Query %d (%d rows%s)",
+                        queryNumber,
+                        stream.getRowCount(),
+                        stream.isTruncated() || stream.isCancelled() ? "+" : ""));
+            } else {
+                tab.setText(String.format("Query %d (%,d rows, %,.0f rows/s...)",
+                        queryNumber,
+                        stream.getRowCount(),
+                        stream.getRowsPerSecond()));
+            }
+        }
     }
 
     // Helper class to store query results
@@ -832,10 +1114,10 @@ public class SQLScriptPane extends VBox {
         boolean success;
         boolean isReadQuery;
         boolean truncated;
+        boolean cached;
         long executionTime;
         int rowCount;
-        List<String> columns;
-        List<ObservableList<Object>> data;
+        ResultBuffer data;
         Throwable error;
     }
 }
\ No newline at end of file
@@ -0,0 +1,326 @@
+package org.fxsql.components.windows;
+
+import atlantafx.base.theme.Styles;
+import javafx.collections.FXCollections;
+import javafx.concurrent.Task;
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.Scene;
+import javafx.scene.control.*;
+import javafx.scene.layout.GridPane;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.VBox;
+import javafx.stage.FileChooser;
+import javafx.stage.Stage;
+import javafx.stage.Window;
+import javafx.util.StringConverter;
+import org.fxdb.plugin.sdk.db.Dialect;
+import org.fxsql.DatabaseConnection;
+import org.fxsql.pool.ConnectionLease;
+import org.fxsql.pool.ConnectionPool;
+import org.fxsql.transfer.ResultExporter;
+import org.kordamp.ikonli.feather.Feather;
+import org.kordamp.ikonli.javafx.FontIcon;
+
+import java.io.File;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A window that exports the full result of a query to a CSV, JSON Lines or Parquet file.
+ * The query runs again on a pooled connection of its own, so exports are not limited to the
+ * rows shown and the window can be left open while working elsewhere.
+ */
+public class ResultExportWindow {
+
+    private static final Logger logger = Logger.getLogger(ResultExportWindow.class.getName());
+
+    private final DatabaseConnection connection;
+    private final String sql;
+    private final String baseName;
+    private final Dialect dialect;
+    private final Stage stage;
+
+    private final ComboBox<ResultExporter.Format> formatBox;
+    private final ComboBox<ResultExporter.Compression> compressionBox;
+    private final TextField fileField;
+    private final ProgressBar progressBar;
+    private final Label progressLabel;
+    private final Button exportButton;
+    private final Button cancelButton;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "ResultExport-Executor");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private File file;
+    private volatile ResultExporter activeExporter;
+
+    private ResultExportWindow(Window owner, DatabaseConnection connection, String sql, String baseName) {
+        this.connection = connection;
+        this.sql = sql;
+        this.baseName = baseName;
+        this.dialect = connection.getDialect();
+        this.stage = new Stage();
+        this.formatBox = new ComboBox<>(FXCollections.observableArrayList(ResultExporter.Format.values()));
+        this.compressionBox = new ComboBox<>(FXCollections.observableArrayList(ResultExporter.Compression.values()));
+        this.fileField = new TextField();
+        this.progressBar = new ProgressBar(0);
+        this.progressLabel = new Label();
+        this.exportButton = new Button("Export");
+        this.cancelButton = new Button("Cancel");
+
+        stage.setTitle("Export: " + baseName);
+        stage.initOwner(owner);
+        stage.setScene(new Scene(createContent(), 520, 240));
+        stage.setOnHidden(e -> shutdown());
+    }
+
+    /**
+     * Opens an export window for a query.
+     *
+     * @param owner The owning window
+     * @param connection The connection the query belongs to
+     * @param sql The query whose result is exported
+     * @param baseName Suggested file name without extension, e.g. the table name
+     */
+    public static void open(Window owner, DatabaseConnection connection, String sql, String baseName) {
+        new ResultExportWindow(owner, connection, sql, baseName).stage.show();
+    }
+
+    private VBox createContent() {
+        formatBox.setConverter(new StringConverter<>() {
+            @Override
+            public String toString(ResultExporter.Format format) {
+                return format == null ? "" : format.getLabel();
+            }
+
+            @Override
+            public ResultExporter.Format fromString(String string) {
+                return null;
+            }
+        });
+        compressionBox.setConverter(new StringConverter<>() {
+            @Override
+            public String toString(ResultExporter.Compression compression) {
+                return compression == null ? "" : compression.getLabel();
+            }
+
+            @Override
+            public ResultExporter.Compression fromString(String string) {
+                return null;
+            }
+        });
+        formatBox.getSelectionModel().select(ResultExporter.Format.CSV);
+        compressionBox.getSelectionModel().select(ResultExporter.Compression.NONE);
+        formatBox.setOnAction(e -> updateSelection());
+        compressionBox.setOnAction(e -> updateSelection());
+
+        fileField.setEditable(false);
+        fileField.setPromptText("Choose where to save the export");
+        HBox.setHgrow(fileField, Priority.ALWAYS);
+        Button browseButton = new Button("Browse...");
+        FontIcon browseIcon = new FontIcon(Feather.FOLDER);
+        browseIcon.setIconSize(12);
+        browseButton.setGraphic(browseIcon);
+        browseButton.setOnAction(e -> chooseFile());
+
+        GridPane form = new GridPane();
+        form.setHgap(8);
+        form.setVgap(8);
+        form.setPadding(new Insets(10));
+        HBox fileRow = new HBox(8, fileField, browseButton);
+        GridPane.setHgrow(fileRow, Priority.ALWAYS);
+        form.addRow(0, new Label("Format:"), formatBox);
+        form.addRow(1, new Label("Compression:"), compressionBox);
+        form.addRow(2, new Label("File:"), fileRow);
+
+        progressBar.setMaxWidth(Double.MAX_VALUE);
+        progressBar.setVisible(false);
+        HBox.setHgrow(progressBar, Priority.ALWAYS);
+
+        FontIcon exportIcon = new FontIcon(Feather.DOWNLOAD);
+        exportIcon.setIconSize(12);
+        exportButton.setGraphic(exportIcon);
+        exportButton.getStyleClass().add(Styles.ACCENT);
+        exportButton.setDisable(true);
+        exportButton.setOnAction(e -> startExport());
+
+        cancelButton.setDisable(true);
+        cancelButton.setOnAction(e -> cancelExport());
+
+        HBox actions = new HBox(8, progressBar, cancelButton, exportButton);
+        actions.setAlignment(Pos.CENTER_LEFT);
+        actions.setPadding(new Insets(6, 10, 6, 10));
+        actions.setStyle("-fx-border-color: #e0e0e0; -fx-border-width: 1 0 0 0;");
+
+        progressLabel.setPadding(new Insets(0, 10, 6, 10));
+        progressLabel.setWrapText(true);
+
+        VBox content = new VBox(form, actions, progressLabel);
+        VBox.setVgrow(form, Priority.ALWAYS);
+        return content;
+    }
+
+    private void chooseFile() {
+        ResultExporter.Format format = formatBox.getValue();
+        FileChooser chooser = new FileChooser();
+        chooser.setTitle("Export " + format.getLabel());
+        chooser.setInitialFileName(ResultExporter.fileName(baseName, format, compressionBox.getValue()));
+        chooser.getExtensionFilters().addAll(
+                new FileChooser.ExtensionFilter(format.getLabel() + " files",
+                        "*" + ResultExporter.fileName("", format, compressionBox.getValue())),
+                new FileChooser.ExtensionFilter("All files", "*.*"));
+        if (file != null && file.getParentFile() != null) {
+            chooser.setInitialDirectory(file.getParentFile());
+        }
+        File chosen = chooser.showSaveDialog(stage);
+        if (chosen != null) {
+            file = chosen;
+            fileField.setText(chosen.getAbsolutePath());
+            updateSelection();
+        }
+    }
+
+    /**
+     * Enables export for combinations the database can write and keeps the file extension in
+     * step with the chosen format.
+     */
+    private void updateSelection() {
+        ResultExporter.Format format = formatBox.getValue();
+        ResultExporter.Compression compression = compressionBox.getValue();
+        if (file != null) {
+            File parent = file.getParentFile();
+            file = new File(parent, ResultExporter.fileName(stripExtensions(file.getName()), format, compression));
+            fileField.setText(file.getAbsolutePath());
+        }
+
+        boolean supported = ResultExporter.isSupported(dialect, format, compression);
+        exportButton.setDisable(file == null || !supported);
+        progressLabel.getStyleClass().remove(Styles.DANGER);
+        progressLabel.setText(supported ? "" : format.getLabel() + " with " + compression.getLabel()
+                + " compression can only be exported from DuckDB");
+    }
+
+    private static String stripExtensions(String name) {
+        for (ResultExporter.Compression compression : ResultExporter.Compression.values()) {
+            if (!compression.getSuffix().isEmpty() && name.endsWith(compression.getSuffix())) {
+                name = name.substring(0, name.length() - compression.getSuffix().length());
+            }
+        }
+        for (ResultExporter.Format format : ResultExporter.Format.values()) {
+            if (name.endsWith("." + format.getExtension())) {
+                return name.substring(0, name.length() - format.getExtension().length() - 1);
+            }
+        }
+        return name;
+    }
+
+    private void startExport() {
+        ResultExporter.Format format = formatBox.getValue();
+        ResultExporter.Compression compression = compressionBox.getValue();
+        File destination = file;
+        Task<ResultExporter.Result> exportTask = new Task<>() {
+            @Override
+            protected ResultExporter.Result call() throws Exception {
+                // A pooled connection of its own, held for the whole export
+                try (ConnectionLease lease = ConnectionPool.lease(connection)) {
+                    ResultExporter exporter = new ResultExporter(lease.connection(), sql, destination.toPath(), format, compression);
+                    updateMessage("Running query...");
+                    activeExporter = exporter;
+                    try {
+                        return exporter.run(progress -> updateMessage(formatProgress(progress)));
+                    } finally {
+                        activeExporter = null;
+                    }
+                }
+            }
+        };
+
+        progressBar.setProgress(ProgressBar.INDETERMINATE_PROGRESS);
+        progressLabel.textProperty().bind(exportTask.messageProperty());
+        setRunning(true);
+
+        exportTask.setOnSucceeded(event -> {
+            endExport();
+            ResultExporter.Result result = exportTask.getValue();
+            if (result.cancelled()) {
+                progressLabel.setText("Export cancelled; no file was written.");
+            } else {
+                progressLabel.setText(String.format("Exported %,d rows (%s) in %s (%,.0f rows/s)",
+                        result.rows(), formatBytes(result.bytesWritten()),
+                        formatDuration(TimeUnit.NANOSECONDS.toSeconds(result.elapsedNanos())), result.rowsPerSecond()));
+            }
+        });
+        exportTask.setOnFailed(event -> {
+            endExport();
+            Throwable ex = exportTask.getException();
+            logger.log(Level.WARNING, "Export to " + destination + " failed", ex);
+            progressLabel.getStyleClass().add(Styles.DANGER);
+            progressLabel.setText("Export failed: " + (ex != null ? ex.getMessage() : "Unknown error"));
+        });
+        executor.submit(exportTask);
+    }
+
+    private void cancelExport() {
+        ResultExporter exporter = activeExporter;
+        if (exporter != null) {
+            exporter.cancel();
+            cancelButton.setDisable(true);
+        }
+    }
+
+    private void endExport() {
+        progressLabel.textProperty().unbind();
+        setRunning(false);
+    }
+
+    private void setRunning(boolean running) {
+        exportButton.setDisable(running);
+        cancelButton.setDisable(!running);
+        formatBox.setDisable(running);
+        compressionBox.setDisable(running);
+        progressBar.setVisible(running);
+        progressLabel.getStyleClass().remove(Styles.DANGER);
+    }
+
+    private void shutdown() {
+        cancelExport();
+        executor.shutdownNow();
+    }
+
+    private static String formatProgress(ResultExporter.Progress progress) {
+        if (progress.rows() < 0) {
+            return "The database is writing the file...";
+        }
+        return String.format("%,d rows · %,.0f rows/s · %s written", progress.rows(), progress.rowsPerSecond(),
+                formatBytes(progress.bytesWritten()));
+    }
+
+    private static String formatBytes(long bytes) {
+        if (bytes < 1024) {
+            return bytes + " B";
+        }
+        String[] units = {"KB", "MB", "GB", "TB"};
+        double value = bytes;
+        int unit = -1;
+        while (value >= 1024 && unit < units.length - 1) {
+            value /= 1024;
+            unit++;
+        }
+        return String.format("%.1f %s", value, units[unit]);
+    }
+
+    private static String formatDuration(long seconds) {
+        if (seconds >= 3600) {
+            return String.format("%d:%02d:%02d", seconds / 3600, seconds / 60 % 60, seconds % 60);
+        }
+        return String.format("%d:%02d", seconds / 60, seconds % 60);
+    }
+}
@@ -220,17 +220,17 @@ public class PluginManagerController {
 
     private void setupEventListeners() {
         // Listen for plugin events to update UI
-        EventHandler<PluginEvent> handler = event -> Platform.runLater(() -> {
+        EventHandler<PluginEvent> handler = event -> {
             statusLabel.setText(event.getMessage());
             refreshTable();
-        });
-
-        EventBus.addEventHandler(PluginEvent.PLUGIN_INSTALLED, handler);
-        EventBus.addEventHandler(PluginEvent.PLUGIN_UNINSTALLED, handler);
-        EventBus.addEventHandler(PluginEvent.PLUGIN_STARTED, handler);
-        EventBus.addEventHandler(PluginEvent.PLUGIN_STOPPED, handler);
-        EventBus.addEventHandler(PluginEvent.PLUGIN_ERROR, handler);
-        EventBus.addEventHandler(PluginEvent.PLUGIN_LOADED, handler);
+        };
+
+        EventBus.addEventHandler(PluginEvent.PLUGIN_INSTALLED, EventBus.Delivery.FX_THREAD, handler);
+        EventBus.addEventHandler(PluginEvent.PLUGIN_UNINSTALLED, EventBus.Delivery.FX_THREAD, handler);
+        EventBus.addEventHandler(PluginEvent.PLUGIN_STARTED, EventBus.Delivery.FX_THREAD, handler);
+        EventBus.addEventHandler(PluginEvent.PLUGIN_STOPPED, EventBus.Delivery.FX_THREAD, handler);
+        EventBus.addEventHandler(PluginEvent.PLUGIN_ERROR, EventBus.Delivery.FX_THREAD, handler);
+        EventBus.addEventHandler(PluginEvent.PLUGIN_LOADED, EventBus.Delivery.FX_THREAD, handler);
     }
 
     private void loadPlugins() {
@@ -13,9 +13,11 @@ import atlantafx.base.controls.Tile;
 import javafx.geometry.Insets;
 import javafx.scene.control.Button;
 import javafx.scene.control.Separator;
+import javafx.scene.control.TextField;
 import javafx.scene.control.Tooltip;
 import javafx.scene.control.TreeItem;
 import javafx.scene.control.TreeView;
+import javafx.scene.input.KeyCode;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.Priority;
 import javafx.scene.layout.Region;
@@ -27,6 +29,7 @@ public class ConnectionDockNode implements FXDockNode {
     private final TreeView<String> tableBrowser;
     private final Tile databaseSelectorTile;
     private final Button refreshButton;
+    private final TextField filterField;
 
     public ConnectionDockNode() {
         // Database selector tile
@@ -74,6 +77,17 @@ public class ConnectionDockNode implements FXDockNode {
         treeRibbon.setPadding(new Insets(1, 2, 1, 2));
         treeRibbon.setAlignment(javafx.geometry.Pos.CENTER_LEFT);
 
+        // Type-ahead filter for the table browser
+        filterField = new TextField();
+        filterField.setPromptText("Filter objects");
+        filterField.setStyle("-fx-font-size: 11px;");
+        filterField.setOnKeyPressed(e -> {
+            if (e.getCode() == KeyCode.ESCAPE) {
+                filterField.clear();
+            }
+        });
+        VBox.setMargin(filterField, new Insets(2, 2, 2, 2));
+
         // Table browser tree
         tableBrowser = new TreeView<>();
         VBox.setVgrow(tableBrowser, Priority.ALWAYS);
@@ -84,6 +98,7 @@ public class ConnectionDockNode implements FXDockNode {
             databaseSelectorTile,
             new Separator(),
             treeRibbon,
+            filterField,
             tableBrowser
         );
         content.setPrefWidth(280);
@@ -115,6 +130,10 @@ public class ConnectionDockNode implements FXDockNode {
         return refreshButton;
     }
 
+    public TextField getFilterField() {
+        return filterField;
+    }
+
     /**
      * Iterative BFS expand/collapse of all tree nodes. O(n) time, no recursion.
      */
@@ -1,6 +1,5 @@
 package org.fxsql.listeners;
 
-import javafx.application.Platform;
 import javafx.event.EventHandler;
 import org.fxsql.events.DriverDownloadEvent;
 import org.fxsql.events.DriverLoadedEvent;
@@ -17,20 +16,20 @@ public class DriverEventListener extends BaseListener {
     }
 
     private void setDriverDownloadedEventListener() {
-        EventHandler<DriverDownloadEvent> onDriverDownload = event -> Platform.runLater(() -> {
+        EventHandler<DriverDownloadEvent> onDriverDownload = event -> {
             if (notificationContainer != null) {
                 notificationContainer.showSuccess("Driver downloaded: " + event.getMessage());
             }
-        });
-        EventBus.addEventHandler(DriverDownloadEvent.DRIVER_DOWNLOAD_EVENT, onDriverDownload);
+        };
+        EventBus.addEventHandler(DriverDownloadEvent.DRIVER_DOWNLOAD_EVENT, EventBus.Delivery.FX_THREAD, onDriverDownload);
     }
 
     private void setDriverLoadedEventListener() {
-        EventHandler<DriverLoadedEvent> onDriverLoaded = event -> Platform.runLater(() -> {
+        EventHandler<DriverLoadedEvent> onDriverLoaded = event -> {
             if (notificationContainer != null) {
                 notificationContainer.showInfo("Driver loaded: " + event.getMessage());
             }
-        });
-        EventBus.addEventHandler(DriverLoadedEvent.DRIVER_LOADED_EVENT, onDriverLoaded);
+        };
+        EventBus.addEventHandler(DriverLoadedEvent.DRIVER_LOADED_EVENT, EventBus.Delivery.FX_THREAD, onDriverLoaded);
     }
 }
\ No newline at end of file
@@ -1,6 +1,5 @@
 package org.fxsql.listeners;
 
-import javafx.application.Platform;
 import javafx.collections.FXCollections;
 import javafx.event.EventHandler;
 import javafx.scene.control.ComboBox;
@@ -16,7 +15,7 @@ public class NewConnectionAddedListener extends BaseListener {
     private ComboBox<String> comboBox;
 
     public NewConnectionAddedListener() {
-        EventHandler<NewConnectionAddedEvent> handler = event -> Platform.runLater(() -> {
+        EventHandler<NewConnectionAddedEvent> handler = event -> {
             if (databaseManager == null || comboBox == null) {
                 return;
             }
@@ -34,9 +33,9 @@ public class NewConnectionAddedListener extends BaseListener {
             }
 
             System.out.println("Combo box updated with new connection: " + event.getMessage());
-        });
+        };
 
-        EventBus.addEventHandler(NewConnectionAddedEvent.NEW_CONNECTION_ADDED, handler);
+        EventBus.addEventHandler(NewConnectionAddedEvent.NEW_CONNECTION_ADDED, EventBus.Delivery.FX_THREAD, handler);
     }
 
     public void setDatabaseManager(DatabaseManager dm) {
@@ -2,8 +2,11 @@ package org.fxsql.model;
 
 import javafx.collections.ObservableList;
 
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
 
 /**
  * Represents a change to a row in a database table.
@@ -16,23 +19,30 @@ public class RowChange {
         DELETE
     }
 
+    /**
+     * A value bound to a {@code ?} placeholder, with the index of the column it belongs to.
+     */
+    public record Parameter(int columnIndex, Object value) {
+    }
+
     private final ChangeType type;
     private final String tableName;
     private final ObservableList<Object> originalRow;
     private final ObservableList<Object> currentRow;
     private final Map<Integer, Object> changedColumns; // column index -> new value
-    private final java.util.List<String> columnNames;
+    private final List<String> columnNames;
     private final int primaryKeyIndex;
 
     public RowChange(ChangeType type, String tableName, ObservableList<Object> originalRow,
-                     ObservableList<Object> currentRow, java.util.List<String> columnNames, int primaryKeyIndex) {
+                     ObservableList<Object> currentRow, List<String> columnNames, int primaryKeyIndex) {
         this.type = type;
         this.tableName = tableName;
         this.originalRow = originalRow;
         this.currentRow = currentRow;
         this.columnNames = columnNames;
         this.primaryKeyIndex = primaryKeyIndex;
-        this.changedColumns = new HashMap<>();
+        // Sorted so equal column sets produce identical statements
+        this.changedColumns = new TreeMap<>();
     }
 
     public void addColumnChange(int columnIndex, Object newValue) {
@@ -59,7 +69,7 @@ public class RowChange {
         return changedColumns;
     }
 
-    public java.util.List<String> getColumnNames() {
+    public List<String> getColumnNames() {
         return columnNames;
     }
 
@@ -83,6 +93,99 @@ public class RowChange {
         }
     }
 
+    /**
+     * Generates the SQL statement for this change with {@code ?} placeholders for values.
+     * Changes that produce the same statement can be executed as one batch.
+     *
+     * @return The statement, or null if there is nothing to write
+     */
+    public String toParameterizedSql() {
+        switch (type) {
+            case INSERT:
+                return String.format("INSERT INTO %s (%s) VALUES (%s)",
+                        tableName, String.join(", ", columnNames),
+                        String.join(", ", Collections.nCopies(columnNames.size(), "?")));
+            case UPDATE:
+                if (changedColumns.isEmpty()) {
+                    return null;
+                }
+                List<String> assignments = new ArrayList<>();
+                for (Integer column : changedColumns.keySet()) {
+                    assignments.add(columnNames.get(column) + " = ?");
+                }
+                return String.format("UPDATE %s SET %s WHERE %s",
+                        tableName, String.join(", ", assignments), buildParameterizedWhereClause(originalRow));
+            case DELETE:
+                return String.format("DELETE FROM %s WHERE %s", tableName, buildParameterizedWhereClause(originalRow));
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Returns the values for the placeholders of {@link #toParameterizedSql()}, in order.
+     */
+    public List<Parameter> getParameters() {
+        List<Parameter> parameters = new ArrayList<>();
+        switch (type) {
+            case INSERT:
+                for (int i = 0; i < columnNames.size(); i++) {
+                    parameters.add(new Parameter(i, normalize(currentRow.get(i))));
+                }
+                break;
+            case UPDATE:
+                for (Map.Entry<Integer, Object> entry : changedColumns.entrySet()) {
+                    parameters.add(new Parameter(entry.getKey(), normalize(entry.getValue())));
+                }
+                addWhereParameters(originalRow, parameters);
+                break;
+            case DELETE:
+                addWhereParameters(originalRow, parameters);
+                break;
+        }
+        return parameters;
+    }
+
+    /**
+     * Returns a short description of the affected row, such as {@code UPDATE id = 5}.
+     */
+    public String describe() {
+        ObservableList<Object> row = type == ChangeType.INSERT ? currentRow : originalRow;
+        if (primaryKeyIndex >= 0 && row != null && primaryKeyIndex < row.size()) {
+            return type + " " + columnNames.get(primaryKeyIndex) + " = " + normalize(row.get(primaryKeyIndex));
+        }
+        return type + " row";
+    }
+
+    private String buildParameterizedWhereClause(ObservableList<Object> row) {
+        if (primaryKeyIndex >= 0 && primaryKeyIndex < row.size()) {
+            return columnNames.get(primaryKeyIndex) + " = ?";
+        }
+
+        List<String> conditions = new ArrayList<>();
+        for (int i = 0; i < Math.min(columnNames.size(), row.size()); i++) {
+            conditions.add(columnNames.get(i) + (normalize(row.get(i)) == null ? " IS NULL" : " = ?"));
+        }
+        return String.join(" AND ", conditions);
+    }
+
+    private void addWhereParameters(ObservableList<Object> row, List<Parameter> parameters) {
+        if (primaryKeyIndex >= 0 && primaryKeyIndex < row.size()) {
+            parameters.add(new Parameter(primaryKeyIndex, normalize(row.get(primaryKeyIndex))));
+            return;
+        }
+        for (int i = 0; i < Math.min(columnNames.size(), row.size()); i++) {
+            Object value = normalize(row.get(i));
+            if (value != null) {
+                parameters.add(new Parameter(i, value));
+            }
+        }
+    }
+
+    private static Object normalize(Object value) {
+        return "[NULL]".equals(value) ? null : value;
+    }
+
     private String generateInsertSql() {
         StringBuilder columns = new StringBuilder();
         StringBuilder values = new StringBuilder();
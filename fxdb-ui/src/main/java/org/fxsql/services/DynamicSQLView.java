@@ -1,8 +1,8 @@
 package org.fxsql.services;
 
 import atlantafx.base.theme.Tweaks;
+import javafx.animation.PauseTransition;
 import javafx.application.Platform;
-import javafx.collections.ObservableList;
 import javafx.concurrent.Task;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
@@ -12,6 +12,7 @@ import javafx.scene.input.MouseButton;
 import javafx.scene.input.MouseEvent;
 import javafx.stage.Modality;
 import javafx.stage.Stage;
+import javafx.util.Duration;
 import org.fxsql.DatabaseConnection;
 import org.fxsql.DatabaseObjects;
 import org.fxsql.components.EditableTablePane;
@@ -20,11 +21,14 @@ import org.fxsql.components.ViewInfoPane;
 import org.fxsql.controller.CreateTableController;
 import org.fxsql.controller.CreateTriggerController;
 import org.fxsql.controller.CreateViewController;
+import org.fxsql.schema.ObjectNameIndex;
+import org.fxsql.schema.SchemaCache;
 import org.kordamp.ikonli.feather.Feather;
 import org.kordamp.ikonli.javafx.FontIcon;
 
 import java.io.IOException;
-import java.util.List;
+import java.util.EnumMap;
+import java.util.Map;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.logging.Level;
@@ -33,10 +37,14 @@ import java.util.logging.Logger;
 /**
  * Dynamic view for displaying database objects in a tree structure.
  * Supports Tables, Views, Triggers, Functions, and Indexes.
+ * <p>
+ * Objects of a category are only turned into tree items once the category is expanded, and a
+ * refresh only adds and removes the names that changed.
  */
 public class DynamicSQLView {
 
     private static final Logger logger = Logger.getLogger(DynamicSQLView.class.getName());
+    private static final Duration FILTER_DELAY = Duration.millis(150);
 
     private final TreeView<String> tableSelector;
     private final TableContextMenu tableSelectorContextMenu;
@@ -50,15 +58,24 @@ public class DynamicSQLView {
     private TabPane tabPane;
     private EditableTablePane editableTablePane;
     private DatabaseConnection databaseConnection;
+    private String connectionName;
+    private ObjectNameIndex objectIndex;
     private volatile boolean isRefreshing = false;
+    // Set when a refresh is asked for while one is running, e.g. after switching connection
+    private volatile boolean refreshQueued;
+    // FX thread only: the connection whose objects the tree shows, and an object to open once it does
+    private String treeConnectionName;
+    private PendingOpen pendingOpen;
+    private final PauseTransition filterDebounce = new PauseTransition(FILTER_DELAY);
+    private String pendingFilter = "";
 
     // Tree root items for each category
     private TreeItem<String> rootItem;
-    private TreeItem<String> tablesNode;
-    private TreeItem<String> viewsNode;
-    private TreeItem<String> triggersNode;
-    private TreeItem<String> functionsNode;
-    private TreeItem<String> indexesNode;
+    private SchemaCategoryItem tablesNode;
+    private SchemaCategoryItem viewsNode;
+    private SchemaCategoryItem triggersNode;
+    private SchemaCategoryItem functionsNode;
+    private SchemaCategoryItem indexesNode;
 
     public DynamicSQLView(EditableTablePane editableTablePane, TreeView<String> tableSelector,
                           DatabaseConnection connection) {
@@ -99,29 +116,21 @@ public class DynamicSQLView {
         rootItem = new TreeItem<>("Database");
         rootItem.setExpanded(true);
 
-        tablesNode = createCategoryNode("Tables", Feather.DATABASE);
-        viewsNode = createCategoryNode("Views", Feather.EYE);
-        triggersNode = createCategoryNode("Triggers", Feather.ZAP);
-        functionsNode = createCategoryNode("Functions", Feather.CODE);
-        indexesNode = createCategoryNode("Indexes", Feather.LIST);
+        tablesNode = new SchemaCategoryItem("Tables", Feather.DATABASE, Feather.GRID);
+        viewsNode = new SchemaCategoryItem("Views", Feather.EYE, Feather.EYE);
+        triggersNode = new SchemaCategoryItem("Triggers", Feather.ZAP, Feather.ZAP);
+        functionsNode = new SchemaCategoryItem("Functions", Feather.CODE, Feather.CODE);
+        indexesNode = new SchemaCategoryItem("Indexes", Feather.LIST, Feather.LIST);
+        // Tables are what most users open first; the other categories are built when expanded
+        tablesNode.setExpanded(true);
 
         rootItem.getChildren().addAll(tablesNode, viewsNode, triggersNode, functionsNode, indexesNode);
 
+        filterDebounce.setOnFinished(e -> applyFilter());
+        tableSelector.setCellFactory(tv -> new SchemaTreeCell());
         Platform.runLater(() -> tableSelector.setRoot(rootItem));
     }
 
-    /**
-     * Creates a category node with an icon.
-     */
-    private TreeItem<String> createCategoryNode(String name, Feather icon) {
-        TreeItem<String> node = new TreeItem<>(name);
-        FontIcon fontIcon = new FontIcon(icon);
-        fontIcon.setIconSize(14);
-        node.setGraphic(fontIcon);
-        node.setExpanded(true);
-        return node;
-    }
-
     /**
      * Sets up mouse event handlers for the tree view.
      */
@@ -421,7 +430,8 @@ public class DynamicSQLView {
      */
     public void loadTableNames() {
         if (isRefreshing) {
-            logger.info("Refresh already in progress, skipping");
+            logger.info("Refresh already in progress, queueing another");
+            refreshQueued = true;
             return;
         }
 
@@ -433,25 +443,41 @@ public class DynamicSQLView {
 
         isRefreshing = true;
         logger.info("Starting database objects refresh...");
+        String indexedName = connectionName;
 
-        Task<DatabaseObjects> loadTask = new Task<>() {
+        Task<Void> loadTask = new Task<>() {
             @Override
-            protected DatabaseObjects call() throws Exception {
-                return databaseConnection.getAllDatabaseObjects();
+            protected Void call() throws Exception {
+                SchemaCache cache = SchemaCache.forConnection(databaseConnection);
+                DatabaseObjects cached = cache.getCachedObjects();
+                if (cached == null) {
+                    DatabaseObjects objects = cache.loadObjects(databaseConnection);
+                    updateTreeView(indexedName, objects);
+                    updateIndex(indexedName, objects);
+                    return null;
+                }
+                // Show the cached tree right away, then update it only if the schema changed
+                updateTreeView(indexedName, cached);
+                updateIndex(indexedName, cached);
+                if (cache.revalidate(databaseConnection)) {
+                    updateTreeView(indexedName, cache.getCachedObjects());
+                    updateIndex(indexedName, cache.getCachedObjects());
+                }
+                return null;
             }
         };
 
         loadTask.setOnSucceeded(event -> {
-            DatabaseObjects objects = loadTask.getValue();
-            updateTreeView(objects);
             isRefreshing = false;
             logger.info("Database objects refresh completed successfully");
+            runQueuedRefresh();
         });
 
         loadTask.setOnFailed(event -> {
             Throwable error = loadTask.getException();
             logger.log(Level.SEVERE, "Failed to load database objects", error);
             isRefreshing = false;
+            runQueuedRefresh();
 
             Platform.runLater(() -> {
                 Alert alert = new Alert(Alert.AlertType.ERROR);
@@ -465,88 +491,68 @@ public class DynamicSQLView {
         refreshExecutor.submit(loadTask);
     }
 
+    private void runQueuedRefresh() {
+        if (refreshQueued) {
+            refreshQueued = false;
+            loadTableNames();
+        }
+    }
+
     /**
-     * Updates the tree view with the loaded database objects.
+     * Updates the tree view with the loaded database objects. Runs on the refresh thread, where the
+     * names are sorted and compared with the previous refresh; the FX thread only applies the changes.
+     *
+     * @param name The connection the objects belong to, or null when clearing the tree
      */
-    private void updateTreeView(DatabaseObjects objects) {
-        Platform.runLater(() -> {
-            // Clear existing children
-            tablesNode.getChildren().clear();
-            viewsNode.getChildren().clear();
-            triggersNode.getChildren().clear();
-            functionsNode.getChildren().clear();
-            indexesNode.getChildren().clear();
-
-            // Populate tables
-            populateNode(tablesNode, objects.getTables(), Feather.GRID);
-
-            // Populate views
-            populateNode(viewsNode, objects.getViews(), Feather.EYE);
-
-            // Populate triggers
-            populateNode(triggersNode, objects.getTriggers(), Feather.ZAP);
-
-            // Populate functions
-            populateNode(functionsNode, objects.getFunctions(), Feather.CODE);
-
-            // Populate indexes
-            populateNode(indexesNode, objects.getIndexes(), Feather.LIST);
-
-            // Update category labels with counts
-            updateCategoryLabel(tablesNode, "Tables", objects.getTables().size());
-            updateCategoryLabel(viewsNode, "Views", objects.getViews().size());
-            updateCategoryLabel(triggersNode, "Triggers", objects.getTriggers().size());
-            updateCategoryLabel(functionsNode, "Functions", objects.getFunctions().size());
-            updateCategoryLabel(indexesNode, "Indexes", objects.getIndexes().size());
+    private void updateTreeView(String name, DatabaseObjects objects) {
+        SchemaCategoryItem.Update tables = tablesNode.prepare(objects.getTables());
+        SchemaCategoryItem.Update views = viewsNode.prepare(objects.getViews());
+        SchemaCategoryItem.Update triggers = triggersNode.prepare(objects.getTriggers());
+        SchemaCategoryItem.Update functions = functionsNode.prepare(objects.getFunctions());
+        SchemaCategoryItem.Update indexes = indexesNode.prepare(objects.getIndexes());
 
-            // Refresh the tree view
-            tableSelector.refresh();
+        Platform.runLater(() -> {
+            tablesNode.apply(tables);
+            viewsNode.apply(views);
+            triggersNode.apply(triggers);
+            functionsNode.apply(functions);
+            indexesNode.apply(indexes);
+            treeConnectionName = name;
+            openPendingObject();
         });
     }
 
     /**
-     * Populates a tree node with items.
+     * Applies the loaded objects to the object index, after the tree so the tree is not kept waiting.
      */
-    private void populateNode(TreeItem<String> parentNode, List<String> items, Feather icon) {
-        if (items == null || items.isEmpty()) {
-            return;
-        }
-
-        for (String item : items) {
-            TreeItem<String> childItem = new TreeItem<>(item.toLowerCase());
-            FontIcon fontIcon = new FontIcon(icon);
-            fontIcon.setIconSize(12);
-            childItem.setGraphic(fontIcon);
-            parentNode.getChildren().add(childItem);
+    private void updateIndex(String name, DatabaseObjects objects) {
+        if (objectIndex != null && name != null) {
+            objectIndex.update(name, objects);
         }
     }
 
     /**
-     * Updates the category label to show count.
+     * Clears all nodes in the tree.
      */
-    private void updateCategoryLabel(TreeItem<String> node, String baseName, int count) {
-        node.setValue(baseName + " (" + count + ")");
+    private void clearAllNodes() {
+        refreshExecutor.submit(() -> updateTreeView(null, new DatabaseObjects(null, null, null, null, null)));
     }
 
     /**
-     * Clears all nodes in the tree.
+     * Narrows every category to objects whose name contains the given text, without reloading them.
+     * Typing is debounced, so the tree is filtered once the user pauses.
      */
-    private void clearAllNodes() {
-        Platform.runLater(() -> {
-            tablesNode.getChildren().clear();
-            viewsNode.getChildren().clear();
-            triggersNode.getChildren().clear();
-            functionsNode.getChildren().clear();
-            indexesNode.getChildren().clear();
-
-            updateCategoryLabel(tablesNode, "Tables", 0);
-            updateCategoryLabel(viewsNode, "Views", 0);
-            updateCategoryLabel(triggersNode, "Triggers", 0);
-            updateCategoryLabel(functionsNode, "Functions", 0);
-            updateCategoryLabel(indexesNode, "Indexes", 0);
-
-            tableSelector.refresh();
-        });
+    public void setFilter(String filter) {
+        pendingFilter = filter != null ? filter.trim().toLowerCase() : "";
+        filterDebounce.playFromStart();
+    }
+
+    private void applyFilter() {
+        tablesNode.setFilter(pendingFilter);
+        viewsNode.setFilter(pendingFilter);
+        triggersNode.setFilter(pendingFilter);
+        functionsNode.setFilter(pendingFilter);
+        indexesNode.setFilter(pendingFilter);
     }
 
     /**
@@ -560,6 +566,64 @@ public class DynamicSQLView {
         }
     }
 
+    /**
+     * Sets the name the current connection's objects are indexed under.
+     */
+    public void setConnectionName(String connectionName) {
+        this.connectionName = connectionName;
+    }
+
+    /**
+     * Sets the index that loaded objects are added to, for finding them by name.
+     */
+    public void setObjectIndex(ObjectNameIndex objectIndex) {
+        this.objectIndex = objectIndex;
+    }
+
+    /**
+     * Selects an object of the current connection in the tree and opens tables and views in a tab.
+     */
+    public void openObject(ObjectNameIndex.Kind kind, String name) {
+        SchemaCategoryItem category = switch (kind) {
+            case TABLE -> tablesNode;
+            case VIEW -> viewsNode;
+            case FUNCTION -> functionsNode;
+            case TRIGGER -> triggersNode;
+            case INDEX -> indexesNode;
+        };
+        TreeItem<String> item = category.reveal(name);
+        if (item != null) {
+            tableSelector.getSelectionModel().select(item);
+            tableSelector.scrollTo(tableSelector.getRow(item));
+        }
+        if (kind == ObjectNameIndex.Kind.TABLE) {
+            loadTableData(name);
+        } else if (kind == ObjectNameIndex.Kind.VIEW) {
+            loadViewInfo(name);
+        }
+    }
+
+    /**
+     * Opens an object like {@link #openObject} once the tree shows the objects of the given
+     * connection. After switching connection the tree is loaded in the background, and until
+     * then it still holds the previous connection's objects.
+     */
+    public void openObjectWhenLoaded(String connectionName, ObjectNameIndex.Kind kind, String name) {
+        pendingOpen = new PendingOpen(connectionName, kind, name);
+        openPendingObject();
+    }
+
+    private void openPendingObject() {
+        PendingOpen open = pendingOpen;
+        if (open != null && open.connectionName().equals(treeConnectionName)) {
+            pendingOpen = null;
+            openObject(open.kind(), open.name());
+        }
+    }
+
+    private record PendingOpen(String connectionName, ObjectNameIndex.Kind kind, String name) {
+    }
+
     /**
      * Returns the current database connection.
      */
@@ -640,4 +704,34 @@ public class DynamicSQLView {
             editableTablePane.shutdown();
         }
     }
+
+    /**
+     * Tree cell that takes an object's icon from its category. A node can only have one parent,
+     * so each cell keeps one icon per type and reuses it as it is recycled for other rows.
+     */
+    private static final class SchemaTreeCell extends TreeCell<String> {
+
+        private final Map<Feather, FontIcon> icons = new EnumMap<>(Feather.class);
+
+        @Override
+        protected void updateItem(String item, boolean empty) {
+            super.updateItem(item, empty);
+            if (empty || item == null) {
+                setText(null);
+                setGraphic(null);
+                return;
+            }
+            setText(item);
+            TreeItem<String> treeItem = getTreeItem();
+            if (treeItem != null && treeItem.getParent() instanceof SchemaCategoryItem category) {
+                setGraphic(icons.computeIfAbsent(category.getChildIcon(), icon -> {
+                    FontIcon fontIcon = new FontIcon(icon);
+                    fontIcon.setIconSize(12);
+                    return fontIcon;
+                }));
+            } else {
+                setGraphic(treeItem != null ? treeItem.getGraphic() : null);
+            }
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,281 @@
+package org.fxsql.services;
+
+import org.fxsql.model.RowChange;
+
+import java.sql.BatchUpdateException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Writes grid edits to the database in one transaction.
+ * <p>
+ * Changes are grouped by their parameterized statement, so rows of the same type that touch the
+ * same columns share one {@link PreparedStatement} and are sent with {@code executeBatch}. Deletes
+ * run first, then updates, then inserts, so a deleted key can be inserted again in the same save.
+ * If any row fails, everything is rolled back and the failing rows are reported.
+ */
+public class RowChangeWriter {
+
+    private static final Logger logger = Logger.getLogger(RowChangeWriter.class.getName());
+    // Rows per executeBatch call; bounds driver memory for very large saves
+    private static final int BATCH_SIZE = 1000;
+
+    private final Connection connection;
+    private final List<Integer> columnTypes;
+
+    /**
+     * @param connection The connection to write through
+     * @param columnTypes JDBC types of the table's columns, by column index; used to convert edited text
+     */
+    public RowChangeWriter(Connection connection, List<Integer> columnTypes) {
+        this.connection = connection;
+        this.columnTypes = columnTypes;
+    }
+
+    /**
+     * A change that could not be written, with the database's reason.
+     */
+    public record RowError(RowChange change, String message) {
+        @Override
+        public String toString() {
+            return change.describe() + ": " + message;
+        }
+    }
+
+    /**
+     * The outcome of {@link #save}. Either every change was written, or none was and
+     * {@link #getErrors()} names the rows that failed.
+     */
+    public static final class SaveResult {
+        private final int savedCount;
+        private final List<RowError> errors;
+
+        private SaveResult(int savedCount, List<RowError> errors) {
+            this.savedCount = savedCount;
+            this.errors = Collections.unmodifiableList(errors);
+        }
+
+        public boolean isSuccess() {
+            return errors.isEmpty();
+        }
+
+        public int getSavedCount() {
+            return savedCount;
+        }
+
+        public List<RowError> getErrors() {
+            return errors;
+        }
+    }
+
+    /**
+     * Writes the changes. Row-level failures are reported in the result after rolling back.
+     *
+     * @param changes The pending changes, in the order they were made
+     * @return The outcome
+     * @throws SQLException if the connection is unusable or the transaction cannot be ended
+     */
+    public SaveResult save(Collection<RowChange> changes) throws SQLException {
+        if (connection == null || connection.isClosed()) {
+            throw new SQLException("Connection is not established or is closed.");
+        }
+
+        Map<String, List<RowChange>> groups = groupByStatement(changes);
+        if (groups.isEmpty()) {
+            return new SaveResult(0, new ArrayList<>());
+        }
+
+        // Join a transaction the user already opened through a savepoint instead of committing it
+        boolean autoCommit = connection.getAutoCommit();
+        Savepoint savepoint = null;
+        if (autoCommit) {
+            connection.setAutoCommit(false);
+        } else {
+            savepoint = connection.setSavepoint();
+        }
+
+        List<RowError> errors = new ArrayList<>();
+        int saved = 0;
+        boolean committed = false;
+        try {
+            for (Map.Entry<String, List<RowChange>> group : groups.entrySet()) {
+                saved += executeGroup(group.getKey(), group.getValue(), errors);
+                if (!errors.isEmpty()) {
+                    break;
+                }
+            }
+
+            if (errors.isEmpty()) {
+                if (autoCommit) {
+                    connection.commit();
+                } else {
+                    connection.releaseSavepoint(savepoint);
+                }
+                committed = true;
+                logger.info("Saved " + saved + " change(s) in " + groups.size() + " batch group(s)");
+                return new SaveResult(saved, errors);
+            }
+            return new SaveResult(0, errors);
+        } finally {
+            if (!committed) {
+                rollback(savepoint);
+            }
+            if (autoCommit) {
+                connection.setAutoCommit(true);
+            }
+        }
+    }
+
+    private Map<String, List<RowChange>> groupByStatement(Collection<RowChange> changes) {
+        Map<String, List<RowChange>> groups = new LinkedHashMap<>();
+        for (RowChange.ChangeType type : List.of(RowChange.ChangeType.DELETE,
+                RowChange.ChangeType.UPDATE, RowChange.ChangeType.INSERT)) {
+            for (RowChange change : changes) {
+                if (change.getType() != type) {
+                    continue;
+                }
+                String sql = change.toParameterizedSql();
+                if (sql != null) {
+                    groups.computeIfAbsent(sql, k -> new ArrayList<>()).add(change);
+                }
+            }
+        }
+        return groups;
+    }
+
+    /**
+     * Executes one group in chunks. Stops at the first failing chunk, since some databases
+     * reject every later statement in a transaction once one has failed.
+     */
+    private int executeGroup(String sql, List<RowChange> changes, List<RowError> errors) throws SQLException {
+        int saved = 0;
+        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+            for (int start = 0; start < changes.size(); start += BATCH_SIZE) {
+                List<RowChange> chunk = changes.subList(start, Math.min(start + BATCH_SIZE, changes.size()));
+
+                for (RowChange change : chunk) {
+                    try {
+                        bind(stmt, change.getParameters());
+                        stmt.addBatch();
+                    } catch (SQLException e) {
+                        // Usually a value that cannot be converted to the column type
+                        errors.add(new RowError(change, e.getMessage()));
+                        stmt.clearParameters();
+                    }
+                }
+                if (!errors.isEmpty()) {
+                    stmt.clearBatch();
+                    return saved;
+                }
+
+                int[] counts;
+                try {
+                    counts = stmt.executeBatch();
+                } catch (BatchUpdateException e) {
+                    collectBatchErrors(chunk, e, errors);
+                    return saved;
+                }
+                checkUpdateCounts(chunk, counts, errors);
+                if (!errors.isEmpty()) {
+                    return saved;
+                }
+                saved += chunk.size();
+            }
+        }
+        logger.fine("Executed " + changes.size() + " row(s): " + sql);
+        return saved;
+    }
+
+    private void bind(PreparedStatement stmt, List<RowChange.Parameter> parameters) throws SQLException {
+        for (int i = 0; i < parameters.size(); i++) {
+            RowChange.Parameter parameter = parameters.get(i);
+            int sqlType = columnType(parameter.columnIndex());
+            Object value = parameter.value();
+            if (value == null) {
+                stmt.setNull(i + 1, sqlType);
+            } else if (sqlType == Types.NULL || sqlType == Types.OTHER) {
+                stmt.setObject(i + 1, value);
+            } else {
+                // Lets the driver convert edited text to the column type, as a quoted literal would
+                stmt.setObject(i + 1, value, sqlType);
+            }
+        }
+    }
+
+    private int columnType(int columnIndex) {
+        if (columnTypes == null || columnIndex >= columnTypes.size() || columnTypes.get(columnIndex) == null) {
+            return Types.NULL;
+        }
+        return columnTypes.get(columnIndex);
+    }
+
+    private void collectBatchErrors(List<RowChange> chunk, BatchUpdateException e, List<RowError> errors) {
+        String message = rootMessage(e);
+        int[] counts = e.getUpdateCounts();
+        if (counts != null && counts.length < chunk.size()) {
+            // The driver stopped at the first failing row
+            errors.add(new RowError(chunk.get(counts.length), message));
+            return;
+        }
+        if (counts != null) {
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] == Statement.EXECUTE_FAILED) {
+                    errors.add(new RowError(chunk.get(i), message));
+                }
+            }
+        }
+        if (errors.isEmpty()) {
+            // The driver did not say which row failed
+            errors.add(new RowError(chunk.get(0), "Batch of " + chunk.size() + " row(s) failed: " + message));
+        }
+    }
+
+    /**
+     * Each update or delete must hit exactly one row. More than one means the row could not be
+     * told apart from others, e.g. duplicates in a table without a primary key, and saving would
+     * change rows that were not edited.
+     */
+    private void checkUpdateCounts(List<RowChange> chunk, int[] counts, List<RowError> errors) {
+        for (int i = 0; i < Math.min(counts.length, chunk.size()); i++) {
+            RowChange change = chunk.get(i);
+            if (change.getType() == RowChange.ChangeType.INSERT) {
+                continue;
+            }
+            if (counts[i] == 0) {
+                errors.add(new RowError(change, "No matching row; it may have been changed or deleted by someone else"));
+            } else if (counts[i] > 1) {
+                errors.add(new RowError(change, counts[i] + " rows match; the row cannot be told apart from identical rows"));
+            }
+        }
+    }
+
+    private static String rootMessage(SQLException e) {
+        // PostgreSQL puts the actual cause in the next exception
+        SQLException next = e.getNextException();
+        return next != null && next.getMessage() != null ? next.getMessage() : e.getMessage();
+    }
+
+    private void rollback(Savepoint savepoint) {
+        try {
+            if (savepoint != null) {
+                connection.rollback(savepoint);
+            } else {
+                connection.rollback();
+            }
+        } catch (SQLException e) {
+            logger.log(Level.WARNING, "Failed to roll back changes", e);
+        }
+    }
+}
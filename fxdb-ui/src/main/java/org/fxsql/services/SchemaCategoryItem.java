@@ -0,0 +1,240 @@
+package org.fxsql.services;
+
+import javafx.collections.ObservableList;
+import javafx.scene.control.TreeItem;
+import org.kordamp.ikonli.feather.Feather;
+import org.kordamp.ikonli.javafx.FontIcon;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A category node of the schema tree (Tables, Views, ...) whose children are only created once it
+ * is expanded. Names are kept sorted, so a refresh is applied as the names added and removed since
+ * the previous one, and a filter narrows the children without creating new items.
+ */
+final class SchemaCategoryItem extends TreeItem<String> {
+
+    // Above this many changes, replacing the children in one go is cheaper than single inserts and removals
+    private static final int INCREMENTAL_LIMIT = 256;
+
+    /**
+     * The sorted names of a refresh and how they differ from the previous refresh.
+     */
+    record Update(List<String> names, List<String> added, List<String> removed) {
+
+        int changeCount() {
+            return added.size() + removed.size();
+        }
+    }
+
+    private final String baseName;
+    private final Feather childIcon;
+
+    // Names of the last update prepared; only touched on the refresh thread
+    private List<String> preparedNames = List.of();
+
+    // Only touched on the FX thread
+    private List<String> names = List.of();
+    private List<TreeItem<String>> items;
+    private String filter = "";
+
+    SchemaCategoryItem(String baseName, Feather icon, Feather childIcon) {
+        super(baseName);
+        this.baseName = baseName;
+        this.childIcon = childIcon;
+        FontIcon fontIcon = new FontIcon(icon);
+        fontIcon.setIconSize(14);
+        setGraphic(fontIcon);
+        expandedProperty().addListener((obs, wasExpanded, expanded) -> {
+            if (expanded) {
+                materialize();
+            }
+        });
+        updateLabel();
+    }
+
+    /**
+     * Returns the icon shown for the objects in this category.
+     */
+    Feather getChildIcon() {
+        return childIcon;
+    }
+
+    @Override
+    public boolean isLeaf() {
+        // Children may not exist yet, so an unexpanded category still needs its disclosure arrow
+        return names.isEmpty();
+    }
+
+    /**
+     * Sorts the names of a refresh and computes what changed since the last call.
+     * Called on the refresh thread; the result is applied with {@link #apply(Update)}.
+     */
+    Update prepare(List<String> objectNames) {
+        List<String> sorted = new ArrayList<>(objectNames.size());
+        for (String name : objectNames) {
+            sorted.add(name.toLowerCase());
+        }
+        sorted.sort(null);
+
+        // Merge walk over both sorted lists; duplicate names are matched one to one
+        List<String> previous = preparedNames;
+        List<String> added = new ArrayList<>();
+        List<String> removed = new ArrayList<>();
+        int i = 0;
+        int j = 0;
+        while (i < previous.size() || j < sorted.size()) {
+            int cmp = i == previous.size() ? 1 : j == sorted.size() ? -1 : previous.get(i).compareTo(sorted.get(j));
+            if (cmp == 0) {
+                i++;
+                j++;
+            } else if (cmp < 0) {
+                removed.add(previous.get(i++));
+            } else {
+                added.add(sorted.get(j++));
+            }
+        }
+        preparedNames = sorted;
+        return new Update(sorted, added, removed);
+    }
+
+    /**
+     * Applies a prepared update on the FX thread. Unexpanded categories only take the new names.
+     */
+    void apply(Update update) {
+        names = update.names();
+        if (items != null && update.changeCount() > 0) {
+            if (update.changeCount() > INCREMENTAL_LIMIT) {
+                items = mergeItems(items, names);
+                getChildren().setAll(visibleItems());
+            } else {
+                applyIncrementally(update);
+            }
+        }
+        updateLabel();
+    }
+
+    /**
+     * Narrows the children to names containing the given lower-case text; empty shows all names.
+     */
+    void setFilter(String filter) {
+        this.filter = filter;
+        if (items != null) {
+            getChildren().setAll(visibleItems());
+        }
+        updateLabel();
+    }
+
+    /**
+     * Expands the category and returns the child shown for a name, or null if it is filtered out
+     * or not in the category.
+     */
+    TreeItem<String> reveal(String name) {
+        setExpanded(true);
+        String key = name.toLowerCase();
+        ObservableList<TreeItem<String>> children = getChildren();
+        int index = lowerBound(children, key);
+        return index < children.size() && children.get(index).getValue().equals(key) ? children.get(index) : null;
+    }
+
+    private void materialize() {
+        if (items != null) {
+            return;
+        }
+        items = new ArrayList<>(names.size());
+        for (String name : names) {
+            items.add(new TreeItem<>(name));
+        }
+        getChildren().setAll(visibleItems());
+    }
+
+    private void applyIncrementally(Update update) {
+        ObservableList<TreeItem<String>> children = getChildren();
+        for (String name : update.removed()) {
+            removeItem(items, name);
+            if (matches(name)) {
+                removeItem(children, name);
+            }
+        }
+        for (String name : update.added()) {
+            TreeItem<String> item = new TreeItem<>(name);
+            items.add(lowerBound(items, name), item);
+            if (matches(name)) {
+                children.add(lowerBound(children, name), item);
+            }
+        }
+    }
+
+    /**
+     * Returns items for the given sorted names, reusing the existing item of every name that remains
+     * so selection and expansion survive a refresh.
+     */
+    private static List<TreeItem<String>> mergeItems(List<TreeItem<String>> current, List<String> names) {
+        List<TreeItem<String>> merged = new ArrayList<>(names.size());
+        int i = 0;
+        for (String name : names) {
+            while (i < current.size() && current.get(i).getValue().compareTo(name) < 0) {
+                i++;
+            }
+            if (i < current.size() && current.get(i).getValue().equals(name)) {
+                merged.add(current.get(i++));
+            } else {
+                merged.add(new TreeItem<>(name));
+            }
+        }
+        return merged;
+    }
+
+    private List<TreeItem<String>> visibleItems() {
+        if (filter.isEmpty()) {
+            return items;
+        }
+        List<TreeItem<String>> visible = new ArrayList<>();
+        for (TreeItem<String> item : items) {
+            if (item.getValue().contains(filter)) {
+                visible.add(item);
+            }
+        }
+        return visible;
+    }
+
+    private boolean matches(String name) {
+        return filter.isEmpty() || name.contains(filter);
+    }
+
+    private void updateLabel() {
+        if (filter.isEmpty()) {
+            setValue(baseName + " (" + names.size() + ")");
+            return;
+        }
+        int matching = 0;
+        for (String name : names) {
+            if (name.contains(filter)) {
+                matching++;
+            }
+        }
+        setValue(baseName + " (" + matching + "/" + names.size() + ")");
+    }
+
+    private static void removeItem(List<TreeItem<String>> sortedItems, String name) {
+        int index = lowerBound(sortedItems, name);
+        if (index < sortedItems.size() && sortedItems.get(index).getValue().equals(name)) {
+            sortedItems.remove(index);
+        }
+    }
+
+    private static int lowerBound(List<TreeItem<String>> sortedItems, String name) {
+        int low = 0;
+        int high = sortedItems.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sortedItems.get(mid).getValue().compareTo(name) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
@@ -0,0 +1,64 @@
+package org.fxsql.services;
+
+import javafx.application.Platform;
+import org.fxsql.result.ResultRow;
+import org.fxsql.result.ResultStream;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Hands rows from a {@link ResultStream} to the JavaFX thread while the fetch is still running.
+ * <p>
+ * Progress callbacks from the fetch thread are coalesced: at most one {@link Platform#runLater}
+ * is outstanding at a time, and when it runs it publishes every row that arrived since the
+ * previous update. A slow FX thread therefore gets fewer, larger batches instead of a backlog.
+ */
+public abstract class StreamingResultPublisher implements ResultStream.Listener {
+
+    private final ResultStream stream;
+    private final AtomicBoolean updatePending = new AtomicBoolean();
+    // Only accessed on the FX thread
+    private int publishedRows;
+    private boolean finished;
+
+    protected StreamingResultPublisher(ResultStream stream) {
+        this.stream = stream;
+    }
+
+    @Override
+    public final void onProgress(ResultStream source) {
+        if (updatePending.compareAndSet(false, true)) {
+            Platform.runLater(() -> {
+                updatePending.set(false);
+                publishPending();
+            });
+        }
+    }
+
+    private void publishPending() {
+        if (finished) {
+            return;
+        }
+        // Read the done flag before the row count so the last batch is never missed
+        boolean done = stream.isDone();
+        int rowCount = stream.getRowCount();
+        List<ResultRow> newRows = stream.getBuffer().rows().subList(publishedRows, rowCount);
+        publishedRows = rowCount;
+        publish(newRows, done);
+        finished = done;
+    }
+
+    protected ResultStream getStream() {
+        return stream;
+    }
+
+    /**
+     * Called on the FX thread with the rows fetched since the previous call.
+     * The first call happens once the first row arrives, or when the result turns out to be empty.
+     *
+     * @param newRows The new rows; may be empty
+     * @param done True for the final call, after fetching has stopped
+     */
+    protected abstract void publish(List<ResultRow> newRows, boolean done);
+}
@@ -2,22 +2,26 @@ package org.fxsql.services;
 
 import javafx.application.Platform;
 import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
 import javafx.scene.control.Alert;
 import javafx.scene.control.TableColumn;
 import javafx.scene.control.TableView;
+import org.fxdb.plugin.sdk.db.Dialect;
 import org.fxsql.DatabaseConnection;
 import org.fxsql.components.ResultTablePagination;
 import org.fxsql.components.alerts.StackTraceAlert;
+import org.fxsql.pool.ConnectionLease;
+import org.fxsql.pool.ConnectionPool;
+import org.fxsql.result.ResultBuffer;
+import org.fxsql.result.ResultRow;
+import org.fxsql.result.ResultStream;
 import org.fxsql.utils.SQLSanitizer;
 import tech.tablesaw.api.Table;
 
 import java.sql.ResultSet;
-import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -31,17 +35,20 @@ public class TableInteractionService {
     private static final int DEFAULT_PAGE_SIZE = 200;
     private static final int MAX_ROWS = 10000;
 
-    private final TableView<ObservableList<Object>> tableView;
-    private ResultTablePagination<ObservableList<Object>> paginatedView;
+    private final TableView<ResultRow> tableView;
+    private ResultTablePagination<ResultRow> paginatedView;
+    private volatile ResultStream activeStream;
+    // Bumped by every new or cancelled load; a load only publishes while it is the latest
+    private final AtomicLong loadGeneration = new AtomicLong();
 
-    public TableInteractionService(TableView<ObservableList<Object>> tv) {
+    public TableInteractionService(TableView<ResultRow> tv) {
         this.tableView = tv;
     }
 
     /**
      * Sets a paginated view wrapper for the table.
      */
-    public void setPaginatedView(ResultTablePagination<ObservableList<Object>> paginatedView) {
+    public void setPaginatedView(ResultTablePagination<ResultRow> paginatedView) {
         this.paginatedView = paginatedView;
     }
 
@@ -95,7 +102,8 @@ public class TableInteractionService {
      */
     public void loadDataInTableView(DatabaseConnection connection, String query) {
         // Validate query
-        SQLSanitizer.ValidationResult validation = SQLSanitizer.validateQuery(query, false);
+        Dialect dialect = connection != null ? connection.getDialect() : Dialect.UNKNOWN;
+        SQLSanitizer.ValidationResult validation = SQLSanitizer.validateQuery(query, dialect, false);
         if (!validation.isValid()) {
             logger.warning("Invalid query: " + validation.getMessage());
             Platform.runLater(() -> {
@@ -124,52 +132,43 @@ public class TableInteractionService {
     }
 
     private void loadDataAsync(DatabaseConnection connection, String query, String sourceName) {
-        CompletableFuture.supplyAsync(() -> {
-            try {
-                ResultSet rs = connection.executeReadQuery(query);
-                if (rs == null) {
-                    logger.warning("No data found from: " + sourceName);
-                    return null;
-                }
-
-                // Extract data directly from ResultSet
-                List<String> columns = new ArrayList<>();
-                List<ObservableList<Object>> rows = new ArrayList<>();
-
-                ResultSetMetaData metaData = rs.getMetaData();
-                int columnCount = metaData.getColumnCount();
-
-                // Get column names
-                for (int i = 1; i <= columnCount; i++) {
-                    String colName = metaData.getColumnLabel(i);
-                    if (colName == null || colName.isEmpty()) {
-                        colName = metaData.getColumnName(i);
-                    }
-                    columns.add(colName);
-                }
+        cancelLoading();
+        long generation = loadGeneration.incrementAndGet();
 
-                // Get row data
-                while (rs.next()) {
-                    ObservableList<Object> row = FXCollections.observableArrayList();
-                    for (int i = 1; i <= columnCount; i++) {
-                        Object value = rs.getObject(i);
-                        row.add(value != null ? value : "[NULL]");
-                    }
-                    rows.add(row);
+        CompletableFuture.runAsync(() -> {
+            try {
+                ResultStream stream;
+                try (ConnectionLease lease = ConnectionPool.lease(connection)) {
+                    stream = lease.connection().executeStreamingQuery(query, 0, rs -> {
+                        // Show rows as they arrive instead of after the whole result is read
+                        ResultStream s = new ResultStream(rs, Integer.MAX_VALUE);
+                        if (generation == loadGeneration.get()) {
+                            activeStream = s;
+                        } else {
+                            // Superseded while the query was still executing
+                            s.cancel();
+                        }
+                        try {
+                            s.fetch(new TablePublisher(s, generation));
+                        } finally {
+                            if (activeStream == s) {
+                                activeStream = null;
+                            }
+                        }
+                        return s;
+                    });
                 }
-
-                rs.close();
-                return new TableData(columns, rows);
+                logger.fine(String.format("Loaded %d rows from %s in %d ms",
+                        stream.getRowCount(), sourceName, stream.getElapsedMillis()));
 
             } catch (SQLException e) {
                 throw new RuntimeException("Failed to execute query: " + e.getMessage(), e);
             }
-        }).thenAcceptAsync(tableData -> {
-            if (tableData != null) {
-                updateTableView(tableData);
-            }
-        }, Platform::runLater).exceptionally(throwable -> {
+        }).exceptionally(throwable -> {
             logger.log(Level.SEVERE, "Failed to load data", throwable);
+            if (generation != loadGeneration.get()) {
+                return null;
+            }
 
             Platform.runLater(() -> {
                 Throwable cause = throwable.getCause() != null ? throwable.getCause() : throwable;
@@ -186,34 +185,36 @@ public class TableInteractionService {
         });
     }
 
-    private void updateTableView(TableData tableData) {
+    /**
+     * Stops the current load. Rows already shown are kept; a load whose query is still executing
+     * shows nothing.
+     */
+    public void cancelLoading() {
+        loadGeneration.incrementAndGet();
+        ResultStream stream = activeStream;
+        if (stream != null) {
+            stream.cancel();
+        }
+    }
+
+    private void setupColumns(ResultBuffer buffer) {
         tableView.getColumns().clear();
         tableView.getItems().clear();
 
         // Create columns dynamically
-        for (int i = 0; i < tableData.columns.size(); i++) {
+        for (int i = 0; i < buffer.getColumnCount(); i++) {
             final int colIndex = i;
-            TableColumn<ObservableList<Object>, Object> column =
-                    new TableColumn<>(tableData.columns.get(i));
+            TableColumn<ResultRow, Object> column =
+                    new TableColumn<>(buffer.getColumnName(i));
 
             column.setCellValueFactory(param -> {
-                ObservableList<Object> row = param.getValue();
-                if (colIndex < row.size()) {
-                    return new javafx.beans.property.SimpleObjectProperty<>(row.get(colIndex));
-                }
-                return new javafx.beans.property.SimpleObjectProperty<>(null);
+                Object value = param.getValue().get(colIndex);
+                return new javafx.beans.property.SimpleObjectProperty<>(value != null ? value : "[NULL]");
             });
 
             column.setMinWidth(80);
             tableView.getColumns().add(column);
         }
-
-        // Use pagination if available
-        if (paginatedView != null) {
-            paginatedView.setData(tableData.rows);
-        } else {
-            tableView.setItems(FXCollections.observableArrayList(tableData.rows));
-        }
     }
 
     /**
@@ -258,14 +259,41 @@ public class TableInteractionService {
         });
     }
 
-    // Helper class to hold table data
-    private static class TableData {
-        final List<String> columns;
-        final List<ObservableList<Object>> rows;
+    /**
+     * Builds the columns on the first batch and appends later batches.
+     */
+    private class TablePublisher extends StreamingResultPublisher {
+        private final long generation;
+        private boolean started;
 
-        TableData(List<String> columns, List<ObservableList<Object>> rows) {
-            this.columns = columns;
-            this.rows = rows;
+        TablePublisher(ResultStream stream, long generation) {
+            super(stream);
+            this.generation = generation;
+        }
+
+        @Override
+        protected void publish(List<ResultRow> newRows, boolean done) {
+            // A superseded load must not mix its rows into the new one
+            if (generation != loadGeneration.get() || getStream().isCancelled()) {
+                return;
+            }
+            if (!started) {
+                started = true;
+                setupColumns(getStream().getBuffer());
+
+                // Use pagination if available
+                if (paginatedView != null) {
+                    paginatedView.setData(newRows);
+                } else {
+                    tableView.setItems(FXCollections.observableArrayList(newRows));
+                }
+            } else if (!newRows.isEmpty()) {
+                if (paginatedView != null) {
+                    paginatedView.addData(newRows);
+                } else {
+                    tableView.getItems().addAll(newRows);
+                }
+            }
         }
     }
-}
\ No newline at end of file
+}
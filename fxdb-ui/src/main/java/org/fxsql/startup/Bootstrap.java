@@ -0,0 +1,330 @@
+package org.fxsql.startup;
+
+import javafx.application.Platform;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Runs application startup in three phases and times every step:
+ * <ol>
+ *     <li>{@link Phase#CRITICAL} steps run immediately; everything needed for the first frame.</li>
+ *     <li>{@link Phase#DEFERRED} steps start once the main window is shown, on the JavaFX thread
+ *     or in the background.</li>
+ *     <li>{@link Phase#IDLE} steps start shortly after the deferred ones finish, one at a time on
+ *     a low-priority thread. They warm up things that are not needed yet.</li>
+ * </ol>
+ * Each step is recorded as a {@code org.fxsql.StartupStep} JFR event and kept for the startup
+ * report, so cold and warm starts can be compared step by step.
+ */
+public final class Bootstrap {
+
+    private static final Logger logger = Logger.getLogger(Bootstrap.class.getName());
+    // Pause between the last deferred step and the first idle step, so the UI settles first
+    private static final long IDLE_DELAY_MILLIS = 1500;
+    private static final Bootstrap instance = new Bootstrap();
+
+    /**
+     * A startup phase.
+     */
+    public enum Phase {
+        CRITICAL("Critical path"),
+        DEFERRED("Deferred"),
+        IDLE("Idle");
+
+        private final String label;
+
+        Phase(String label) {
+            this.label = label;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+    }
+
+    /**
+     * A completed step.
+     *
+     * @param depth       How many steps enclose this one on the same thread
+     * @param startMillis When the step started, in milliseconds after JVM start
+     */
+    public record Step(Phase phase, String name, String thread, int depth, double startMillis,
+                       double durationMillis, boolean failed) {
+    }
+
+    private record PendingStep(Phase phase, String name, boolean fxThread, Runnable action) {
+    }
+
+    // System.nanoTime() at JVM start, so step times line up with JFR and process timings
+    private final long originNanos = System.nanoTime()
+            - TimeUnit.MILLISECONDS.toNanos(ManagementFactory.getRuntimeMXBean().getUptime());
+    private final List<Step> steps = new CopyOnWriteArrayList<>();
+    private final ThreadLocal<int[]> depth = ThreadLocal.withInitial(() -> new int[1]);
+
+    private final ExecutorService deferredExecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "Bootstrap-Deferred");
+        t.setDaemon(true);
+        return t;
+    });
+    private final ScheduledExecutorService idleExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "Bootstrap-Idle");
+        t.setDaemon(true);
+        t.setPriority(Thread.MIN_PRIORITY);
+        return t;
+    });
+
+    private final Object lock = new Object();
+    private final List<PendingStep> deferredSteps = new ArrayList<>();
+    private final List<PendingStep> idleSteps = new ArrayList<>();
+    private boolean deferredStarted;
+    private boolean idleStarted;
+    private int pendingDeferred;
+    private StartupPhaseEvent deferredEvent;
+
+    private volatile double firstFrameMillis = -1;
+    private volatile double deferredDoneMillis = -1;
+    private volatile double idleDoneMillis = -1;
+
+    private Bootstrap() {
+    }
+
+    public static Bootstrap get() {
+        return instance;
+    }
+
+    /**
+     * Runs a critical-path step now, on the calling thread.
+     */
+    public void critical(String name, Runnable step) {
+        execute(Phase.CRITICAL, name, step);
+    }
+
+    /**
+     * Runs a critical-path step now, on the calling thread, and returns its result.
+     */
+    public <T> T critical(String name, Callable<T> step) throws Exception {
+        Object[] result = new Object[1];
+        Exception[] failure = new Exception[1];
+        try {
+            execute(Phase.CRITICAL, name, () -> {
+                try {
+                    result[0] = step.call();
+                } catch (Exception e) {
+                    failure[0] = e;
+                    throw new StepFailedException();
+                }
+            });
+        } catch (StepFailedException e) {
+            throw failure[0];
+        }
+        @SuppressWarnings("unchecked")
+        T value = (T) result[0];
+        return value;
+    }
+
+    /**
+     * Runs a step on the JavaFX thread once the main window is shown. Each deferred step gets a
+     * pulse of its own, so the window keeps painting in between.
+     */
+    public void defer(String name, Runnable step) {
+        schedule(new PendingStep(Phase.DEFERRED, name, true, step));
+    }
+
+    /**
+     * Runs a step on a background thread once the main window is shown.
+     */
+    public void deferInBackground(String name, Runnable step) {
+        schedule(new PendingStep(Phase.DEFERRED, name, false, step));
+    }
+
+    /**
+     * Runs a step on a low-priority background thread once the deferred steps are done.
+     */
+    public void whenIdle(String name, Runnable step) {
+        schedule(new PendingStep(Phase.IDLE, name, false, step));
+    }
+
+    /**
+     * Ends the critical path and starts the deferred steps. Called once the main window is shown;
+     * later calls do nothing.
+     */
+    public void firstFrameShown() {
+        synchronized (lock) {
+            if (deferredStarted) {
+                return;
+            }
+            deferredStarted = true;
+            firstFrameMillis = sinceJvmStart(System.nanoTime());
+            commitPhase(new StartupPhaseEvent(), Phase.CRITICAL, firstFrameMillis);
+            logger.info(String.format("First frame shown %.0f ms after JVM start", firstFrameMillis));
+
+            deferredEvent = new StartupPhaseEvent();
+            deferredEvent.begin();
+            pendingDeferred = deferredSteps.size();
+            for (PendingStep step : deferredSteps) {
+                submit(step);
+            }
+            deferredSteps.clear();
+            if (pendingDeferred == 0) {
+                startIdle();
+            }
+        }
+    }
+
+    /**
+     * Returns the steps completed so far, in completion order.
+     */
+    public List<Step> getSteps() {
+        return List.copyOf(steps);
+    }
+
+    /**
+     * Returns when the main window was first shown, in milliseconds after JVM start, or -1.
+     */
+    public double getFirstFrameMillis() {
+        return firstFrameMillis;
+    }
+
+    /**
+     * Returns when the last deferred step finished, in milliseconds after JVM start, or -1.
+     */
+    public double getDeferredDoneMillis() {
+        return deferredDoneMillis;
+    }
+
+    /**
+     * Returns when the last idle step finished, in milliseconds after JVM start, or -1.
+     */
+    public double getIdleDoneMillis() {
+        return idleDoneMillis;
+    }
+
+    private void schedule(PendingStep step) {
+        synchronized (lock) {
+            if (step.phase() == Phase.IDLE) {
+                if (idleStarted) {
+                    idleExecutor.execute(() -> execute(step));
+                } else {
+                    idleSteps.add(step);
+                }
+            } else if (deferredStarted) {
+                if (!idleStarted) {
+                    pendingDeferred++;
+                }
+                submit(step);
+            } else {
+                deferredSteps.add(step);
+            }
+        }
+    }
+
+    private void submit(PendingStep step) {
+        Runnable task = () -> {
+            try {
+                execute(step);
+            } finally {
+                deferredStepDone();
+            }
+        };
+        if (step.fxThread()) {
+            Platform.runLater(task);
+        } else {
+            deferredExecutor.execute(task);
+        }
+    }
+
+    private void deferredStepDone() {
+        synchronized (lock) {
+            if (!idleStarted && --pendingDeferred == 0) {
+                startIdle();
+            }
+        }
+    }
+
+    private void startIdle() {
+        idleStarted = true;
+        deferredDoneMillis = sinceJvmStart(System.nanoTime());
+        if (deferredEvent != null) {
+            commitPhase(deferredEvent, Phase.DEFERRED, deferredDoneMillis);
+        }
+
+        StartupPhaseEvent idleEvent = new StartupPhaseEvent();
+        idleEvent.begin();
+        for (PendingStep step : idleSteps) {
+            idleExecutor.schedule(() -> execute(step), IDLE_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+        }
+        idleSteps.clear();
+        // The executor is single-threaded, so this runs after the steps queued above
+        idleExecutor.schedule(() -> {
+            idleDoneMillis = sinceJvmStart(System.nanoTime());
+            commitPhase(idleEvent, Phase.IDLE, idleDoneMillis);
+            logger.info(String.format("Startup finished %.0f ms after JVM start (first frame at %.0f ms)",
+                    idleDoneMillis, firstFrameMillis));
+        }, IDLE_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    private void execute(PendingStep step) {
+        try {
+            execute(step.phase(), step.name(), step.action());
+        } catch (RuntimeException | LinkageError e) {
+            // Deferred and idle steps must not take the rest of startup down with them
+            logger.log(Level.WARNING, "Startup step '" + step.name() + "' failed", e);
+        }
+    }
+
+    private void execute(Phase phase, String name, Runnable action) {
+        int[] nesting = depth.get();
+        int level = nesting[0]++;
+        StartupStepEvent event = new StartupStepEvent();
+        event.begin();
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            action.run();
+            failed = false;
+        } finally {
+            long end = System.nanoTime();
+            nesting[0]--;
+            if (event.shouldCommit()) {
+                event.phase = phase.getLabel();
+                event.step = name;
+                event.failed = failed;
+                event.commit();
+            }
+            steps.add(new Step(phase, name, Thread.currentThread().getName(), level,
+                    sinceJvmStart(start), (end - start) / 1_000_000.0, failed));
+            logger.fine(String.format("%s step '%s' took %.1f ms", phase.getLabel(), name, (end - start) / 1_000_000.0));
+        }
+    }
+
+    private static void commitPhase(StartupPhaseEvent event, Phase phase, double endedAfterMillis) {
+        if (event.shouldCommit()) {
+            event.phase = phase.getLabel();
+            event.endedAfter = Math.round(endedAfterMillis);
+            event.commit();
+        }
+    }
+
+    private double sinceJvmStart(long nanos) {
+        return (nanos - originNanos) / 1_000_000.0;
+    }
+
+    /**
+     * Carries a checked exception of a {@link Callable} step out of {@link #execute}.
+     */
+    private static final class StepFailedException extends RuntimeException {
+        StepFailedException() {
+            super(null, null, false, false);
+        }
+    }
+}
@@ -0,0 +1,252 @@
+package org.fxsql.startup;
+
+import org.fxsql.config.AppPaths;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Properties;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A dynamic AppCDS archive of the classes FXDB loads at startup, so later launches map them
+ * from the archive instead of loading and verifying them from the JAR.
+ * <p>
+ * The archive is specific to the application JAR and the JVM. Its file name carries a hash of
+ * both, so a new build or a JDK update leads to a new archive and old ones are removed. The JAR
+ * is only hashed again when its size or modification time changes.
+ * <p>
+ * Controlled with {@code -Dfxdb.cds}:
+ * <ul>
+ *     <li>{@code auto} (default) - use the archive if there is one, otherwise create it when the app exits</li>
+ *     <li>{@code train} - run a training launch that exits once startup is complete and writes a new archive</li>
+ *     <li>{@code off} - never use or create an archive</li>
+ * </ul>
+ * The archive only takes effect from the JVM's command line, so {@link org.fxsql.Launcher}
+ * starts the application in a child JVM with the options from {@link #jvmOptions()}.
+ */
+public final class CdsArchive {
+
+    private static final Logger logger = Logger.getLogger(CdsArchive.class.getName());
+
+    public static final String MODE_PROPERTY = "fxdb.cds";
+    /** Set on the child JVM of a training launch. */
+    public static final String TRAINING_PROPERTY = "fxdb.cds.training";
+    /** Set on the child JVM, so it does not relaunch again. */
+    public static final String RELAUNCHED_PROPERTY = "fxdb.cds.relaunched";
+
+    private static final String CDS_DIR = "cds";
+    private static final String ARCHIVE_PREFIX = "fxdb-";
+    private static final String ARCHIVE_SUFFIX = ".jsa";
+    private static final String HASH_FILE = "jar-hash.properties";
+
+    private final Path jar;
+    private final Path dir;
+    private final boolean training;
+    private final Path archive;
+    // Decided once, so the relaunch and the clean-up after it agree
+    private final boolean creating;
+
+    private CdsArchive(Path jar, Path dir, boolean training) throws IOException {
+        this.jar = jar;
+        this.dir = dir;
+        this.training = training;
+        this.archive = dir.resolve(ARCHIVE_PREFIX + archiveKey() + ARCHIVE_SUFFIX);
+        this.creating = training || !Files.isRegularFile(archive);
+    }
+
+    /**
+     * Returns the archive for this launch, or null if this launch should not relaunch with one:
+     * CDS is off, the app does not run from a single JAR, or this JVM is already the relaunched one.
+     */
+    public static CdsArchive forLaunch() {
+        String mode = System.getProperty(MODE_PROPERTY, "auto");
+        if ("off".equals(mode) || Boolean.getBoolean(RELAUNCHED_PROPERTY) || usesArchive()) {
+            return null;
+        }
+        String classPath = System.getProperty("java.class.path", "");
+        if (!classPath.toLowerCase().endsWith(".jar") || classPath.contains(File.pathSeparator)) {
+            // Running from an IDE or exploded classes; nothing stable to archive against
+            return null;
+        }
+        Path bin = Path.of(System.getProperty("java.home"), "bin");
+        if (!Files.isExecutable(bin.resolve("java")) && !Files.isExecutable(bin.resolve("java.exe"))) {
+            // Runtime images made by jpackage have no java command to relaunch with
+            return null;
+        }
+        try {
+            Path jar = Path.of(classPath).toAbsolutePath().normalize();
+            return new CdsArchive(jar, AppPaths.getDir(CDS_DIR).toPath(), "train".equals(mode));
+        } catch (IOException | RuntimeException e) {
+            logger.log(Level.WARNING, "Class data sharing disabled: " + e.getMessage(), e);
+            return null;
+        }
+    }
+
+    /**
+     * Returns whether this JVM is the child of a training launch and should exit once startup is complete.
+     */
+    public static boolean isTraining() {
+        return Boolean.getBoolean(TRAINING_PROPERTY);
+    }
+
+    /**
+     * Returns whether this JVM was started with a dynamic archive option.
+     */
+    private static boolean usesArchive() {
+        for (String argument : ManagementFactory.getRuntimeMXBean().getInputArguments()) {
+            if (isArchiveOption(argument)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns whether a JVM option selects or creates a CDS archive.
+     */
+    public static boolean isArchiveOption(String argument) {
+        return argument.startsWith("-XX:SharedArchiveFile") || argument.startsWith("-XX:ArchiveClassesAtExit");
+    }
+
+    public Path getArchive() {
+        return archive;
+    }
+
+    /**
+     * Returns whether the child JVM creates the archive rather than using it.
+     */
+    public boolean isCreating() {
+        return creating;
+    }
+
+    /**
+     * Returns the options for the child JVM: use the archive if it exists, otherwise write it at exit.
+     */
+    public List<String> jvmOptions() {
+        // A mismatched or unreadable archive is not an error; keep the JVM from printing warnings about it
+        List<String> quiet = List.of("-Xlog:cds=off", "-Xlog:cds+dynamic=off");
+        if (!isCreating()) {
+            return concat(quiet, "-XX:SharedArchiveFile=" + archive, "-D" + RELAUNCHED_PROPERTY + "=true");
+        }
+        List<String> options = concat(quiet, "-XX:ArchiveClassesAtExit=" + partFile(), "-D" + RELAUNCHED_PROPERTY + "=true");
+        return training ? concat(options, "-D" + TRAINING_PROPERTY + "=true") : options;
+    }
+
+    /**
+     * Moves an archive written by the child JVM into place and removes archives of older builds.
+     *
+     * @param exitCode The child JVM's exit code; an archive from a failed run is discarded
+     */
+    public void afterRun(int exitCode) {
+        if (!isCreating()) {
+            return;
+        }
+        Path part = partFile();
+        try {
+            if (exitCode != 0 || !Files.isRegularFile(part) || Files.size(part) == 0) {
+                Files.deleteIfExists(part);
+                return;
+            }
+            Files.move(part, archive, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            deleteStaleArchives();
+            logger.info("Created class data sharing archive " + archive);
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Failed to store class data sharing archive " + archive, e);
+        }
+    }
+
+    private Path partFile() {
+        return archive.resolveSibling(archive.getFileName() + ".part");
+    }
+
+    private void deleteStaleArchives() throws IOException {
+        try (DirectoryStream<Path> archives = Files.newDirectoryStream(dir, ARCHIVE_PREFIX + "*" + ARCHIVE_SUFFIX)) {
+            for (Path other : archives) {
+                if (!other.equals(archive)) {
+                    Files.deleteIfExists(other);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns a short key for the JAR's content and the JVM that will map the archive.
+     */
+    private String archiveKey() throws IOException {
+        MessageDigest digest = sha256();
+        digest.update(jarHash().getBytes(StandardCharsets.UTF_8));
+        digest.update(System.getProperty("java.vm.version", "").getBytes(StandardCharsets.UTF_8));
+        digest.update(System.getProperty("java.home", "").getBytes(StandardCharsets.UTF_8));
+        return HexFormat.of().formatHex(digest.digest()).substring(0, 16);
+    }
+
+    /**
+     * Returns the JAR's SHA-256, hashing it only if it changed since it was last hashed.
+     */
+    private String jarHash() throws IOException {
+        BasicFileAttributes attributes = Files.readAttributes(jar, BasicFileAttributes.class);
+        String size = Long.toString(attributes.size());
+        String modified = Long.toString(attributes.lastModifiedTime().toMillis());
+
+        Path hashFile = dir.resolve(HASH_FILE);
+        Properties known = new Properties();
+        if (Files.isRegularFile(hashFile)) {
+            try (InputStream in = Files.newInputStream(hashFile)) {
+                known.load(in);
+            }
+            if (jar.toString().equals(known.getProperty("path")) && size.equals(known.getProperty("size"))
+                    && modified.equals(known.getProperty("modified")) && known.getProperty("sha256") != null) {
+                return known.getProperty("sha256");
+            }
+        }
+
+        MessageDigest digest = sha256();
+        byte[] buffer = new byte[64 * 1024];
+        try (InputStream in = Files.newInputStream(jar)) {
+            int read;
+            while ((read = in.read(buffer)) > 0) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        String hash = HexFormat.of().formatHex(digest.digest());
+
+        Properties updated = new Properties();
+        updated.setProperty("path", jar.toString());
+        updated.setProperty("size", size);
+        updated.setProperty("modified", modified);
+        updated.setProperty("sha256", hash);
+        try (OutputStream out = Files.newOutputStream(hashFile)) {
+            updated.store(out, "Hash of the FXDB JAR the class data sharing archive was created for");
+        }
+        return hash;
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static List<String> concat(List<String> options, String... more) {
+        List<String> all = new ArrayList<>(options);
+        all.addAll(List.of(more));
+        return all;
+    }
+}
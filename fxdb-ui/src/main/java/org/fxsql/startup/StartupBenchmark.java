@@ -0,0 +1,151 @@
+package org.fxsql.startup;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the time from launching the shaded JAR to the main window being shown, with and
+ * without the class data sharing archive. Each launch exits as soon as the first frame is shown.
+ * <p>
+ * Usage: {@code java -cp fxdb-ui-shaded.jar org.fxsql.startup.StartupBenchmark <jar> [runs]}.
+ * Needs a display. One untimed launch per variant warms the file system cache, so the numbers
+ * are warm starts; see docs/BENCHMARKING.md for cold starts.
+ */
+public final class StartupBenchmark {
+
+    private static final String BENCHMARK_PROPERTY = "fxdb.startup.benchmark";
+    private static final String FIRST_FRAME_MARKER = "fxdb.firstFrame=";
+    private static final long LAUNCH_TIMEOUT_SECONDS = 120;
+
+    /**
+     * Time to first frame of one launch.
+     *
+     * @param wallMillis       From starting the process, including a relaunch by the launcher
+     * @param sinceJvmStartMillis From the start of the JVM that showed the window
+     */
+    private record Launch(double wallMillis, double sinceJvmStartMillis) {
+    }
+
+    private StartupBenchmark() {
+    }
+
+    /**
+     * Returns whether this JVM was started by the benchmark and should exit after the first frame.
+     */
+    public static boolean isBenchmarkRun() {
+        return Boolean.getBoolean(BENCHMARK_PROPERTY);
+    }
+
+    /**
+     * Reports the time to first frame to the benchmark reading this JVM's output.
+     */
+    public static void reportFirstFrame(double millisSinceJvmStart) {
+        System.out.println(FIRST_FRAME_MARKER + millisSinceJvmStart);
+        System.out.flush();
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.err.println("Usage: StartupBenchmark <fxdb-ui-shaded.jar> [runs]");
+            System.exit(2);
+            return;
+        }
+        Path jar = Path.of(args[0]).toAbsolutePath();
+        int runs = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        if (!Files.isRegularFile(jar)) {
+            System.err.println("No such JAR: " + jar);
+            System.exit(2);
+            return;
+        }
+
+        System.out.println("Creating the class data sharing archive with a training launch...");
+        int exitCode = start(jar, "train", false).waitFor();
+        if (exitCode != 0) {
+            System.err.println("Training launch failed with exit code " + exitCode);
+            System.exit(1);
+            return;
+        }
+
+        List<Launch> withoutArchive = measure(jar, "off", runs);
+        List<Launch> withArchive = measure(jar, "auto", runs);
+
+        System.out.println();
+        System.out.printf("Time to main window shown, median of %d warm starts%n", runs);
+        System.out.printf("%-18s %14s %18s%n", "", "wall (ms)", "since JVM start (ms)");
+        print("Without archive", withoutArchive);
+        print("With archive", withArchive);
+        double speedup = median(withoutArchive, true) / median(withArchive, true);
+        System.out.printf("%nWall time speedup with the archive: %.2fx%n", speedup);
+    }
+
+    private static List<Launch> measure(Path jar, String cdsMode, int runs) throws IOException, InterruptedException {
+        System.out.println("Measuring with -Dfxdb.cds=" + cdsMode + "...");
+        launch(jar, cdsMode);
+        List<Launch> launches = new ArrayList<>();
+        for (int i = 0; i < runs; i++) {
+            Launch launch = launch(jar, cdsMode);
+            System.out.printf("  run %d: %.0f ms%n", i + 1, launch.wallMillis());
+            launches.add(launch);
+        }
+        return launches;
+    }
+
+    private static Launch launch(Path jar, String cdsMode) throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        Process process = start(jar, cdsMode, true);
+        Launch launch = null;
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (launch == null && line.startsWith(FIRST_FRAME_MARKER)) {
+                    double wall = (System.nanoTime() - start) / 1_000_000.0;
+                    launch = new Launch(wall, Double.parseDouble(line.substring(FIRST_FRAME_MARKER.length())));
+                }
+            }
+        }
+        if (!process.waitFor(LAUNCH_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+            process.destroyForcibly();
+        }
+        if (launch == null) {
+            throw new IOException("Launch with -Dfxdb.cds=" + cdsMode + " exited without showing the main window");
+        }
+        return launch;
+    }
+
+    private static Process start(Path jar, String cdsMode, boolean exitAfterFirstFrame) throws IOException {
+        String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+        List<String> command = new ArrayList<>(List.of(java, "-D" + CdsArchive.MODE_PROPERTY + "=" + cdsMode));
+        if (exitAfterFirstFrame) {
+            command.add("-D" + BENCHMARK_PROPERTY + "=true");
+        }
+        command.add("-jar");
+        command.add(jar.toString());
+        ProcessBuilder builder = new ProcessBuilder(command).redirectErrorStream(true);
+        if (!exitAfterFirstFrame) {
+            builder.inheritIO();
+        }
+        return builder.start();
+    }
+
+    private static void print(String label, List<Launch> launches) {
+        System.out.printf("%-18s %14.0f %18.0f%n", label, median(launches, true), median(launches, false));
+    }
+
+    private static double median(List<Launch> launches, boolean wall) {
+        double[] values = launches.stream()
+                .mapToDouble(launch -> wall ? launch.wallMillis() : launch.sinceJvmStartMillis())
+                .sorted()
+                .toArray();
+        int middle = values.length / 2;
+        return values.length % 2 == 1 ? values[middle] : (values[middle - 1] + values[middle]) / 2;
+    }
+}
@@ -0,0 +1,28 @@
+package org.fxsql.startup;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * JFR event committed when a bootstrap phase completes. The critical path ends when the main
+ * window is first shown, so its end is the time to first frame.
+ */
+@Name("org.fxsql.StartupPhase")
+@Label("Startup Phase")
+@Category({"FXDB", "Startup"})
+@Description("Completion of an FXDB bootstrap phase")
+@StackTrace(false)
+class StartupPhaseEvent extends Event {
+
+    @Label("Phase")
+    String phase;
+
+    @Label("Ended After JVM Start")
+    @Timespan(Timespan.MILLISECONDS)
+    long endedAfter;
+}
@@ -0,0 +1,29 @@
+package org.fxsql.startup;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event for one timed step of the application bootstrap. Recorded with
+ * {@code -XX:StartFlightRecording} and shown in JDK Mission Control under FXDB / Startup.
+ */
+@Name("org.fxsql.StartupStep")
+@Label("Startup Step")
+@Category({"FXDB", "Startup"})
+@Description("A step of the FXDB bootstrap and the phase it ran in")
+@StackTrace(false)
+class StartupStepEvent extends Event {
+
+    @Label("Phase")
+    String phase;
+
+    @Label("Step")
+    String step;
+
+    @Label("Failed")
+    boolean failed;
+}
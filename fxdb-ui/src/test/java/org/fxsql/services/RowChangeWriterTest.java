@@ -0,0 +1,132 @@
+package org.fxsql.services;
+
+import javafx.collections.FXCollections;
+import org.fxsql.model.RowChange;
+import org.fxsql.model.RowChange.ChangeType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RowChangeWriterTest {
+
+    private static final List<String> COLUMNS = List.of("id", "name");
+    private static final List<Integer> TYPES = List.of(Types.INTEGER, Types.VARCHAR);
+
+    private Connection connection;
+
+    @BeforeEach
+    void connect() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:sqlite::memory:");
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute("CREATE TABLE people (id INTEGER PRIMARY KEY, name TEXT)");
+            stmt.execute("CREATE TABLE tags (id INTEGER, name TEXT)");
+            stmt.execute("INSERT INTO people VALUES (1, 'ann'), (2, 'bob'), (3, 'cy')");
+            stmt.execute("INSERT INTO tags VALUES (1, 'a'), (1, 'a'), (2, 'b')");
+        }
+    }
+
+    @AfterEach
+    void disconnect() throws SQLException {
+        connection.close();
+    }
+
+    private static RowChange change(ChangeType type, String table, int keyIndex, Object id, Object name) {
+        return new RowChange(type, table, FXCollections.observableArrayList(id, name),
+                FXCollections.observableArrayList(id, name), COLUMNS, keyIndex);
+    }
+
+    private static RowChange rename(String table, int keyIndex, Object id, Object name, String newName) {
+        RowChange change = change(ChangeType.UPDATE, table, keyIndex, id, name);
+        change.addColumnChange(1, newName);
+        return change;
+    }
+
+    private List<String> rows(String table) throws SQLException {
+        List<String> rows = new ArrayList<>();
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT id, name FROM " + table + " ORDER BY id, name")) {
+            while (rs.next()) {
+                rows.add(rs.getInt(1) + ":" + rs.getString(2));
+            }
+        }
+        return rows;
+    }
+
+    @Test
+    void savesDeletesUpdatesAndInsertsTogether() throws SQLException {
+        RowChangeWriter writer = new RowChangeWriter(connection, TYPES);
+        RowChangeWriter.SaveResult result = writer.save(List.of(
+                rename("people", 0, 1, "ann", "anna"),
+                rename("people", 0, 2, "bob", "rob"),
+                change(ChangeType.DELETE, "people", 0, 3, "cy"),
+                // Reuses the deleted key, which works because deletes run first
+                change(ChangeType.INSERT, "people", 0, 3, "dee")));
+
+        assertTrue(result.isSuccess());
+        assertEquals(4, result.getSavedCount());
+        assertEquals(List.of("1:anna", "2:rob", "3:dee"), rows("people"));
+        assertTrue(connection.getAutoCommit());
+    }
+
+    @Test
+    void rowThatNoLongerExistsRollsBackEverything() throws SQLException {
+        RowChangeWriter writer = new RowChangeWriter(connection, TYPES);
+        RowChangeWriter.SaveResult result = writer.save(List.of(
+                rename("people", 0, 1, "ann", "anna"),
+                rename("people", 0, 9, "zed", "zoe")));
+
+        assertFalse(result.isSuccess());
+        assertEquals(1, result.getErrors().size());
+        assertEquals(List.of("1:ann", "2:bob", "3:cy"), rows("people"));
+    }
+
+    @Test
+    void updateMatchingSeveralRowsRollsBack() throws SQLException {
+        RowChangeWriter writer = new RowChangeWriter(connection, TYPES);
+        RowChangeWriter.SaveResult result = writer.save(List.of(
+                rename("tags", -1, 2, "b", "c"),
+                rename("tags", -1, 1, "a", "x")));
+
+        assertFalse(result.isSuccess());
+        assertEquals(1, result.getErrors().size());
+        assertTrue(result.getErrors().get(0).message().startsWith("2 rows match"));
+        assertEquals(List.of("1:a", "1:a", "2:b"), rows("tags"));
+    }
+
+    @Test
+    void deleteMatchingSeveralRowsRollsBack() throws SQLException {
+        RowChangeWriter writer = new RowChangeWriter(connection, TYPES);
+        RowChangeWriter.SaveResult result = writer.save(List.of(change(ChangeType.DELETE, "tags", -1, 1, "a")));
+
+        assertFalse(result.isSuccess());
+        assertEquals(List.of("1:a", "1:a", "2:b"), rows("tags"));
+    }
+
+    @Test
+    void joinsTransactionAlreadyOpenWithSavepoint() throws SQLException {
+        connection.setAutoCommit(false);
+        try (Statement stmt = connection.createStatement()) {
+            stmt.executeUpdate("UPDATE people SET name = 'bo' WHERE id = 2");
+        }
+        RowChangeWriter writer = new RowChangeWriter(connection, TYPES);
+        assertFalse(writer.save(List.of(rename("tags", -1, 1, "a", "x"))).isSuccess());
+
+        // The failed save rolled back to its savepoint only, keeping the user's own change
+        assertFalse(connection.getAutoCommit());
+        assertEquals(List.of("1:ann", "2:bo", "3:cy"), rows("people"));
+        connection.rollback();
+    }
+}